@@ -17,17 +17,19 @@
 
 package org.apache.commons.configuration2;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.Stack;
 
 import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
@@ -552,6 +554,21 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
         return key;
     }
 
+    /**
+     * {@inheritDoc} This implementation returns <b>true</b> if this
+     * configuration uses a {@link DefaultExpressionEngine}. Keys of this
+     * engine consist of node names and indices only; so they are evaluated
+     * solely based on the children of the nodes on the path to the selected
+     * nodes.
+     *
+     * @since 2.8.0
+     */
+    @Override
+    public boolean isPathLocal()
+    {
+        return getExpressionEngine().getClass() == DefaultExpressionEngine.class;
+    }
+
     /**
      * Clears this configuration. This is a more efficient implementation than
      * the one inherited from the base class. It delegates to the node model.
@@ -618,42 +635,42 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     }
 
     /**
-     * {@inheritDoc} This implementation is slightly more efficient than the
-     * default implementation. It does not iterate over the key set, but
-     * directly queries its size after it has been constructed. Note that
-     * constructing the key set is still an O(n) operation.
+     * {@inheritDoc} This implementation counts the keys produced by the
+     * iterator returned by {@code getKeysInternal()}. The keys are not
+     * collected, but they have to be constructed nevertheless; so this is
+     * still an O(n) operation.
      */
     @Override
     protected int sizeInternal()
     {
-        return visitDefinedKeys().getKeyList().size();
+        int size = 0;
+        for (final Iterator<String> it = getKeysInternal(); it.hasNext(); it
+                .next())
+        {
+            size++;
+        }
+        return size;
     }
 
     /**
      * Returns an iterator with all keys defined in this configuration.
      * Note that the keys returned by this method will not contain any
-     * indices. This means that some structure will be lost.
+     * indices. This means that some structure will be lost. The iterator
+     * traverses the node structure lazily; a key is constructed only when it
+     * is requested. As the nodes of this configuration are immutable, the
+     * iterator operates on the structure at the time this method was called;
+     * later updates of this configuration are not visible.
      *
      * @return an iterator with the defined keys in this configuration
      */
     @Override
     protected Iterator<String> getKeysInternal()
     {
-        return visitDefinedKeys().getKeyList().iterator();
-    }
-
-    /**
-     * Creates a {@code DefinedKeysVisitor} and visits all defined keys with it.
-     *
-     * @return the visitor after all keys have been visited
-     */
-    private DefinedKeysVisitor visitDefinedKeys()
-    {
-        final DefinedKeysVisitor visitor = new DefinedKeysVisitor();
-        final NodeHandler<T> nodeHandler = getModel().getNodeHandler();
-        NodeTreeWalker.INSTANCE.walkDFS(nodeHandler.getRootNode(), visitor,
-                nodeHandler);
-        return visitor;
+        final NodeHandler<T> handler = getModel().getNodeHandler();
+        final DefinedKeysIterator<T> it = new DefinedKeysIterator<>(handler,
+                getExpressionEngine());
+        it.visitNode(handler.getRootNode(), null);
+        return it;
     }
 
     /**
@@ -661,8 +678,9 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
      * start with the given prefix. The returned keys will not contain any
      * indices. This implementation tries to locate a node whose key is the same
      * as the passed in prefix. Then the subtree of this node is traversed, and
-     * the keys of all nodes encountered (including attributes) are added to the
-     * result set.
+     * the keys of all nodes encountered (including attributes) are returned by
+     * the resulting iterator. As for {@link #getKeysInternal()}, the subtrees
+     * are traversed lazily.
      *
      * @param prefix the prefix of the keys to start with
      * @return an iterator with the found keys
@@ -670,29 +688,25 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     @Override
     protected Iterator<String> getKeysInternal(final String prefix)
     {
-        final DefinedKeysVisitor visitor = new DefinedKeysVisitor(prefix);
+        final DefinedKeysIterator<T> it = new DefinedKeysIterator<>(
+                getModel().getNodeHandler(), getExpressionEngine());
         if (containsKey(prefix))
         {
             // explicitly add the prefix
-            visitor.getKeyList().add(prefix);
+            it.addKey(prefix);
         }
 
         final List<QueryResult<T>> results = fetchNodeList(prefix);
-        final NodeHandler<T> handler = getModel().getNodeHandler();
-
-        for (final QueryResult<T> result : results)
+        for (int i = results.size() - 1; i >= 0; i--)
         {
+            final QueryResult<T> result = results.get(i);
             if (!result.isAttributeResult())
             {
-                for (final T c : handler.getChildren(result.getNode()))
-                {
-                    NodeTreeWalker.INSTANCE.walkDFS(c, visitor, handler);
-                }
-                visitor.handleAttributeKeys(prefix, result.getNode(), handler);
+                it.pushChildren(result.getNode(), prefix, true);
             }
         }
 
-        return visitor.getKeyList().iterator();
+        return it;
     }
 
     /**
@@ -880,90 +894,174 @@ public abstract class AbstractHierarchicalConfiguration<T> extends AbstractConfi
     }
 
     /**
-     * A specialized visitor that fills a list with keys that are defined in a
-     * node hierarchy.
+     * An iterator implementation that returns the keys defined in a node
+     * hierarchy. The hierarchy is traversed in depth-first order; but this
+     * happens lazily while the iterator is consumed. A stack holds the
+     * iterators over the children of the nodes on the current path together
+     * with their keys. The keys of a node (its own key if it has a value and
+     * the keys of its attributes) are constructed when the node is reached.
+     * Keys are returned only once.
+     *
+     * @param <T> the type of the nodes
      */
-    private class DefinedKeysVisitor extends
-            ConfigurationNodeVisitorAdapter<T>
+    private static final class DefinedKeysIterator<T> implements
+            Iterator<String>
     {
-        /** Stores the list to be filled. */
-        private final Set<String> keyList;
+        /** The handler for accessing nodes. */
+        private final NodeHandler<T> handler;
+
+        /** The expression engine for generating keys. */
+        private final ExpressionEngine engine;
 
-        /** A stack with the keys of the already processed nodes. */
-        private final Stack<String> parentKeys;
+        /** The stack with the levels of the current path. */
+        private final Deque<Level<T>> levels;
+
+        /** The keys of the current node which have not yet been returned. */
+        private final Deque<String> pendingKeys;
+
+        /** Stores the keys returned so far to avoid duplicates. */
+        private final Set<String> returnedKeys;
 
         /**
-         * Default constructor.
+         * Creates a new instance of {@code DefinedKeysIterator}.
+         *
+         * @param nodeHandler the {@code NodeHandler}
+         * @param expressionEngine the expression engine
          */
-        public DefinedKeysVisitor()
+        DefinedKeysIterator(final NodeHandler<T> nodeHandler,
+                final ExpressionEngine expressionEngine)
         {
-            keyList = new LinkedHashSet<>();
-            parentKeys = new Stack<>();
+            handler = nodeHandler;
+            engine = expressionEngine;
+            levels = new ArrayDeque<>();
+            pendingKeys = new ArrayDeque<>();
+            returnedKeys = new HashSet<>();
         }
 
         /**
-         * Creates a new {@code DefinedKeysVisitor} instance and sets the
-         * prefix for the keys to fetch.
+         * Adds a key to be returned by this iterator.
          *
-         * @param prefix the prefix
+         * @param key the key
          */
-        public DefinedKeysVisitor(final String prefix)
+        public void addKey(final String key)
         {
-            this();
-            parentKeys.push(prefix);
+            if (returnedKeys.add(key))
+            {
+                pendingKeys.addLast(key);
+            }
         }
 
         /**
-         * Returns the list with all defined keys.
+         * Visits the given node. Its keys are added to the pending keys, and
+         * its children are scheduled for processing.
          *
-         * @return the list with the defined keys
+         * @param node the node
+         * @param parentKey the key of the parent node
          */
-        public Set<String> getKeyList()
+        public void visitNode(final T node, final String parentKey)
         {
-            return keyList;
+            final String key = engine.nodeKey(node, parentKey, handler);
+            if (handler.getValue(node) != null)
+            {
+                addKey(key);
+            }
+            addAttributeKeys(node, key);
+            pushChildren(node, key, false);
         }
 
         /**
-         * {@inheritDoc} This implementation removes this
-         * node's key from the stack.
+         * Schedules the children of the given node for processing. Optionally,
+         * the keys of the attributes of this node are generated after all
+         * children have been processed.
+         *
+         * @param node the node
+         * @param key the key of this node
+         * @param attributesAfterChildren flag whether the attribute keys of
+         *        the node are to be generated after its children
          */
+        public void pushChildren(final T node, final String key,
+                final boolean attributesAfterChildren)
+        {
+            levels.push(new Level<>(handler.getChildren(node).iterator(), key,
+                    attributesAfterChildren ? node : null));
+        }
+
         @Override
-        public void visitAfterChildren(final T node, final NodeHandler<T> handler)
+        public boolean hasNext()
         {
-            parentKeys.pop();
+            while (pendingKeys.isEmpty() && !levels.isEmpty())
+            {
+                final Level<T> level = levels.peek();
+                if (level.children.hasNext())
+                {
+                    visitNode(level.children.next(), level.key);
+                }
+                else
+                {
+                    levels.pop();
+                    if (level.attributeNode != null)
+                    {
+                        addAttributeKeys(level.attributeNode, level.key);
+                    }
+                }
+            }
+            return !pendingKeys.isEmpty();
         }
 
-        /**
-         * {@inheritDoc} If this node has a value, its key is added
-         * to the internal list.
-         */
         @Override
-        public void visitBeforeChildren(final T node, final NodeHandler<T> handler)
+        public String next()
         {
-            final String parentKey = parentKeys.isEmpty() ? null
-                    : parentKeys.peek();
-            final String key = getExpressionEngine().nodeKey(node, parentKey, handler);
-            parentKeys.push(key);
-            if (handler.getValue(node) != null)
+            if (!hasNext())
             {
-                keyList.add(key);
+                throw new NoSuchElementException();
             }
-            handleAttributeKeys(key, node, handler);
+            return pendingKeys.removeFirst();
         }
 
         /**
-         * Appends all attribute keys of the current node.
+         * Adds the keys of the attributes of the given node.
          *
-         * @param parentKey the parent key
-         * @param node the current node
-         * @param handler the {@code NodeHandler}
+         * @param node the node
+         * @param key the key of this node
          */
-        public void handleAttributeKeys(final String parentKey, final T node,
-                final NodeHandler<T> handler)
+        private void addAttributeKeys(final T node, final String key)
         {
             for (final String attr : handler.getAttributes(node))
             {
-                keyList.add(getExpressionEngine().attributeKey(parentKey, attr));
+                addKey(engine.attributeKey(key, attr));
+            }
+        }
+
+        /**
+         * A data class representing a level of the node hierarchy processed by
+         * this iterator.
+         *
+         * @param <N> the type of the nodes
+         */
+        private static final class Level<N>
+        {
+            /** The iterator over the child nodes still to be processed. */
+            final Iterator<N> children;
+
+            /** The key of the parent node. */
+            final String key;
+
+            /** A node whose attributes are to be processed after the children. */
+            final N attributeNode;
+
+            /**
+             * Creates a new instance of {@code Level}.
+             *
+             * @param children the iterator over the child nodes
+             * @param key the key of the parent node
+             * @param attributeNode an optional node with attributes to process
+             */
+            Level(final Iterator<N> children, final String key,
+                    final N attributeNode)
+            {
+                this.children = children;
+                this.key = key;
+                this.attributeNode = attributeNode;
             }
         }
     }
@@ -20,13 +20,17 @@ package org.apache.commons.configuration2;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.ConfigurationLogger;
 import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.NodeHandler;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * <p>
@@ -38,11 +42,28 @@ import java.util.Map;
  * values. The class offers methods to transform such a map into a hierarchy
  * of {@link ImmutableNode} objects and vice versa.
  * </p>
+ * <p>
+ * If a map with a large number of top-level entries is loaded, the subtrees
+ * for these entries are independent of each other; they are therefore
+ * constructed in parallel using the common fork/join pool.
+ * </p>
  *
  * @since 2.2
  */
 public class AbstractYAMLBasedConfiguration extends BaseHierarchicalConfiguration
 {
+    /**
+     * The minimum number of top-level entries of a map for which the subtrees
+     * are constructed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * The number of top-level entries processed sequentially by a single
+     * fork/join task.
+     */
+    private static final int SUBTREE_BATCH_SIZE = 16;
+
     /**
      * Creates a new instance of {@code AbstractYAMLBasedConfiguration}.
      */
@@ -73,8 +94,7 @@ public class AbstractYAMLBasedConfiguration extends BaseHierarchicalConfiguratio
      */
     protected void load(final Map<String, Object> map)
     {
-        final List<ImmutableNode> roots = constructHierarchy("", map);
-        getNodeModel().setRootNode(roots.get(0));
+        getNodeModel().setRootNode(constructRoot(map));
     }
 
     /**
@@ -96,6 +116,31 @@ public class AbstractYAMLBasedConfiguration extends BaseHierarchicalConfiguratio
         return map;
     }
 
+    /**
+     * Groups the children of the given node by their names. This is the
+     * structure needed for writing a node as a map: each entry of the
+     * resulting map corresponds to a key; if multiple children have the same
+     * name, they form a list. The order of the keys is determined by the first
+     * occurrence of a name. Only references to the child nodes are stored, so
+     * the memory needed is proportional to the number of children of this
+     * single node.
+     *
+     * @param handler the {@code NodeHandler}
+     * @param node the node whose children are to be grouped
+     * @return a map with the children of this node grouped by their names
+     */
+    static Map<String, List<ImmutableNode>> groupChildrenByName(
+            final NodeHandler<ImmutableNode> handler, final ImmutableNode node)
+    {
+        final Map<String, List<ImmutableNode>> groups = new LinkedHashMap<>();
+        for (final ImmutableNode child : handler.getChildren(node))
+        {
+            groups.computeIfAbsent(handler.nodeName(child),
+                    k -> new ArrayList<>(1)).add(child);
+        }
+        return groups;
+    }
+
     /**
      * Adds a key value pair to a map, taking list structures into account. If a
      * key is added which is already present in the map, this method ensures
@@ -130,6 +175,29 @@ public class AbstractYAMLBasedConfiguration extends BaseHierarchicalConfiguratio
         }
     }
 
+    /**
+     * Creates the root node of the hierarchical nodes structure for the given
+     * map. If the map has many entries, the child nodes of the root are
+     * constructed in parallel.
+     *
+     * @param map the map to be processed (may be <b>null</b>)
+     * @return the root node
+     */
+    private static ImmutableNode constructRoot(final Map<String, Object> map)
+    {
+        if (map == null || map.size() < PARALLEL_THRESHOLD)
+        {
+            return constructHierarchy("", map).get(0);
+        }
+
+        final List<Map.Entry<String, Object>> entries =
+                new ArrayList<>(map.entrySet());
+        final List<ImmutableNode> children = ForkJoinPool.commonPool()
+                .invoke(new SubtreeTask(entries, 0, entries.size()));
+        return new ImmutableNode.Builder(children.size()).name("")
+                .addChildren(children).create();
+    }
+
     /**
      * Creates a part of the hierarchical nodes structure of the resulting
      * configuration. The passed in element is converted into one or multiple
@@ -199,6 +267,69 @@ public class AbstractYAMLBasedConfiguration extends BaseHierarchicalConfiguratio
         return nodes;
     }
 
+    /**
+     * A fork/join task which constructs the nodes for a range of top-level
+     * map entries. Large ranges are split recursively; the resulting nodes are
+     * returned in the order of the entries.
+     */
+    private static final class SubtreeTask
+            extends RecursiveTask<List<ImmutableNode>>
+    {
+        /**
+         * The serial version UID.
+         */
+        private static final long serialVersionUID = 20261018L;
+
+        /** The list with all entries to be processed. */
+        private final List<Map.Entry<String, Object>> entries;
+
+        /** The index of the first entry to be processed by this task. */
+        private final int from;
+
+        /** The index after the last entry to be processed by this task. */
+        private final int to;
+
+        /**
+         * Creates a new instance of {@code SubtreeTask}.
+         *
+         * @param entries the list with all entries
+         * @param from the start index (inclusive)
+         * @param to the end index (exclusive)
+         */
+        SubtreeTask(final List<Map.Entry<String, Object>> entries,
+                final int from, final int to)
+        {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ImmutableNode> compute()
+        {
+            if (to - from <= SUBTREE_BATCH_SIZE)
+            {
+                final List<ImmutableNode> nodes = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++)
+                {
+                    final Map.Entry<String, Object> entry = entries.get(i);
+                    nodes.addAll(constructHierarchy(entry.getKey(),
+                            entry.getValue()));
+                }
+                return nodes;
+            }
+
+            final int middle = (from + to) >>> 1;
+            final SubtreeTask left = new SubtreeTask(entries, from, middle);
+            left.fork();
+            final List<ImmutableNode> rightNodes =
+                    new SubtreeTask(entries, middle, to).compute();
+            final List<ImmutableNode> nodes = new ArrayList<>(left.join());
+            nodes.addAll(rightNodes);
+            return nodes;
+        }
+    }
+
     /**
      * Internal helper method to wrap an exception in a
      * {@code ConfigurationException}.
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.EventListener;
@@ -35,6 +36,7 @@ import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.InMemoryNodeModelSupport;
 import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.NodeKeyResolver;
 import org.apache.commons.configuration2.tree.NodeModel;
 import org.apache.commons.configuration2.tree.NodeSelector;
 import org.apache.commons.configuration2.tree.NodeTreeWalker;
@@ -100,6 +102,60 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return (InMemoryNodeModel) super.getNodeModel();
     }
 
+    /**
+     * Executes a batch of update operations as a single update of this
+     * configuration. The passed in {@code Consumer} is invoked with a
+     * {@link BatchUpdater} object which records the operations to be
+     * performed. They are then executed in the order they have been recorded
+     * directly on the node model; as for single updates, values to be added
+     * are split by the current {@code ListDelimiterHandler}. Note that
+     * overridden versions of the methods handling single updates (e.g.
+     * {@code addPropertyInternal()}) are not invoked. If this configuration is
+     * based on an {@link InMemoryNodeModel}, the operations are applied to a
+     * private copy of the model's data (see
+     * {@link InMemoryNodeModel#executeBatch(Consumer, NodeKeyResolver)}) which
+     * is not visible to other threads; so intermediate states are not
+     * published, tracked nodes are updated only once, and the configuration
+     * is not changed at all if one of the operations throws an exception.
+     * Instead of events for the single operations, only a single event of
+     * type {@link ConfigurationEvent#BATCH_UPDATE} is fired. This is an
+     * efficient way to perform a large number of updates, e.g. when populating
+     * a configuration programmatically.
+     *
+     * @param batch the {@code Consumer} defining the update operations
+     * @since 2.8.0
+     */
+    public void applyBatch(final Consumer<? super BatchUpdater> batch)
+    {
+        final BatchOperations operations = new BatchOperations();
+        batch.accept(operations);
+        if (operations.isEmpty())
+        {
+            return;
+        }
+
+        beginWrite(false);
+        try
+        {
+            fireEvent(ConfigurationEvent.BATCH_UPDATE, null, null, true);
+            final NodeModel<ImmutableNode> model = getModel();
+            if (model instanceof InMemoryNodeModel)
+            {
+                ((InMemoryNodeModel) model).executeBatch(operations::execute,
+                        this);
+            }
+            else
+            {
+                operations.execute(model);
+            }
+            fireEvent(ConfigurationEvent.BATCH_UPDATE, null, null, false);
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
     /**
      * Creates a new {@code Configuration} object containing all keys
      * that start with the specified prefix. This implementation will return a
@@ -148,7 +204,8 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
                             return parent.getInterpolator();
                         }
                     };
-            result.getModel().setRootNode(createSubsetRootNode(results));
+            result.getModel().setRootNode(createSubsetRootNode(results,
+                    getModel().getNodeHandler()));
 
             if (result.isEmpty())
             {
@@ -170,10 +227,12 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
      * defined, it is assigned as value of the new root node.
      *
      * @param results the collection of query results
+     * @param handler the {@code NodeHandler} for accessing attribute values
      * @return the root node for the subset configuration
      */
-    private ImmutableNode createSubsetRootNode(
-            final Collection<QueryResult<ImmutableNode>> results)
+    static ImmutableNode createSubsetRootNode(
+            final Collection<QueryResult<ImmutableNode>> results,
+            final NodeHandler<ImmutableNode> handler)
     {
         final ImmutableNode.Builder builder = new ImmutableNode.Builder();
         Object value = null;
@@ -184,7 +243,7 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
             if (result.isAttributeResult())
             {
                 builder.addAttribute(result.getAttributeName(),
-                        result.getAttributeValue(getModel().getNodeHandler()));
+                        result.getAttributeValue(handler));
             }
             else
             {
@@ -205,6 +264,71 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return builder.create();
     }
 
+    /**
+     * Returns a lightweight, read-only view on the sub tree selected by the
+     * given key. The key must select exactly one node. In contrast to
+     * {@link #configurationAt(String, boolean)}, the returned configuration
+     * does not need a node model of its own or a tracked node; it just pins
+     * the current state of the selected node. So keys passed to the view are
+     * resolved directly relative to this node. Changes on this configuration
+     * made afterwards are not visible in the view. Interpolation of the
+     * view's properties is delegated to this configuration. This method is
+     * well suited for frequent read-only access to a part of a larger
+     * configuration.
+     *
+     * @param key the key selecting the root node of the view
+     * @return the view on the selected sub tree
+     * @throws ConfigurationRuntimeException if the key does not select a
+     *         single node
+     * @since 2.8.0
+     */
+    public ImmutableHierarchicalConfiguration subtreeView(final String key)
+    {
+        beginRead(false);
+        try
+        {
+            final List<ImmutableNode> targetNodes = fetchFilteredNodeResults(key);
+            final int size = targetNodes.size();
+            if (size != 1)
+            {
+                throw new ConfigurationRuntimeException(
+                        "Passed in key must select exactly one node (found %,d): %s", size, key);
+            }
+            return new SubtreeView(this, targetNodes.get(0));
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
+    /**
+     * Returns a lightweight, read-only view on all keys starting with the
+     * specified prefix. The content of the view corresponds to the result of
+     * {@link #subset(String)}, and the nodes selected by the prefix are
+     * combined in the same way. However, like the views returned by
+     * {@link #subtreeView(String)}, the result is based on a snapshot of the
+     * selected nodes and does not create a copy of the node structure. As for
+     * {@code subset()}, interpolation is always done by this configuration.
+     *
+     * @param prefix the prefix of the keys for the view
+     * @return the view on the selected subset
+     * @since 2.8.0
+     */
+    public ImmutableHierarchicalConfiguration subsetView(final String prefix)
+    {
+        beginRead(false);
+        try
+        {
+            return new SubtreeView(this, createSubsetRootNode(
+                    fetchNodeList(prefix), getModel().getNodeHandler()));
+        }
+        finally
+        {
+            endRead();
+        }
+    }
+
     /**
      * {@inheritDoc} The result of this implementation depends on the
      * {@code supportUpdates} flag: If it is <b>false</b>, a plain
@@ -706,6 +830,87 @@ public class BaseHierarchicalConfiguration extends AbstractHierarchicalConfigura
         return c.getNodeModel().getNodeHandler().getRootNode();
     }
 
+    /**
+     * The implementation of {@code BatchUpdater} used by
+     * {@code applyBatch()}. The recorded operations are executed on the model
+     * passed to {@link #execute(NodeModel)}; this configuration only serves as
+     * {@code NodeKeyResolver}.
+     */
+    private final class BatchOperations implements BatchUpdater
+    {
+        /** The list with the recorded operations. */
+        private final List<Consumer<NodeModel<ImmutableNode>>> operations =
+                new ArrayList<>();
+
+        @Override
+        public BatchUpdater addProperty(final String key, final Object value)
+        {
+            final Iterable<?> values = getListDelimiterHandler().parse(value);
+            operations.add(m -> m.addProperty(key, values,
+                    BaseHierarchicalConfiguration.this));
+            return this;
+        }
+
+        @Override
+        public BatchUpdater setProperty(final String key, final Object value)
+        {
+            operations.add(m -> m.setProperty(key, value,
+                    BaseHierarchicalConfiguration.this));
+            return this;
+        }
+
+        @Override
+        public BatchUpdater clearProperty(final String key)
+        {
+            operations.add(m -> m.clearProperty(key,
+                    BaseHierarchicalConfiguration.this));
+            return this;
+        }
+
+        @Override
+        public BatchUpdater clearTree(final String key)
+        {
+            operations.add(m -> m.clearTree(key,
+                    BaseHierarchicalConfiguration.this));
+            return this;
+        }
+
+        @Override
+        public BatchUpdater addNodes(final String key,
+                final Collection<? extends ImmutableNode> nodes)
+        {
+            if (nodes != null && !nodes.isEmpty())
+            {
+                operations.add(m -> m.addNodes(key, nodes,
+                        BaseHierarchicalConfiguration.this));
+            }
+            return this;
+        }
+
+        /**
+         * Returns a flag whether no operations have been recorded.
+         *
+         * @return a flag whether this batch is empty
+         */
+        public boolean isEmpty()
+        {
+            return operations.isEmpty();
+        }
+
+        /**
+         * Executes all recorded operations on the given model.
+         *
+         * @param model the model to be updated
+         */
+        public void execute(final NodeModel<ImmutableNode> model)
+        {
+            for (final Consumer<NodeModel<ImmutableNode>> op : operations)
+            {
+                op.accept(model);
+            }
+        }
+    }
+
     /**
      * A specialized visitor base class that can be used for storing the tree of
      * configuration nodes. The basic idea is that each node can be associated
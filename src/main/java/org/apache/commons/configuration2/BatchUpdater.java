@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.Collection;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+/**
+ * <p>
+ * Definition of an interface for collecting a batch of update operations on a
+ * hierarchical configuration.
+ * </p>
+ * <p>
+ * An object implementing this interface is passed to the
+ * {@link BaseHierarchicalConfiguration#applyBatch(java.util.function.Consumer)}
+ * method. It offers the typical update operations of a hierarchical
+ * configuration. The operations are not executed immediately, but recorded.
+ * They are applied later as a single update of the configuration's node
+ * model. The methods return this object, so that operations can be chained.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public interface BatchUpdater
+{
+    /**
+     * Adds a property to the configuration. This corresponds to the
+     * {@code addProperty()} method of {@code Configuration}.
+     *
+     * @param key the key of the property
+     * @param value the value to be added
+     * @return a reference to this object for method chaining
+     */
+    BatchUpdater addProperty(String key, Object value);
+
+    /**
+     * Sets the value of a property. This corresponds to the
+     * {@code setProperty()} method of {@code Configuration}.
+     *
+     * @param key the key of the property
+     * @param value the new value
+     * @return a reference to this object for method chaining
+     */
+    BatchUpdater setProperty(String key, Object value);
+
+    /**
+     * Removes a property from the configuration. This corresponds to the
+     * {@code clearProperty()} method of {@code Configuration}.
+     *
+     * @param key the key of the property to be removed
+     * @return a reference to this object for method chaining
+     */
+    BatchUpdater clearProperty(String key);
+
+    /**
+     * Removes a whole sub tree from the configuration. This corresponds to the
+     * {@code clearTree()} method of {@code HierarchicalConfiguration}.
+     *
+     * @param key the key selecting the sub trees to be removed
+     * @return a reference to this object for method chaining
+     */
+    BatchUpdater clearTree(String key);
+
+    /**
+     * Adds a collection of nodes to the configuration. This corresponds to the
+     * {@code addNodes()} method of {@code HierarchicalConfiguration}.
+     *
+     * @param key the key where the nodes are to be added
+     * @param nodes the collection with the nodes to be added
+     * @return a reference to this object for method chaining
+     */
+    BatchUpdater addNodes(String key, Collection<? extends ImmutableNode> nodes);
+}
@@ -0,0 +1,585 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * A thread-safe cache with an optional limit for its size and an optional
+ * idle time for its entries.
+ * </p>
+ * <p>
+ * This class is used by components which create objects on demand for keys
+ * that are evaluated dynamically, for instance
+ * {@link DynamicCombinedConfiguration}. Without a limit, such components
+ * accumulate objects for each key ever seen. A {@code BoundedCache} evicts
+ * entries when they have not been accessed for longer than the maximum idle
+ * time or when the maximum size is exceeded. In the latter case, the entries
+ * which have not been accessed for the longest time are evicted first.
+ * </p>
+ * <p>
+ * Read access is lock-free. Evictions are done in batches (of about a tenth
+ * of the maximum size) when the size is exceeded, so that their costs are
+ * amortized over multiple insertions; therefore the LRU order is only
+ * approximated. A removal listener can be provided which is notified for
+ * every entry that is evicted, removed, or replaced; it can be used to
+ * release resources associated with the cached objects. Statistics about
+ * hits, misses, and evictions are collected.
+ * </p>
+ * <p>
+ * Per default, a cache has neither a size limit nor an idle time; so it
+ * behaves like a plain concurrent map.
+ * </p>
+ * <p>
+ * Expired entries are searched for at most once per idle time period on
+ * read or write access, so they are released even if no new entries are
+ * added.
+ * </p>
+ * <p>
+ * <strong>Important note:</strong> This class is intended for internal use
+ * by components of this library only. It is public because it is used from
+ * multiple packages, but it is not part of the public API and may be changed
+ * or removed in any release.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ * @since 2.8.0
+ */
+public final class BoundedCache<K, V>
+{
+    /** Constant for an undefined limit. */
+    private static final long UNLIMITED = 0;
+
+    /**
+     * The granularity of access times in nanoseconds. Access times of entries
+     * are only updated if they differ by more than this value; this avoids
+     * writes to shared memory on each access.
+     */
+    private static final long ACCESS_GRANULARITY = TimeUnit.MILLISECONDS
+            .toNanos(1);
+
+    /** The map with the cache entries. */
+    private final ConcurrentMap<K, CacheEntry<V>> entries =
+            new ConcurrentHashMap<>();
+
+    /** The listener to be notified about removed entries. */
+    private final BiConsumer<? super K, ? super V> removalListener;
+
+    /** The source for the current time in nanoseconds. */
+    private final LongSupplier ticker;
+
+    /** A lock preventing concurrent eviction runs. */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /** The counter for cache hits. */
+    private final LongAdder hitCount = new LongAdder();
+
+    /** The counter for cache misses. */
+    private final LongAdder missCount = new LongAdder();
+
+    /** The counter for evicted entries. */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /** The time of the last search for idle entries. */
+    private final AtomicLong lastIdleCheck;
+
+    /** The maximum number of entries. */
+    private volatile int maximumSize;
+
+    /** The maximum idle time of entries in nanoseconds. */
+    private volatile long maximumIdleTime;
+
+    /**
+     * Creates a new instance of {@code BoundedCache} with the given removal
+     * listener.
+     *
+     * @param listener the listener to be notified about removed entries (may
+     *        be <b>null</b>)
+     */
+    public BoundedCache(final BiConsumer<? super K, ? super V> listener)
+    {
+        this(listener, System::nanoTime);
+    }
+
+    /**
+     * Creates a new instance of {@code BoundedCache} with the given removal
+     * listener and time source. This constructor is used by tests.
+     *
+     * @param listener the listener to be notified about removed entries (may
+     *        be <b>null</b>)
+     * @param ticker the source for the current time in nanoseconds
+     */
+    BoundedCache(final BiConsumer<? super K, ? super V> listener,
+            final LongSupplier ticker)
+    {
+        removalListener = listener;
+        this.ticker = ticker;
+        lastIdleCheck = new AtomicLong(ticker.getAsLong());
+    }
+
+    /**
+     * Returns the maximum number of entries in this cache. A value of 0 means
+     * that the size is not limited.
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of entries in this cache. A value less than or
+     * equal to 0 means that the size is not limited. If the cache currently
+     * contains more entries, entries are evicted now.
+     *
+     * @param size the maximum size
+     */
+    public void setMaximumSize(final int size)
+    {
+        maximumSize = Math.max(size, 0);
+        cleanUp();
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an entry can stay in this cache
+     * without being accessed. A value of 0 means that entries never expire.
+     *
+     * @return the maximum idle time in milliseconds
+     */
+    public long getMaximumIdleTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(maximumIdleTime);
+    }
+
+    /**
+     * Sets the maximum time in milliseconds an entry can stay in this cache
+     * without being accessed. Expired entries are evicted. A value less than
+     * or equal to 0 means that entries never expire.
+     *
+     * @param millis the maximum idle time in milliseconds
+     */
+    public void setMaximumIdleTime(final long millis)
+    {
+        maximumIdleTime =
+                millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : UNLIMITED;
+        cleanUp();
+    }
+
+    /**
+     * Returns the value stored for the given key. If there is no such value or
+     * it has expired, result is <b>null</b>.
+     *
+     * @param key the key
+     * @return the value for this key or <b>null</b>
+     */
+    public V get(final K key)
+    {
+        final long now = ticker.getAsLong();
+        final CacheEntry<V> entry = entries.get(key);
+        V value = null;
+        if (entry != null)
+        {
+            if (!isExpired(entry, now))
+            {
+                entry.touch(now);
+                value = entry.getValue();
+            }
+            else
+            {
+                evict(key, entry);
+            }
+        }
+        if (value != null)
+        {
+            hitCount.increment();
+        }
+        else
+        {
+            missCount.increment();
+        }
+        evictIfNecessary(now);
+        return value;
+    }
+
+    /**
+     * Stores a value in this cache. An existing value for this key is
+     * replaced; the removal listener is notified about it. If the maximum
+     * size of this cache is exceeded, entries are evicted.
+     *
+     * @param key the key
+     * @param value the value (must not be <b>null</b>)
+     */
+    public void put(final K key, final V value)
+    {
+        final long now = ticker.getAsLong();
+        final CacheEntry<V> old =
+                entries.put(key, new CacheEntry<>(value, now));
+        if (old != null && old.getValue() != value)
+        {
+            fireRemoved(key, old.getValue());
+        }
+        evictIfNecessary(now);
+    }
+
+    /**
+     * Removes the value for the given key from this cache.
+     *
+     * @param key the key
+     * @return the value which has been removed or <b>null</b>
+     */
+    public V remove(final K key)
+    {
+        final CacheEntry<V> entry = entries.remove(key);
+        if (entry == null)
+        {
+            return null;
+        }
+        fireRemoved(key, entry.getValue());
+        return entry.getValue();
+    }
+
+    /**
+     * Removes all entries from this cache. The removal listener is notified
+     * for each entry.
+     */
+    public void clear()
+    {
+        for (final Map.Entry<K, CacheEntry<V>> e : entries.entrySet())
+        {
+            if (entries.remove(e.getKey(), e.getValue()))
+            {
+                fireRemoved(e.getKey(), e.getValue().getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns a collection with the values currently stored in this cache.
+     * This is a snapshot which is not affected by later changes. Access times
+     * of entries are not updated.
+     *
+     * @return a collection with the cached values
+     */
+    public Collection<V> values()
+    {
+        final List<V> values = new ArrayList<>(entries.size());
+        for (final CacheEntry<V> entry : entries.values())
+        {
+            values.add(entry.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of entries in this cache. This number may include
+     * expired entries which have not yet been evicted.
+     *
+     * @return the size of this cache
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Evicts all expired entries and, if the maximum size is exceeded, the
+     * least recently used entries. Normally, it is not necessary to call this
+     * method because the cache is cleaned up automatically when it is
+     * accessed.
+     */
+    public void cleanUp()
+    {
+        final long now = ticker.getAsLong();
+        lastIdleCheck.set(now);
+        evictionLock.lock();
+        try
+        {
+            evictExpired(now);
+            evictLeastRecentlyUsed();
+        }
+        finally
+        {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of successful look-ups in this cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount()
+    {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of look-ups in this cache which did not find a
+     * value.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount()
+    {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries which have been evicted because they
+     * expired or because the maximum size was exceeded. Entries removed
+     * explicitly are not counted.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Evicts entries after an access to this cache if necessary. Expired
+     * entries are searched for at most once per idle time period; so for
+     * most calls this method only compares some numbers. If another
+     * thread is already evicting entries, this method returns immediately.
+     *
+     * @param now the current time
+     */
+    private void evictIfNecessary(final long now)
+    {
+        final long idleTime = maximumIdleTime;
+        final long lastCheck = lastIdleCheck.get();
+        final boolean checkIdle =
+                idleTime != UNLIMITED && now - lastCheck >= idleTime
+                        && lastIdleCheck.compareAndSet(lastCheck, now);
+        final int maxSize = maximumSize;
+        if ((checkIdle || maxSize > 0 && entries.size() > maxSize)
+                && evictionLock.tryLock())
+        {
+            try
+            {
+                if (checkIdle)
+                {
+                    evictExpired(now);
+                }
+                evictLeastRecentlyUsed();
+            }
+            finally
+            {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evicts all entries which have expired.
+     *
+     * @param now the current time
+     */
+    private void evictExpired(final long now)
+    {
+        if (maximumIdleTime != UNLIMITED)
+        {
+            for (final Map.Entry<K, CacheEntry<V>> e : entries.entrySet())
+            {
+                if (isExpired(e.getValue(), now))
+                {
+                    evict(e.getKey(), e.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries if the maximum size is
+     * exceeded. In order to amortize the costs of sorting the entries, the
+     * size of the cache is reduced by an additional tenth of the maximum
+     * size. The access times of the entries are copied before sorting
+     * because concurrent read operations may update them.
+     */
+    private void evictLeastRecentlyUsed()
+    {
+        final int maxSize = maximumSize;
+        if (maxSize <= 0 || entries.size() <= maxSize)
+        {
+            return;
+        }
+
+        final List<EvictionCandidate<K, V>> candidates =
+                new ArrayList<>(entries.size());
+        for (final Map.Entry<K, CacheEntry<V>> e : entries.entrySet())
+        {
+            candidates.add(new EvictionCandidate<>(e.getKey(), e.getValue()));
+        }
+        candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+        final int targetSize = maxSize - maxSize / 10;
+        final int count = candidates.size() - targetSize;
+        for (int i = 0; i < count; i++)
+        {
+            evict(candidates.get(i).key, candidates.get(i).entry);
+        }
+    }
+
+    /**
+     * Evicts the given entry if it is still contained in this cache.
+     *
+     * @param key the key
+     * @param entry the entry to be evicted
+     */
+    private void evict(final K key, final CacheEntry<V> entry)
+    {
+        if (entries.remove(key, entry))
+        {
+            evictionCount.increment();
+            fireRemoved(key, entry.getValue());
+        }
+    }
+
+    /**
+     * Checks whether the given entry has expired.
+     *
+     * @param entry the entry
+     * @param now the current time
+     * @return a flag whether this entry has expired
+     */
+    private boolean isExpired(final CacheEntry<V> entry, final long now)
+    {
+        final long idleTime = maximumIdleTime;
+        return idleTime != UNLIMITED && now - entry.getLastAccess() >= idleTime;
+    }
+
+    /**
+     * Notifies the removal listener about an entry that has been removed.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    private void fireRemoved(final K key, final V value)
+    {
+        if (removalListener != null)
+        {
+            removalListener.accept(key, value);
+        }
+    }
+
+    /**
+     * A class storing an entry of the cache together with a snapshot of its
+     * access time. It is used when searching for the least recently used
+     * entries.
+     *
+     * @param <K> the type of the key
+     * @param <V> the type of the value
+     */
+    private static final class EvictionCandidate<K, V>
+    {
+        /** The key of the entry. */
+        final K key;
+
+        /** The entry. */
+        final CacheEntry<V> entry;
+
+        /** The time of the last access when this object was created. */
+        final long lastAccess;
+
+        /**
+         * Creates a new instance of {@code EvictionCandidate}.
+         *
+         * @param key the key
+         * @param entry the entry
+         */
+        EvictionCandidate(final K key, final CacheEntry<V> entry)
+        {
+            this.key = key;
+            this.entry = entry;
+            lastAccess = entry.getLastAccess();
+        }
+    }
+
+    /**
+     * A class representing an entry of the cache. In addition to the value,
+     * it stores the time of the last access.
+     *
+     * @param <V> the type of the value
+     */
+    private static final class CacheEntry<V>
+    {
+        /** The cached value. */
+        private final V value;
+
+        /** The time of the last access. */
+        private volatile long lastAccess;
+
+        /**
+         * Creates a new instance of {@code CacheEntry}.
+         *
+         * @param value the value
+         * @param now the current time
+         */
+        CacheEntry(final V value, final long now)
+        {
+            this.value = value;
+            lastAccess = now;
+        }
+
+        /**
+         * Returns the cached value.
+         *
+         * @return the value
+         */
+        public V getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Returns the time of the last access.
+         *
+         * @return the time of the last access
+         */
+        public long getLastAccess()
+        {
+            return lastAccess;
+        }
+
+        /**
+         * Records an access to this entry.
+         *
+         * @param now the current time
+         */
+        public void touch(final long now)
+        {
+            if (now - lastAccess > ACCESS_GRANULARITY)
+            {
+                lastAccess = now;
+            }
+        }
+    }
+}
@@ -969,6 +969,36 @@ public class CombinedConfiguration extends BaseHierarchicalConfiguration impleme
         }
     }
 
+    /**
+     * Removes this combined configuration as listener from all child
+     * configurations without changing its content. This method is called by
+     * {@link DynamicCombinedConfiguration} when it discards a cached instance;
+     * otherwise, the child configurations would keep a reference to it.
+     */
+    void detachFromChildren()
+    {
+        unregisterListenerAtChildren();
+    }
+
+    /**
+     * Registers this combined configuration as listener at all child
+     * configurations again after it has been detached, and invalidates it as
+     * changes of its children may have been missed in the meantime. Calling
+     * this method on an attached instance has no negative effects.
+     */
+    void reattachToChildren()
+    {
+        unregisterListenerAtChildren();
+        if (configurations != null)
+        {
+            for (final ConfigData child : configurations)
+            {
+                registerListenerAt(child.getConfiguration());
+            }
+        }
+        invalidate();
+    }
+
     /**
      * Removes this combined configuration as listener from all child
      * configurations. This method is called on a clear() operation.
@@ -22,8 +22,8 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Iterator;
+import java.util.Objects;
 
 import org.apache.commons.configuration2.event.ConfigurationErrorEvent;
 import org.apache.commons.configuration2.event.Event;
@@ -48,21 +48,6 @@ public final class ConfigurationUtils
     /** Constant for the name of the clone() method.*/
     private static final String METHOD_CLONE = "clone";
 
-    /**
-     * An array with interfaces to be implemented by a proxy for an immutable
-     * configuration.
-     */
-    private static final Class<?>[] IMMUTABLE_CONFIG_IFCS = {
-        ImmutableConfiguration.class
-    };
-
-    /**
-     * An array with interfaces to be implemented by a proxy for an immutable
-     * hierarchical configuration.
-     */
-    private static final Class<?>[] IMMUTABLE_HIERARCHICAL_CONFIG_IFCS = {
-        ImmutableHierarchicalConfiguration.class
-    };
     /**
      * A dummy event source that is returned by {@code asEventSource()} if a
      * mock object has to be returned. It provides empty dummy implementations
@@ -569,7 +554,7 @@ public final class ConfigurationUtils
 
     /**
      * Creates an {@code ImmutableConfiguration} from the given
-     * {@code Configuration} object. This method creates a proxy object wrapping
+     * {@code Configuration} object. This method creates an object wrapping
      * the original configuration and making it available under the
      * {@code ImmutableConfiguration} interface. Through this interface the
      * configuration cannot be manipulated. It is also not possible to cast the
@@ -587,7 +572,7 @@ public final class ConfigurationUtils
     public static ImmutableConfiguration unmodifiableConfiguration(
             final Configuration c)
     {
-        return createUnmodifiableConfiguration(IMMUTABLE_CONFIG_IFCS, c);
+        return new UnmodifiableConfiguration(c);
     }
 
     /**
@@ -607,25 +592,30 @@ public final class ConfigurationUtils
     public static ImmutableHierarchicalConfiguration unmodifiableConfiguration(
             final HierarchicalConfiguration<?> c)
     {
-        return (ImmutableHierarchicalConfiguration) createUnmodifiableConfiguration(
-                IMMUTABLE_HIERARCHICAL_CONFIG_IFCS, c);
+        return new UnmodifiableHierarchicalConfiguration(c);
     }
 
     /**
-     * Helper method for creating a proxy for an unmodifiable configuration. The
-     * interfaces the proxy should implement are passed as argument.
+     * Creates a frozen snapshot of the given configuration. This method
+     * iterates over all keys of the passed in configuration and stores their
+     * values in a compact, read-only configuration object. Values are stored
+     * in their final form, i.e. they are already interpolated and split into
+     * lists, so that no interpolation, synchronization, or event processing
+     * takes place when the snapshot is accessed. Changes on the original
+     * configuration are not visible in the snapshot. If the configuration
+     * supports synchronization, a read lock is held while the snapshot is
+     * created. The object returned is thread-safe and can be shared freely,
+     * e.g. by publishing it to request threads after a reload.
      *
-     * @param ifcs an array with the interface classes the proxy must implement
-     * @param c the configuration object to be wrapped
-     * @return a proxy object for an immutable configuration
-     * @throws NullPointerException if the configuration is <b>null</b>
+     * @param c the configuration to be frozen (must not be <b>null</b>)
+     * @return an immutable snapshot of the specified configuration
+     * @throws NullPointerException if the passed in configuration is
+     *         <b>null</b>
+     * @since 2.8.0
      */
-    private static ImmutableConfiguration createUnmodifiableConfiguration(
-            final Class<?>[] ifcs, final Configuration c)
+    public static ImmutableConfiguration freeze(final ImmutableConfiguration c)
     {
-        return (ImmutableConfiguration) Proxy.newProxyInstance(
-                ConfigurationUtils.class.getClassLoader(), ifcs,
-                new ImmutableConfigurationInvocationHandler(c));
+        return new FrozenConfiguration(Objects.requireNonNull(c, "configuration"));
     }
 
     /**
@@ -25,11 +25,13 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.Event;
 import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventType;
@@ -58,6 +60,35 @@ import org.apache.commons.configuration2.tree.NodeCombiner;
  * consistency and to avoid exceptions. The {@code Synchronizer} assigned to an
  * instance is also passed to child configuration objects when they are created.
  * </p>
+ * <p>
+ * The child configurations created for the different keys are cached. Per
+ * default, this cache is not limited. If the key pattern can produce many
+ * different keys (e.g. if it contains a tenant ID), the number of cached child
+ * configurations can be limited using
+ * {@link #setMaxCachedConfigurations(int)}, and child configurations which
+ * have not been used for a while can be discarded by setting an idle time
+ * using {@link #setCachedConfigurationIdleTime(long)}. A discarded child
+ * configuration is created again when its key is used the next time.
+ * </p>
+ * <p>
+ * Typically, only some of the contained configurations depend on the key
+ * (e.g. a tenant-specific file), while others are the same for all keys (e.g.
+ * a large file with default settings). Configurations of the latter kind can
+ * be added using {@link #addSharedConfiguration(Configuration, String, String)}.
+ * The node structure of shared configurations is then combined only once, and
+ * all child configurations reuse this structure; so creating a child
+ * configuration for a new key only requires combining the key-dependent
+ * configurations with the shared structure.
+ * </p>
+ * <p>
+ * Per default, the key pattern is evaluated anew for each operation. If an
+ * application performs many operations in a context in which the key cannot
+ * change (e.g. while processing a request for a specific tenant), it can use
+ * {@link #openKeyScope()} to evaluate the key pattern once and bind the
+ * resulting child configuration to the current thread. While a scope is open,
+ * its child configuration is not discarded even if the limits of the cache
+ * are exceeded; it is discarded when the scope is closed.
+ * </p>
  *
  * @since 1.6
  */
@@ -67,13 +98,20 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
      * Stores the current configuration for each involved thread. This value is
      * set at the beginning of an operation and removed at the end.
      */
-    private static final ThreadLocal<CurrentConfigHolder> CURRENT_CONFIG =
+    private final ThreadLocal<CurrentConfigHolder> currentConfig =
             new ThreadLocal<>();
 
-    /** The CombinedConfigurations */
-    private final ConcurrentMap<String, CombinedConfiguration> configs =
+    /**
+     * Stores the child configurations used by open key scopes. They must not
+     * be detached when they are removed from the cache.
+     */
+    private final ConcurrentMap<CombinedConfiguration, PinState> pinnedConfigs =
             new ConcurrentHashMap<>();
 
+    /** The CombinedConfigurations */
+    private final BoundedCache<String, CombinedConfiguration> configs =
+            new BoundedCache<>((key, config) -> releaseChildConfiguration(config));
+
     /** Stores a list with the contained configurations. */
     private final List<ConfigData> configurations = new ArrayList<>();
 
@@ -81,9 +119,22 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     private final Map<String, Configuration> namedConfigurations =
             new HashMap<>();
 
+    /**
+     * The configurations to be added to newly created child configurations.
+     * Here runs of shared configurations are replaced by a single
+     * configuration combining them. This list is created on demand.
+     */
+    private List<ConfigData> childSources;
+
     /** The key pattern for the CombinedConfiguration map */
     private String keyPattern;
 
+    /**
+     * The key if the key pattern does not contain any variables. In this
+     * case, it does not have to be interpolated for each operation.
+     */
+    private String constantKey = fetchConstantKey(null);
+
     /** Stores the combiner. */
     private NodeCombiner nodeCombiner;
 
@@ -122,6 +173,7 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     public void setKeyPattern(final String pattern)
     {
         this.keyPattern = pattern;
+        constantKey = fetchConstantKey(pattern);
     }
 
     public String getKeyPattern()
@@ -129,6 +181,123 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         return this.keyPattern;
     }
 
+    /**
+     * Returns the maximum number of child configurations which are cached.
+     * A value of 0 means that the number is not limited.
+     *
+     * @return the maximum number of cached child configurations
+     * @since 2.8.0
+     */
+    public int getMaxCachedConfigurations()
+    {
+        return configs.getMaximumSize();
+    }
+
+    /**
+     * Sets the maximum number of child configurations which are cached. If
+     * this number is exceeded, the child configurations which have not been
+     * accessed for the longest time are discarded. A value less than or equal
+     * to 0 means that the number is not limited; this is the default.
+     *
+     * @param max the maximum number of cached child configurations
+     * @since 2.8.0
+     */
+    public void setMaxCachedConfigurations(final int max)
+    {
+        beginWrite(true);
+        try
+        {
+            configs.setMaximumSize(max);
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
+    /**
+     * Returns the time (in milliseconds) after which a child configuration
+     * which has not been accessed is discarded. A value of 0 means that child
+     * configurations are never discarded because of inactivity.
+     *
+     * @return the idle time for cached child configurations
+     * @since 2.8.0
+     */
+    public long getCachedConfigurationIdleTime()
+    {
+        return configs.getMaximumIdleTime();
+    }
+
+    /**
+     * Sets the time (in milliseconds) after which a child configuration which
+     * has not been accessed is discarded. A value less than or equal to 0
+     * means that child configurations are never discarded because of
+     * inactivity; this is the default.
+     *
+     * @param idleTime the idle time for cached child configurations
+     * @since 2.8.0
+     */
+    public void setCachedConfigurationIdleTime(final long idleTime)
+    {
+        beginWrite(true);
+        try
+        {
+            configs.setMaximumIdleTime(idleTime);
+        }
+        finally
+        {
+            endWrite();
+        }
+    }
+
+    /**
+     * Returns the number of child configurations which are currently cached.
+     *
+     * @return the number of cached child configurations
+     * @since 2.8.0
+     */
+    public int getCachedConfigurationCount()
+    {
+        return configs.size();
+    }
+
+    /**
+     * Returns the number of operations which found the child configuration
+     * for their key in the cache.
+     *
+     * @return the number of cache hits
+     * @since 2.8.0
+     */
+    public long getCacheHitCount()
+    {
+        return configs.getHitCount();
+    }
+
+    /**
+     * Returns the number of operations which did not find a child
+     * configuration for their key in the cache.
+     *
+     * @return the number of cache misses
+     * @since 2.8.0
+     */
+    public long getCacheMissCount()
+    {
+        return configs.getMissCount();
+    }
+
+    /**
+     * Returns the number of child configurations which have been discarded
+     * because the size limit of the cache was reached or because they were
+     * not accessed within the idle time.
+     *
+     * @return the number of evicted child configurations
+     * @since 2.8.0
+     */
+    public long getCacheEvictionCount()
+    {
+        return configs.getEvictionCount();
+    }
+
     /**
      * Set the name of the Logger to use on each CombinedConfiguration.
      * @param name The Logger name.
@@ -189,25 +358,61 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     @Override
     public void addConfiguration(final Configuration config, final String name,
             final String at)
+    {
+        addConfigurationData(new ConfigData(config, name, at, false));
+    }
+
+    /**
+     * Adds a new configuration to this combined configuration whose content
+     * does not depend on the key pattern. This method works like
+     * {@link #addConfiguration(Configuration, String, String)}. However, the
+     * node structure of this configuration is not combined separately for
+     * each child configuration. Rather, it is combined once (together with
+     * the shared configurations directly preceding or following it), and the
+     * result is reused by all child configurations. If there are multiple
+     * consecutive shared configurations, they are combined with each other
+     * first; depending on the node combiner, this may lead to a slightly
+     * different structure than combining all configurations in sequence.
+     *
+     * @param config the configuration to add (must not be <b>null</b>)
+     * @param name the name of this configuration (can be <b>null</b>)
+     * @param at the position of this configuration in the combined tree (can be
+     * <b>null</b>)
+     * @since 2.8.0
+     */
+    public void addSharedConfiguration(final Configuration config,
+            final String name, final String at)
+    {
+        addConfigurationData(new ConfigData(config, name, at, true));
+    }
+
+    /**
+     * Adds the data about a new configuration to this combined configuration.
+     * As the structure of the child configurations changes, they are
+     * discarded.
+     *
+     * @param cd the data object for the new configuration
+     */
+    private void addConfigurationData(final ConfigData cd)
     {
         beginWrite(true);
         try
         {
-            final ConfigData cd = new ConfigData(config, name, at);
             configurations.add(cd);
-            if (name != null)
+            if (cd.getName() != null)
             {
-                namedConfigurations.put(name, config);
+                namedConfigurations.put(cd.getName(), cd.getConfiguration());
             }
 
             // clear cache of all child configurations
-            configs.clear();
+            resetChildConfigurations();
         }
         finally
         {
             endWrite();
         }
     }
+
        /**
      * Returns the number of configurations that are contained in this combined
      * configuration.
@@ -358,6 +563,7 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
             {
                 namedConfigurations.remove(cd.getName());
             }
+            resetChildConfigurations();
             return cd.getConfiguration();
         }
         finally
@@ -709,7 +915,9 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         {
             throw new IllegalArgumentException("Key must not be null!");
         }
-        return getCurrentConfig().getSource(key);
+        final Configuration source = getCurrentConfig().getSource(key);
+        return source instanceof SharedConfigurations ? ((SharedConfigurations) source)
+                .getSource(key) : source;
     }
 
     @Override
@@ -785,6 +993,16 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
 
     public void invalidateAll()
     {
+        if (childSources != null)
+        {
+            for (final ConfigData cd : childSources)
+            {
+                if (cd.getConfiguration() instanceof SharedConfigurations)
+                {
+                    ((SharedConfigurations) cd.getConfiguration()).invalidate();
+                }
+            }
+        }
         for (final CombinedConfiguration cc : configs.values())
         {
             cc.invalidate();
@@ -838,7 +1056,7 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     @Override
     protected void endRead()
     {
-        CURRENT_CONFIG.get().getCurrentConfiguration().endRead();
+        currentConfig.get().getCurrentConfiguration().endRead();
         releaseLock();
     }
 
@@ -860,19 +1078,61 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
      */
     private void releaseLock()
     {
-        final CurrentConfigHolder cch = CURRENT_CONFIG.get();
+        final CurrentConfigHolder cch = currentConfig.get();
         assert cch != null : "No current configuration!";
         if (cch.decrementLockCountAndCheckRelease())
         {
-            CURRENT_CONFIG.remove();
+            currentConfig.remove();
+        }
+    }
+
+    /**
+     * Evaluates the key pattern for the current thread and binds the
+     * resulting child configuration to this thread until the returned scope
+     * is closed. All operations executed by this thread in the meantime use
+     * this child configuration without evaluating the key pattern again. The
+     * child configuration is created if necessary. The scope must be closed by
+     * the same thread, preferably in a try-with-resources statement. Scopes
+     * can be nested; in this case, the outermost scope determines the child
+     * configuration. As long as the scope is open, the child configuration is
+     * not discarded, even if it is removed from the cache.
+     *
+     * @return the scope which has to be closed at the end
+     * @since 2.8.0
+     */
+    public KeyScope openKeyScope()
+    {
+        final CurrentConfigHolder cch = ensureCurrentConfiguration();
+        cch.incrementLockCount();
+        if (cch.getCurrentConfiguration() == null)
+        {
+            // delegate to beginWrite() which creates the child configuration
+            beginWrite(false);
+            endWrite();
+        }
+        final CombinedConfiguration config = cch.getCurrentConfiguration();
+        pin(config);
+        if (configs.get(cch.getKey()) != config)
+        {
+            // the child was removed from the cache before it could be pinned
+            pinnedConfigs.computeIfPresent(config, (c, state) -> {
+                state.removed = true;
+                return state;
+            });
+            config.reattachToChildren();
         }
+        return new KeyScope(this, cch, config);
     }
 
     /**
-     * Returns the current configuration. This configuration was initialized at
-     * the beginning of an operation and stored in a thread-local variable. Some
-     * methods of this class call this method directly without requesting a lock
-     * before. To deal with this, we always request an additional read lock.
+     * Returns the current configuration. If an operation is already in
+     * progress (or a key scope is open), this is the configuration that was
+     * initialized at its beginning and stored in a thread-local variable.
+     * Otherwise, the key pattern is evaluated, and the configuration is
+     * obtained from the cache; no lock is needed for this as the delegated
+     * operation locks the child configuration anyway. Only if the child
+     * configuration does not exist yet, the full protocol is executed which
+     * creates it while holding a write lock.
      *
      * @return the current configuration
      */
@@ -880,15 +1140,32 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
     {
         CombinedConfiguration config;
         String key;
-        beginRead(false);
-        try
+        final CurrentConfigHolder current = currentConfig.get();
+        if (current != null && current.getCurrentConfiguration() != null)
         {
-            config = CURRENT_CONFIG.get().getCurrentConfiguration();
-            key = CURRENT_CONFIG.get().getKey();
+            config = current.getCurrentConfiguration();
+            key = current.getKey();
         }
-        finally
+        else
         {
-            endRead();
+            key = current != null ? current.getKey() : evaluateKey();
+            config = current != null ? null : configs.get(key);
+            if (config == null)
+            {
+                if (current == null)
+                {
+                    currentConfig.set(new CurrentConfigHolder(key));
+                }
+                beginRead(false);
+                try
+                {
+                    config = currentConfig.get().getCurrentConfiguration();
+                }
+                finally
+                {
+                    endRead();
+                }
+            }
         }
 
         if (getLogger().isDebugEnabled())
@@ -924,7 +1201,7 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         config.setConversionExpressionEngine(getConversionExpressionEngine());
         config.setListDelimiterHandler(getListDelimiterHandler());
         copyEventListeners(config);
-        for (final ConfigData data : configurations)
+        for (final ConfigData data : getChildSources())
         {
             config.addConfiguration(data.getConfiguration(), data.getName(),
                     data.getAt());
@@ -932,6 +1209,90 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         config.setSynchronizer(getSynchronizer());
     }
 
+    /**
+     * Returns the list of configurations to be added to a new child
+     * configuration. It is created on first access: Key-dependent
+     * configurations are taken over directly, while each run of consecutive
+     * shared configurations is replaced by a single
+     * {@code SharedConfigurations} object. This method must be called while
+     * holding the write lock.
+     *
+     * @return the list with the sources for child configurations
+     */
+    private List<ConfigData> getChildSources()
+    {
+        if (childSources == null)
+        {
+            final List<ConfigData> sources = new ArrayList<>();
+            SharedConfigurations shared = null;
+            for (final ConfigData data : configurations)
+            {
+                if (data.isShared())
+                {
+                    if (shared == null)
+                    {
+                        shared = createSharedConfigurations();
+                        sources.add(new ConfigData(shared, null, null, true));
+                    }
+                    shared.addConfiguration(data.getConfiguration(),
+                            data.getName(), data.getAt());
+                }
+                else
+                {
+                    shared = null;
+                    sources.add(data);
+                }
+            }
+            childSources = sources;
+        }
+        return childSources;
+    }
+
+    /**
+     * Creates a new object for combining a run of shared configurations. It
+     * is initialized like a child configuration, but event listeners are not
+     * copied.
+     *
+     * @return the new {@code SharedConfigurations} object
+     */
+    private SharedConfigurations createSharedConfigurations()
+    {
+        final SharedConfigurations shared =
+                new SharedConfigurations(getNodeCombiner());
+        if (loggerName != null)
+        {
+            shared.setLogger(new ConfigurationLogger(loggerName));
+        }
+        shared.setExpressionEngine(this.getExpressionEngine());
+        shared.setConversionExpressionEngine(getConversionExpressionEngine());
+        shared.setListDelimiterHandler(getListDelimiterHandler());
+        shared.setSynchronizer(getSynchronizer());
+        return shared;
+    }
+
+    /**
+     * Discards all child configurations and the combined structures of
+     * shared configurations. This method is called when the list of contained
+     * configurations is changed. It must be called while holding the write
+     * lock.
+     */
+    private void resetChildConfigurations()
+    {
+        configs.clear();
+        if (childSources != null)
+        {
+            for (final ConfigData cd : childSources)
+            {
+                if (cd.getConfiguration() instanceof SharedConfigurations)
+                {
+                    ((SharedConfigurations) cd.getConfiguration())
+                            .detachFromChildren();
+                }
+            }
+            childSources = null;
+        }
+    }
+
     /**
      * Creates a {@code ConfigurationInterpolator} instance for performing local
      * variable substitutions. This implementation returns an object which
@@ -965,17 +1326,178 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
      */
     private CurrentConfigHolder ensureCurrentConfiguration()
     {
-        CurrentConfigHolder cch = CURRENT_CONFIG.get();
+        CurrentConfigHolder cch = currentConfig.get();
         if (cch == null)
         {
-            final String key = String.valueOf(localSubst.interpolate(keyPattern));
+            final String key = evaluateKey();
             cch = new CurrentConfigHolder(key);
             cch.setCurrentConfiguration(configs.get(key));
-            CURRENT_CONFIG.set(cch);
+            currentConfig.set(cch);
         }
         return cch;
     }
 
+    /**
+     * Marks the given child configuration as used by a key scope. It is then
+     * not detached when it is removed from the cache.
+     *
+     * @param config the child configuration
+     */
+    private void pin(final CombinedConfiguration config)
+    {
+        pinnedConfigs.compute(config, (c, state) -> {
+            final PinState pinState = state != null ? state : new PinState();
+            pinState.count++;
+            return pinState;
+        });
+    }
+
+    /**
+     * Releases a child configuration pinned by a key scope. If it is no
+     * longer used by any scope and has been removed from the cache in the
+     * meantime, it is now detached.
+     *
+     * @param config the child configuration
+     */
+    private void unpin(final CombinedConfiguration config)
+    {
+        pinnedConfigs.computeIfPresent(config, (c, state) -> {
+            if (--state.count > 0)
+            {
+                return state;
+            }
+            if (state.removed)
+            {
+                c.detachFromChildren();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Releases a child configuration which has been removed from the cache.
+     * It is detached from its children unless it is pinned by a key scope; in
+     * this case, it is detached when the last scope is closed.
+     *
+     * @param config the child configuration
+     */
+    private void releaseChildConfiguration(final CombinedConfiguration config)
+    {
+        pinnedConfigs.compute(config, (c, state) -> {
+            if (state == null)
+            {
+                c.detachFromChildren();
+                return null;
+            }
+            state.removed = true;
+            return state;
+        });
+    }
+
+    /**
+     * Evaluates the key pattern and returns the key for the current
+     * operation.
+     *
+     * @return the current key
+     */
+    private String evaluateKey()
+    {
+        final String key = constantKey;
+        return key != null ? key : String.valueOf(localSubst
+                .interpolate(keyPattern));
+    }
+
+    /**
+     * Determines the key for the given key pattern if it does not contain
+     * any variables.
+     *
+     * @param pattern the key pattern
+     * @return the constant key or <b>null</b> if the pattern has to be
+     *         interpolated
+     */
+    private static String fetchConstantKey(final String pattern)
+    {
+        return pattern != null && pattern.contains("${") ? null : Objects
+                .toString(pattern);
+    }
+
+    /**
+     * <p>
+     * A class representing a scope in which the key of a
+     * {@code DynamicCombinedConfiguration} is fixed for the current thread.
+     * </p>
+     * <p>
+     * Instances are obtained via {@link DynamicCombinedConfiguration#openKeyScope()}.
+     * They have to be closed by the thread which opened them.
+     * </p>
+     *
+     * @since 2.8.0
+     */
+    public static final class KeyScope implements AutoCloseable
+    {
+        /** The owning configuration. */
+        private final DynamicCombinedConfiguration owner;
+
+        /** The holder of the current configuration of this scope. */
+        private final CurrentConfigHolder holder;
+
+        /** The child configuration pinned by this scope. */
+        private final CombinedConfiguration config;
+
+        /** A flag whether this scope has been closed. */
+        private boolean closed;
+
+        /**
+         * Creates a new instance of {@code KeyScope}.
+         *
+         * @param owner the owning configuration
+         * @param holder the holder of the current configuration
+         * @param config the child configuration pinned by this scope
+         */
+        private KeyScope(final DynamicCombinedConfiguration owner,
+                final CurrentConfigHolder holder,
+                final CombinedConfiguration config)
+        {
+            this.owner = owner;
+            this.holder = holder;
+            this.config = config;
+        }
+
+        /**
+         * Returns the key that has been evaluated for this scope.
+         *
+         * @return the key of this scope
+         */
+        public String getKey()
+        {
+            return holder.getKey();
+        }
+
+        /**
+         * Closes this scope. Afterwards, the key pattern is evaluated again
+         * for each operation. Calling this method multiple times has no
+         * effect.
+         *
+         * @throws IllegalStateException if this scope is closed by another
+         *         thread than the one which opened it
+         */
+        @Override
+        public void close()
+        {
+            if (!closed)
+            {
+                if (owner.currentConfig.get() != holder)
+                {
+                    throw new IllegalStateException(
+                            "A key scope must be closed by the thread which opened it!");
+                }
+                closed = true;
+                owner.unpin(config);
+                owner.releaseLock();
+            }
+        }
+    }
+
     /**
      * Internal class that identifies each Configuration.
      */
@@ -990,6 +1512,9 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
         /** Stores the at string.*/
         private final String at;
 
+        /** A flag whether the configuration is independent of the key. */
+        private final boolean shared;
+
         /**
          * Creates a new instance of {@code ConfigData} and initializes
          * it.
@@ -999,10 +1524,26 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
          * @param at the at position
          */
         public ConfigData(final Configuration config, final String n, final String at)
+        {
+            this(config, n, at, false);
+        }
+
+        /**
+         * Creates a new instance of {@code ConfigData} and initializes
+         * it with all properties.
+         *
+         * @param config the configuration
+         * @param n the name
+         * @param at the at position
+         * @param shared the flag whether the configuration is shared
+         */
+        public ConfigData(final Configuration config, final String n,
+                final String at, final boolean shared)
         {
             configuration = config;
             name = n;
             this.at = at;
+            this.shared = shared;
         }
 
         /**
@@ -1035,6 +1576,72 @@ public class DynamicCombinedConfiguration extends CombinedConfiguration
             return at;
         }
 
+        /**
+         * Returns a flag whether the configuration is shared by all child
+         * configurations.
+         *
+         * @return the shared flag
+         */
+        public boolean isShared()
+        {
+            return shared;
+        }
+    }
+
+    /**
+     * A combined configuration for a run of shared configurations. An
+     * instance is added to each child configuration instead of the single
+     * shared configurations. So their node structures are combined only once.
+     * When one of the shared configurations is changed, the child
+     * configurations have to be invalidated, too. Therefore, events about
+     * updates of the shared configurations are passed on to the listeners of
+     * this object.
+     */
+    private static class SharedConfigurations extends CombinedConfiguration
+    {
+        /**
+         * Creates a new instance of {@code SharedConfigurations}.
+         *
+         * @param comb the node combiner
+         */
+        public SharedConfigurations(final NodeCombiner comb)
+        {
+            super(comb);
+        }
+
+        /**
+         * {@inheritDoc} This implementation invalidates this object and
+         * passes events before updates on to the registered listeners, so
+         * that the child configurations are invalidated, too.
+         */
+        @Override
+        public void onEvent(final ConfigurationEvent event)
+        {
+            super.onEvent(event);
+            if (event.isBeforeUpdate())
+            {
+                // the type of a configuration event is always compatible
+                @SuppressWarnings("unchecked")
+                final EventType<ConfigurationEvent> type =
+                        (EventType<ConfigurationEvent>) event.getEventType();
+                fireEvent(type, event.getPropertyName(),
+                        event.getPropertyValue(), true);
+            }
+        }
+    }
+
+    /**
+     * A simple data class storing the state of a child configuration pinned
+     * by key scopes. Instances are only accessed within atomic operations of
+     * the map of pinned configurations.
+     */
+    private static final class PinState
+    {
+        /** The number of open scopes using the child configuration. */
+        private int count;
+
+        /** A flag whether the configuration has been removed from the cache. */
+        private boolean removed;
     }
 
     /**
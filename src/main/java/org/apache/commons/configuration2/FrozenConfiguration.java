@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.configuration2.sync.LockMode;
+import org.apache.commons.configuration2.sync.SynchronizerSupport;
+
+/**
+ * <p>
+ * A read-only {@code Configuration} implementation holding a fully resolved
+ * snapshot of another configuration.
+ * </p>
+ * <p>
+ * An instance is created from a source configuration by iterating over all of
+ * its keys and querying the corresponding values. All values are stored in
+ * their final form: variables in string values are already interpolated,
+ * and properties with multiple values (collections or arrays) are stored as
+ * unmodifiable lists. Values keep their original types. The data is kept in a flat
+ * hash table with open addressing keyed by the full property keys, so reading
+ * a property is basically a single hash probe.
+ * </p>
+ * <p>
+ * Because the content of an instance can never change, no interpolation and
+ * no synchronization is performed at read time; therefore, objects of this
+ * class can be safely shared between an arbitrary number of threads without
+ * any locking. A typical use case is to create a snapshot after a
+ * configuration has been (re)loaded and to publish it to consumers which only
+ * need read access. Attempts to modify an instance cause an
+ * {@code UnsupportedOperationException}.
+ * </p>
+ * <p>
+ * Instances are created using
+ * {@link ConfigurationUtils#freeze(ImmutableConfiguration)}.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+class FrozenConfiguration extends AbstractConfiguration
+{
+    /** Constant for the error message for modifying operations. */
+    private static final String ERR_READ_ONLY = "FrozenConfiguration is read-only!";
+
+    /** The keys of this configuration in the order of the source. */
+    private final String[] keys;
+
+    /** The values of this configuration; same order as the keys. */
+    private final Object[] values;
+
+    /**
+     * The hash table used for key lookups. Each non-empty slot contains the
+     * index of the corresponding key incremented by 1; 0 marks an empty slot.
+     */
+    private final int[] slots;
+
+    /** The mask for mapping hash codes to slots of the hash table. */
+    private final int mask;
+
+    /**
+     * Creates a new instance of {@code FrozenConfiguration} with a snapshot of
+     * the given source configuration.
+     *
+     * @param source the source configuration (must not be <b>null</b>)
+     */
+    FrozenConfiguration(final ImmutableConfiguration source)
+    {
+        final List<String> keyList = new ArrayList<>();
+        final List<Object> valueList = new ArrayList<>();
+        final SynchronizerSupport sync = source instanceof SynchronizerSupport
+                ? (SynchronizerSupport) source : null;
+        if (sync != null)
+        {
+            sync.lock(LockMode.READ);
+        }
+        try
+        {
+            for (final Iterator<String> it = source.getKeys(); it.hasNext();)
+            {
+                final String key = it.next();
+                keyList.add(key);
+                valueList.add(resolveValue(source, key));
+            }
+        }
+        finally
+        {
+            if (sync != null)
+            {
+                sync.unlock(LockMode.READ);
+            }
+        }
+
+        keys = keyList.toArray(new String[0]);
+        values = valueList.toArray();
+        slots = new int[tableSize(keys.length)];
+        mask = slots.length - 1;
+        for (int i = 0; i < keys.length; i++)
+        {
+            int slot = slotFor(keys[i]);
+            while (slots[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+
+        setInterpolator(null);
+        if (source instanceof AbstractConfiguration)
+        {
+            final AbstractConfiguration ac = (AbstractConfiguration) source;
+            setConversionHandler(ac.getConversionHandler());
+            setConfigurationDecoder(ac.getConfigurationDecoder());
+            setThrowExceptionOnMissing(ac.isThrowExceptionOnMissing());
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation does nothing: as the data of this
+     * configuration never changes, there is no need for synchronization.
+     */
+    @Override
+    protected void beginRead(final boolean optimize)
+    {
+    }
+
+    /**
+     * {@inheritDoc} This implementation does nothing: as the data of this
+     * configuration never changes, there is no need for synchronization.
+     */
+    @Override
+    protected void endRead()
+    {
+    }
+
+    @Override
+    protected Object getPropertyInternal(final String key)
+    {
+        final int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    protected boolean containsKeyInternal(final String key)
+    {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    protected Iterator<String> getKeysInternal()
+    {
+        return new KeyIterator(keys);
+    }
+
+    @Override
+    protected boolean isEmptyInternal()
+    {
+        return keys.length == 0;
+    }
+
+    @Override
+    protected int sizeInternal()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Adds a property to this configuration. Because this configuration is
+     * read-only, this operation is not allowed and will cause an exception.
+     *
+     * @param key the key of the property to be added
+     * @param value the property value
+     */
+    @Override
+    protected void addPropertyDirect(final String key, final Object value)
+    {
+        throw new UnsupportedOperationException(ERR_READ_ONLY);
+    }
+
+    /**
+     * Sets a property of this configuration. Because this configuration is
+     * read-only, this operation is not allowed and will cause an exception.
+     *
+     * @param key the key of the property to be set
+     * @param value the property value
+     */
+    @Override
+    protected void setPropertyInternal(final String key, final Object value)
+    {
+        throw new UnsupportedOperationException(ERR_READ_ONLY);
+    }
+
+    /**
+     * Removes a property from this configuration. Because this configuration
+     * is read-only, this operation is not allowed and will cause an exception.
+     *
+     * @param key the key of the property to be removed
+     */
+    @Override
+    protected void clearPropertyDirect(final String key)
+    {
+        throw new UnsupportedOperationException(ERR_READ_ONLY);
+    }
+
+    /**
+     * Removes all properties from this configuration. Because this
+     * configuration is read-only, this operation is not allowed and will cause
+     * an exception.
+     */
+    @Override
+    protected void clearInternal()
+    {
+        throw new UnsupportedOperationException(ERR_READ_ONLY);
+    }
+
+    /**
+     * Returns the index of the given key in the keys array or -1 if the key
+     * cannot be found.
+     *
+     * @param key the key
+     * @return the index of this key
+     */
+    private int indexOf(final String key)
+    {
+        if (key == null)
+        {
+            return -1;
+        }
+        int slot = slotFor(key);
+        int entry;
+        while ((entry = slots[slot]) != 0)
+        {
+            if (key.equals(keys[entry - 1]))
+            {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the start slot in the hash table for the given key.
+     *
+     * @param key the key
+     * @return the slot where the search for this key starts
+     */
+    private int slotFor(final String key)
+    {
+        final int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Determines the size of the hash table for the given number of keys. The
+     * size is a power of two, and the load factor does not exceed 0.5.
+     *
+     * @param count the number of keys
+     * @return the size of the hash table
+     */
+    private static int tableSize(final int count)
+    {
+        int size = 2;
+        while (size < 2 * count)
+        {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Determines the value to be stored for the given key. The raw value of
+     * the source configuration is flattened, and string elements are
+     * interpolated; other elements are stored as they are. Single values are
+     * stored directly; multiple values are stored as an unmodifiable list.
+     *
+     * @param source the source configuration
+     * @param key the key
+     * @return the value to be stored for this key
+     */
+    private static Object resolveValue(final ImmutableConfiguration source,
+            final String key)
+    {
+        final List<Object> list = new ArrayList<>();
+        flatten(source.getProperty(key), list);
+        interpolateStrings(source, key, list);
+        if (list.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+        if (list.size() == 1)
+        {
+            return list.get(0);
+        }
+        return Collections.unmodifiableList(Arrays.asList(list.toArray()));
+    }
+
+    /**
+     * Adds the elements of the given value to the target list. Collections and
+     * arrays (including arrays of primitives) are processed recursively;
+     * <b>null</b> elements are skipped.
+     *
+     * @param value the value
+     * @param target the target list
+     */
+    private static void flatten(final Object value, final List<Object> target)
+    {
+        if (value instanceof Collection)
+        {
+            for (final Object element : (Collection<?>) value)
+            {
+                flatten(element, target);
+            }
+        }
+        else if (value != null && value.getClass().isArray())
+        {
+            final int length = Array.getLength(value);
+            for (int i = 0; i < length; i++)
+            {
+                flatten(Array.get(value, i), target);
+            }
+        }
+        else if (value != null)
+        {
+            target.add(value);
+        }
+    }
+
+    /**
+     * Replaces the string elements of the given list by their interpolated
+     * values. If the source is an {@code AbstractConfiguration}, its
+     * interpolation mechanism is used directly. Otherwise, interpolated values
+     * can only be obtained as strings via {@code getList()}; this is done only
+     * if all values are strings, so that no conversions are involved.
+     *
+     * @param source the source configuration
+     * @param key the key
+     * @param values the list with the values of this key
+     */
+    private static void interpolateStrings(final ImmutableConfiguration source,
+            final String key, final List<Object> values)
+    {
+        if (source instanceof AbstractConfiguration)
+        {
+            final AbstractConfiguration ac = (AbstractConfiguration) source;
+            for (int i = 0; i < values.size(); i++)
+            {
+                if (values.get(i) instanceof String)
+                {
+                    values.set(i, ac.interpolate(values.get(i)));
+                }
+            }
+        }
+        else if (!values.isEmpty() && allStrings(values))
+        {
+            final List<Object> interpolated = source.getList(key);
+            if (interpolated != null && interpolated.size() == values.size())
+            {
+                for (int i = 0; i < values.size(); i++)
+                {
+                    values.set(i, interpolated.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether all elements of the given list are strings.
+     *
+     * @param values the list
+     * @return a flag whether this list only contains strings
+     */
+    private static boolean allStrings(final List<Object> values)
+    {
+        for (final Object value : values)
+        {
+            if (!(value instanceof String))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An iterator over the keys of a {@code FrozenConfiguration}. The
+     * iterator does not support removing elements.
+     */
+    private static class KeyIterator implements Iterator<String>
+    {
+        /** The array with the keys. */
+        private final String[] keys;
+
+        /** The index of the next key. */
+        private int index;
+
+        /**
+         * Creates a new instance of {@code KeyIterator}.
+         *
+         * @param keys the array with the keys
+         */
+        public KeyIterator(final String[] keys)
+        {
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return index < keys.length;
+        }
+
+        @Override
+        public String next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return keys[index++];
+        }
+    }
+}
@@ -17,16 +17,23 @@
 
 package org.apache.commons.configuration2;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.MapType;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.io.InputStreamSupport;
 import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.NodeHandler;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,6 +41,13 @@ import java.util.Map;
  * A specialized hierarchical configuration class that is able to parse JSON
  * documents.
  * </p>
+ * <p>
+ * When reading a document, the token stream produced by the Jackson parser is
+ * directly transformed into a hierarchy of {@link ImmutableNode} objects; so
+ * no intermediate map structure for the whole document is created. In the
+ * same way, when the configuration is saved, the node structure is directly
+ * written to a Jackson generator.
+ * </p>
  *
  * @since 2.2
  */
@@ -46,12 +60,6 @@ public class JSONConfiguration extends AbstractYAMLBasedConfiguration
      */
     private final ObjectMapper mapper = new ObjectMapper();
 
-    /**
-     * The {@code MapType} used to convert types.
-     */
-    private final MapType type = mapper.getTypeFactory()
-            .constructMapType(Map.class, String.class, Object.class);
-
     /**
      * Creates a new instance of {@code JSONConfiguration}.
      */
@@ -73,10 +81,9 @@ public class JSONConfiguration extends AbstractYAMLBasedConfiguration
     @Override
     public void read(final Reader in) throws ConfigurationException
     {
-        try
+        try (final JsonParser parser = mapper.getFactory().createParser(in))
         {
-            final Map<String, Object> map = mapper.readValue(in, this.type);
-            load(map);
+            load(parser);
         }
         catch (final Exception e)
         {
@@ -87,8 +94,13 @@ public class JSONConfiguration extends AbstractYAMLBasedConfiguration
     @Override
     public void write(final Writer out) throws ConfigurationException, IOException
     {
-        this.mapper.writer().writeValue(out, constructMap(
-                this.getNodeModel().getNodeHandler().getRootNode()));
+        final NodeHandler<ImmutableNode> handler =
+                getNodeModel().getNodeHandler();
+        try (final JsonGenerator generator =
+                mapper.getFactory().createGenerator(out))
+        {
+            writeObject(generator, handler, handler.getRootNode());
+        }
     }
 
     /**
@@ -100,10 +112,9 @@ public class JSONConfiguration extends AbstractYAMLBasedConfiguration
     @Override
     public void read(final InputStream in) throws ConfigurationException
     {
-        try
+        try (final JsonParser parser = mapper.getFactory().createParser(in))
         {
-            final Map<String, Object> map = mapper.readValue(in, this.type);
-            load(map);
+            load(parser);
         }
         catch (final Exception e)
         {
@@ -111,4 +122,193 @@ public class JSONConfiguration extends AbstractYAMLBasedConfiguration
         }
     }
 
+    /**
+     * Writes the given node as a JSON object. Each group of child nodes with
+     * the same name becomes a field; groups with multiple nodes are written as
+     * arrays.
+     *
+     * @param generator the generator
+     * @param handler the {@code NodeHandler}
+     * @param node the node to be written
+     * @throws IOException if an error occurs
+     */
+    private static void writeObject(final JsonGenerator generator,
+            final NodeHandler<ImmutableNode> handler, final ImmutableNode node)
+            throws IOException
+    {
+        generator.writeStartObject();
+        for (final Map.Entry<String, List<ImmutableNode>> e : groupChildrenByName(
+                handler, node).entrySet())
+        {
+            generator.writeFieldName(e.getKey());
+            final List<ImmutableNode> nodes = e.getValue();
+            if (nodes.size() == 1)
+            {
+                writeNode(generator, handler, nodes.get(0));
+            }
+            else
+            {
+                generator.writeStartArray();
+                for (final ImmutableNode child : nodes)
+                {
+                    writeNode(generator, handler, child);
+                }
+                generator.writeEndArray();
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the content of a single node. A node with children is written as
+     * an object; for other nodes, their value is written.
+     *
+     * @param generator the generator
+     * @param handler the {@code NodeHandler}
+     * @param node the node to be written
+     * @throws IOException if an error occurs
+     */
+    private static void writeNode(final JsonGenerator generator,
+            final NodeHandler<ImmutableNode> handler, final ImmutableNode node)
+            throws IOException
+    {
+        if (handler.getChildren(node).isEmpty())
+        {
+            generator.writeObject(handler.getValue(node));
+        }
+        else
+        {
+            writeObject(generator, handler, node);
+        }
+    }
+
+    /**
+     * Loads this configuration from the tokens provided by the given parser.
+     * The document must contain an object at top level; it becomes the root
+     * node of this configuration.
+     *
+     * @param parser the parser
+     * @throws IOException if an error occurs
+     */
+    private void load(final JsonParser parser) throws IOException
+    {
+        if (parser.nextToken() != JsonToken.START_OBJECT)
+        {
+            throw new JsonParseException(parser,
+                    "Expected a JSON object at top level");
+        }
+        getNodeModel().setRootNode(parseObject(parser, ""));
+    }
+
+    /**
+     * Creates a node for a JSON object. The parser must be positioned on the
+     * start token of the object. The fields of the object are processed
+     * recursively; after this method returns, the parser is positioned on the
+     * end token of the object. If the object contains a key multiple times,
+     * only its last value is kept at the position of its first occurrence;
+     * this is the same behavior as parsing the object into a map.
+     *
+     * @param parser the parser
+     * @param key the name of the new node
+     * @return the node representing the object
+     * @throws IOException if an error occurs
+     */
+    private static ImmutableNode parseObject(final JsonParser parser,
+            final String key) throws IOException
+    {
+        final Map<String, List<ImmutableNode>> fields = new LinkedHashMap<>();
+        int childCount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            final String name = parser.getCurrentName();
+            parser.nextToken();
+            final List<ImmutableNode> nodes = new ArrayList<>(1);
+            parseValue(parser, name, nodes);
+            final List<ImmutableNode> replaced = fields.put(name, nodes);
+            childCount += nodes.size();
+            if (replaced != null)
+            {
+                childCount -= replaced.size();
+            }
+        }
+
+        final ImmutableNode.Builder subtree =
+                new ImmutableNode.Builder(childCount).name(key);
+        for (final List<ImmutableNode> nodes : fields.values())
+        {
+            subtree.addChildren(nodes);
+        }
+        return subtree.create();
+    }
+
+    /**
+     * Processes the value the parser is currently positioned on and adds the
+     * resulting nodes to the given list. Objects result in a single node
+     * with children, arrays in a node for each of their elements (with the
+     * same name), and all other values in a leaf node.
+     *
+     * @param parser the parser
+     * @param key the name of the new node(s)
+     * @param nodes the list receiving the new node(s)
+     * @throws IOException if an error occurs
+     */
+    private static void parseValue(final JsonParser parser, final String key,
+            final List<ImmutableNode> nodes) throws IOException
+    {
+        final JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT)
+        {
+            nodes.add(parseObject(parser, key));
+        }
+        else if (token == JsonToken.START_ARRAY)
+        {
+            while (parser.nextToken() != JsonToken.END_ARRAY)
+            {
+                parseValue(parser, key, nodes);
+            }
+        }
+        else
+        {
+            nodes.add(new ImmutableNode.Builder().name(key)
+                    .value(scalarValue(parser, token)).create());
+        }
+    }
+
+    /**
+     * Returns the value of the scalar token the parser is currently positioned
+     * on. The values have the same types as produced by Jackson when
+     * deserializing untyped data.
+     *
+     * @param parser the parser
+     * @param token the current token
+     * @return the value of this token
+     * @throws IOException if an error occurs
+     */
+    private static Object scalarValue(final JsonParser parser,
+            final JsonToken token) throws IOException
+    {
+        if (token == null)
+        {
+            throw new JsonParseException(parser, "Unexpected end of input");
+        }
+        switch (token)
+        {
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+            return parser.getNumberValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            return null;
+        case VALUE_EMBEDDED_OBJECT:
+            return parser.getEmbeddedObject();
+        default:
+            throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
 }
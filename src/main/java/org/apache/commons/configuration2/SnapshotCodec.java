@@ -0,0 +1,723 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+/**
+ * <p>
+ * An internally used helper class which reads and writes the binary format of
+ * {@link SnapshotConfiguration}.
+ * </p>
+ * <p>
+ * A snapshot starts with a header consisting of a magic number, a version
+ * byte, and a flags byte which determines whether the remaining data is
+ * compressed using the <em>deflate</em> algorithm. Then follows a string
+ * table containing all distinct node names, attribute names, and string
+ * values. The node hierarchy is stored in pre-order; each node refers to the
+ * string table by index, so names occurring multiple times are stored only
+ * once. Numbers are written as variable-length integers.
+ * </p>
+ * <p>
+ * When reading a snapshot, the counts and lengths stored in the data are not
+ * trusted: They are only used to preallocate memory up to a limit, and
+ * structures grow as data is actually read. So corrupt input fails with an
+ * exception when the end of the stream is reached rather than exhausting the
+ * memory. The node hierarchy is read without recursion, so deep hierarchies
+ * cannot cause a stack overflow.
+ * </p>
+ * <p>
+ * Values of the types {@code String}, {@code Boolean}, {@code Integer},
+ * {@code Long}, {@code Float}, and {@code Double} are stored with their type;
+ * values of other types are stored as strings.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+final class SnapshotCodec
+{
+    /** Constant for the magic number at the beginning of a snapshot. */
+    private static final int MAGIC = 0x43435346;
+
+    /** Constant for the current version of the format. */
+    private static final int VERSION = 1;
+
+    /** Constant for the flag indicating compressed data. */
+    private static final int FLAG_COMPRESSED = 1;
+
+    /** Constant for the size of the buffers for stream operations. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Constant for the maximum number of elements or bytes preallocated based
+     * on a count read from a snapshot.
+     */
+    private static final int MAX_PREALLOCATION = 1024;
+
+    /** Type tag for a null value. */
+    private static final int TYPE_NULL = 0;
+
+    /** Type tag for a string value. */
+    private static final int TYPE_STRING = 1;
+
+    /** Type tag for the value true. */
+    private static final int TYPE_TRUE = 2;
+
+    /** Type tag for the value false. */
+    private static final int TYPE_FALSE = 3;
+
+    /** Type tag for an integer value. */
+    private static final int TYPE_INT = 4;
+
+    /** Type tag for a long value. */
+    private static final int TYPE_LONG = 5;
+
+    /** Type tag for a float value. */
+    private static final int TYPE_FLOAT = 6;
+
+    /** Type tag for a double value. */
+    private static final int TYPE_DOUBLE = 7;
+
+    /**
+     * Private constructor so that no instances can be created.
+     */
+    private SnapshotCodec()
+    {
+    }
+
+    /**
+     * Writes the node hierarchy with the given root node to the specified
+     * stream. The stream is not closed.
+     *
+     * @param root the root node of the hierarchy
+     * @param out the target stream
+     * @param compress a flag whether the data is to be compressed
+     * @throws IOException if an I/O error occurs
+     */
+    static void write(final ImmutableNode root, final OutputStream out,
+            final boolean compress) throws IOException
+    {
+        final DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(compress ? FLAG_COMPRESSED : 0);
+
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        collectStrings(root, strings);
+
+        final Deflater deflater = compress ? new Deflater() : null;
+        try
+        {
+            final OutputStream target = compress ? new DeflaterOutputStream(
+                    out, deflater, BUFFER_SIZE) : out;
+            final DataOutputStream data = new DataOutputStream(
+                    new BufferedOutputStream(target, BUFFER_SIZE));
+            writeStringTable(data, strings);
+            writeNode(data, root, strings);
+            data.flush();
+            if (compress)
+            {
+                ((DeflaterOutputStream) target).finish();
+            }
+            out.flush();
+        }
+        finally
+        {
+            if (deflater != null)
+            {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Reads a node hierarchy from the specified stream. The stream is not
+     * closed.
+     *
+     * @param in the source stream
+     * @return the root node of the hierarchy
+     * @throws ConfigurationException if the data is not a valid snapshot
+     * @throws IOException if an I/O error occurs
+     */
+    static ImmutableNode read(final InputStream in)
+            throws ConfigurationException, IOException
+    {
+        final DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC)
+        {
+            throw new ConfigurationException(
+                    "The data is not a configuration snapshot!");
+        }
+        final int version = header.readUnsignedByte();
+        if (version != VERSION)
+        {
+            throw new ConfigurationException(
+                    "Unsupported version of configuration snapshot: "
+                            + version);
+        }
+        final boolean compressed =
+                (header.readUnsignedByte() & FLAG_COMPRESSED) != 0;
+
+        final Inflater inflater = compressed ? new Inflater() : null;
+        try
+        {
+            final InputStream source = compressed ? new InflaterInputStream(in,
+                    inflater, BUFFER_SIZE)
+                    : new BufferedInputStream(in, BUFFER_SIZE);
+            final DataInputStream data = new DataInputStream(source);
+            final String[] strings = readStringTable(data);
+            return readNodes(data, strings);
+        }
+        finally
+        {
+            if (inflater != null)
+            {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Adds all strings referenced by the given node and its descendants to the
+     * string table.
+     *
+     * @param node the current node
+     * @param strings the map with the string table
+     */
+    private static void collectStrings(final ImmutableNode node,
+            final Map<String, Integer> strings)
+    {
+        addString(node.getNodeName(), strings);
+        addValueString(node.getValue(), strings);
+        for (final Map.Entry<String, Object> e : node.getAttributes()
+                .entrySet())
+        {
+            addString(e.getKey(), strings);
+            addValueString(e.getValue(), strings);
+        }
+        for (final ImmutableNode child : node)
+        {
+            collectStrings(child, strings);
+        }
+    }
+
+    /**
+     * Adds the string representation of the given value to the string table
+     * if the value is stored as a string.
+     *
+     * @param value the value
+     * @param strings the map with the string table
+     */
+    private static void addValueString(final Object value,
+            final Map<String, Integer> strings)
+    {
+        if (value != null && typeOf(value) == TYPE_STRING)
+        {
+            addString(String.valueOf(value), strings);
+        }
+    }
+
+    /**
+     * Adds the given string to the string table if it is not yet contained.
+     *
+     * @param s the string (may be <b>null</b>)
+     * @param strings the map with the string table
+     */
+    private static void addString(final String s,
+            final Map<String, Integer> strings)
+    {
+        if (s != null)
+        {
+            strings.putIfAbsent(s, strings.size());
+        }
+    }
+
+    /**
+     * Writes the string table.
+     *
+     * @param out the output stream
+     * @param strings the map with the string table
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeStringTable(final DataOutputStream out,
+            final Map<String, Integer> strings) throws IOException
+    {
+        writeVarInt(out, strings.size());
+        for (final String s : strings.keySet())
+        {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the string table.
+     *
+     * @param in the input stream
+     * @return an array with the strings of the table
+     * @throws ConfigurationException if the data is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static String[] readStringTable(final DataInputStream in)
+            throws ConfigurationException, IOException
+    {
+        final int count = readVarInt(in);
+        final List<String> strings =
+                new ArrayList<>(Math.min(count, MAX_PREALLOCATION));
+        byte[] buffer = new byte[256];
+        for (int i = 0; i < count; i++)
+        {
+            final int length = readVarInt(in);
+            buffer = readBytes(in, buffer, length);
+            strings.add(new String(buffer, 0, length, StandardCharsets.UTF_8));
+        }
+        return strings.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the given number of bytes into a buffer. If the buffer is too
+     * small, it is enlarged step by step while the data is read, so that an
+     * invalid length does not cause a huge allocation. The buffer containing
+     * the data is returned.
+     *
+     * @param in the input stream
+     * @param buffer the current buffer
+     * @param length the number of bytes to read
+     * @return the buffer with the data
+     * @throws IOException if an I/O error occurs
+     */
+    private static byte[] readBytes(final DataInputStream in,
+            final byte[] buffer, final int length) throws IOException
+    {
+        byte[] buf = buffer;
+        int pos = 0;
+        while (pos < length)
+        {
+            if (pos == buf.length)
+            {
+                final byte[] newBuf = new byte[(int) Math.min(length,
+                        Math.max(2L * buf.length, MAX_PREALLOCATION))];
+                System.arraycopy(buf, 0, newBuf, 0, pos);
+                buf = newBuf;
+            }
+            final int count = Math.min(length, buf.length) - pos;
+            in.readFully(buf, pos, count);
+            pos += count;
+        }
+        return buf;
+    }
+
+    /**
+     * Writes the given node and its descendants.
+     *
+     * @param out the output stream
+     * @param node the node to be written
+     * @param strings the map with the string table
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeNode(final DataOutputStream out,
+            final ImmutableNode node, final Map<String, Integer> strings)
+            throws IOException
+    {
+        writeStringRef(out, node.getNodeName(), strings);
+        writeValue(out, node.getValue(), strings);
+        final Map<String, Object> attributes = node.getAttributes();
+        writeVarInt(out, attributes.size());
+        for (final Map.Entry<String, Object> e : attributes.entrySet())
+        {
+            writeStringRef(out, e.getKey(), strings);
+            writeValue(out, e.getValue(), strings);
+        }
+        writeVarInt(out, node.getChildren().size());
+        for (final ImmutableNode child : node)
+        {
+            writeNode(out, child, strings);
+        }
+    }
+
+    /**
+     * Reads the node hierarchy. The nodes are stored in pre-order. They are
+     * processed using an explicit stack of the nodes whose children are
+     * currently read, so the depth of the hierarchy is not limited by the
+     * size of the call stack.
+     *
+     * @param in the input stream
+     * @param strings the string table
+     * @return the root node of the hierarchy
+     * @throws ConfigurationException if the data is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static ImmutableNode readNodes(final DataInputStream in,
+            final String[] strings) throws ConfigurationException, IOException
+    {
+        final Deque<NodeData> stack = new ArrayDeque<>();
+        NodeData current = readNode(in, strings);
+        while (true)
+        {
+            if (current.remainingChildren > 0)
+            {
+                current.remainingChildren--;
+                stack.push(current);
+                current = readNode(in, strings);
+            }
+            else
+            {
+                final ImmutableNode node = current.builder.create();
+                if (stack.isEmpty())
+                {
+                    return node;
+                }
+                current = stack.pop();
+                current.builder.addChild(node);
+            }
+        }
+    }
+
+    /**
+     * Reads the data of a single node except for its children. The result
+     * contains a builder initialized with the properties of the node and the
+     * number of children to be read.
+     *
+     * @param in the input stream
+     * @param strings the string table
+     * @return the data of the node
+     * @throws ConfigurationException if the data is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static NodeData readNode(final DataInputStream in,
+            final String[] strings) throws ConfigurationException, IOException
+    {
+        final String name = readStringRef(in, strings);
+        final Object value = readValue(in, strings);
+        final int attributeCount = readVarInt(in);
+        final Map<String, Object> attributes = attributeCount > 0
+                ? new LinkedHashMap<>(
+                        Math.min(attributeCount, MAX_PREALLOCATION))
+                : null;
+        for (int i = 0; i < attributeCount; i++)
+        {
+            attributes.put(readStringRef(in, strings), readValue(in, strings));
+        }
+
+        final int childCount = readVarInt(in);
+        final ImmutableNode.Builder builder = new ImmutableNode.Builder(
+                Math.min(childCount, MAX_PREALLOCATION)).name(name)
+                        .value(value).addAttributes(attributes);
+        return new NodeData(builder, childCount);
+    }
+
+    /**
+     * Writes a reference to an entry of the string table. <b>null</b> is
+     * encoded as 0, other strings as their index plus 1.
+     *
+     * @param out the output stream
+     * @param s the string (may be <b>null</b>)
+     * @param strings the map with the string table
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeStringRef(final DataOutputStream out,
+            final String s, final Map<String, Integer> strings)
+            throws IOException
+    {
+        writeVarInt(out, s == null ? 0 : strings.get(s) + 1);
+    }
+
+    /**
+     * Reads a reference to an entry of the string table.
+     *
+     * @param in the input stream
+     * @param strings the string table
+     * @return the referenced string (may be <b>null</b>)
+     * @throws ConfigurationException if the reference is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static String readStringRef(final DataInputStream in,
+            final String[] strings) throws ConfigurationException, IOException
+    {
+        final int ref = readVarInt(in);
+        if (ref == 0)
+        {
+            return null;
+        }
+        if (ref > strings.length)
+        {
+            throw new ConfigurationException(
+                    "Invalid string reference in snapshot: " + ref);
+        }
+        return strings[ref - 1];
+    }
+
+    /**
+     * Writes a value together with its type.
+     *
+     * @param out the output stream
+     * @param value the value (may be <b>null</b>)
+     * @param strings the map with the string table
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeValue(final DataOutputStream out,
+            final Object value, final Map<String, Integer> strings)
+            throws IOException
+    {
+        final int type = typeOf(value);
+        out.writeByte(type);
+        switch (type)
+        {
+        case TYPE_STRING:
+            writeVarInt(out, strings.get(String.valueOf(value)));
+            break;
+        case TYPE_INT:
+            writeVarLong(out, zigZag((Integer) value));
+            break;
+        case TYPE_LONG:
+            writeVarLong(out, zigZag((Long) value));
+            break;
+        case TYPE_FLOAT:
+            out.writeFloat((Float) value);
+            break;
+        case TYPE_DOUBLE:
+            out.writeDouble((Double) value);
+            break;
+        default:
+            // the type tag is sufficient
+            break;
+        }
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param in the input stream
+     * @param strings the string table
+     * @return the value
+     * @throws ConfigurationException if the data is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static Object readValue(final DataInputStream in,
+            final String[] strings) throws ConfigurationException, IOException
+    {
+        final int type = in.readUnsignedByte();
+        switch (type)
+        {
+        case TYPE_NULL:
+            return null;
+        case TYPE_STRING:
+            final int index = readVarInt(in);
+            if (index >= strings.length)
+            {
+                throw new ConfigurationException(
+                        "Invalid string reference in snapshot: " + index);
+            }
+            return strings[index];
+        case TYPE_TRUE:
+            return Boolean.TRUE;
+        case TYPE_FALSE:
+            return Boolean.FALSE;
+        case TYPE_INT:
+            return (int) unZigZag(readVarLong(in));
+        case TYPE_LONG:
+            return unZigZag(readVarLong(in));
+        case TYPE_FLOAT:
+            return in.readFloat();
+        case TYPE_DOUBLE:
+            return in.readDouble();
+        default:
+            throw new ConfigurationException(
+                    "Invalid value type in snapshot: " + type);
+        }
+    }
+
+    /**
+     * Determines the type tag for the given value.
+     *
+     * @param value the value
+     * @return the type tag
+     */
+    private static int typeOf(final Object value)
+    {
+        if (value == null)
+        {
+            return TYPE_NULL;
+        }
+        if (value instanceof Boolean)
+        {
+            return ((Boolean) value).booleanValue() ? TYPE_TRUE : TYPE_FALSE;
+        }
+        if (value instanceof Integer)
+        {
+            return TYPE_INT;
+        }
+        if (value instanceof Long)
+        {
+            return TYPE_LONG;
+        }
+        if (value instanceof Float)
+        {
+            return TYPE_FLOAT;
+        }
+        if (value instanceof Double)
+        {
+            return TYPE_DOUBLE;
+        }
+        return TYPE_STRING;
+    }
+
+    /**
+     * Writes a non-negative integer in a variable-length format: 7 bits per
+     * byte, the high bit indicates that more bytes follow.
+     *
+     * @param out the output stream
+     * @param value the value
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeVarInt(final DataOutputStream out, final int value)
+            throws IOException
+    {
+        writeVarLong(out, value);
+    }
+
+    /**
+     * Writes a long value in a variable-length format.
+     *
+     * @param out the output stream
+     * @param value the value (treated as unsigned)
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeVarLong(final DataOutputStream out,
+            final long value) throws IOException
+    {
+        long v = value;
+        while ((v & ~0x7FL) != 0)
+        {
+            out.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    /**
+     * Reads a non-negative integer in variable-length format.
+     *
+     * @param in the input stream
+     * @return the value
+     * @throws ConfigurationException if the value is out of range
+     * @throws IOException if an I/O error occurs
+     */
+    private static int readVarInt(final DataInputStream in)
+            throws ConfigurationException, IOException
+    {
+        final long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE)
+        {
+            throw new ConfigurationException(
+                    "Invalid number in snapshot: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a long value in variable-length format.
+     *
+     * @param in the input stream
+     * @return the value
+     * @throws ConfigurationException if the encoding is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    private static long readVarLong(final DataInputStream in)
+            throws ConfigurationException, IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7)
+        {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new ConfigurationException("Invalid number in snapshot!");
+    }
+
+    /**
+     * Applies zig-zag encoding to a signed value, so that numbers with a small
+     * absolute value have a short variable-length representation.
+     *
+     * @param value the value
+     * @return the encoded value
+     */
+    private static long zigZag(final long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses zig-zag encoding.
+     *
+     * @param value the encoded value
+     * @return the original value
+     */
+    private static long unZigZag(final long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * A helper class storing the data of a node while its children are read.
+     */
+    private static final class NodeData
+    {
+        /** The builder for the node. */
+        private final ImmutableNode.Builder builder;
+
+        /** The number of children still to be read. */
+        private int remainingChildren;
+
+        /**
+         * Creates a new instance of {@code NodeData}.
+         *
+         * @param builder the builder for the node
+         * @param childCount the number of children of the node
+         */
+        NodeData(final ImmutableNode.Builder builder, final int childCount)
+        {
+            this.builder = builder;
+            remainingChildren = childCount;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.io.InputStreamSupport;
+import org.apache.commons.configuration2.io.OutputStreamSupport;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+/**
+ * <p>
+ * A specialized hierarchical configuration class which stores its data in a
+ * compact binary format.
+ * </p>
+ * <p>
+ * Parsing text-based formats like XML or YAML can be expensive for large
+ * configurations. This class can store the node structure of an arbitrary
+ * hierarchical configuration - including attributes - as a binary snapshot
+ * which can be loaded with a single sequential read. A typical use case is to
+ * convert text configuration files into snapshots in a build step:
+ * </p>
+ *
+ * <pre>
+ * XMLConfiguration xml = ...; // load the XML configuration
+ * SnapshotConfiguration snapshot = new SnapshotConfiguration(xml);
+ * new FileHandler(snapshot).save(new File("config.snapshot"));
+ * </pre>
+ *
+ * <p>
+ * At runtime, the snapshot file is then loaded by a
+ * {@code SnapshotConfiguration} (e.g. using a file-based configuration
+ * builder). Flat configurations can be converted using
+ * {@link ConfigurationUtils#convertToHierarchical(Configuration)}.
+ * </p>
+ * <p>
+ * The binary format contains a string table, so that node names occurring
+ * multiple times are stored only once. Optionally, the data can be compressed
+ * which reduces the size of the file at the cost of some CPU time; when
+ * loading a snapshot, compression is detected automatically. Values of the
+ * types {@code String}, {@code Boolean}, {@code Integer}, {@code Long},
+ * {@code Float}, and {@code Double} keep their type; other values are stored
+ * as strings.
+ * </p>
+ * <p>
+ * Because the format is binary, a snapshot can only be read from and written
+ * to streams; the methods of the {@link FileBasedConfiguration} interface
+ * operating on readers and writers throw an exception.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public class SnapshotConfiguration extends BaseHierarchicalConfiguration
+        implements FileBasedConfiguration, InputStreamSupport,
+        OutputStreamSupport
+{
+    /** A flag whether snapshots are written in compressed form. */
+    private volatile boolean compressed;
+
+    /**
+     * Creates a new instance of {@code SnapshotConfiguration}.
+     */
+    public SnapshotConfiguration()
+    {
+    }
+
+    /**
+     * Creates a new instance of {@code SnapshotConfiguration} as a copy of the
+     * specified configuration.
+     *
+     * @param c the configuration to be copied
+     */
+    public SnapshotConfiguration(
+            final HierarchicalConfiguration<ImmutableNode> c)
+    {
+        super(c);
+    }
+
+    /**
+     * Returns a flag whether the data is compressed when this configuration
+     * is saved.
+     *
+     * @return the compressed flag
+     */
+    public boolean isCompressed()
+    {
+        return compressed;
+    }
+
+    /**
+     * Sets a flag whether the data is to be compressed when this configuration
+     * is saved. This flag has no effect on loading. The default value is
+     * <b>false</b>.
+     *
+     * @param compressed the compressed flag
+     */
+    public void setCompressed(final boolean compressed)
+    {
+        this.compressed = compressed;
+    }
+
+    /**
+     * Loads this configuration from the given snapshot stream.
+     *
+     * @param in the input stream
+     * @throws ConfigurationException if the data is not a valid snapshot
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void read(final InputStream in) throws ConfigurationException,
+            IOException
+    {
+        getNodeModel().setRootNode(SnapshotCodec.read(in));
+    }
+
+    /**
+     * Writes a snapshot of this configuration to the given stream.
+     *
+     * @param out the output stream
+     * @throws ConfigurationException if an error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(final OutputStream out) throws ConfigurationException,
+            IOException
+    {
+        SnapshotCodec.write(getNodeModel().getNodeHandler().getRootNode(),
+                out, isCompressed());
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported because snapshots are in
+     * a binary format. An exception is thrown.
+     */
+    @Override
+    public void read(final Reader in) throws ConfigurationException
+    {
+        throw new ConfigurationException(
+                "A snapshot can only be read from an input stream!");
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported because snapshots are in
+     * a binary format. An exception is thrown.
+     */
+    @Override
+    public void write(final Writer out) throws ConfigurationException
+    {
+        throw new ConfigurationException(
+                "A snapshot can only be written to an output stream!");
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
+import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.apache.commons.configuration2.tree.NodeModel;
+import org.apache.commons.configuration2.tree.SnapshotNodeModel;
+
+/**
+ * <p>
+ * A lightweight, read-only hierarchical configuration operating on a snapshot
+ * of a sub tree of {@link ImmutableNode} objects.
+ * </p>
+ * <p>
+ * Instances are created by the {@code subtreeView()} and
+ * {@code subsetView()} methods of {@link BaseHierarchicalConfiguration}. The
+ * root node of the selected sub tree is pinned in a
+ * {@link SnapshotNodeModel}; so keys are resolved directly against this node
+ * without the need to construct keys of the parent configuration, and no
+ * tracked nodes have to be registered at the parent's model. Updates of the
+ * parent configuration performed after the creation of the view are not
+ * visible.
+ * </p>
+ * <p>
+ * The settings relevant for querying properties (e.g. the expression engine or
+ * the list delimiter handler) are copied from the configuration the view is
+ * created for. Interpolation is delegated to this configuration, as is done
+ * by the configurations returned by {@code subset()}; so variables are always
+ * resolved against the keys of the original configuration, and they can refer
+ * to properties outside of the sub tree. Sub configurations obtained from a view are views
+ * on the same snapshot as well. All methods that would modify the
+ * configuration's data throw an {@code UnsupportedOperationException}.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+final class SubtreeView extends AbstractHierarchicalConfiguration<ImmutableNode>
+{
+    /** The configuration which is responsible for interpolation. */
+    private final AbstractHierarchicalConfiguration<ImmutableNode> interpolationSource;
+
+    /**
+     * Creates a new instance of {@code SubtreeView} for the specified root
+     * node and initializes it from the given source configuration.
+     *
+     * @param source the configuration the view is created for
+     * @param root the root node of the view
+     */
+    SubtreeView(final AbstractHierarchicalConfiguration<ImmutableNode> source,
+            final ImmutableNode root)
+    {
+        super(new SnapshotNodeModel(root));
+        setExpressionEngine(source.getExpressionEngine());
+        setListDelimiterHandler(source.getListDelimiterHandler());
+        setThrowExceptionOnMissing(source.isThrowExceptionOnMissing());
+        interpolationSource = source instanceof SubtreeView
+                ? ((SubtreeView) source).interpolationSource : source;
+        // the default interpolator created by the super class is not used
+        setInterpolator(null);
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns the
+     * {@code ConfigurationInterpolator} of the configuration this view was
+     * created for.
+     */
+    @Override
+    public ConfigurationInterpolator getInterpolator()
+    {
+        return interpolationSource.getInterpolator();
+    }
+
+    /**
+     * {@inheritDoc} This implementation delegates to the configuration this
+     * view was created for.
+     */
+    @Override
+    protected Object interpolate(final Object value)
+    {
+        return interpolationSource.interpolate(value);
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns a view on the single node
+     * selected by the key. As views never change, the {@code supportUpdates}
+     * flag is irrelevant.
+     *
+     * @throws ConfigurationRuntimeException if the key does not select a
+     *         single node
+     */
+    @Override
+    public HierarchicalConfiguration<ImmutableNode> configurationAt(
+            final String key, final boolean supportUpdates)
+    {
+        return configurationAt(key);
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns a view on the single node
+     * selected by the key.
+     *
+     * @throws ConfigurationRuntimeException if the key does not select a
+     *         single node
+     */
+    @Override
+    public HierarchicalConfiguration<ImmutableNode> configurationAt(
+            final String key)
+    {
+        final List<ImmutableNode> nodes = fetchNodes(key);
+        if (nodes.size() != 1)
+        {
+            throw new ConfigurationRuntimeException(
+                    "Passed in key must select exactly one node (found %,d): %s",
+                    nodes.size(), key);
+        }
+        return new SubtreeView(this, nodes.get(0));
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<ImmutableNode>> configurationsAt(
+            final String key)
+    {
+        return createViews(fetchNodes(key));
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<ImmutableNode>> configurationsAt(
+            final String key, final boolean supportUpdates)
+    {
+        return configurationsAt(key);
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<ImmutableNode>> childConfigurationsAt(
+            final String key)
+    {
+        final List<ImmutableNode> nodes = fetchNodes(key);
+        if (nodes.size() != 1)
+        {
+            return Collections.emptyList();
+        }
+        return createViews(nodes.get(0).getChildren());
+    }
+
+    @Override
+    public List<HierarchicalConfiguration<ImmutableNode>> childConfigurationsAt(
+            final String key, final boolean supportUpdates)
+    {
+        return childConfigurationsAt(key);
+    }
+
+    /**
+     * {@inheritDoc} Views are already read-only, so no wrapper is needed.
+     */
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            final String key, final boolean supportUpdates)
+    {
+        return (SubtreeView) configurationAt(key);
+    }
+
+    /**
+     * {@inheritDoc} Views are already read-only, so no wrapper is needed.
+     */
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            final String key)
+    {
+        return (SubtreeView) configurationAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableConfigurationsAt(
+            final String key)
+    {
+        return Collections.<ImmutableHierarchicalConfiguration> unmodifiableList(
+                configurationsAt(key));
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableChildConfigurationsAt(
+            final String key)
+    {
+        return Collections.<ImmutableHierarchicalConfiguration> unmodifiableList(
+                childConfigurationsAt(key));
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns another view whose root node
+     * combines the nodes selected by the prefix as described for
+     * {@link BaseHierarchicalConfiguration#subset(String)}.
+     */
+    @Override
+    public Configuration subset(final String prefix)
+    {
+        return new SubtreeView(this,
+                BaseHierarchicalConfiguration.createSubsetRootNode(
+                        fetchNodeList(prefix), getModel().getNodeHandler()));
+    }
+
+    /**
+     * {@inheritDoc} The result is a modifiable
+     * {@link BaseHierarchicalConfiguration} with the interpolated content of
+     * this view.
+     */
+    @Override
+    public Configuration interpolatedConfiguration()
+    {
+        final AbstractHierarchicalConfiguration<ImmutableNode> parent =
+                interpolationSource;
+        final BaseHierarchicalConfiguration copy =
+                new BaseHierarchicalConfiguration(new InMemoryNodeModel(
+                        getModel().getNodeHandler().getRootNode()))
+                {
+                    // Override interpolate to always interpolate on the parent
+                    @Override
+                    protected Object interpolate(final Object value)
+                    {
+                        return parent.interpolate(value);
+                    }
+
+                    @Override
+                    public ConfigurationInterpolator getInterpolator()
+                    {
+                        return parent.getInterpolator();
+                    }
+                };
+        copy.setExpressionEngine(getExpressionEngine());
+        copy.setListDelimiterHandler(getListDelimiterHandler());
+        copy.setThrowExceptionOnMissing(isThrowExceptionOnMissing());
+        return copy.interpolatedConfiguration();
+    }
+
+    /**
+     * {@inheritDoc} As the model of a view is immutable, it can be shared by
+     * the clone.
+     */
+    @Override
+    protected NodeModel<ImmutableNode> cloneNodeModel()
+    {
+        return getModel();
+    }
+
+    /**
+     * Returns a list with the nodes selected by the given key.
+     *
+     * @param key the key
+     * @return the list with the selected nodes
+     */
+    private List<ImmutableNode> fetchNodes(final String key)
+    {
+        final ImmutableNode root = getModel().getNodeHandler().getRootNode();
+        return resolveNodeKey(root, key, getModel().getNodeHandler());
+    }
+
+    /**
+     * Creates a list with views for the given nodes.
+     *
+     * @param nodes the nodes
+     * @return the list with views
+     */
+    private List<HierarchicalConfiguration<ImmutableNode>> createViews(
+            final List<ImmutableNode> nodes)
+    {
+        final List<HierarchicalConfiguration<ImmutableNode>> views =
+                new ArrayList<>(nodes.size());
+        for (final ImmutableNode node : nodes)
+        {
+            views.add(new SubtreeView(this, node));
+        }
+        return views;
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * <p>
+ * An implementation of the {@code ImmutableConfiguration} interface which
+ * wraps a {@code Configuration} object.
+ * </p>
+ * <p>
+ * All methods of the {@code ImmutableConfiguration} interface are directly
+ * delegated to the wrapped configuration. That way all functionality is
+ * actually backed by the underlying {@code Configuration} implementation, but
+ * because this class only implements the {@code ImmutableConfiguration}
+ * interface manipulations are not possible. In contrast to a dynamic proxy, no
+ * reflection is involved when accessing properties.
+ * </p>
+ * <p>
+ * There is one caveat however: Some methods of the
+ * {@code ImmutableConfiguration} interface return an {@code Iterator} object.
+ * Using the iterator's {@code remove()} method it may be possible to remove
+ * keys from the underlying {@code Configuration} object. Therefore, in these
+ * cases a specialized {@code Iterator} is returned which does not support the
+ * remove operation.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+class UnmodifiableConfiguration implements ImmutableConfiguration
+{
+    /** The underlying configuration object. */
+    private final Configuration wrappedConfiguration;
+
+    /**
+     * Creates a new instance of {@code UnmodifiableConfiguration} and
+     * initializes it with the wrapped configuration object.
+     *
+     * @param configuration the wrapped {@code Configuration} (must not be
+     *        <b>null</b>)
+     * @throws NullPointerException if the {@code Configuration} is <b>null</b>
+     */
+    public UnmodifiableConfiguration(final Configuration configuration)
+    {
+        wrappedConfiguration = Objects.requireNonNull(configuration, "configuration");
+    }
+
+    @Override
+    public boolean containsKey(final String key)
+    {
+        return wrappedConfiguration.containsKey(key);
+    }
+
+    @Override
+    public <T> T get(final Class<T> cls, final String key)
+    {
+        return wrappedConfiguration.get(cls, key);
+    }
+
+    @Override
+    public <T> T get(final Class<T> cls, final String key, final T defaultValue)
+    {
+        return wrappedConfiguration.get(cls, key, defaultValue);
+    }
+
+    @Override
+    public Object getArray(final Class<?> cls, final String key)
+    {
+        return wrappedConfiguration.getArray(cls, key);
+    }
+
+    @Deprecated
+    @Override
+    public Object getArray(final Class<?> cls, final String key, final Object defaultValue)
+    {
+        return wrappedConfiguration.getArray(cls, key, defaultValue);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(final String key)
+    {
+        return wrappedConfiguration.getBigDecimal(key);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(final String key, final BigDecimal defaultValue)
+    {
+        return wrappedConfiguration.getBigDecimal(key, defaultValue);
+    }
+
+    @Override
+    public BigInteger getBigInteger(final String key)
+    {
+        return wrappedConfiguration.getBigInteger(key);
+    }
+
+    @Override
+    public BigInteger getBigInteger(final String key, final BigInteger defaultValue)
+    {
+        return wrappedConfiguration.getBigInteger(key, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(final String key)
+    {
+        return wrappedConfiguration.getBoolean(key);
+    }
+
+    @Override
+    public boolean getBoolean(final String key, final boolean defaultValue)
+    {
+        return wrappedConfiguration.getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public Boolean getBoolean(final String key, final Boolean defaultValue)
+    {
+        return wrappedConfiguration.getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public byte getByte(final String key)
+    {
+        return wrappedConfiguration.getByte(key);
+    }
+
+    @Override
+    public byte getByte(final String key, final byte defaultValue)
+    {
+        return wrappedConfiguration.getByte(key, defaultValue);
+    }
+
+    @Override
+    public Byte getByte(final String key, final Byte defaultValue)
+    {
+        return wrappedConfiguration.getByte(key, defaultValue);
+    }
+
+    @Override
+    public <T> Collection<T> getCollection(final Class<T> cls, final String key,
+            final Collection<T> target)
+    {
+        return wrappedConfiguration.getCollection(cls, key, target);
+    }
+
+    @Override
+    public <T> Collection<T> getCollection(final Class<T> cls, final String key,
+            final Collection<T> target, final Collection<T> defaultValue)
+    {
+        return wrappedConfiguration.getCollection(cls, key, target,
+                defaultValue);
+    }
+
+    @Override
+    public double getDouble(final String key)
+    {
+        return wrappedConfiguration.getDouble(key);
+    }
+
+    @Override
+    public double getDouble(final String key, final double defaultValue)
+    {
+        return wrappedConfiguration.getDouble(key, defaultValue);
+    }
+
+    @Override
+    public Double getDouble(final String key, final Double defaultValue)
+    {
+        return wrappedConfiguration.getDouble(key, defaultValue);
+    }
+
+    @Override
+    public String getEncodedString(final String key)
+    {
+        return wrappedConfiguration.getEncodedString(key);
+    }
+
+    @Override
+    public String getEncodedString(final String key, final ConfigurationDecoder decoder)
+    {
+        return wrappedConfiguration.getEncodedString(key, decoder);
+    }
+
+    @Override
+    public <T extends Enum<T>> T getEnum(final String key, final Class<T> enumType)
+    {
+        return wrappedConfiguration.getEnum(key, enumType);
+    }
+
+    @Override
+    public <T extends Enum<T>> T getEnum(final String key, final Class<T> enumType,
+            final T defaultValue)
+    {
+        return wrappedConfiguration.getEnum(key, enumType, defaultValue);
+    }
+
+    @Override
+    public float getFloat(final String key)
+    {
+        return wrappedConfiguration.getFloat(key);
+    }
+
+    @Override
+    public float getFloat(final String key, final float defaultValue)
+    {
+        return wrappedConfiguration.getFloat(key, defaultValue);
+    }
+
+    @Override
+    public Float getFloat(final String key, final Float defaultValue)
+    {
+        return wrappedConfiguration.getFloat(key, defaultValue);
+    }
+
+    @Override
+    public int getInt(final String key)
+    {
+        return wrappedConfiguration.getInt(key);
+    }
+
+    @Override
+    public int getInt(final String key, final int defaultValue)
+    {
+        return wrappedConfiguration.getInt(key, defaultValue);
+    }
+
+    @Override
+    public Integer getInteger(final String key, final Integer defaultValue)
+    {
+        return wrappedConfiguration.getInteger(key, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns an iterator which does not
+     * support the {@code remove()} operation.
+     */
+    @Override
+    public Iterator<String> getKeys()
+    {
+        return new UnmodifiableIterator<>(wrappedConfiguration.getKeys());
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns an iterator which does not
+     * support the {@code remove()} operation.
+     */
+    @Override
+    public Iterator<String> getKeys(final String prefix)
+    {
+        return new UnmodifiableIterator<>(wrappedConfiguration.getKeys(prefix));
+    }
+
+    @Override
+    public <T> List<T> getList(final Class<T> cls, final String key)
+    {
+        return wrappedConfiguration.getList(cls, key);
+    }
+
+    @Override
+    public <T> List<T> getList(final Class<T> cls, final String key, final List<T> defaultValue)
+    {
+        return wrappedConfiguration.getList(cls, key, defaultValue);
+    }
+
+    @Override
+    public List<Object> getList(final String key)
+    {
+        return wrappedConfiguration.getList(key);
+    }
+
+    @Override
+    public List<Object> getList(final String key, final List<?> defaultValue)
+    {
+        return wrappedConfiguration.getList(key, defaultValue);
+    }
+
+    @Override
+    public long getLong(final String key)
+    {
+        return wrappedConfiguration.getLong(key);
+    }
+
+    @Override
+    public long getLong(final String key, final long defaultValue)
+    {
+        return wrappedConfiguration.getLong(key, defaultValue);
+    }
+
+    @Override
+    public Long getLong(final String key, final Long defaultValue)
+    {
+        return wrappedConfiguration.getLong(key, defaultValue);
+    }
+
+    @Override
+    public Properties getProperties(final String key)
+    {
+        return wrappedConfiguration.getProperties(key);
+    }
+
+    @Override
+    public Object getProperty(final String key)
+    {
+        return wrappedConfiguration.getProperty(key);
+    }
+
+    @Override
+    public short getShort(final String key)
+    {
+        return wrappedConfiguration.getShort(key);
+    }
+
+    @Override
+    public short getShort(final String key, final short defaultValue)
+    {
+        return wrappedConfiguration.getShort(key, defaultValue);
+    }
+
+    @Override
+    public Short getShort(final String key, final Short defaultValue)
+    {
+        return wrappedConfiguration.getShort(key, defaultValue);
+    }
+
+    @Override
+    public String getString(final String key)
+    {
+        return wrappedConfiguration.getString(key);
+    }
+
+    @Override
+    public String getString(final String key, final String defaultValue)
+    {
+        return wrappedConfiguration.getString(key, defaultValue);
+    }
+
+    @Override
+    public String[] getStringArray(final String key)
+    {
+        return wrappedConfiguration.getStringArray(key);
+    }
+
+    @Override
+    public ImmutableConfiguration immutableSubset(final String prefix)
+    {
+        return wrappedConfiguration.immutableSubset(prefix);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return wrappedConfiguration.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return wrappedConfiguration.size();
+    }
+
+    /**
+     * {@inheritDoc} This implementation delegates to the wrapped configuration.
+     */
+    @Override
+    public String toString()
+    {
+        return wrappedConfiguration.toString();
+    }
+
+    /**
+     * A specialized {@code Iterator} implementation which delegates to an
+     * underlying iterator, but does not support the {@code remove()} method.
+     *
+     * @param <E> the type of the elements of the iteration
+     */
+    private static class UnmodifiableIterator<E> implements Iterator<E>
+    {
+        /** The underlying iterator. */
+        private final Iterator<E> wrappedIterator;
+
+        /**
+         * Creates a new instance of {@code UnmodifiableIterator} and sets the
+         * underlying iterator.
+         *
+         * @param it the underlying iterator
+         */
+        public UnmodifiableIterator(final Iterator<E> it)
+        {
+            wrappedIterator = it;
+        }
+
+        /**
+         * {@inheritDoc} This implementation just delegates to the underlying
+         * iterator.
+         */
+        @Override
+        public boolean hasNext()
+        {
+            return wrappedIterator.hasNext();
+        }
+
+        /**
+         * {@inheritDoc} This implementation just delegates to the underlying
+         * iterator.
+         */
+        @Override
+        public E next()
+        {
+            return wrappedIterator.next();
+        }
+
+        /**
+         * {@inheritDoc} This implementation just throws an exception: removing
+         * objects is not supported.
+         */
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException(
+                    "remove() operation not supported!");
+        }
+    }
+}
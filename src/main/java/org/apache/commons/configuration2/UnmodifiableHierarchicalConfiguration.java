@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ExpressionEngine;
+
+/**
+ * <p>
+ * An implementation of the {@code ImmutableHierarchicalConfiguration}
+ * interface which wraps a {@code HierarchicalConfiguration} object.
+ * </p>
+ * <p>
+ * This class extends {@link UnmodifiableConfiguration} by delegating the
+ * additional methods defined by the {@code ImmutableHierarchicalConfiguration}
+ * interface. The methods returning sub configurations are delegated to the
+ * corresponding {@code immutable*()} methods of the wrapped configuration, so
+ * the objects returned do not allow manipulations either.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+class UnmodifiableHierarchicalConfiguration extends UnmodifiableConfiguration
+        implements ImmutableHierarchicalConfiguration
+{
+    /** The underlying hierarchical configuration object. */
+    private final HierarchicalConfiguration<?> wrappedConfiguration;
+
+    /**
+     * Creates a new instance of {@code UnmodifiableHierarchicalConfiguration}
+     * and initializes it with the wrapped configuration object.
+     *
+     * @param configuration the wrapped {@code HierarchicalConfiguration} (must
+     *        not be <b>null</b>)
+     * @throws NullPointerException if the configuration is <b>null</b>
+     */
+    public UnmodifiableHierarchicalConfiguration(
+            final HierarchicalConfiguration<?> configuration)
+    {
+        super(configuration);
+        wrappedConfiguration = configuration;
+    }
+
+    @Override
+    public ExpressionEngine getExpressionEngine()
+    {
+        return wrappedConfiguration.getExpressionEngine();
+    }
+
+    @Override
+    public int getMaxIndex(final String key)
+    {
+        return wrappedConfiguration.getMaxIndex(key);
+    }
+
+    @Override
+    public String getRootElementName()
+    {
+        return wrappedConfiguration.getRootElementName();
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            final String key, final boolean supportUpdates)
+    {
+        return wrappedConfiguration.immutableConfigurationAt(key,
+                supportUpdates);
+    }
+
+    @Override
+    public ImmutableHierarchicalConfiguration immutableConfigurationAt(
+            final String key)
+    {
+        return wrappedConfiguration.immutableConfigurationAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableConfigurationsAt(
+            final String key)
+    {
+        return wrappedConfiguration.immutableConfigurationsAt(key);
+    }
+
+    @Override
+    public List<ImmutableHierarchicalConfiguration> immutableChildConfigurationsAt(
+            final String key)
+    {
+        return wrappedConfiguration.immutableChildConfigurationsAt(key);
+    }
+}
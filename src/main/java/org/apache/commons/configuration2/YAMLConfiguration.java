@@ -21,16 +21,37 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.apache.commons.configuration2.io.InputStreamSupport;
 import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.NodeHandler;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,6 +59,12 @@ import java.util.Map;
  * A specialized hierarchical configuration class that is able to parse YAML
  * documents.
  * </p>
+ * <p>
+ * When the configuration is saved, the node structure is directly converted
+ * to a stream of YAML events which is passed to the emitter; so no
+ * intermediate map or node representation for the whole document has to be
+ * created.
+ * </p>
  *
  * @since 2.2
  */
@@ -103,9 +130,7 @@ public class YAMLConfiguration extends AbstractYAMLBasedConfiguration
     public void dump(final Writer out, final DumperOptions options)
             throws ConfigurationException, IOException
     {
-        final Yaml yaml = new Yaml(options);
-        yaml.dump(constructMap(getNodeModel().getNodeHandler().getRootNode()),
-                out);
+        new YamlEventWriter(out, options).write(getNodeModel().getNodeHandler());
     }
 
     /**
@@ -174,4 +199,258 @@ public class YAMLConfiguration extends AbstractYAMLBasedConfiguration
             }
         };
     }
+
+    /**
+     * A helper class for writing the node structure of this configuration as
+     * a stream of YAML events. The events generated are the same as the ones
+     * produced by the {@code Yaml} class when dumping the corresponding map
+     * structure. Single values are converted using a {@code Representer}
+     * configured from the dumper options.
+     */
+    private static final class YamlEventWriter
+    {
+        /** The emitter receiving the events. */
+        private final Emitter emitter;
+
+        /** The options for dumping. */
+        private final DumperOptions options;
+
+        /** The representer for single values. */
+        private final Representer representer;
+
+        /** The resolver for determining implicit tags. */
+        private final Resolver resolver;
+
+        /**
+         * Creates a new instance of {@code YamlEventWriter}.
+         *
+         * @param out the target writer
+         * @param options the options for dumping
+         */
+        YamlEventWriter(final Writer out, final DumperOptions options)
+        {
+            this.options = options;
+            emitter = new Emitter(out, options);
+            representer = new Representer(options);
+            representer.setDefaultFlowStyle(options.getDefaultFlowStyle());
+            representer.setDefaultScalarStyle(options.getDefaultScalarStyle());
+            representer.getPropertyUtils().setAllowReadOnlyProperties(
+                    options.isAllowReadOnlyProperties());
+            representer.setTimeZone(options.getTimeZone());
+            resolver = new Resolver();
+        }
+
+        /**
+         * Writes a document with the content of the given node structure.
+         *
+         * @param handler the {@code NodeHandler}
+         * @throws IOException if an error occurs
+         */
+        public void write(final NodeHandler<ImmutableNode> handler)
+                throws IOException
+        {
+            emitter.emit(new StreamStartEvent(null, null));
+            emitter.emit(new DocumentStartEvent(null, null,
+                    options.isExplicitStart(), options.getVersion(),
+                    options.getTags()));
+            writeMapping(handler, handler.getRootNode());
+            emitter.emit(new DocumentEndEvent(null, null,
+                    options.isExplicitEnd()));
+            emitter.emit(new StreamEndEvent(null, null));
+        }
+
+        /**
+         * Writes the children of the given node as a mapping.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param node the node
+         * @throws IOException if an error occurs
+         */
+        private void writeMapping(final NodeHandler<ImmutableNode> handler,
+                final ImmutableNode node) throws IOException
+        {
+            final Map<String, List<ImmutableNode>> groups =
+                    groupChildrenByName(handler, node);
+            emitter.emit(new MappingStartEvent(null, Tag.MAP.getValue(), true,
+                    null, null, mappingFlowStyle(handler, groups)));
+            for (final Map.Entry<String, List<ImmutableNode>> e : groups
+                    .entrySet())
+            {
+                writeValue(representer.represent(e.getKey()));
+                final List<ImmutableNode> nodes = e.getValue();
+                if (nodes.size() == 1)
+                {
+                    writeNode(handler, nodes.get(0));
+                }
+                else
+                {
+                    emitter.emit(new SequenceStartEvent(null,
+                            Tag.SEQ.getValue(), true, null, null,
+                            sequenceFlowStyle(handler, nodes)));
+                    for (final ImmutableNode child : nodes)
+                    {
+                        writeNode(handler, child);
+                    }
+                    emitter.emit(new SequenceEndEvent(null, null));
+                }
+            }
+            emitter.emit(new MappingEndEvent(null, null));
+        }
+
+        /**
+         * Writes the content of a single node. A node with children is written
+         * as a mapping; for other nodes, their value is written.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param node the node
+         * @throws IOException if an error occurs
+         */
+        private void writeNode(final NodeHandler<ImmutableNode> handler,
+                final ImmutableNode node) throws IOException
+        {
+            if (handler.getChildren(node).isEmpty())
+            {
+                writeValue(representer.represent(handler.getValue(node)));
+            }
+            else
+            {
+                writeMapping(handler, node);
+            }
+        }
+
+        /**
+         * Writes a YAML node produced by the representer. This is analogous to
+         * what the serializer of SnakeYAML does.
+         *
+         * @param yamlNode the node to be written
+         * @throws IOException if an error occurs
+         */
+        private void writeValue(final Node yamlNode) throws IOException
+        {
+            final String tag = yamlNode.getTag().getValue();
+            if (yamlNode instanceof ScalarNode)
+            {
+                final ScalarNode scalar = (ScalarNode) yamlNode;
+                final String value = scalar.getValue();
+                final ImplicitTuple tuple = new ImplicitTuple(
+                        yamlNode.getTag().equals(
+                                resolver.resolve(NodeId.scalar, value, true)),
+                        yamlNode.getTag().equals(
+                                resolver.resolve(NodeId.scalar, value, false)));
+                emitter.emit(new ScalarEvent(null, tag, tuple, value, null,
+                        null, scalar.getScalarStyle()));
+            }
+            else if (yamlNode instanceof SequenceNode)
+            {
+                final SequenceNode seq = (SequenceNode) yamlNode;
+                emitter.emit(new SequenceStartEvent(null, tag,
+                        yamlNode.getTag().equals(
+                                resolver.resolve(NodeId.sequence, null, true)),
+                        null, null, seq.getFlowStyle()));
+                for (final Node item : seq.getValue())
+                {
+                    writeValue(item);
+                }
+                emitter.emit(new SequenceEndEvent(null, null));
+            }
+            else
+            {
+                final MappingNode map = (MappingNode) yamlNode;
+                emitter.emit(new MappingStartEvent(null, tag,
+                        yamlNode.getTag().equals(
+                                resolver.resolve(NodeId.mapping, null, true)),
+                        null, null, map.getFlowStyle()));
+                for (final NodeTuple t : map.getValue())
+                {
+                    writeValue(t.getKeyNode());
+                    writeValue(t.getValueNode());
+                }
+                emitter.emit(new MappingEndEvent(null, null));
+            }
+        }
+
+        /**
+         * Determines the flow style for a mapping with the given groups of
+         * child nodes. If the default flow style is <em>AUTO</em>, the flow
+         * style is chosen if all keys and values are plain scalars; this
+         * corresponds to the behavior of the representer.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param groups the child nodes grouped by their names
+         * @return the flow style for this mapping
+         */
+        private DumperOptions.FlowStyle mappingFlowStyle(
+                final NodeHandler<ImmutableNode> handler,
+                final Map<String, List<ImmutableNode>> groups)
+        {
+            if (options.getDefaultFlowStyle() != DumperOptions.FlowStyle.AUTO)
+            {
+                return options.getDefaultFlowStyle();
+            }
+            for (final Map.Entry<String, List<ImmutableNode>> e : groups
+                    .entrySet())
+            {
+                if (e.getValue().size() != 1
+                        || !isPlainScalar(representer.represent(e.getKey()))
+                        || !isPlainLeaf(handler, e.getValue().get(0)))
+                {
+                    return DumperOptions.FlowStyle.BLOCK;
+                }
+            }
+            return DumperOptions.FlowStyle.FLOW;
+        }
+
+        /**
+         * Determines the flow style for a sequence with the given nodes. This
+         * works in the same way as for mappings.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param nodes the nodes in the sequence
+         * @return the flow style for this sequence
+         */
+        private DumperOptions.FlowStyle sequenceFlowStyle(
+                final NodeHandler<ImmutableNode> handler,
+                final List<ImmutableNode> nodes)
+        {
+            if (options.getDefaultFlowStyle() != DumperOptions.FlowStyle.AUTO)
+            {
+                return options.getDefaultFlowStyle();
+            }
+            for (final ImmutableNode node : nodes)
+            {
+                if (!isPlainLeaf(handler, node))
+                {
+                    return DumperOptions.FlowStyle.BLOCK;
+                }
+            }
+            return DumperOptions.FlowStyle.FLOW;
+        }
+
+        /**
+         * Tests whether the given node is a leaf whose value is represented
+         * as a plain scalar.
+         *
+         * @param handler the {@code NodeHandler}
+         * @param node the node
+         * @return a flag whether this node is a plain leaf
+         */
+        private boolean isPlainLeaf(final NodeHandler<ImmutableNode> handler,
+                final ImmutableNode node)
+        {
+            return handler.getChildren(node).isEmpty()
+                    && isPlainScalar(representer.represent(handler.getValue(node)));
+        }
+
+        /**
+         * Tests whether the given YAML node is a plain scalar.
+         *
+         * @param yamlNode the node
+         * @return a flag whether this is a plain scalar
+         */
+        private static boolean isPlainScalar(final Node yamlNode)
+        {
+            return yamlNode instanceof ScalarNode
+                    && ((ScalarNode) yamlNode).isPlain();
+        }
+    }
 }
@@ -18,6 +18,7 @@ package org.apache.commons.configuration2.beanutils;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,8 +30,10 @@ import java.util.TreeSet;
 
 import org.apache.commons.beanutils.BeanUtilsBean;
 import org.apache.commons.beanutils.ConvertUtilsBean;
+import org.apache.commons.beanutils.Converter;
 import org.apache.commons.beanutils.DynaBean;
 import org.apache.commons.beanutils.FluentPropertyBeanIntrospector;
+import org.apache.commons.beanutils.MethodUtils;
 import org.apache.commons.beanutils.PropertyUtilsBean;
 import org.apache.commons.beanutils.WrapDynaBean;
 import org.apache.commons.beanutils.WrapDynaClass;
@@ -87,6 +90,22 @@ public final class BeanHelper
      */
     private static final BeanUtilsBean BEAN_UTILS_BEAN = initBeanUtilsBean();
 
+    /**
+     * A cache with the setters for the simple properties of bean classes. For
+     * each class, a map with the names of the writable properties and their
+     * associated {@link PropertySetter} objects is created on first access.
+     * So the expensive introspection is done only once per class.
+     */
+    private static final ClassValue<Map<String, PropertySetter>> PROPERTY_SETTERS =
+            new ClassValue<Map<String, PropertySetter>>()
+            {
+                @Override
+                protected Map<String, PropertySetter> computeValue(final Class<?> type)
+                {
+                    return createPropertySetters(type);
+                }
+            };
+
     /** Stores a map with the registered bean factories. */
     private final Map<String, BeanFactory> beanFactories = Collections
             .synchronizedMap(new HashMap<String, BeanFactory>());
@@ -327,6 +346,11 @@ public final class BeanHelper
      */
     private static Class<?> getDefaultClass(final Object bean, final String propName)
     {
+        final PropertySetter setter = findPropertySetter(bean, propName);
+        if (setter != null)
+        {
+            return setter.getPropertyType();
+        }
         try
         {
             final PropertyDescriptor desc =
@@ -355,6 +379,12 @@ public final class BeanHelper
      */
     private static void initProperty(final Object bean, final String propName, final Object value)
     {
+        final PropertySetter setter = findPropertySetter(bean, propName);
+        if (setter != null && setter.setProperty(bean, value))
+        {
+            return;
+        }
+
         if (!isPropertyWriteable(bean, propName))
         {
             throw new ConfigurationRuntimeException("Property " + propName
@@ -515,7 +545,84 @@ public final class BeanHelper
      */
     private static boolean isPropertyWriteable(final Object bean, final String propName)
     {
-        return BEAN_UTILS_BEAN.getPropertyUtils().isWriteable(bean, propName);
+        return findPropertySetter(bean, propName) != null
+                || BEAN_UTILS_BEAN.getPropertyUtils().isWriteable(bean, propName);
+    }
+
+    /**
+     * Returns the cached {@code PropertySetter} for the specified property of
+     * the given bean. A setter is only available for simple properties of
+     * plain Java beans; for other kinds of properties (nested, indexed, or
+     * mapped properties) or for special beans like {@code DynaBean} or
+     * {@code Map} objects, result is <b>null</b>. In this case, the property
+     * has to be handled by Commons BeanUtils.
+     *
+     * @param bean the bean
+     * @param propName the name of the property
+     * @return the {@code PropertySetter} for this property or <b>null</b>
+     */
+    private static PropertySetter findPropertySetter(final Object bean,
+            final String propName)
+    {
+        if (bean == null || propName == null || bean instanceof DynaBean
+                || bean instanceof Map || !isSimplePropertyName(propName))
+        {
+            return null;
+        }
+        return PROPERTY_SETTERS.get(bean.getClass()).get(propName);
+    }
+
+    /**
+     * Checks whether the given property name refers to a simple property. The
+     * name must not contain any of the special characters used by Commons
+     * BeanUtils to address nested, indexed, or mapped properties.
+     *
+     * @param propName the name of the property
+     * @return a flag whether this is the name of a simple property
+     */
+    private static boolean isSimplePropertyName(final String propName)
+    {
+        for (int i = 0; i < propName.length(); i++)
+        {
+            final char c = propName.charAt(i);
+            if (c == '.' || c == '[' || c == ']' || c == '(' || c == ')')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the {@code PropertySetter} objects for all writable simple
+     * properties of the given bean class. The properties are determined
+     * using the {@code PropertyUtilsBean} of this class, so that the same
+     * introspection rules apply as for properties set via Commons BeanUtils.
+     * Properties without an accessible write method are skipped; they are
+     * handled by BeanUtils.
+     *
+     * @param beanClass the bean class
+     * @return a map with the setters for the properties of this class
+     */
+    private static Map<String, PropertySetter> createPropertySetters(
+            final Class<?> beanClass)
+    {
+        final Map<String, PropertySetter> setters = new HashMap<>();
+        for (final PropertyDescriptor desc : BEAN_UTILS_BEAN.getPropertyUtils()
+                .getPropertyDescriptors(beanClass))
+        {
+            final Class<?> type = desc.getPropertyType();
+            final Method writeMethod = desc.getWriteMethod() != null
+                    ? MethodUtils.getAccessibleMethod(beanClass,
+                            desc.getWriteMethod())
+                    : null;
+            if (writeMethod != null && type != null && !type.isArray()
+                    && writeMethod.getParameterTypes().length == 1)
+            {
+                setters.put(desc.getName(), new PropertySetter(type, writeMethod));
+            }
+        }
+        return setters;
     }
 
     /**
@@ -684,4 +791,100 @@ public final class BeanHelper
             return beanHelper.createBean(data);
         }
     }
+
+    /**
+     * A class representing the setter of a simple property of a bean class.
+     * An instance stores the type of the property and its accessible write
+     * method, so that no further introspection is necessary when the property
+     * is set. Values are converted in the same way as by the
+     * {@code BeanUtilsBean} used by this class before the property is set.
+     */
+    private static final class PropertySetter
+    {
+        /** The type of the property. */
+        private final Class<?> propertyType;
+
+        /** The write method of the property. */
+        private final Method writeMethod;
+
+        /**
+         * Creates a new instance of {@code PropertySetter}.
+         *
+         * @param type the type of the property
+         * @param method the accessible write method
+         */
+        private PropertySetter(final Class<?> type, final Method method)
+        {
+            propertyType = type;
+            writeMethod = method;
+        }
+
+        /**
+         * Returns the type of the property.
+         *
+         * @return the property type
+         */
+        public Class<?> getPropertyType()
+        {
+            return propertyType;
+        }
+
+        /**
+         * Sets the property on the given bean. The value is converted to the
+         * property type first. If the value cannot be passed to the write
+         * method directly (because a primitive property would be set to
+         * <b>null</b>), result is <b>false</b>, and the caller has to set the
+         * property in another way.
+         *
+         * @param bean the bean
+         * @param value the new property value
+         * @return a flag whether the property could be set
+         * @throws ConfigurationRuntimeException if the write method cannot be
+         *         invoked
+         */
+        public boolean setProperty(final Object bean, final Object value)
+        {
+            final Object newValue = convert(value);
+            if (newValue == null && propertyType.isPrimitive())
+            {
+                return false;
+            }
+
+            try
+            {
+                writeMethod.invoke(bean, newValue);
+            }
+            catch (final IllegalAccessException | InvocationTargetException itex)
+            {
+                throw new ConfigurationRuntimeException(itex);
+            }
+            return true;
+        }
+
+        /**
+         * Converts the given value to the type of this property. This
+         * implementation follows the conversion rules of
+         * {@code BeanUtilsBean} for scalar properties.
+         *
+         * @param value the value to be converted
+         * @return the converted value
+         */
+        private Object convert(final Object value)
+        {
+            if (value instanceof String)
+            {
+                return BEAN_UTILS_BEAN.getConvertUtils().convert(
+                        (String) value, propertyType);
+            }
+            if (value instanceof String[])
+            {
+                return BEAN_UTILS_BEAN.getConvertUtils().convert(
+                        ((String[]) value)[0], propertyType);
+            }
+            final Converter converter =
+                    BEAN_UTILS_BEAN.getConvertUtils().lookup(propertyType);
+            return converter != null ? converter.convert(propertyType, value)
+                    : value;
+        }
+    }
 }
@@ -17,10 +17,13 @@
 package org.apache.commons.configuration2.beanutils;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration2.convert.ConversionHandler;
 import org.apache.commons.configuration2.convert.DefaultConversionHandler;
@@ -59,6 +62,23 @@ public class DefaultBeanFactory implements BeanFactory
     private static final String FMT_CTOR_ERROR =
             "%s! Bean class = %s, constructor arguments = %s";
 
+    /**
+     * A cache for the constructors matched for bean classes. For each class,
+     * the constructors found for a specific list of constructor argument types
+     * are stored, so that the search for a matching constructor has to be done
+     * only once.
+     */
+    private static final ClassValue<Map<List<String>, Constructor<?>>> CONSTRUCTORS =
+            new ClassValue<Map<List<String>, Constructor<?>>>()
+            {
+                @Override
+                protected Map<List<String>, Constructor<?>> computeValue(
+                        final Class<?> type)
+                {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     /** The conversion handler used by this instance. */
     private final ConversionHandler conversionHandler;
 
@@ -179,10 +199,24 @@ public class DefaultBeanFactory implements BeanFactory
     protected static <T> Constructor<T> findMatchingConstructor(
             final Class<T> beanClass, final BeanDeclaration data)
     {
+        final Map<List<String>, Constructor<?>> cache =
+                CONSTRUCTORS.get(beanClass);
+        final List<String> argTypes = getConstructorArgTypes(data);
+        // the cache only contains constructors of the bean class
+        @SuppressWarnings("unchecked")
+        final
+        Constructor<T> cachedCtor = (Constructor<T>) cache.get(argTypes);
+        if (cachedCtor != null)
+        {
+            return cachedCtor;
+        }
+
         final List<Constructor<T>> matchingConstructors =
                 findMatchingConstructors(beanClass, data);
         checkSingleMatchingConstructor(beanClass, data, matchingConstructors);
-        return matchingConstructors.get(0);
+        final Constructor<T> ctor = matchingConstructors.get(0);
+        cache.put(argTypes, ctor);
+        return ctor;
     }
 
     /**
@@ -309,6 +343,28 @@ public class DefaultBeanFactory implements BeanFactory
         return args;
     }
 
+    /**
+     * Returns a list with the type names of the constructor arguments defined
+     * by the given bean declaration. Arguments without an explicit type are
+     * represented by <b>null</b> elements. This list determines which
+     * constructors of a bean class are matching, so it is used as key for the
+     * constructor cache.
+     *
+     * @param data the bean declaration
+     * @return a list with the type names of the constructor arguments
+     */
+    private static List<String> getConstructorArgTypes(
+            final BeanDeclaration data)
+    {
+        final Collection<ConstructorArg> args = getConstructorArgs(data);
+        final List<String> types = new ArrayList<>(args.size());
+        for (final ConstructorArg arg : args)
+        {
+            types.add(arg.getTypeName());
+        }
+        return types;
+    }
+
     /**
      * Helper method for testing whether exactly one matching constructor was
      * found. Throws a meaningful exception if there is not a single matching
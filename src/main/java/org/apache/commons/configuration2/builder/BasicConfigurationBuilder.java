@@ -21,6 +21,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 import org.apache.commons.configuration2.ConfigurationUtils;
 import org.apache.commons.configuration2.ImmutableConfiguration;
@@ -98,7 +106,21 @@ import org.apache.commons.configuration2.reloading.ReloadingController;
  * case is that the builder is configured by a single thread first. Then
  * {@code getConfiguration()} can be called concurrently, and it is guaranteed
  * that always the same {@code ImmutableConfiguration} instance is returned until the
- * builder is reset.
+ * builder is reset. Internal state is protected by a lock which is available
+ * to derived classes via {@link #getBuilderLock()}. In contrast to a monitor,
+ * this lock does not block the carrier thread if the result object is created
+ * by a virtual thread.
+ * </p>
+ * <p>
+ * Per default, the result object is created when {@code getConfiguration()}
+ * is called for the first time. If this is too late (e.g. because loading
+ * takes a while and should not slow down the first request of an
+ * application), the {@link #warmUp(Executor)} method can be used to create it
+ * ahead of demand in the background. Applications that must not block while
+ * the result object is created can use {@link #getConfigurationAsync(Executor)}.
+ * Concurrent asynchronous requests are combined, so that only a single task
+ * of the {@code Executor} is busy with creating the result object while the
+ * other requests just wait for its completion without occupying a thread.
  * </p>
  *
  * @since 2.0
@@ -117,6 +139,9 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
     /** A flag whether exceptions on initializing configurations are allowed. */
     private final boolean allowFailOnInit;
 
+    /** The lock protecting the internal state of this builder. */
+    private final Lock lock = new ReentrantLock();
+
     /** The map with current initialization parameters. */
     private Map<String, Object> parameters;
 
@@ -126,6 +151,10 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
     /** The result object of this builder. */
     private volatile T result;
 
+    /** The future for an asynchronous request which is currently processed. */
+    private final AtomicReference<CompletableFuture<T>> pendingRequest =
+            new AtomicReference<>();
+
     /**
      * Creates a new instance of {@code BasicConfigurationBuilder} and
      * initializes it with the given result class. No initialization properties
@@ -211,11 +240,19 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      *        <b>null</b>, then all initialization parameters are removed
      * @return a reference to this builder for method chaining
      */
-    public synchronized BasicConfigurationBuilder<T> setParameters(
+    public BasicConfigurationBuilder<T> setParameters(
             final Map<String, Object> params)
     {
-        updateParameters(params);
-        return this;
+        lock.lock();
+        try
+        {
+            updateParameters(params);
+            return this;
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
     /**
@@ -226,17 +263,25 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      *        <b>null</b>, then this call has no effect
      * @return a reference to this builder for method chaining
      */
-    public synchronized BasicConfigurationBuilder<T> addParameters(
+    public BasicConfigurationBuilder<T> addParameters(
             final Map<String, Object> params)
     {
-        final Map<String, Object> newParams =
-                new HashMap<>(getParameters());
-        if (params != null)
+        lock.lock();
+        try
         {
-            newParams.putAll(params);
+            final Map<String, Object> newParams =
+                    new HashMap<>(getParameters());
+            if (params != null)
+            {
+                newParams.putAll(params);
+            }
+            updateParameters(newParams);
+            return this;
+        }
+        finally
+        {
+            lock.unlock();
         }
-        updateParameters(newParams);
-        return this;
     }
 
     /**
@@ -276,7 +321,8 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
         boolean created = false;
         if (resObj == null)
         {
-            synchronized (this)
+            lock.lock();
+            try
             {
                 resObj = result;
                 if (resObj == null)
@@ -285,6 +331,10 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
                     created = true;
                 }
             }
+            finally
+            {
+                lock.unlock();
+            }
         }
 
         if (created)
@@ -296,6 +346,74 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
         return resObj;
     }
 
+    /**
+     * {@inheritDoc} If the result object has already been created, a future
+     * completed with this object is returned directly. Otherwise, this
+     * implementation delegates to {@code getConfiguration()} in a task passed
+     * to the {@code Executor}. If another asynchronous
+     * request is currently processed, no new task is created; rather, the
+     * future of the pending request is returned. So only a single thread is
+     * blocked while the result object is created, no matter how many
+     * asynchronous requests are issued in the meantime. Each caller obtains
+     * its own dependent future, so cancelling or completing a returned future
+     * does not affect other callers waiting for the same request. A request
+     * which is still pending when this builder is reset is not joined by later
+     * callers. If the {@code Executor} rejects the task, the returned future completes
+     * exceptionally with the {@code RejectedExecutionException}.
+     */
+    @Override
+    public CompletableFuture<T> getConfigurationAsync(final Executor executor)
+    {
+        Objects.requireNonNull(executor, "Executor must not be null!");
+        final T resObj = result;
+        if (resObj != null)
+        {
+            return CompletableFuture.completedFuture(resObj);
+        }
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> pending;
+        do
+        {
+            pending = pendingRequest.get();
+            if (pending != null)
+            {
+                return pending.thenApply(Function.identity());
+            }
+        } while (!pendingRequest.compareAndSet(null, future));
+
+        try
+        {
+            executor.execute(() -> processAsyncRequest(future));
+        }
+        catch (final RejectedExecutionException rex)
+        {
+            pendingRequest.compareAndSet(future, null);
+            future.completeExceptionally(rex);
+        }
+        return future.thenApply(Function.identity());
+    }
+
+    /**
+     * Creates the result object of this builder in the background using the
+     * specified {@code Executor}, so that it is available when it is
+     * requested by a later call of {@code getConfiguration()}. This is
+     * equivalent to {@link #getConfigurationAsync(Executor)}; the method
+     * exists to make the intention clear when the result object is not
+     * needed immediately. If the result object already exists, this method
+     * has no effect except that the returned future completes with this
+     * object.
+     *
+     * @param executor the {@code Executor} for creating the result object
+     * @return a future for the result object of this builder
+     * @throws NullPointerException if the {@code Executor} is <b>null</b>
+     * @since 2.8.0
+     */
+    public CompletableFuture<T> warmUp(final Executor executor)
+    {
+        return getConfigurationAsync(executor);
+    }
+
     /**
      * {@inheritDoc} This implementation also takes care that the event listener
      * is added to the managed configuration object.
@@ -330,11 +448,17 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
     public void resetResult()
     {
         T oldResult;
-        synchronized (this)
+        lock.lock();
+        try
         {
             oldResult = result;
             result = null;
             resultDeclaration = null;
+            pendingRequest.set(null);
+        }
+        finally
+        {
+            lock.unlock();
         }
 
         if (oldResult != null)
@@ -359,10 +483,18 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * Resets this builder. This is a convenience method which combines calls to
      * {@link #resetResult()} and {@link #resetParameters()}.
      */
-    public synchronized void reset()
+    public void reset()
     {
-        resetParameters();
-        resetResult();
+        lock.lock();
+        try
+        {
+            resetParameters();
+            resetResult();
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
     /**
@@ -406,7 +538,7 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * It also evaluates the <em>allowFailOnInit</em> flag, i.e. if
      * initialization causes an exception and this flag is set, the exception is
      * ignored, and the newly created, uninitialized configuration is returned.
-     * Note that this method is called in a synchronized block.
+     * Note that this method is called in a section guarded by the builder lock.
      *
      * @return the newly created result object
      * @throws ConfigurationException if an error occurs
@@ -436,7 +568,7 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * implementation uses the {@link BeanHelper} class to create a new object
      * based on the {@link BeanDeclaration} returned by
      * {@link #getResultDeclaration()}. Note: This method is invoked in a
-     * synchronized block.
+     * section guarded by the builder lock.
      *
      * @return the newly created, yet uninitialized result object
      * @throws ConfigurationException if an exception occurs
@@ -454,8 +586,9 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * implementation uses the {@link BeanHelper} class to initialize the
      * object's property based on the {@link BeanDeclaration} returned by
      * {@link #getResultDeclaration()}. Note: This method is invoked in a
-     * synchronized block. This is required because internal state is accessed.
-     * Sub classes must not call this method without proper synchronization.
+     * section guarded by the builder lock. This is required because internal
+     * state is accessed. Sub classes must not call this method without
+     * holding this lock.
      *
      * @param obj the object to be initialized
      * @throws ConfigurationException if an error occurs
@@ -477,14 +610,22 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      *         object
      * @throws ConfigurationException if an error occurs
      */
-    protected final synchronized BeanDeclaration getResultDeclaration()
+    protected final BeanDeclaration getResultDeclaration()
             throws ConfigurationException
     {
-        if (resultDeclaration == null)
+        lock.lock();
+        try
         {
-            resultDeclaration = createResultDeclaration(getFilteredParameters());
+            if (resultDeclaration == null)
+            {
+                resultDeclaration = createResultDeclaration(getFilteredParameters());
+            }
+            return resultDeclaration;
+        }
+        finally
+        {
+            lock.unlock();
         }
-        return resultDeclaration;
     }
 
     /**
@@ -494,13 +635,37 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      *
      * @return a map with the current set of initialization parameters
      */
-    protected final synchronized Map<String, Object> getParameters()
+    protected final Map<String, Object> getParameters()
     {
-        if (parameters != null)
+        lock.lock();
+        try
         {
-            return parameters;
+            if (parameters != null)
+            {
+                return parameters;
+            }
+            return Collections.emptyMap();
+        }
+        finally
+        {
+            lock.unlock();
         }
-        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns the lock which protects the internal state of this builder. The
+     * lock is held while the result object is created and while
+     * initialization parameters are changed. Derived classes must use this
+     * lock rather than synchronizing on the builder instance when they access
+     * state that is relevant for the creation of the result object. The lock
+     * is reentrant.
+     *
+     * @return the lock of this builder
+     * @since 2.8.0
+     */
+    protected final Lock getBuilderLock()
+    {
+        return lock;
     }
 
     /**
@@ -525,7 +690,7 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * initialization parameters. The {@code BeanDeclaration} must be
      * initialized with the result class of this builder, otherwise exceptions
      * will be thrown when the result object is created. Note: This method is
-     * invoked in a synchronized block.
+     * invoked in a section guarded by the builder lock.
      *
      * @param params a snapshot of the current initialization parameters
      * @return the {@code BeanDeclaration} for creating result objects
@@ -586,10 +751,18 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
      * @param target the target configuration builder (must not be <b>null</b>)
      * @throws NullPointerException if the target builder is <b>null</b>
      */
-    protected synchronized void copyEventListeners(
+    protected void copyEventListeners(
             final BasicConfigurationBuilder<?> target)
     {
-        copyEventListeners(target, eventListeners);
+        lock.lock();
+        try
+        {
+            copyEventListeners(target, eventListeners);
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
     /**
@@ -648,6 +821,44 @@ public class BasicConfigurationBuilder<T extends ImmutableConfiguration> impleme
             map.putAll(newParams);
         }
         parameters = Collections.unmodifiableMap(map);
+        pendingRequest.set(null);
+    }
+
+    /**
+     * Processes an asynchronous request for the result object. This method is
+     * called by a task of the {@code Executor} passed to
+     * {@code getConfigurationAsync()}. It obtains the result object and
+     * completes the given future. The pending request is always cleared
+     * before the future is completed, even if an {@code Error} is thrown, so
+     * that later requests are not blocked by a failed one.
+     *
+     * @param future the future of the request
+     */
+    private void processAsyncRequest(final CompletableFuture<T> future)
+    {
+        T resObj = null;
+        Throwable error = null;
+        try
+        {
+            resObj = getConfiguration();
+        }
+        catch (final Throwable t)
+        {
+            error = t;
+        }
+        finally
+        {
+            pendingRequest.compareAndSet(future, null);
+        }
+
+        if (error != null)
+        {
+            future.completeExceptionally(error);
+        }
+        else
+        {
+            future.complete(resObj);
+        }
     }
 
     /**
@@ -16,6 +16,10 @@
  */
 package org.apache.commons.configuration2.builder;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 import org.apache.commons.configuration2.ImmutableConfiguration;
 import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.ex.ConfigurationException;
@@ -31,6 +35,8 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
  * object. It does not assume any specific way of how this is done; this is
  * completely in the responsibility of an implementation class. There is just a
  * single method that returns the configuration constructed by this builder.
+ * A variant of this method obtains the configuration asynchronously, so that
+ * the calling thread is not blocked.
  * </p>
  * <p>
  * Note: {@code ImmutableConfiguration} is just the base interface for all configuration
@@ -54,4 +60,33 @@ public interface ConfigurationBuilder<T extends ImmutableConfiguration> extends
      * @throws ConfigurationException if an error occurs
      */
     T getConfiguration() throws ConfigurationException;
+
+    /**
+     * Returns the configuration provided by this builder asynchronously. The
+     * configuration is obtained using the given {@code Executor}; so the
+     * calling thread is not blocked, even if the configuration has to be
+     * loaded first. If the configuration cannot be created, the returned
+     * future completes exceptionally with the {@code ConfigurationException}
+     * thrown by {@link #getConfiguration()} as cause. This default
+     * implementation just invokes {@link #getConfiguration()} in a task
+     * passed to the {@code Executor}.
+     *
+     * @param executor the {@code Executor} for obtaining the configuration
+     * @return a future for the configuration
+     * @throws NullPointerException if the {@code Executor} is <b>null</b>
+     * @since 2.8.0
+     */
+    default CompletableFuture<T> getConfigurationAsync(final Executor executor)
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return getConfiguration();
+            }
+            catch (final ConfigurationException cex)
+            {
+                throw new CompletionException(cex);
+            }
+        }, executor);
+    }
 }
@@ -205,10 +205,18 @@ public class FileBasedConfigurationBuilder<T extends FileBasedConfiguration>
      *
      * @return the {@code FileHandler} associated with this builder
      */
-    public synchronized FileHandler getFileHandler()
+    public FileHandler getFileHandler()
     {
-        return currentFileHandler != null ? currentFileHandler
-                : fetchFileHandlerFromParameters();
+        getBuilderLock().lock();
+        try
+        {
+            return currentFileHandler != null ? currentFileHandler
+                    : fetchFileHandlerFromParameters();
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
     }
 
     /**
@@ -218,12 +226,20 @@ public class FileBasedConfigurationBuilder<T extends FileBasedConfiguration>
      * initialization parameters rather than reusing the existing one.
      */
     @Override
-    public synchronized BasicConfigurationBuilder<T> setParameters(
+    public BasicConfigurationBuilder<T> setParameters(
             final Map<String, Object> params)
     {
-        super.setParameters(params);
-        resetParameters = true;
-        return this;
+        getBuilderLock().lock();
+        try
+        {
+            super.setParameters(params);
+            resetParameters = true;
+            return this;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
     }
 
     /**
@@ -244,9 +260,17 @@ public class FileBasedConfigurationBuilder<T extends FileBasedConfiguration>
      *
      * @return <b>true</b> if auto save is enabled, <b>false</b> otherwise
      */
-    public synchronized boolean isAutoSave()
+    public boolean isAutoSave()
     {
-        return autoSaveListener != null;
+        getBuilderLock().lock();
+        try
+        {
+            return autoSaveListener != null;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
     }
 
     /**
@@ -257,15 +281,23 @@ public class FileBasedConfigurationBuilder<T extends FileBasedConfiguration>
      * @param enabled <b>true</b> if auto save mode is to be enabled,
      *        <b>false</b> otherwise
      */
-    public synchronized void setAutoSave(final boolean enabled)
+    public void setAutoSave(final boolean enabled)
     {
-        if (enabled)
+        getBuilderLock().lock();
+        try
         {
-            installAutoSaveListener();
+            if (enabled)
+            {
+                installAutoSaveListener();
+            }
+            else
+            {
+                removeAutoSaveListener();
+            }
         }
-        else
+        finally
         {
-            removeAutoSaveListener();
+            getBuilderLock().unlock();
         }
     }
 
@@ -296,7 +328,7 @@ public class FileBasedConfigurationBuilder<T extends FileBasedConfiguration>
      * is created, a new {@code FileHandler} is created, too, and associated
      * with the result object. This new handler is passed to this method. If a
      * location is defined, the result object is loaded from this location.
-     * Note: This method is called from a synchronized block.
+     * Note: This method is called from a section guarded by the builder lock.
      *
      * @param handler the new current {@code FileHandler}
      * @throws ConfigurationException if an error occurs
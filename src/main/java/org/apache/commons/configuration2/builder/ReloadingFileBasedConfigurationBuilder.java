@@ -155,7 +155,8 @@ public class ReloadingFileBasedConfigurationBuilder<T extends FileBasedConfigura
      * checks whether a {@code ReloadingDetectorFactory} is specified in the
      * current parameters. If this is the case, it is invoked. Otherwise, a
      * default factory is used to create a {@code FileHandlerReloadingDetector}
-     * object. Note: This method is called from a synchronized block.
+     * object. Note: This method is called from a section guarded by the
+     * builder lock.
      *
      * @param handler the current {@code FileHandler}
      * @param fbparams the object with parameters related to file-based builders
@@ -534,15 +534,23 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * @return the builder for the definition configuration
      * @throws ConfigurationException if an error occurs
      */
-    public synchronized ConfigurationBuilder<? extends HierarchicalConfiguration<?>> getDefinitionBuilder()
+    public ConfigurationBuilder<? extends HierarchicalConfiguration<?>> getDefinitionBuilder()
             throws ConfigurationException
     {
-        if (definitionBuilder == null)
+        getBuilderLock().lock();
+        try
         {
-            definitionBuilder = setupDefinitionBuilder(getParameters());
-            addDefinitionBuilderChangeListener(definitionBuilder);
+            if (definitionBuilder == null)
+            {
+                definitionBuilder = setupDefinitionBuilder(getParameters());
+                addDefinitionBuilderChangeListener(definitionBuilder);
+            }
+            return definitionBuilder;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
         }
-        return definitionBuilder;
     }
 
     /**
@@ -573,22 +581,30 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * @throws ConfigurationException if information about named builders is not
      *         yet available or no builder with this name exists
      */
-    public synchronized ConfigurationBuilder<? extends Configuration> getNamedBuilder(
+    public ConfigurationBuilder<? extends Configuration> getNamedBuilder(
             final String name) throws ConfigurationException
     {
-        if (sourceData == null)
+        getBuilderLock().lock();
+        try
         {
-            throw new ConfigurationException("Information about child builders"
-                    + " has not been setup yet! Call getConfiguration() first.");
+            if (sourceData == null)
+            {
+                throw new ConfigurationException("Information about child builders"
+                        + " has not been setup yet! Call getConfiguration() first.");
+            }
+            final ConfigurationBuilder<? extends Configuration> builder =
+                    sourceData.getNamedBuilder(name);
+            if (builder == null)
+            {
+                throw new ConfigurationException("Builder cannot be resolved: "
+                        + name);
+            }
+            return builder;
         }
-        final ConfigurationBuilder<? extends Configuration> builder =
-                sourceData.getNamedBuilder(name);
-        if (builder == null)
+        finally
         {
-            throw new ConfigurationException("Builder cannot be resolved: "
-                    + name);
+            getBuilderLock().unlock();
         }
-        return builder;
     }
 
     /**
@@ -609,13 +625,21 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      *
      * @return a set with the names of all builders
      */
-    public synchronized Set<String> builderNames()
+    public Set<String> builderNames()
     {
-        if (sourceData == null)
+        getBuilderLock().lock();
+        try
+        {
+            if (sourceData == null)
+            {
+                return Collections.emptySet();
+            }
+            return Collections.unmodifiableSet(sourceData.builderNames());
+        }
+        finally
         {
-            return Collections.emptySet();
+            getBuilderLock().unlock();
         }
-        return Collections.unmodifiableSet(sourceData.builderNames());
     }
 
     /**
@@ -623,18 +647,26 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * this builder.
      */
     @Override
-    public synchronized void resetParameters()
+    public void resetParameters()
     {
-        super.resetParameters();
-        definitionBuilder = null;
-        definitionConfiguration = null;
-        currentParameters = null;
-        currentXMLParameters = null;
+        getBuilderLock().lock();
+        try
+        {
+            super.resetParameters();
+            definitionBuilder = null;
+            definitionConfiguration = null;
+            currentParameters = null;
+            currentXMLParameters = null;
 
-        if (sourceData != null)
+            if (sourceData != null)
+            {
+                sourceData.cleanUp();
+                sourceData = null;
+            }
+        }
+        finally
         {
-            sourceData.cleanUp();
-            sourceData = null;
+            getBuilderLock().unlock();
         }
     }
 
@@ -648,7 +680,7 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * with this object. As a last resort, it is looked for a
      * {@link FileBasedBuilderParametersImpl} object in the properties. If
      * found, also a XML configuration builder is created which loads this file.
-     * Note: This method is called from a synchronized block.
+     * Note: This method is called from a section guarded by the builder lock.
      *
      * @param params the current parameters for this builder
      * @return the builder for the definition configuration
@@ -692,7 +724,7 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * definition builder is defined in this builder's parameters. This
      * implementation creates a default file-based builder which produces an
      * {@code XMLConfiguration}; it expects a corresponding file specification.
-     * Note: This method is called in a synchronized block.
+     * Note: This method is called in a section guarded by the builder lock.
      *
      * @param builderParams the parameters object for the builder
      * @return the standard builder for the definition configuration
@@ -736,9 +768,17 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      *
      * @return a collection with the builders for child configuration sources
      */
-    protected synchronized Collection<ConfigurationBuilder<? extends Configuration>> getChildBuilders()
+    protected Collection<ConfigurationBuilder<? extends Configuration>> getChildBuilders()
     {
-        return sourceData.getChildBuilders();
+        getBuilderLock().lock();
+        try
+        {
+            return sourceData.getChildBuilders();
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
     }
 
     /**
@@ -1216,7 +1256,7 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
      * Obtains the data object for the configuration sources and the
      * corresponding builders. This object is created on first access and reset
      * when the definition builder sends a change event. This method is called
-     * in a synchronized block.
+     * in a section guarded by the builder lock.
      *
      * @return the object with information about configuration sources
      * @throws ConfigurationException if an error occurs
@@ -1295,11 +1335,16 @@ public class CombinedConfigurationBuilder extends BasicConfigurationBuilder<Comb
     {
         defBuilder.addEventListener(ConfigurationBuilderEvent.RESET,
                 event -> {
-                    synchronized (CombinedConfigurationBuilder.this)
+                    getBuilderLock().lock();
+                    try
                     {
                         reset();
                         definitionBuilder = defBuilder;
                     }
+                    finally
+                    {
+                        getBuilderLock().unlock();
+                    }
                 });
     }
 
@@ -66,6 +66,12 @@ public class MultiFileBuilderParametersImpl extends BasicBuilderParameters
     /** The file pattern. */
     private String filePattern;
 
+    /** The maximum number of managed builders. */
+    private int maxManagedBuilders;
+
+    /** The maximum idle time of managed builders. */
+    private long managedBuilderIdleTime;
+
     /**
      * Obtains an instance of this class from the given map with parameters. If
      * this map does not contain an instance, result is <b>null</b>. This is
@@ -143,6 +149,46 @@ public class MultiFileBuilderParametersImpl extends BasicBuilderParameters
         return this;
     }
 
+    /**
+     * Returns the maximum number of managed configuration builders. A value
+     * of 0 means that there is no limit.
+     *
+     * @return the maximum number of managed builders
+     * @since 2.8.0
+     */
+    public int getMaxManagedBuilders()
+    {
+        return maxManagedBuilders;
+    }
+
+    @Override
+    public MultiFileBuilderParametersImpl setMaxManagedBuilders(final int max)
+    {
+        maxManagedBuilders = Math.max(max, 0);
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which an unused managed
+     * configuration builder is discarded. A value of 0 means that managed
+     * builders are kept forever.
+     *
+     * @return the maximum idle time of managed builders in milliseconds
+     * @since 2.8.0
+     */
+    public long getManagedBuilderIdleTime()
+    {
+        return managedBuilderIdleTime;
+    }
+
+    @Override
+    public MultiFileBuilderParametersImpl setManagedBuilderIdleTime(
+            final long millis)
+    {
+        managedBuilderIdleTime = Math.max(millis, 0);
+        return this;
+    }
+
     /**
      * {@inheritDoc} This implementation puts a reference to this object under a
      * reserved key in the resulting parameters map.
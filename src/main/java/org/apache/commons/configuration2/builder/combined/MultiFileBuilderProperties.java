@@ -56,4 +56,37 @@ public interface MultiFileBuilderProperties<T>
      * @return a reference to this object for method chaining
      */
     T setManagedBuilderParameters(BuilderParameters p);
+
+    /**
+     * Sets the maximum number of managed configuration builders to be kept.
+     * If more configuration files are accessed, the builders which have not
+     * been used for the longest time are discarded. A value less than or
+     * equal to 0 means that the number is not limited (which is the
+     * default). The default implementation ignores the value, so that
+     * existing implementations of this interface remain compatible.
+     *
+     * @param max the maximum number of managed builders
+     * @return a reference to this object for method chaining
+     * @since 2.8.0
+     */
+    default T setMaxManagedBuilders(final int max)
+    {
+        return (T) this;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a managed configuration
+     * builder that has not been used is discarded. A value less than or equal
+     * to 0 means that managed builders are kept forever (which is the
+     * default). The default implementation ignores the value, so that
+     * existing implementations of this interface remain compatible.
+     *
+     * @param millis the maximum idle time of managed builders in milliseconds
+     * @return a reference to this object for method chaining
+     * @since 2.8.0
+     */
+    default T setManagedBuilderIdleTime(final long millis)
+    {
+        return (T) this;
+    }
 }
@@ -16,12 +16,16 @@
  */
 package org.apache.commons.configuration2.builder.combined;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.configuration2.BoundedCache;
 import org.apache.commons.configuration2.ConfigurationUtils;
 import org.apache.commons.configuration2.FileBasedConfiguration;
 import org.apache.commons.configuration2.builder.BasicBuilderParameters;
@@ -62,7 +66,18 @@ import org.apache.commons.lang3.concurrent.ConcurrentUtils;
  * already loaded. The {@code getConfiguration()} method first evaluates the
  * pattern string and checks whether a builder for the resulting file name is
  * available. If yes, it is queried for its configuration. Otherwise, a new
- * file-based configuration builder is created now and initialized.
+ * file-based configuration builder is created now and initialized. Per
+ * default, builders are kept as long as this builder exists. If many different
+ * files are accessed, the number of managed builders can be limited, and
+ * builders which have not been used for a while can be discarded; see
+ * {@link MultiFileBuilderProperties#setMaxManagedBuilders(int)} and
+ * {@link MultiFileBuilderProperties#setManagedBuilderIdleTime(long)}.
+ * </p>
+ * <p>
+ * Configurations can be loaded ahead of demand: {@link #warmUp(Executor)}
+ * loads the configuration for the current evaluation of the file name pattern,
+ * {@link #warmUp(Collection, Executor)} loads the configurations for a
+ * collection of known file names in parallel.
  * </p>
  * <p>
  * Configuration of an instance happens in the usual way for configuration
@@ -89,6 +104,17 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
     private final ConcurrentMap<String, FileBasedConfigurationBuilder<T>> managedBuilders =
             new ConcurrentHashMap<>();
 
+    /**
+     * Tracks the usage of managed builders, so that builders can be discarded
+     * if the maximum number is exceeded or if they have not been used for a
+     * while.
+     */
+    private final BoundedCache<String, FileBasedConfigurationBuilder<T>> builderCache =
+            new BoundedCache<>(this::releaseManagedBuilder);
+
+    /** Stores information derived from the current parameters. */
+    private volatile ParametersData parametersData;
+
     /** Stores the {@code ConfigurationInterpolator} object. */
     private final AtomicReference<ConfigurationInterpolator> interpolator =
             new AtomicReference<>();
@@ -155,6 +181,48 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
         super(resCls);
     }
 
+    /**
+     * {@inheritDoc} This implementation also discards information derived
+     * from the old parameters.
+     */
+    @Override
+    public BasicConfigurationBuilder<T> setParameters(
+            final Map<String, Object> params)
+    {
+        getBuilderLock().lock();
+        try
+        {
+            super.setParameters(params);
+            parametersData = null;
+            return this;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation also discards information derived
+     * from the old parameters.
+     */
+    @Override
+    public BasicConfigurationBuilder<T> addParameters(
+            final Map<String, Object> params)
+    {
+        getBuilderLock().lock();
+        try
+        {
+            super.addParameters(params);
+            parametersData = null;
+            return this;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
+    }
+
     /**
      * {@inheritDoc} This method is overridden to adapt the return type.
      */
@@ -181,8 +249,8 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
      * Returns the managed {@code FileBasedConfigurationBuilder} for the current
      * file name pattern. It is determined based on the evaluation of the file
      * name pattern using the configured {@code ConfigurationInterpolator}. If
-     * this is the first access to this configuration file, the builder is
-     * created.
+     * this is the first access to this configuration file (or the builder has
+     * been discarded in the meantime), the builder is created.
      *
      * @return the configuration builder for the configuration corresponding to
      *         the current evaluation of the file name pattern
@@ -192,35 +260,74 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
     public FileBasedConfigurationBuilder<T> getManagedBuilder()
             throws ConfigurationException
     {
-        final Map<String, Object> params = getParameters();
-        final MultiFileBuilderParametersImpl multiParams =
-                MultiFileBuilderParametersImpl.fromParameters(params, true);
-        if (multiParams.getFilePattern() == null)
+        final ParametersData data = fetchParametersData();
+        return fetchManagedBuilder(fetchFileName(data), data);
+    }
+
+    /**
+     * {@inheritDoc} This implementation evaluates the file name pattern in the
+     * current thread because the lookups involved may depend on the current
+     * thread. The configuration of the managed builder obtained this way is
+     * then requested asynchronously. If no managed builder can be determined,
+     * the returned future completes exceptionally with the corresponding
+     * {@code ConfigurationException}.
+     */
+    @Override
+    public CompletableFuture<T> getConfigurationAsync(final Executor executor)
+    {
+        final FileBasedConfigurationBuilder<T> builder;
+        try
         {
-            throw new ConfigurationException("No file name pattern is set!");
+            builder = getManagedBuilder();
+        }
+        catch (final ConfigurationException cex)
+        {
+            final CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(cex);
+            return future;
         }
-        final String fileName = fetchFileName(multiParams);
+        return builder.getConfigurationAsync(executor);
+    }
 
-        FileBasedConfigurationBuilder<T> builder =
-                getManagedBuilders().get(fileName);
-        if (builder == null)
+    /**
+     * Loads the configurations for the given file names in the background
+     * using the specified {@code Executor}. The file names are typically the
+     * results of evaluating the file name pattern for known values of its
+     * variables; for each of them, the managed builder is created (if
+     * necessary), and its configuration is created in parallel. This can be
+     * used to load known configuration files at application startup instead
+     * of on first access. The returned future completes when all
+     * configurations have been created; if one of them cannot be created, it
+     * completes exceptionally.
+     *
+     * @param fileNames the names of the configuration files to be loaded
+     * @param executor the {@code Executor} for loading the configurations
+     * @return a future which completes when all configurations are loaded
+     * @throws NullPointerException if the {@code Executor} is <b>null</b>
+     * @since 2.8.0
+     */
+    public CompletableFuture<Void> warmUp(final Collection<String> fileNames,
+            final Executor executor)
+    {
+        final CompletableFuture<?>[] futures =
+                new CompletableFuture<?>[fileNames.size()];
+        int index = 0;
+        try
         {
-            builder =
-                    createInitializedManagedBuilder(fileName,
-                            createManagedBuilderParameters(params, multiParams));
-            final FileBasedConfigurationBuilder<T> newBuilder =
-                    ConcurrentUtils.putIfAbsent(getManagedBuilders(), fileName,
-                            builder);
-            if (newBuilder == builder)
-            {
-                initListeners(newBuilder);
-            }
-            else
+            final ParametersData data = fetchParametersData();
+            for (final String fileName : fileNames)
             {
-                builder = newBuilder;
+                futures[index++] =
+                        fetchManagedBuilder(fileName, data).warmUp(executor);
             }
         }
-        return builder;
+        catch (final ConfigurationException cex)
+        {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(cex);
+            return future;
+        }
+        return CompletableFuture.allOf(futures);
     }
 
     /**
@@ -230,18 +337,26 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
      * internally used configuration builders.
      */
     @Override
-    public synchronized <E extends Event> void addEventListener(
+    public <E extends Event> void addEventListener(
             final EventType<E> eventType, final EventListener<? super E> l)
     {
-        super.addEventListener(eventType, l);
-        if (isEventTypeForManagedBuilders(eventType))
+        getBuilderLock().lock();
+        try
         {
-            for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders()
-                    .values())
+            super.addEventListener(eventType, l);
+            if (isEventTypeForManagedBuilders(eventType))
             {
-                b.addEventListener(eventType, l);
+                for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders()
+                        .values())
+                {
+                    b.addEventListener(eventType, l);
+                }
+                configurationListeners.addEventListener(eventType, l);
             }
-            configurationListeners.addEventListener(eventType, l);
+        }
+        finally
+        {
+            getBuilderLock().unlock();
         }
     }
 
@@ -250,20 +365,28 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
      * removed from managed configuration builders if necessary.
      */
     @Override
-    public synchronized <E extends Event> boolean removeEventListener(
+    public <E extends Event> boolean removeEventListener(
             final EventType<E> eventType, final EventListener<? super E> l)
     {
-        final boolean result = super.removeEventListener(eventType, l);
-        if (isEventTypeForManagedBuilders(eventType))
+        getBuilderLock().lock();
+        try
         {
-            for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders()
-                    .values())
+            final boolean result = super.removeEventListener(eventType, l);
+            if (isEventTypeForManagedBuilders(eventType))
             {
-                b.removeEventListener(eventType, l);
+                for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders()
+                        .values())
+                {
+                    b.removeEventListener(eventType, l);
+                }
+                configurationListeners.removeEventListener(eventType, l);
             }
-            configurationListeners.removeEventListener(eventType, l);
+            return result;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
         }
-        return result;
     }
 
     /**
@@ -271,16 +394,25 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
      * builders.
      */
     @Override
-    public synchronized void resetParameters()
+    public void resetParameters()
     {
-        for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders().values())
+        getBuilderLock().lock();
+        try
+        {
+            builderCache.clear();
+            for (final FileBasedConfigurationBuilder<T> b : getManagedBuilders().values())
+            {
+                b.removeEventListener(ConfigurationBuilderEvent.ANY,
+                        managedBuilderDelegationListener);
+            }
+            getManagedBuilders().clear();
+            interpolator.set(null);
+            super.resetParameters();
+        }
+        finally
         {
-            b.removeEventListener(ConfigurationBuilderEvent.ANY,
-                    managedBuilderDelegationListener);
+            getBuilderLock().unlock();
         }
-        getManagedBuilders().clear();
-        interpolator.set(null);
-        super.resetParameters();
     }
 
     /**
@@ -336,8 +468,10 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
     /**
      * Determines the file name of a configuration based on the file name
      * pattern. This method is called on every access to this builder's
-     * configuration. It obtains the {@link ConfigurationInterpolator} from this
-     * builder's parameters and uses it to interpolate the file name pattern.
+     * configuration whose file name pattern contains variables; a pattern
+     * without variables is used directly as file name. It obtains the
+     * {@link ConfigurationInterpolator} from this builder's parameters and uses
+     * it to interpolate the file name pattern.
      *
      * @param multiParams the parameters object for this builder
      * @return the name of the configuration file to be loaded
@@ -406,6 +540,46 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
         return managedBuilders;
     }
 
+    /**
+     * Returns the managed builder for the given file name. If it does not
+     * exist yet, it is created now.
+     *
+     * @param fileName the name of the configuration file
+     * @param data the information about the current builder parameters
+     * @return the managed builder for this file name
+     * @throws ConfigurationException if the builder cannot be created
+     */
+    private FileBasedConfigurationBuilder<T> fetchManagedBuilder(
+            final String fileName, final ParametersData data)
+            throws ConfigurationException
+    {
+        FileBasedConfigurationBuilder<T> builder = builderCache.get(fileName);
+        if (builder == null)
+        {
+            builder = getManagedBuilders().get(fileName);
+        }
+        if (builder == null)
+        {
+            builder =
+                    createInitializedManagedBuilder(fileName,
+                            createManagedBuilderParameters(data.getParameters(),
+                                    data.getMultiParameters()));
+            final FileBasedConfigurationBuilder<T> newBuilder =
+                    ConcurrentUtils.putIfAbsent(getManagedBuilders(), fileName,
+                            builder);
+            if (newBuilder == builder)
+            {
+                initListeners(newBuilder);
+                builderCache.put(fileName, newBuilder);
+            }
+            else
+            {
+                builder = newBuilder;
+            }
+        }
+        return builder;
+    }
+
     /**
      * Registers event listeners at the passed in newly created managed builder.
      * This method registers a special {@code EventListener} which propagates
@@ -422,6 +596,55 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
                 managedBuilderDelegationListener);
     }
 
+    /**
+     * Removes a managed builder which has been discarded from the cache. The
+     * builder is no longer connected to this object.
+     *
+     * @param fileName the file name of the managed builder
+     * @param builder the managed builder
+     */
+    private void releaseManagedBuilder(final String fileName,
+            final FileBasedConfigurationBuilder<T> builder)
+    {
+        getManagedBuilders().remove(fileName, builder);
+        builder.removeEventListener(ConfigurationBuilderEvent.ANY,
+                managedBuilderDelegationListener);
+    }
+
+    /**
+     * Returns the information derived from the current parameters of this
+     * builder. This information is evaluated only once after the parameters
+     * have been changed, so that it does not have to be determined anew on
+     * each access to a managed builder.
+     *
+     * @return the current {@code ParametersData}
+     * @throws ConfigurationException if no file name pattern is set
+     */
+    private ParametersData fetchParametersData() throws ConfigurationException
+    {
+        ParametersData data = parametersData;
+        if (data == null || !data.isValid())
+        {
+            getBuilderLock().lock();
+            try
+            {
+                data = new ParametersData(getParameters());
+                builderCache.setMaximumSize(data.getMaxManagedBuilders());
+                builderCache.setMaximumIdleTime(data.getManagedBuilderIdleTime());
+                parametersData = data;
+            }
+            finally
+            {
+                getBuilderLock().unlock();
+            }
+        }
+        if (data.getFilePattern() == null)
+        {
+            throw new ConfigurationException("No file name pattern is set!");
+        }
+        return data;
+    }
+
     /**
      * Generates a file name for a managed builder based on the file name
      * pattern. This method prevents infinite loops which could happen if the
@@ -429,23 +652,27 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
      * {@code ConfigurationInterpolator} used by this object causes a recursive
      * lookup to this builder's configuration.
      *
-     * @param multiParams the current builder parameters
+     * @param data the information about the current builder parameters
      * @return the file name for a managed builder
      */
-    private String fetchFileName(final MultiFileBuilderParametersImpl multiParams)
+    private String fetchFileName(final ParametersData data)
     {
         String fileName;
         final Boolean reentrant = inInterpolation.get();
-        if (reentrant != null && reentrant.booleanValue())
+        if (data.isConstantFilePattern())
+        {
+            fileName = data.getFilePattern();
+        }
+        else if (reentrant != null && reentrant.booleanValue())
         {
-            fileName = multiParams.getFilePattern();
+            fileName = data.getFilePattern();
         }
         else
         {
             inInterpolation.set(Boolean.TRUE);
             try
             {
-                fileName = constructFileName(multiParams);
+                fileName = constructFileName(data.getMultiParameters());
             }
             finally
             {
@@ -547,4 +774,131 @@ public class MultiFileConfigurationBuilder<T extends FileBasedConfiguration>
         return !EventType
                 .isInstanceOf(eventType, ConfigurationBuilderEvent.ANY);
     }
+
+    /**
+     * A class storing information derived from the parameters of this
+     * builder. An instance is created when a managed builder is requested for
+     * the first time after the parameters have been changed. It also becomes
+     * invalid if one of the properties it derives information from is changed
+     * later in the parameters object. The parameters for managed builders are
+     * not stored here; they are obtained each time a new managed builder is
+     * created.
+     */
+    private static final class ParametersData
+    {
+        /** The parameters of the builder. */
+        private final Map<String, Object> parameters;
+
+        /** The parameters object for the multi file builder. */
+        private final MultiFileBuilderParametersImpl multiParameters;
+
+        /** The file pattern at the time this object was created. */
+        private final String filePattern;
+
+        /** A flag whether the file pattern does not contain variables. */
+        private final boolean constantFilePattern;
+
+        /** The maximum number of managed builders. */
+        private final int maxManagedBuilders;
+
+        /** The maximum idle time of managed builders. */
+        private final long managedBuilderIdleTime;
+
+        /**
+         * Creates a new instance of {@code ParametersData} and initializes it
+         * from the given parameters.
+         *
+         * @param params the parameters of the builder
+         */
+        ParametersData(final Map<String, Object> params)
+        {
+            parameters = params;
+            multiParameters =
+                    MultiFileBuilderParametersImpl.fromParameters(params, true);
+            filePattern = multiParameters.getFilePattern();
+            constantFilePattern =
+                    filePattern != null && !filePattern.contains("${");
+            maxManagedBuilders = multiParameters.getMaxManagedBuilders();
+            managedBuilderIdleTime =
+                    multiParameters.getManagedBuilderIdleTime();
+        }
+
+        /**
+         * Returns the parameters of the builder.
+         *
+         * @return the parameters
+         */
+        public Map<String, Object> getParameters()
+        {
+            return parameters;
+        }
+
+        /**
+         * Returns the parameters object for the multi file builder.
+         *
+         * @return the {@code MultiFileBuilderParametersImpl}
+         */
+        public MultiFileBuilderParametersImpl getMultiParameters()
+        {
+            return multiParameters;
+        }
+
+        /**
+         * Returns the file name pattern.
+         *
+         * @return the file name pattern
+         */
+        public String getFilePattern()
+        {
+            return filePattern;
+        }
+
+        /**
+         * Returns a flag whether the file name pattern does not contain any
+         * variables; then it can be used directly as file name.
+         *
+         * @return a flag whether the file name pattern is constant
+         */
+        public boolean isConstantFilePattern()
+        {
+            return constantFilePattern;
+        }
+
+        /**
+         * Returns the maximum number of managed builders.
+         *
+         * @return the maximum number of managed builders
+         */
+        public int getMaxManagedBuilders()
+        {
+            return maxManagedBuilders;
+        }
+
+        /**
+         * Returns the maximum idle time of managed builders.
+         *
+         * @return the maximum idle time in milliseconds
+         */
+        public long getManagedBuilderIdleTime()
+        {
+            return managedBuilderIdleTime;
+        }
+
+        /**
+         * Checks whether this object is still valid. This is not the case if
+         * the file pattern, the maximum number of managed builders, or their
+         * maximum idle time has been changed in the parameters object after
+         * this object was created.
+         *
+         * @return a flag whether this object is still valid
+         */
+        public boolean isValid()
+        {
+            return filePattern == multiParameters.getFilePattern()
+                    && maxManagedBuilders == multiParameters
+                            .getMaxManagedBuilders()
+                    && managedBuilderIdleTime == multiParameters
+                            .getManagedBuilderIdleTime();
+        }
+    }
 }
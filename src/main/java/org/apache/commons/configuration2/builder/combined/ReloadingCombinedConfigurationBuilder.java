@@ -115,17 +115,25 @@ public class ReloadingCombinedConfigurationBuilder extends
      * before.
      */
     @Override
-    public synchronized ReloadingController getReloadingController()
+    public ReloadingController getReloadingController()
     {
-        return reloadingController;
+        getBuilderLock().lock();
+        try
+        {
+            return reloadingController;
+        }
+        finally
+        {
+            getBuilderLock().unlock();
+        }
     }
 
     /**
      * {@inheritDoc} This implementation makes sure that the reloading state of
      * the managed reloading controller is reset. Note that this has to be done
      * here and not in {@link #initResultInstance(CombinedConfiguration)}
-     * because it must be outside of a synchronized block; otherwise, a
-     * dead-lock situation can occur.
+     * because it must be outside of a section guarded by the builder lock;
+     * otherwise, a dead-lock situation can occur.
      */
     @Override
     public CombinedConfiguration getConfiguration() throws ConfigurationException
@@ -167,8 +175,8 @@ public class ReloadingCombinedConfigurationBuilder extends
     /**
      * Creates the {@code ReloadingController} for this builder. This method is
      * called after the result configuration has been created and initialized.
-     * It is called from a synchronized block. This implementation creates a
-     * {@link CombinedReloadingController}.
+     * It is called from a section guarded by the builder lock. This
+     * implementation creates a {@link CombinedReloadingController}.
      *
      * @return the {@code ReloadingController} for this builder
      * @throws ConfigurationException if an error occurs
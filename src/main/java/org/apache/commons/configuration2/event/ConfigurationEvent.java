@@ -146,6 +146,17 @@ public class ConfigurationEvent extends Event
             new EventType<>(ANY_HIERARCHICAL,
                     "SUBNODE_CHANGED");
 
+    /**
+     * Constant for the event type for a batch of update operations executed
+     * on a hierarchical configuration. Only a single event of this type is
+     * fired for the whole batch; there are no events for the single
+     * operations.
+     *
+     * @since 2.8.0
+     */
+    public static final EventType<ConfigurationEvent> BATCH_UPDATE =
+            new EventType<>(ANY_HIERARCHICAL, "BATCH_UPDATE");
+
     /**
      * The serial version UID.
      */
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * An output stream which replaces a file atomically.
+ * </p>
+ * <p>
+ * Data is written into a temporary file in the directory of the target file.
+ * When the stream is committed - by calling {@link #verify()} or
+ * {@link #close()} - the data is forced to the storage device, and the
+ * temporary file is moved to the target file, atomically if supported by the
+ * underlying file system. So, if the application crashes while writing, the
+ * target file is not affected. {@link FileHandler} aborts the stream if saving
+ * fails; then the temporary file is deleted, and the target file keeps its
+ * old content.
+ * </p>
+ * <p>
+ * A new target file gets the default permissions of newly created files
+ * (i.e. the umask applies), an existing target file keeps its permissions. If
+ * the target is a symbolic link, the file it points to is replaced; the link
+ * itself is not changed.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+class AtomicFileOutputStream extends VerifiableOutputStream
+{
+    /** Constant for the suffix of temporary files. */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** The target file. */
+    private final Path target;
+
+    /** The temporary file. */
+    private final Path tempFile;
+
+    /** The channel for writing into the temporary file. */
+    private final FileChannel channel;
+
+    /** The buffered stream for writing into the channel. */
+    private final OutputStream out;
+
+    /** A flag whether this stream has already been committed or aborted. */
+    private boolean finished;
+
+    /**
+     * Creates a new instance of {@code AtomicFileOutputStream} which writes
+     * into a new temporary file.
+     *
+     * @param target the target file
+     * @param bufferSize the size of the buffer for write operations
+     * @throws IOException if the temporary file cannot be created
+     */
+    AtomicFileOutputStream(final Path target, final int bufferSize)
+            throws IOException
+    {
+        this.target = resolveTarget(target);
+        final Path dir = this.target.getParent();
+        Files.createDirectories(dir);
+        Path tmp;
+        FileChannel tmpChannel;
+        do
+        {
+            tmp = dir.resolve("." + this.target.getFileName()
+                    + Long.toUnsignedString(
+                            ThreadLocalRandom.current().nextLong())
+                    + TEMP_SUFFIX);
+            tmpChannel = createTempChannel(tmp);
+        } while (tmpChannel == null);
+        tempFile = tmp;
+        channel = tmpChannel;
+        try
+        {
+            copyPermissions();
+        }
+        catch (final IOException ioex)
+        {
+            channel.close();
+            Files.deleteIfExists(tempFile);
+            throw ioex;
+        }
+        out = new BufferedOutputStream(Channels.newOutputStream(channel),
+                bufferSize);
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        out.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len)
+            throws IOException
+    {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * {@inheritDoc} This implementation commits the data written so far: the
+     * target file is replaced by the temporary file.
+     */
+    @Override
+    public void verify() throws IOException
+    {
+        commit();
+    }
+
+    /**
+     * {@inheritDoc} This implementation commits the data written so far if
+     * this has not been done before.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        commit();
+    }
+
+    /**
+     * Discards the data written to this stream. The temporary file is deleted;
+     * the target file is not changed. Exceptions are ignored. This method has
+     * no effect if the stream has already been committed.
+     */
+    void abort()
+    {
+        if (!finished)
+        {
+            finished = true;
+            try
+            {
+                channel.close();
+            }
+            catch (final IOException ioex)
+            {
+                // ignore, the file is deleted anyway
+            }
+            deleteTempFile();
+        }
+    }
+
+    /**
+     * Returns the temporary file this stream writes into.
+     *
+     * @return the temporary file
+     */
+    Path getTempFile()
+    {
+        return tempFile;
+    }
+
+    /**
+     * Writes all data to the storage device and replaces the target file by
+     * the temporary file.
+     *
+     * @throws IOException if an error occurs
+     */
+    private void commit() throws IOException
+    {
+        if (finished)
+        {
+            return;
+        }
+
+        finished = true;
+        try
+        {
+            try
+            {
+                out.flush();
+                channel.force(true);
+            }
+            finally
+            {
+                channel.close();
+            }
+            moveTempFile();
+        }
+        catch (final IOException ioex)
+        {
+            deleteTempFile();
+            throw ioex;
+        }
+    }
+
+    /**
+     * Moves the temporary file to the target file. If an atomic move is not
+     * supported, a normal move operation is done.
+     *
+     * @throws IOException if an error occurs
+     */
+    private void moveTempFile() throws IOException
+    {
+        try
+        {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final AtomicMoveNotSupportedException amnsex)
+        {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Determines the file to be replaced. This is the absolute path of the
+     * given file. If the file exists, symbolic links are resolved, so that
+     * the file a link points to is replaced rather than the link.
+     *
+     * @param file the target file
+     * @return the resolved target file
+     * @throws IOException if an error occurs
+     */
+    private static Path resolveTarget(final Path file) throws IOException
+    {
+        final Path absPath = file.toAbsolutePath();
+        return Files.exists(absPath) ? absPath.toRealPath() : absPath;
+    }
+
+    /**
+     * Creates the temporary file with the given path and opens a channel for
+     * writing into it. The file is created like a regular new file, so that
+     * it gets the default permissions. If a file with this path already
+     * exists, result is <b>null</b>.
+     *
+     * @param tmp the path of the temporary file
+     * @return the channel for writing or <b>null</b>
+     * @throws IOException if an error occurs
+     */
+    private static FileChannel createTempChannel(final Path tmp)
+            throws IOException
+    {
+        try
+        {
+            return FileChannel.open(tmp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+        }
+        catch (final FileAlreadyExistsException faex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Applies the POSIX permissions of an existing target file to the
+     * temporary file. Otherwise, the target file would have the default
+     * permissions of a new file after it has been replaced.
+     *
+     * @throws IOException if an error occurs
+     */
+    private void copyPermissions() throws IOException
+    {
+        final PosixFileAttributeView targetView = Files.getFileAttributeView(
+                target, PosixFileAttributeView.class);
+        if (targetView != null && Files.exists(target))
+        {
+            Files.getFileAttributeView(tempFile, PosixFileAttributeView.class)
+                    .setPermissions(targetView.readAttributes().permissions());
+        }
+    }
+
+    /**
+     * Deletes the temporary file. Exceptions are ignored.
+     */
+    private void deleteTempFile()
+    {
+        try
+        {
+            Files.deleteIfExists(tempFile);
+        }
+        catch (final IOException ioex)
+        {
+            // ignore, only a temporary file remains
+        }
+    }
+}
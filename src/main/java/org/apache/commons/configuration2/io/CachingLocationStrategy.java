@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Objects;
+
+import org.apache.commons.configuration2.BoundedCache;
+
+/**
+ * <p>
+ * A specialized implementation of {@code FileLocationStrategy} which caches
+ * the URLs resolved by another {@code FileLocationStrategy}.
+ * </p>
+ * <p>
+ * Strategies like {@link ClasspathLocationStrategy} or
+ * {@link HomeDirectoryLocationStrategy} have to scan the class path or check
+ * the existence of files. If many configuration files are located again and
+ * again - for instance when builders are created or reloaded - this can cause
+ * a considerable amount of I/O. This class wraps another strategy and stores
+ * the URLs it resolves in a cache. The key of the cache is derived from the
+ * properties of the {@link FileLocator} which are relevant for the location
+ * process (base path, file name, source URL, and the file system). So, a
+ * repeated {@code locate()} operation for the same file is just a map lookup.
+ * </p>
+ * <p>
+ * Only successful results are cached; if the wrapped strategy cannot resolve
+ * a locator, it is asked again next time. If a cached URL points to a local
+ * file which no longer exists, the entry is invalidated, and the wrapped
+ * strategy is queried again. Other changes in the environment, e.g. a file
+ * that is created at a location which would take precedence, are not
+ * detected. In this case, {@link #clear()} has to be called.
+ * </p>
+ * <p>
+ * The default constructor wraps the default location strategy. So, the
+ * following fragment enables caching for a file-based builder:
+ * </p>
+ *
+ * <pre>
+ * builder.configure(params.fileBased().setFileName(fileName)
+ *         .setLocationStrategy(new CachingLocationStrategy()));
+ * </pre>
+ *
+ * <p>
+ * An instance can be shared between an arbitrary number of builders; it is
+ * thread-safe.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public class CachingLocationStrategy implements FileLocationStrategy
+{
+    /** The wrapped strategy. */
+    private final FileLocationStrategy strategy;
+
+    /** The cache with the resolved URLs. */
+    private final BoundedCache<CacheKey, URL> cache;
+
+    /**
+     * Creates a new instance of {@code CachingLocationStrategy} which wraps
+     * the default location strategy.
+     *
+     * @see FileLocatorUtils#DEFAULT_LOCATION_STRATEGY
+     */
+    public CachingLocationStrategy()
+    {
+        this(FileLocatorUtils.DEFAULT_LOCATION_STRATEGY);
+    }
+
+    /**
+     * Creates a new instance of {@code CachingLocationStrategy} which wraps
+     * the given strategy.
+     *
+     * @param strategy the strategy to be wrapped (must not be <b>null</b>)
+     * @throws IllegalArgumentException if the strategy is <b>null</b>
+     */
+    public CachingLocationStrategy(final FileLocationStrategy strategy)
+    {
+        if (strategy == null)
+        {
+            throw new IllegalArgumentException(
+                    "Wrapped strategy must not be null!");
+        }
+        this.strategy = strategy;
+        cache = new BoundedCache<>(null);
+    }
+
+    /**
+     * Returns the strategy wrapped by this object.
+     *
+     * @return the wrapped {@code FileLocationStrategy}
+     */
+    public FileLocationStrategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Returns the maximum number of URLs stored in the cache.
+     *
+     * @return the maximum size of the cache (0 for unlimited)
+     */
+    public int getMaximumSize()
+    {
+        return cache.getMaximumSize();
+    }
+
+    /**
+     * Sets the maximum number of URLs stored in the cache. If this number is
+     * exceeded, the entries which have not been accessed for the longest time
+     * are removed. Per default, the size of the cache is not limited.
+     *
+     * @param size the maximum size of the cache (0 or less for unlimited)
+     */
+    public void setMaximumSize(final int size)
+    {
+        cache.setMaximumSize(size);
+    }
+
+    /**
+     * Returns the number of URLs currently stored in the cache.
+     *
+     * @return the number of cached URLs
+     */
+    public int size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Removes all cached URLs. Afterwards, all locators are resolved again by
+     * the wrapped strategy.
+     */
+    public void clear()
+    {
+        cache.clear();
+    }
+
+    /**
+     * {@inheritDoc} This implementation checks whether a URL for the given
+     * locator is contained in the cache. If not, the wrapped strategy is
+     * called, and its result is stored in the cache.
+     */
+    @Override
+    public URL locate(final FileSystem fileSystem, final FileLocator locator)
+    {
+        final CacheKey key = new CacheKey(fileSystem, locator);
+        URL url = cache.get(key);
+        if (url != null)
+        {
+            if (isValid(url))
+            {
+                return url;
+            }
+            cache.remove(key);
+        }
+
+        url = strategy.locate(fileSystem, locator);
+        if (url != null)
+        {
+            cache.put(key, url);
+        }
+        return url;
+    }
+
+    /**
+     * Checks whether a URL obtained from the cache can still be used. This is
+     * the case unless it points to a local file which does not exist.
+     *
+     * @param url the URL to check
+     * @return a flag whether this URL is valid
+     */
+    private static boolean isValid(final URL url)
+    {
+        final File file = FileLocatorUtils.fileFromURL(url);
+        return file == null || file.exists();
+    }
+
+    /**
+     * A class representing the key of the cache. It contains the properties of
+     * a {@code FileLocator} which are relevant for the location process. The
+     * source URL is stored in its external form because the {@code equals()}
+     * method of {@code URL} may perform network operations.
+     */
+    private static final class CacheKey
+    {
+        /** The file system. */
+        private final FileSystem fileSystem;
+
+        /** The base path. */
+        private final String basePath;
+
+        /** The file name. */
+        private final String fileName;
+
+        /** The source URL as string. */
+        private final String sourceURL;
+
+        /**
+         * Creates a new instance of {@code CacheKey} for the given locator.
+         *
+         * @param fileSystem the file system
+         * @param locator the locator
+         */
+        CacheKey(final FileSystem fileSystem, final FileLocator locator)
+        {
+            this.fileSystem = fileSystem;
+            basePath = locator.getBasePath();
+            fileName = locator.getFileName();
+            sourceURL = locator.getSourceURL() != null ? locator
+                    .getSourceURL().toExternalForm() : null;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(fileSystem, basePath, fileName, sourceURL);
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof CacheKey))
+            {
+                return false;
+            }
+
+            final CacheKey c = (CacheKey) obj;
+            return Objects.equals(fileSystem, c.fileSystem)
+                    && Objects.equals(basePath, c.basePath)
+                    && Objects.equals(fileName, c.fileName)
+                    && Objects.equals(sourceURL, c.sourceURL);
+        }
+    }
+}
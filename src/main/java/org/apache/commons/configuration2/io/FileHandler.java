@@ -1115,11 +1115,14 @@ public class FileHandler
     private void save(final File file, final FileLocator locator) throws ConfigurationException
     {
         OutputStream out = null;
+        boolean success = false;
 
         try
         {
             out = FileLocatorUtils.obtainFileSystem(locator).getOutputStream(file);
             saveToStream(out, locator.getEncoding(), file.toURI().toURL());
+            verifyOutput(out);
+            success = true;
         }
         catch (final MalformedURLException muex)
         {
@@ -1127,7 +1130,7 @@ public class FileHandler
         }
         finally
         {
-            closeSilent(out);
+            closeOutput(out, success);
         }
     }
 
@@ -1267,26 +1270,59 @@ public class FileHandler
     private void save(final URL url, final FileLocator locator) throws ConfigurationException
     {
         OutputStream out = null;
+        boolean success = false;
         try
         {
             out = FileLocatorUtils.obtainFileSystem(locator).getOutputStream(url);
             saveToStream(out, locator.getEncoding(), url);
-            if (out instanceof VerifiableOutputStream)
+            verifyOutput(out);
+            success = true;
+        }
+        finally
+        {
+            closeOutput(out, success);
+        }
+    }
+
+    /**
+     * Verifies the given output stream after data has been written to it if
+     * it is a {@link VerifiableOutputStream}.
+     *
+     * @param out the output stream
+     * @throws ConfigurationException if verification fails
+     */
+    private static void verifyOutput(final OutputStream out)
+            throws ConfigurationException
+    {
+        if (out instanceof VerifiableOutputStream)
+        {
+            try
             {
-                try
-                {
-                    ((VerifiableOutputStream) out).verify();
-                }
-                catch (final IOException e)
-                {
-                    throw new ConfigurationException(e);
-                }
+                ((VerifiableOutputStream) out).verify();
+            }
+            catch (final IOException e)
+            {
+                throw new ConfigurationException(e);
             }
         }
-        finally
+    }
+
+    /**
+     * Closes the output stream used by a save operation. If the operation
+     * failed, and the stream supports this, the data written so far is
+     * discarded, so that the target file is not changed.
+     *
+     * @param out the output stream (may be <b>null</b>)
+     * @param success a flag whether the save operation was successful
+     */
+    private static void closeOutput(final OutputStream out,
+            final boolean success)
+    {
+        if (!success && out instanceof AtomicFileOutputStream)
         {
-            closeSilent(out);
+            ((AtomicFileOutputStream) out).abort();
         }
+        closeSilent(out);
     }
 
     /**
@@ -1320,28 +1356,15 @@ public class FileHandler
         try
         {
             injectFileLocator(url);
-            Writer writer = null;
 
-            if (encoding != null)
+            if (getContent() instanceof OutputStreamSupport)
             {
-                try
-                {
-                    writer = new OutputStreamWriter(out, encoding);
-                }
-                catch (final UnsupportedEncodingException e)
-                {
-                    throw new ConfigurationException(
-                            "The requested encoding is not supported, try the default encoding.",
-                            e);
-                }
+                saveToStreamDirectly(out);
             }
-
-            if (writer == null)
+            else
             {
-                writer = new OutputStreamWriter(out);
+                saveToTransformedStream(out, encoding);
             }
-
-            saveToWriter(writer);
         }
         finally
         {
@@ -1349,6 +1372,75 @@ public class FileHandler
         }
     }
 
+    /**
+     * Saves data to an output stream if the associated {@code FileBased}
+     * object implements the {@code OutputStreamSupport} interface.
+     *
+     * @param out the output stream
+     * @throws ConfigurationException if an error occurs
+     */
+    private void saveToStreamDirectly(final OutputStream out)
+            throws ConfigurationException
+    {
+        fireSavingEvent();
+        try
+        {
+            ((OutputStreamSupport) getContent()).write(out);
+            out.flush();
+        }
+        catch (final IOException ioex)
+        {
+            throw new ConfigurationException(ioex);
+        }
+        finally
+        {
+            fireSavedEvent();
+        }
+    }
+
+    /**
+     * Internal helper method for transforming an output stream to a writer and
+     * saving data into it.
+     *
+     * @param out the output stream
+     * @param encoding the encoding
+     * @throws ConfigurationException if an error occurs
+     */
+    private void saveToTransformedStream(final OutputStream out,
+            final String encoding) throws ConfigurationException
+    {
+        Writer writer = null;
+
+        if (encoding != null)
+        {
+            try
+            {
+                writer = new OutputStreamWriter(out, encoding);
+            }
+            catch (final UnsupportedEncodingException e)
+            {
+                throw new ConfigurationException(
+                        "The requested encoding is not supported, try the default encoding.",
+                        e);
+            }
+        }
+
+        if (writer == null)
+        {
+            writer = new OutputStreamWriter(out);
+        }
+
+        saveToWriter(writer);
+        try
+        {
+            writer.flush();
+        }
+        catch (final IOException ioex)
+        {
+            throw new ConfigurationException(ioex);
+        }
+    }
+
     /**
      * Internal helper method for saving a file into the given writer.
      *
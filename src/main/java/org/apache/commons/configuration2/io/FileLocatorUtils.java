@@ -524,7 +524,9 @@ public final class FileLocatorUtils
      * used. Otherwise, the default {@code FileLocationStrategy} is applied. The
      * strategy is passed the locator and a {@code FileSystem}. The resulting
      * URL is returned. If the {@code FileLocator} is <b>null</b>, result is
-     * <b>null</b>.
+     * <b>null</b>. Note that each invocation of this method runs the full
+     * location process; in order to avoid repeated lookups for the same
+     * file, a {@link CachingLocationStrategy} can be set for the locator.
      *
      * @param locator the {@code FileLocator} to be resolved
      * @return the URL pointing to the referenced file or <b>null</b> if the
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+/**
+ * <p>
+ * A {@code FileSystem} implementation which accesses local files using the
+ * NIO API.
+ * </p>
+ * <p>
+ * This file system is intended for large configuration files. Local files are
+ * read through channels with a large buffer. Files are saved atomically:
+ * data is written into a temporary file first which then replaces the target
+ * file; so the target file is never left in a partially written state, even
+ * if the application crashes during a save operation. URLs which do not point
+ * to local files are handled in the same way as by {@link DefaultFileSystem}.
+ * </p>
+ * <p>
+ * An instance can be set for a file-based configuration builder using the
+ * {@code setFileSystem()} method of its parameters object, or directly for a
+ * {@link FileHandler}.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public class NIOFileSystem extends DefaultFileSystem
+{
+    /** Constant for the default buffer size. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** The size of the buffers for read and write operations. */
+    private final int bufferSize;
+
+    /**
+     * Creates a new instance of {@code NIOFileSystem} with the default buffer
+     * size.
+     */
+    public NIOFileSystem()
+    {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code NIOFileSystem} with the given buffer
+     * size.
+     *
+     * @param bufferSize the size of the buffers for read and write operations
+     * @throws IllegalArgumentException if the buffer size is not positive
+     */
+    public NIOFileSystem(final int bufferSize)
+    {
+        if (bufferSize <= 0)
+        {
+            throw new IllegalArgumentException("Buffer size must be positive: "
+                    + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Returns the size of the buffers used for read and write operations.
+     *
+     * @return the buffer size
+     */
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * {@inheritDoc} This implementation reads local files through a channel.
+     * Other URLs are handled by the base class.
+     */
+    @Override
+    public InputStream getInputStream(final URL url,
+            final URLConnectionOptions urlConnectionOptions)
+            throws ConfigurationException
+    {
+        final File file = FileLocatorUtils.fileFromURL(url);
+        if (file == null)
+        {
+            return super.getInputStream(url, urlConnectionOptions);
+        }
+        if (file.isDirectory())
+        {
+            throw new ConfigurationException(
+                    "Cannot load a configuration from a directory");
+        }
+
+        try
+        {
+            return new BufferedInputStream(Files.newInputStream(file.toPath()),
+                    bufferSize);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            throw new ConfigurationException(
+                    "Unable to load the configuration from the URL " + url, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc} This implementation returns a stream which replaces the
+     * file atomically when it is closed.
+     */
+    @Override
+    public OutputStream getOutputStream(final File file)
+            throws ConfigurationException
+    {
+        if (file.getAbsoluteFile().isDirectory())
+        {
+            throw new ConfigurationException(
+                    "Cannot save a configuration to a directory: " + file);
+        }
+
+        try
+        {
+            return new AtomicFileOutputStream(file.toPath(), bufferSize);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            throw new ConfigurationException("Unable to save to file " + file,
+                    e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+
+/**
+ * <p>
+ * Definition of an interface to be implemented by objects which support writing
+ * to an output stream.
+ * </p>
+ * <p>
+ * This is the counterpart of {@link InputStreamSupport}. When saving data
+ * using a {@link FileHandler} per default a writer is used as defined by the
+ * {@link FileBased#write(java.io.Writer)} method. Configuration formats which
+ * produce binary data can implement this interface. If the
+ * {@code FileHandler} detects that its associated {@code FileBased} object
+ * implements this interface, it passes the output stream directly rather than
+ * transforming it to a writer.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public interface OutputStreamSupport
+{
+    /**
+     * Writes the content of this object to the specified {@code OutputStream}.
+     * The stream must not be closed by this method.
+     *
+     * @param out the output stream
+     * @throws ConfigurationException if a non-I/O related problem occurs
+     * @throws IOException if an I/O error occurs
+     */
+    void write(OutputStream out) throws ConfigurationException, IOException;
+}
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.configuration2.reloading;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.apache.commons.configuration2.event.Event;
 import org.apache.commons.configuration2.event.EventListener;
 import org.apache.commons.configuration2.event.EventListenerList;
@@ -59,7 +62,10 @@ import org.apache.commons.configuration2.event.EventType;
  * <p>
  * This class can be accessed from multiple threads concurrently. It shields the
  * associated {@link ReloadingDetector} object for concurrent access, so that a
- * concrete detector implementation does not have to be thread-safe.
+ * concrete detector implementation does not have to be thread-safe. The
+ * detector is accessed while holding a {@code ReentrantLock}; so a virtual
+ * thread waiting for a check that involves I/O does not block its carrier
+ * thread.
  * </p>
  *
  * @since 2.0
@@ -72,6 +78,9 @@ public class ReloadingController implements EventSource
     /** The helper object which manages the registered event listeners. */
     private final EventListenerList listeners;
 
+    /** The lock for accessing the detector and the reloading state. */
+    private final Lock lock = new ReentrantLock();
+
     /** A flag whether this controller is in reloading state. */
     private boolean reloadingState;
 
@@ -130,9 +139,17 @@ public class ReloadingController implements EventSource
      *
      * @return a flag whether this controller is in reloading state
      */
-    public synchronized boolean isInReloadingState()
+    public boolean isInReloadingState()
     {
-        return reloadingState;
+        lock.lock();
+        try
+        {
+            return reloadingState;
+        }
+        finally
+        {
+            lock.unlock();
+        }
     }
 
     /**
@@ -154,7 +171,8 @@ public class ReloadingController implements EventSource
     public boolean checkForReloading(final Object data)
     {
         boolean sendEvent = false;
-        synchronized (this)
+        lock.lock();
+        try
         {
             if (isInReloadingState())
             {
@@ -166,6 +184,10 @@ public class ReloadingController implements EventSource
                 reloadingState = true;
             }
         }
+        finally
+        {
+            lock.unlock();
+        }
 
         if (sendEvent)
         {
@@ -180,12 +202,20 @@ public class ReloadingController implements EventSource
      * been performed and new checks are possible again. If this controller is
      * not in reloading state, this method has no effect.
      */
-    public synchronized void resetReloadingState()
+    public void resetReloadingState()
     {
-        if (isInReloadingState())
+        lock.lock();
+        try
+        {
+            if (isInReloadingState())
+            {
+                getDetector().reloadingPerformed();
+                reloadingState = false;
+            }
+        }
+        finally
         {
-            getDetector().reloadingPerformed();
-            reloadingState = false;
+            lock.unlock();
         }
     }
 }
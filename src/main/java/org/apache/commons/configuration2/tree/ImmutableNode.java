@@ -16,6 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,6 +27,9 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
 
 /**
  * <p>
@@ -39,6 +45,12 @@ import java.util.Map;
  * updating properties, but these methods return new {@code ImmutableNode}
  * instances. Instances are created using the nested {@code Builder} class.
  * </p>
+ * <p>
+ * As configurations can contain a huge number of nodes, the representation
+ * of nodes is kept compact: Nodes without children or attributes share empty
+ * collections, small collections of children and attributes are stored in
+ * arrays.
+ * </p>
  *
  * @since 2.0
  */
@@ -574,7 +586,8 @@ public final class ImmutableNode implements Iterable<ImmutableNode>
         /**
          * Creates a list with the children of the newly created node. The list
          * returned here is always immutable. It depends on the way this builder
-         * was populated.
+         * was populated. In order to save memory, the children are copied into
+         * a compact array-based list.
          *
          * @return the list with the children of the new node
          */
@@ -584,18 +597,24 @@ public final class ImmutableNode implements Iterable<ImmutableNode>
             {
                 return directChildren;
             }
-            if (children != null)
+            if (children == null || children.isEmpty())
+            {
+                return Collections.emptyList();
+            }
+            if (children.size() == 1)
             {
-                return Collections.unmodifiableList(children);
+                return Collections.singletonList(children.get(0));
             }
-            return Collections.emptyList();
+            return new ChildList(
+                    children.toArray(new ImmutableNode[children.size()]));
         }
 
         /**
          * Creates a map with the attributes of the newly created node. This is
          * an immutable map. If direct attributes were set, they are returned.
-         * Otherwise an unmodifiable map from the attributes passed to this
-         * builder is constructed.
+         * Otherwise an immutable map from the attributes passed to this
+         * builder is constructed. Small maps are stored in an array to save
+         * memory.
          *
          * @return a map with the attributes for the new node
          */
@@ -605,11 +624,21 @@ public final class ImmutableNode implements Iterable<ImmutableNode>
             {
                 return directAttributes;
             }
-            if (attributes != null)
+            if (attributes == null || attributes.isEmpty())
+            {
+                return Collections.emptyMap();
+            }
+            if (attributes.size() == 1)
+            {
+                final Map.Entry<String, Object> e =
+                        attributes.entrySet().iterator().next();
+                return Collections.singletonMap(e.getKey(), e.getValue());
+            }
+            if (attributes.size() <= AttributeMap.MAX_SIZE)
             {
-                return Collections.unmodifiableMap(attributes);
+                return new AttributeMap(attributes);
             }
-            return Collections.emptyMap();
+            return Collections.unmodifiableMap(attributes);
         }
 
         /**
@@ -678,4 +707,157 @@ public final class ImmutableNode implements Iterable<ImmutableNode>
     {
         return super.toString() + "(" + nodeName + ")";
     }
+
+    /**
+     * An immutable list implementation for the children of a node which is
+     * directly backed by an array.
+     */
+    private static final class ChildList extends AbstractList<ImmutableNode>
+            implements RandomAccess
+    {
+        /** The array with the child nodes. */
+        private final ImmutableNode[] nodes;
+
+        /**
+         * Creates a new instance of {@code ChildList}.
+         *
+         * @param nodes the array with the child nodes
+         */
+        ChildList(final ImmutableNode[] nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public ImmutableNode get(final int index)
+        {
+            return nodes[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return nodes.length;
+        }
+    }
+
+    /**
+     * An immutable map implementation for a small number of attributes. The
+     * names and values of the attributes are stored in alternating order in
+     * a single array; look-ups are done by a linear search. For small maps,
+     * this is both faster and requires much less memory than a hash map.
+     */
+    private static final class AttributeMap extends AbstractMap<String, Object>
+    {
+        /** The maximum number of attributes stored in an array. */
+        static final int MAX_SIZE = 8;
+
+        /** The array with attribute names and values. */
+        private final Object[] data;
+
+        /** The entry set of this map; created on demand. */
+        private Set<Map.Entry<String, Object>> entrySet;
+
+        /**
+         * Creates a new instance of {@code AttributeMap} with the content of
+         * the given map.
+         *
+         * @param attrs the map with attributes
+         */
+        AttributeMap(final Map<String, Object> attrs)
+        {
+            data = new Object[2 * attrs.size()];
+            int idx = 0;
+            for (final Map.Entry<String, Object> e : attrs.entrySet())
+            {
+                data[idx++] = e.getKey();
+                data[idx++] = e.getValue();
+            }
+        }
+
+        @Override
+        public int size()
+        {
+            return data.length / 2;
+        }
+
+        @Override
+        public boolean containsKey(final Object key)
+        {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(final Object key)
+        {
+            final int idx = indexOf(key);
+            return idx < 0 ? null : data[idx + 1];
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet()
+        {
+            if (entrySet == null)
+            {
+                entrySet = new AbstractSet<Map.Entry<String, Object>>()
+                {
+                    @Override
+                    public Iterator<Map.Entry<String, Object>> iterator()
+                    {
+                        return new Iterator<Map.Entry<String, Object>>()
+                        {
+                            /** The index of the next entry. */
+                            private int index;
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return index < data.length;
+                            }
+
+                            @Override
+                            public Map.Entry<String, Object> next()
+                            {
+                                if (!hasNext())
+                                {
+                                    throw new NoSuchElementException();
+                                }
+                                final Map.Entry<String, Object> entry =
+                                        new AbstractMap.SimpleImmutableEntry<>(
+                                                (String) data[index],
+                                                data[index + 1]);
+                                index += 2;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        return AttributeMap.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        /**
+         * Returns the index of the given attribute name in the data array.
+         *
+         * @param key the attribute name
+         * @return the index of this name or -1 if it cannot be found
+         */
+        private int indexOf(final Object key)
+        {
+            for (int i = 0; i < data.length; i += 2)
+            {
+                if (data[i] == null ? key == null : data[i].equals(key))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
 }
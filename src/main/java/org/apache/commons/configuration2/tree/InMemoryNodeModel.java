@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -56,20 +57,22 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
      * limited functionality.
      */
     private static final NodeHandler<ImmutableNode> DUMMY_HANDLER =
-            new TreeData(null,
-                    Collections.<ImmutableNode, ImmutableNode> emptyMap(),
+            new TreeData(null, ParentMapping.empty(),
                     Collections.<ImmutableNode, ImmutableNode> emptyMap(), null, new ReferenceTracker());
 
     /** Stores information about the current nodes structure. */
     private final AtomicReference<TreeData> structure;
 
+    /** A flag whether this model is used to execute a batch of updates. */
+    private final boolean batchMode;
+
     /**
      * Creates a new instance of {@code InMemoryNodeModel} which is initialized
      * with an empty root node.
      */
     public InMemoryNodeModel()
     {
-        this(null);
+        this((ImmutableNode) null);
     }
 
     /**
@@ -84,6 +87,57 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
         structure =
                 new AtomicReference<>(
                         createTreeData(initialRootNode(root), null));
+        batchMode = false;
+    }
+
+    /**
+     * Creates a new instance of {@code InMemoryNodeModel} which operates in
+     * batch mode on the given data. This constructor is used
+     * by {@link #executeBatch(Consumer, NodeKeyResolver)}.
+     *
+     * @param batchData the data of the model to be updated in a batch
+     */
+    private InMemoryNodeModel(final TreeData batchData)
+    {
+        structure = new AtomicReference<>(batchData);
+        batchMode = true;
+    }
+
+    /**
+     * Executes a number of update operations as a single update of this
+     * model. The passed in {@code Consumer} is invoked with a temporary model
+     * which initially contains the data of this model. All operations
+     * performed on this temporary model are executed on a private copy of the
+     * data without publishing intermediate states; the state of tracked nodes
+     * is not updated for each single operation, but only once at the end.
+     * Then the result becomes the new state of this model in a single atomic
+     * step. If this model was changed concurrently in the meantime, the whole
+     * batch is executed again on the updated data; so the {@code Consumer}
+     * should only interact with the model passed to it. Operations on tracked
+     * nodes are not supported in a batch.
+     *
+     * @param batch the {@code Consumer} performing the update operations
+     * @param resolver the {@code NodeKeyResolver}
+     * @since 2.8.0
+     */
+    public void executeBatch(final Consumer<? super InMemoryNodeModel> batch,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        boolean done;
+        do
+        {
+            final TreeData currentData = getTreeData();
+            final InMemoryNodeModel batchModel =
+                    new InMemoryNodeModel(currentData);
+            batch.accept(batchModel);
+
+            final TreeData batchData = batchModel.getTreeData();
+            done = batchData == currentData
+                    || structure.compareAndSet(currentData, batchData
+                            .updateNodeTracker(batchData.getNodeTracker()
+                                    .update(batchData.getRootNode(), null,
+                                            resolver, batchData)));
+        } while (!done);
     }
 
     /**
@@ -721,6 +775,34 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
         return structure.get().getNodeTracker().isTrackedNodeDetached(selector);
     }
 
+    /**
+     * Returns the number of nodes currently tracked by this model. Each
+     * distinct {@code NodeSelector} passed to one of the {@code trackNode()}
+     * methods is counted once, no matter how many observers it has. Detached
+     * nodes are included. This information can be used for monitoring; each
+     * tracked node adds some overhead to update operations on this model.
+     *
+     * @return the number of tracked nodes
+     * @since 2.8.0
+     */
+    public int getTrackedNodeCount()
+    {
+        return structure.get().getNodeTracker().getTrackedNodeCount();
+    }
+
+    /**
+     * Returns the number of tracked nodes of this model which are in detached
+     * state.
+     *
+     * @return the number of detached tracked nodes
+     * @see #isTrackedNodeDetached(NodeSelector)
+     * @since 2.8.0
+     */
+    public int getDetachedTrackedNodeCount()
+    {
+        return structure.get().getNodeTracker().getDetachedNodeCount();
+    }
+
     /**
      * Removes a tracked node. This method is the opposite of
      * {@code trackNode()}. It has to be called if there is no longer the need
@@ -796,6 +878,33 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
                 }, DUMMY_HANDLER);
     }
 
+    /**
+     * Updates the mapping from nodes to their parents for the passed in
+     * hierarchy of nodes. This method traverses all children and grand-children
+     * of the passed in root node. For each node in the subtree the parent
+     * relation is added to the map.
+     *
+     * @param parents the builder for the parent mapping
+     * @param root the root node of the current tree
+     */
+    static void updateParentMapping(final ParentMapping.Builder parents,
+            final ImmutableNode root)
+    {
+        NodeTreeWalker.INSTANCE.walkBFS(root,
+                new ConfigurationNodeVisitorAdapter<ImmutableNode>()
+                {
+                    @Override
+                    public void visitBeforeChildren(final ImmutableNode node,
+                            final NodeHandler<ImmutableNode> handler)
+                    {
+                        for (final ImmutableNode c : node)
+                        {
+                            parents.put(c, node);
+                        }
+                    }
+                }, DUMMY_HANDLER);
+    }
+
     /**
      * Checks if the passed in node is defined. Result is <b>true</b> if the
      * node contains any data.
@@ -1104,13 +1213,11 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
      * @param root the root node of the structure
      * @return the parent node mapping
      */
-    private Map<ImmutableNode, ImmutableNode> createParentMapping(
-            final ImmutableNode root)
+    private ParentMapping createParentMapping(final ImmutableNode root)
     {
-        final Map<ImmutableNode, ImmutableNode> parents =
-                new HashMap<>();
+        final ParentMapping.Builder parents = ParentMapping.empty().builder();
         updateParentMapping(parents, root);
-        return parents;
+        return parents.build();
     }
 
     /**
@@ -1157,7 +1264,8 @@ public class InMemoryNodeModel implements NodeModel<ImmutableNode>
     {
         boolean done;
         final ModelTransaction tx =
-                new ModelTransaction(currentData, selector, resolver);
+                new ModelTransaction(currentData, selector, resolver,
+                        batchMode);
         if (!txInit.initTransaction(tx))
         {
             done = true;
@@ -22,6 +22,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * <p>
@@ -37,11 +38,38 @@ import java.util.Objects;
  * <li>Attributes in nodes that match are merged.
  * <li>Nodes in both files that do not match are added to the result.</li>
  * </ol>
+ * <p>
+ * The children of the second node are grouped by their names before, so that
+ * the effort for finding matching nodes does not depend on the total number
+ * of children.
+ * </p>
+ * <p>
+ * The resulting structure shares as many nodes as possible with the source
+ * hierarchies: Nodes that exist in only one hierarchy are added as they are,
+ * and if the combination of two nodes would produce a node equivalent to one
+ * of them, this source node is used rather than creating a new one.
+ * </p>
  *
  * @since 1.7
  */
 public class MergeCombiner extends NodeCombiner
 {
+    /**
+     * A flag whether a derived class overrides the node-based variant of
+     * {@code canCombine()} which then has to be called.
+     */
+    private final boolean nodeBasedCanCombine;
+
+    /**
+     * Creates a new instance of {@code MergeCombiner}.
+     */
+    public MergeCombiner()
+    {
+        nodeBasedCanCombine = isOverridden(getClass(), MergeCombiner.class,
+                "canCombine", ImmutableNode.class, ImmutableNode.class,
+                List.class);
+    }
+
     /**
      * Combines the given nodes to a new union node.
      *
@@ -53,32 +81,70 @@ public class MergeCombiner extends NodeCombiner
     @Override
     public ImmutableNode combine(final ImmutableNode node1, final ImmutableNode node2)
     {
-        final ImmutableNode.Builder result = new ImmutableNode.Builder();
-        result.name(node1.getNodeName());
-        result.value(node1.getValue());
-        addAttributes(result, node1, node2);
+        if (node2.getValue() == null && isReplacedBy(node1, node2))
+        {
+            return node2;
+        }
 
         // Check if nodes can be combined
-        final List<ImmutableNode> children2 = new LinkedList<>(node2.getChildren());
+        final Map<String, List<ImmutableNode>> index2 =
+                groupChildrenByName(node2);
+        final Set<ImmutableNode> excluded = createNodeSet();
+        final List<ImmutableNode> children2 = nodeBasedCanCombine
+                ? new LinkedList<>(node2.getChildren()) : null;
+        final List<ImmutableNode> children = new ArrayList<>(
+                node1.getChildren().size() + node2.getChildren().size());
+        boolean changed = !containsAttributes(node1, node2);
         for (final ImmutableNode child1 : node1)
         {
-            final ImmutableNode child2 = canCombine(node2, child1, children2);
+            final ImmutableNode child2 = nodeBasedCanCombine
+                    ? canCombine(node2, child1, children2)
+                    : canCombine(childrenWithName(index2, child1.getNodeName()),
+                            child1, excluded);
             if (child2 != null)
             {
-                result.addChild(combine(child1, child2));
-                children2.remove(child2);
+                final ImmutableNode child = combine(child1, child2);
+                changed |= child != child1;
+                children.add(child);
+                excluded.add(child2);
             }
             else
             {
-                result.addChild(child1);
+                children.add(child1);
             }
         }
 
         // Add remaining children of node 2
-        for (final ImmutableNode c : children2)
+        final Set<ImmutableNode> remaining;
+        if (children2 != null)
         {
-            result.addChild(c);
+            remaining = createNodeSet();
+            remaining.addAll(children2);
         }
+        else
+        {
+            remaining = null;
+        }
+        for (final ImmutableNode c : node2)
+        {
+            if (!excluded.contains(c)
+                    && (remaining == null || remaining.contains(c)))
+            {
+                children.add(c);
+                changed = true;
+            }
+        }
+
+        if (!changed)
+        {
+            return node1;
+        }
+        final ImmutableNode.Builder result =
+                new ImmutableNode.Builder(children.size());
+        result.name(node1.getNodeName());
+        result.value(node1.getValue());
+        addAttributes(result, node1, node2);
+        result.addChildren(children);
         return result.create();
     }
 
@@ -109,7 +175,12 @@ public class MergeCombiner extends NodeCombiner
     /**
      * Tests if the first node can be combined with the second node. A node can
      * only be combined if its attributes are all present in the second node and
-     * they all have the same value.
+     * they all have the same value. Nodes of the second node which must not be
+     * added to the result are removed from the given list. Note: If a derived
+     * class overrides this method, {@code combine()} calls it for each child
+     * of the first node, passing in the list of remaining children of the
+     * second node. Otherwise, the overloaded variant operating on the children
+     * with the name in question is called directly.
      *
      * @param node2 the second node
      * @param child the child node (of the first node)
@@ -118,13 +189,40 @@ public class MergeCombiner extends NodeCombiner
      */
     protected ImmutableNode canCombine(final ImmutableNode node2,
             final ImmutableNode child, final List<ImmutableNode> children2)
+    {
+        final Set<ImmutableNode> excluded = createNodeSet();
+        final ImmutableNode result = canCombine(
+                HANDLER.getChildren(node2, child.getNodeName()), child,
+                excluded);
+        children2.removeAll(excluded);
+        return result;
+    }
+
+    /**
+     * Tests if the first node can be combined with one of the given candidate
+     * nodes of the second node. This method is called by {@code combine()} for
+     * each child of the first node unless a derived class overrides the
+     * node-based variant; it is passed the children of the second
+     * node with the same name as this child. The checks are the same as for
+     * {@link #canCombine(ImmutableNode, ImmutableNode, List)}. If multiple
+     * candidates match and the child is no list node, these candidates are
+     * added to the given set; they are then excluded from the result.
+     *
+     * @param candidates the children of the 2nd node with the name of the
+     *        child
+     * @param child the child node (of the first node)
+     * @param excluded a set for nodes of the 2nd node that are not to be
+     *        added to the result
+     * @return a child of the second node, with which a combination is possible
+     * @since 2.8.0
+     */
+    protected ImmutableNode canCombine(final List<ImmutableNode> candidates,
+            final ImmutableNode child, final Set<ImmutableNode> excluded)
     {
         final Map<String, Object> attrs1 = child.getAttributes();
         final List<ImmutableNode> nodes = new ArrayList<>();
 
-        final List<ImmutableNode> children =
-                HANDLER.getChildren(node2, child.getNodeName());
-        for (final ImmutableNode node : children)
+        for (final ImmutableNode node : candidates)
         {
             if (matchAttributes(attrs1, node))
             {
@@ -138,10 +236,7 @@ public class MergeCombiner extends NodeCombiner
         }
         if (nodes.size() > 1 && !isListNode(child))
         {
-            for (final ImmutableNode node : nodes)
-            {
-                children2.remove(node);
-            }
+            excluded.addAll(nodes);
         }
 
         return null;
@@ -65,11 +65,12 @@ class ModelTransaction
 {
     /**
      * Constant for the maximum number of entries in the replacement mapping. If
-     * this number is exceeded, the parent mapping is reconstructed. The number
-     * is a bit arbitrary. If it is too low, updates - especially on large node
-     * structures - are expensive because the parent mapping is often rebuild.
-     * If it is too big, read access to the model is slowed down because looking
-     * up the parent of a node is more complicated.
+     * this number is exceeded, the replacements are incorporated into the
+     * parent mapping. The number is a bit arbitrary. If it is too low, updates
+     * are more expensive because the children of replaced nodes have to be
+     * assigned their new parents often. If it is too big, read access to the
+     * model is slowed down because looking up the parent of a node is more
+     * complicated.
      */
     private static final int MAX_REPLACEMENTS = 200;
 
@@ -91,11 +92,20 @@ class ModelTransaction
     /** A new replacement mapping. */
     private final Map<ImmutableNode, ImmutableNode> replacementMapping;
 
+    /** A flag whether this transaction is executed in batch mode. */
+    private final boolean batchMode;
+
     /** The nodes replaced in this transaction. */
     private final Map<ImmutableNode, ImmutableNode> replacedNodes;
 
-    /** A new parent mapping. */
-    private final Map<ImmutableNode, ImmutableNode> parentMapping;
+    /**
+     * The nodes directly manipulated by this transaction. Nodes which are only
+     * replaced because one of their children has changed are not contained.
+     */
+    private final Set<ImmutableNode> changedNodes;
+
+    /** The builder for the new parent mapping. */
+    private final ParentMapping.Builder parentMapping;
 
     /** A collection with nodes which have been added. */
     private final Collection<ImmutableNode> addedNodes;
@@ -135,12 +145,35 @@ class ModelTransaction
      */
     public ModelTransaction(final TreeData treeData, final NodeSelector selector,
             final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        this(treeData, selector, resolver, false);
+    }
+
+    /**
+     * Creates a new instance of {@code ModelTransaction} for the current tree
+     * data and sets the batch mode flag. In batch mode, the transaction is one
+     * of a sequence of transactions whose intermediate results are not
+     * published. Then the state of tracked nodes is not updated; this has to
+     * be done once at the end of the batch.
+     *
+     * @param treeData the current {@code TreeData} structure to operate on
+     * @param selector an optional {@code NodeSelector} defining the target root
+     *        node for this transaction; this can be used to perform operations
+     *        on tracked nodes
+     * @param resolver the {@code NodeKeyResolver}
+     * @param batch the batch mode flag
+     * @since 2.8.0
+     */
+    public ModelTransaction(final TreeData treeData, final NodeSelector selector,
+            final NodeKeyResolver<ImmutableNode> resolver, final boolean batch)
     {
         currentData = treeData;
         this.resolver = resolver;
+        batchMode = batch;
         replacementMapping = getCurrentData().copyReplacementMapping();
         replacedNodes = new HashMap<>();
-        parentMapping = getCurrentData().copyParentMapping();
+        changedNodes = new HashSet<>();
+        parentMapping = getCurrentData().getParentMapping().builder();
         operations = new TreeMap<>();
         addedNodes = new LinkedList<>();
         removedNodes = new LinkedList<>();
@@ -283,6 +316,12 @@ class ModelTransaction
      */
     public void addChangeNodeNameOperation(final ImmutableNode target, final String newName)
     {
+        // a renaming can change the indices of the parent's other children
+        final ImmutableNode parent = getParent(target);
+        if (parent != null)
+        {
+            changedNodes.add(parent);
+        }
         fetchOperations(target, LEVEL_UNKNOWN).addOperation(
                 new ChangeNodeNameOperation(newName));
     }
@@ -320,10 +359,13 @@ class ModelTransaction
     {
         executeOperations();
         updateParentMapping();
-        return new TreeData(newRoot, parentMapping, replacementMapping,
-                currentData.getNodeTracker().update(newRoot, rootNodeSelector,
-                        getResolver(), getCurrentData()), updateReferenceTracker()
-        );
+        final NodeTracker tracker =
+                batchMode ? currentData.getNodeTracker() : currentData
+                        .getNodeTracker().update(newRoot, rootNodeSelector,
+                                getResolver(), getCurrentData(), changedNodes,
+                                replacedNodes);
+        return new TreeData(newRoot, parentMapping.build(), replacementMapping,
+                tracker, updateReferenceTracker());
     }
 
     /**
@@ -349,7 +391,9 @@ class ModelTransaction
     /**
      * Obtains the {@code Operations} object for manipulating the specified
      * node. If no such object exists yet, it is created. The level can be
-     * undefined, then it is determined based on the target node.
+     * undefined, then it is determined based on the target node. This is the
+     * case for all operations not caused by the propagation of changes; so
+     * the target node is then recorded as directly changed.
      *
      * @param target the target node
      * @param level the level of the target node (may be undefined)
@@ -357,6 +401,11 @@ class ModelTransaction
      */
     Operations fetchOperations(final ImmutableNode target, final int level)
     {
+        if (level == LEVEL_UNKNOWN)
+        {
+            // an operation added from outside; not just a propagated change
+            changedNodes.add(target);
+        }
         final Integer nodeLevel =
                 Integer.valueOf(level == LEVEL_UNKNOWN ? level(target)
                         : level);
@@ -436,27 +485,48 @@ class ModelTransaction
     private void updateParentMapping()
     {
         replacementMapping.putAll(replacedNodes);
+        updateParentMappingForAddedNodes();
+        updateParentMappingForRemovedNodes();
         if (replacementMapping.size() > MAX_REPLACEMENTS)
         {
-            rebuildParentMapping();
-        }
-        else
-        {
-            updateParentMappingForAddedNodes();
-            updateParentMappingForRemovedNodes();
+            compactParentMapping();
         }
     }
 
     /**
-     * Rebuilds the parent mapping from scratch. This method is called if the
-     * replacement mapping exceeds its maximum size. In this case, it is
-     * cleared, and a new parent mapping is constructed for the new root node.
+     * Incorporates the replacement mapping into the parent mapping. This
+     * method is called if the replacement mapping exceeds its maximum size.
+     * The nodes which have been replaced are removed from the parent mapping,
+     * and the children of their replacements are assigned their new parents.
+     * Starting from the new root node, only replacement nodes are visited;
+     * so the costs depend on the number of changed nodes and their children,
+     * but not on the size of the whole structure. Afterwards, the replacement
+     * mapping is empty.
      */
-    private void rebuildParentMapping()
+    private void compactParentMapping()
     {
+        final Set<ImmutableNode> replacements =
+                new HashSet<>(replacementMapping.values());
+        for (final ImmutableNode node : replacementMapping.keySet())
+        {
+            parentMapping.remove(node);
+        }
         replacementMapping.clear();
-        parentMapping.clear();
-        InMemoryNodeModel.updateParentMapping(parentMapping, newRoot);
+
+        final LinkedList<ImmutableNode> pendingNodes = new LinkedList<>();
+        pendingNodes.add(newRoot);
+        while (!pendingNodes.isEmpty())
+        {
+            final ImmutableNode node = pendingNodes.removeFirst();
+            for (final ImmutableNode child : node)
+            {
+                parentMapping.put(child, node);
+                if (replacements.contains(child))
+                {
+                    pendingNodes.add(child);
+                }
+            }
+        }
     }
 
     /**
@@ -1085,6 +1155,7 @@ class ModelTransaction
             else
             {
                 co.addNodeToRemove(target);
+                changedNodes.add(parent);
             }
             fetchOperations(parent, level - 1).addChildrenOperation(co);
         }
@@ -16,8 +16,14 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -114,6 +120,141 @@ public abstract class NodeCombiner
     public abstract ImmutableNode combine(ImmutableNode node1,
             ImmutableNode node2);
 
+    /**
+     * Groups the children of the given node by their names. Combiners use the
+     * resulting map as an index to find the children of a node with a given
+     * name in constant time; so the nodes of a level can be processed in
+     * linear time. Children without a name are not contained in the index.
+     *
+     * @param node the node
+     * @return a map with the children of this node grouped by their names
+     */
+    static Map<String, List<ImmutableNode>> groupChildrenByName(
+            final ImmutableNode node)
+    {
+        final Map<String, List<ImmutableNode>> index = new HashMap<>();
+        for (final ImmutableNode child : node)
+        {
+            if (child.getNodeName() != null)
+            {
+                index.computeIfAbsent(child.getNodeName(),
+                        k -> new ArrayList<>(1)).add(child);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the children with the given name from an index created by
+     * {@link #groupChildrenByName(ImmutableNode)}. If there are no such
+     * children, result is an empty list.
+     *
+     * @param index the index of child nodes
+     * @param name the name of the desired children
+     * @return a list with the children with this name
+     */
+    static List<ImmutableNode> childrenWithName(
+            final Map<String, List<ImmutableNode>> index, final String name)
+    {
+        final List<ImmutableNode> children = index.get(name);
+        return children != null ? children : Collections.emptyList();
+    }
+
+    /**
+     * Tests whether the first node contains all attributes of the second node
+     * with the same values. If this is the case, the attributes of the second
+     * node do not contribute anything to a combination of these nodes.
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @return a flag whether the first node contains the attributes of the
+     *         second node
+     */
+    static boolean containsAttributes(final ImmutableNode node1,
+            final ImmutableNode node2)
+    {
+        final Map<String, Object> attrs1 = node1.getAttributes();
+        for (final Map.Entry<String, Object> e : node2.getAttributes()
+                .entrySet())
+        {
+            if (!attrs1.containsKey(e.getKey())
+                    || !Objects.equals(e.getValue(), attrs1.get(e.getKey())))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether the second node can be used as result of a combination
+     * with the given first node without any changes. This is the case if the
+     * first node is empty (it has neither a value, nor attributes, nor
+     * children) and both nodes have the same name. (The value of the second
+     * node has to be checked by the caller because the combiners handle
+     * values differently.)
+     *
+     * @param node1 the first node
+     * @param node2 the second node
+     * @return a flag whether the second node is the result of the combination
+     */
+    static boolean isReplacedBy(final ImmutableNode node1,
+            final ImmutableNode node2)
+    {
+        return node1.getValue() == null && node1.getChildren().isEmpty()
+                && node1.getAttributes().isEmpty()
+                && Objects.equals(node1.getNodeName(), node2.getNodeName());
+    }
+
+    /**
+     * Tests whether the given class overrides a method declared in a base
+     * class. The class hierarchy is searched from the given class up to (but
+     * excluding) the base class for a declaration of the method. Combiners use
+     * this to find out whether a derived class has overridden one of their
+     * hook methods, so that they can keep calling it. If the methods cannot be
+     * inspected, result is <b>true</b>.
+     *
+     * @param cls the class to be checked
+     * @param baseClass the class declaring the method
+     * @param name the name of the method
+     * @param paramTypes the parameter types of the method
+     * @return a flag whether the method is overridden
+     */
+    static boolean isOverridden(final Class<?> cls, final Class<?> baseClass,
+            final String name, final Class<?>... paramTypes)
+    {
+        for (Class<?> c = cls; c != null && c != baseClass; c =
+                c.getSuperclass())
+        {
+            try
+            {
+                c.getDeclaredMethod(name, paramTypes);
+                return true;
+            }
+            catch (final NoSuchMethodException nsmex)
+            {
+                // not declared at this level, check the super class
+            }
+            catch (final SecurityException secex)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a set for nodes which is based on object identity. Nodes do not
+     * implement {@code equals()}, so this is consistent with the removal of
+     * nodes from lists.
+     *
+     * @return the new set
+     */
+    static Set<ImmutableNode> createNodeSet()
+    {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
     /**
      * Creates a node handler object for immutable nodes which can be used by
      * sub classes to perform advanced operations on nodes.
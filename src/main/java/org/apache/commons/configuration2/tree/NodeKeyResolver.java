@@ -106,4 +106,24 @@ public interface NodeKeyResolver<T>
      * @return a key for the specified node
      */
     String nodeKey(T node, Map<T, String> cache, NodeHandler<T> handler);
+
+    /**
+     * Returns a flag whether the nodes selected by a key depend only on the
+     * structure along the path from the root node to the selected nodes. If
+     * this is the case, the result of a query can only change if one of the
+     * nodes on this path is manipulated; changes in other parts of the node
+     * hierarchy are irrelevant. A node model can use this information to
+     * avoid the evaluation of keys after an update, e.g. for tracked nodes.
+     * This is not true for expression engines supporting arbitrary
+     * predicates. Therefore, the default implementation returns
+     * <b>false</b>.
+     *
+     * @return a flag whether the resolution of keys only depends on the path
+     *         to the selected nodes
+     * @since 2.8.0
+     */
+    default boolean isPathLocal()
+    {
+        return false;
+    }
 }
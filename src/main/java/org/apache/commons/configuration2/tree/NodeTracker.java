@@ -16,11 +16,14 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 
@@ -240,6 +243,38 @@ class NodeTracker
     public NodeTracker update(final ImmutableNode root, final NodeSelector txTarget,
             final NodeKeyResolver<ImmutableNode> resolver,
             final NodeHandler<ImmutableNode> handler)
+    {
+        return update(root, txTarget, resolver, handler, null, null);
+    }
+
+    /**
+     * Updates tracking information after the node structure has been changed
+     * by a transaction with known effects. This method works like the method
+     * with the same name without information about changes. However, if the
+     * passed in {@code NodeKeyResolver} reports that its keys are path-local,
+     * selectors are only evaluated again if the transaction directly changed
+     * the tracked node or one of its ancestors. The other tracked nodes are
+     * just replaced by their new instances. The {@code NodeHandler} must be
+     * able to determine the parents of nodes in the structure before the
+     * update.
+     *
+     * @param root the root node
+     * @param txTarget the {@code NodeSelector} referencing the target node of
+     *        the current transaction (may be <b>null</b>)
+     * @param resolver the {@code NodeKeyResolver}
+     * @param handler the {@code NodeHandler}
+     * @param changedNodes the nodes directly changed by the transaction (may
+     *        be <b>null</b>, then all selectors are evaluated)
+     * @param replacedNodes a map with the nodes replaced by the transaction
+     *        and their replacements
+     * @return the updated instance
+     * @since 2.8.0
+     */
+    public NodeTracker update(final ImmutableNode root, final NodeSelector txTarget,
+            final NodeKeyResolver<ImmutableNode> resolver,
+            final NodeHandler<ImmutableNode> handler,
+            final Set<ImmutableNode> changedNodes,
+            final Map<ImmutableNode, ImmutableNode> replacedNodes)
     {
         if (trackedNodes.isEmpty())
         {
@@ -247,20 +282,67 @@ class NodeTracker
             return this;
         }
 
+        final Map<ImmutableNode, Boolean> affectedNodes =
+                changedNodes != null && resolver.isPathLocal() ? new HashMap<>()
+                        : null;
         final Map<NodeSelector, TrackedNodeData> newState =
                 new HashMap<>();
         for (final Map.Entry<NodeSelector, TrackedNodeData> e : trackedNodes
                 .entrySet())
         {
-            newState.put(
-                    e.getKey(),
-                    determineUpdatedTrackedNodeData(root, txTarget, resolver,
-                            handler, e));
+            final TrackedNodeData data = e.getValue();
+            if (affectedNodes != null && !data.isDetached()
+                    && !isAffected(data.getNode(), changedNodes, handler,
+                            affectedNodes))
+            {
+                final ImmutableNode replacement =
+                        replacedNodes.get(data.getNode());
+                newState.put(e.getKey(), replacement != null ? data
+                        .updateNode(replacement) : data);
+            }
+            else
+            {
+                newState.put(
+                        e.getKey(),
+                        determineUpdatedTrackedNodeData(root, txTarget,
+                                resolver, handler, e));
+            }
         }
 
         return new NodeTracker(newState);
     }
 
+    /**
+     * Returns the number of nodes tracked by this object. This includes
+     * detached nodes.
+     *
+     * @return the number of tracked nodes
+     * @since 2.8.0
+     */
+    public int getTrackedNodeCount()
+    {
+        return trackedNodes.size();
+    }
+
+    /**
+     * Returns the number of tracked nodes which are currently detached.
+     *
+     * @return the number of detached tracked nodes
+     * @since 2.8.0
+     */
+    public int getDetachedNodeCount()
+    {
+        int count = 0;
+        for (final TrackedNodeData data : trackedNodes.values())
+        {
+            if (data.isDetached())
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Marks all tracked nodes as detached. This method is called if there are
      * some drastic changes on the underlying node structure, e.g. if the root
@@ -327,6 +409,65 @@ class NodeTracker
         return trackData;
     }
 
+    /**
+     * Checks whether the given tracked node may be affected by the changes of
+     * a transaction. This is the case if the node itself or one of its
+     * ancestors has been changed directly. The results for all nodes on the
+     * path to the root are stored in the given map, so that shared ancestors
+     * of multiple tracked nodes are checked only once. If the parent of a node
+     * cannot be determined, it is considered as affected.
+     *
+     * @param node the tracked node
+     * @param changedNodes the nodes changed by the transaction
+     * @param handler the {@code NodeHandler} for the old structure
+     * @param affectedNodes the map with the results for already checked nodes
+     * @return a flag whether this node may be affected by the changes
+     */
+    private static boolean isAffected(final ImmutableNode node,
+            final Set<ImmutableNode> changedNodes,
+            final NodeHandler<ImmutableNode> handler,
+            final Map<ImmutableNode, Boolean> affectedNodes)
+    {
+        final List<ImmutableNode> path = new ArrayList<>();
+        ImmutableNode current = node;
+        Boolean affected = null;
+        while (affected == null)
+        {
+            affected = affectedNodes.get(current);
+            if (affected == null)
+            {
+                path.add(current);
+                if (changedNodes.contains(current))
+                {
+                    affected = Boolean.TRUE;
+                }
+                else
+                {
+                    try
+                    {
+                        current = handler.getParent(current);
+                    }
+                    catch (final IllegalArgumentException iex)
+                    {
+                        current = null;
+                        affected = Boolean.TRUE;
+                    }
+                    if (current == null && affected == null)
+                    {
+                        // reached the root node
+                        affected = Boolean.FALSE;
+                    }
+                }
+            }
+        }
+
+        for (final ImmutableNode n : path)
+        {
+            affectedNodes.put(n, affected);
+        }
+        return affected.booleanValue();
+    }
+
     /**
      * Returns a {@code TrackedNodeData} object for an update operation. If the
      * tracked node is still life, its selector is applied to the current root
@@ -16,6 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -38,7 +41,16 @@ package org.apache.commons.configuration2.tree;
  * combination (in a recursive way) can be constructed for the two, which will
  * then be added. Per default, nodes are combined, which occur only once in both
  * structures. This test is implemented in the {@code canCombine()}
- * method.
+ * method. The children of both nodes are grouped by their names before, so
+ * that the effort for combining two nodes is linear in the number of their
+ * children.
+ * </p>
+ * <p>
+ * The resulting structure shares as many nodes as possible with the source
+ * hierarchies: Nodes that exist in only one hierarchy are added as they are,
+ * and if the combination of two nodes would produce a node equivalent to one
+ * of them, this source node is used rather than creating a new one. Combining
+ * a node with itself yields this node.
  * </p>
  * <p>
  * As is true for the {@link UnionCombiner}, for this combiner
@@ -51,6 +63,22 @@ package org.apache.commons.configuration2.tree;
  */
 public class OverrideCombiner extends NodeCombiner
 {
+    /**
+     * A flag whether a derived class overrides the node-based variant of
+     * {@code canCombine()} which then has to be called.
+     */
+    private final boolean nodeBasedCanCombine;
+
+    /**
+     * Creates a new instance of {@code OverrideCombiner}.
+     */
+    public OverrideCombiner()
+    {
+        nodeBasedCanCombine = isOverridden(getClass(),
+                OverrideCombiner.class, "canCombine", ImmutableNode.class,
+                ImmutableNode.class, ImmutableNode.class);
+    }
+
     /**
      * Constructs an override combination for the passed in node structures.
      *
@@ -62,20 +90,42 @@ public class OverrideCombiner extends NodeCombiner
     public ImmutableNode combine(final ImmutableNode node1,
             final ImmutableNode node2)
     {
-        final ImmutableNode.Builder result = new ImmutableNode.Builder();
-        result.name(node1.getNodeName());
+        if (node1 == node2)
+        {
+            return node1;
+        }
+        if (isReplacedBy(node1, node2))
+        {
+            return node2;
+        }
+
+        final Map<String, List<ImmutableNode>> index1 =
+                groupChildrenByName(node1);
+        final Map<String, List<ImmutableNode>> index2 =
+                groupChildrenByName(node2);
+        final List<ImmutableNode> children = new ArrayList<>(
+                node1.getChildren().size() + node2.getChildren().size());
+        boolean changed = !containsAttributes(node1, node2)
+                || node1.getValue() == null && node2.getValue() != null;
 
         // Process nodes from the first structure, which override the second
         for (final ImmutableNode child : node1)
         {
-            final ImmutableNode child2 = canCombine(node1, node2, child);
+            final ImmutableNode child2 = nodeBasedCanCombine
+                    ? canCombine(node1, node2, child)
+                    : canCombine(
+                            childrenWithName(index1, child.getNodeName()),
+                            childrenWithName(index2, child.getNodeName()),
+                            child);
             if (child2 != null)
             {
-                result.addChild(combine(child, child2));
+                final ImmutableNode combined = combine(child, child2);
+                changed |= combined != child;
+                children.add(combined);
             }
             else
             {
-                result.addChild(child);
+                children.add(child);
             }
         }
 
@@ -83,12 +133,22 @@ public class OverrideCombiner extends NodeCombiner
         // in the first structure
         for (final ImmutableNode child : node2)
         {
-            if (HANDLER.getChildrenCount(node1, child.getNodeName()) < 1)
+            if (childrenWithName(index1, child.getNodeName()).isEmpty())
             {
-                result.addChild(child);
+                children.add(child);
+                changed = true;
             }
         }
 
+        if (!changed)
+        {
+            return node1;
+        }
+        final ImmutableNode.Builder result =
+                new ImmutableNode.Builder(children.size());
+        result.name(node1.getNodeName());
+        result.addChildren(children);
+
         // Handle attributes and value
         addAttributes(result, node1, node2);
         result.value(node1.getValue() != null ? node1.getValue() : node2
@@ -125,7 +185,11 @@ public class OverrideCombiner extends NodeCombiner
      * child node of the first node. If this is the case, the corresponding node
      * will be returned, otherwise <b>null</b>. This implementation checks
      * whether the child node occurs only once in both hierarchies and is no
-     * known list node.
+     * known list node. Note: If a derived class overrides this method,
+     * {@code combine()} calls it for each child of the first node. Otherwise,
+     * the overloaded variant operating on the children with the name in
+     * question is called directly. This implementation delegates to this
+     * variant.
      *
      * @param node1 the first node
      * @param node2 the second node
@@ -135,11 +199,34 @@ public class OverrideCombiner extends NodeCombiner
     protected ImmutableNode canCombine(final ImmutableNode node1,
             final ImmutableNode node2, final ImmutableNode child)
     {
-        if (HANDLER.getChildrenCount(node2, child.getNodeName()) == 1
-                && HANDLER.getChildrenCount(node1, child.getNodeName()) == 1
+        return canCombine(HANDLER.getChildren(node1, child.getNodeName()),
+                HANDLER.getChildren(node2, child.getNodeName()), child);
+    }
+
+    /**
+     * Tests if a child node of the second node can be combined with the given
+     * child node of the first node based on the children of both nodes with
+     * the name of this child. This method is called by {@code combine()} for
+     * each child of the first node unless a derived class overrides the
+     * node-based variant; it performs the same checks as
+     * {@link #canCombine(ImmutableNode, ImmutableNode, ImmutableNode)}
+     * without having to iterate over all children of the nodes.
+     *
+     * @param children1 the children of the first node with the name of the
+     *        child
+     * @param children2 the children of the second node with the name of the
+     *        child
+     * @param child the child node (of the first node)
+     * @return a child of the second node, with which a combination is possible
+     * @since 2.8.0
+     */
+    protected ImmutableNode canCombine(final List<ImmutableNode> children1,
+            final List<ImmutableNode> children2, final ImmutableNode child)
+    {
+        if (children2.size() == 1 && children1.size() == 1
                 && !isListNode(child))
         {
-            return HANDLER.getChildren(node2, child.getNodeName()).get(0);
+            return children2.get(0);
         }
         return null;
     }
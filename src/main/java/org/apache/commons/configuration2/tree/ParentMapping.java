@@ -0,0 +1,661 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+/**
+ * <p>
+ * An internally used persistent map which associates nodes with their parent
+ * nodes.
+ * </p>
+ * <p>
+ * {@link InMemoryNodeModel} needs to determine the parent of arbitrary nodes
+ * in its structure. Because every update of the model results in a new
+ * {@link TreeData} object, this mapping has to be available in multiple
+ * versions. Copying a conventional map for each update would be expensive for
+ * large node structures. Therefore, this class implements an immutable hash
+ * array mapped trie: an update creates a new version which shares all data
+ * with the original version except for the trie nodes on the path to the
+ * changed entry. So the costs of an update only depend on the number of
+ * changed entries, but not on the size of the map.
+ * </p>
+ * <p>
+ * Updates are performed through a {@link Builder}. The builder copies trie
+ * nodes only once; nodes it has created itself are updated in place. Nodes
+ * are compared by identity.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+final class ParentMapping
+{
+    /** The number of hash bits consumed per level of the trie. */
+    private static final int BITS = 5;
+
+    /** The mask for extracting the index on a level of the trie. */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** The empty mapping. */
+    private static final ParentMapping EMPTY = new ParentMapping(null, 0);
+
+    /** The root node of the trie; <b>null</b> for an empty mapping. */
+    private final TrieNode root;
+
+    /** The number of entries in this mapping. */
+    private final int size;
+
+    /**
+     * Creates a new instance of {@code ParentMapping}.
+     *
+     * @param root the root node of the trie
+     * @param size the number of entries
+     */
+    private ParentMapping(final TrieNode root, final int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty {@code ParentMapping}.
+     *
+     * @return the empty mapping
+     */
+    public static ParentMapping empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the parent of the specified node or <b>null</b> if there is no
+     * entry for this node.
+     *
+     * @param node the node in question
+     * @return the parent of this node or <b>null</b>
+     */
+    public ImmutableNode get(final ImmutableNode node)
+    {
+        return root == null ? null : root.find(0, hash(node), node);
+    }
+
+    /**
+     * Returns the number of entries in this mapping.
+     *
+     * @return the number of entries
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a {@code Builder} for creating an updated version of this
+     * mapping. This instance is not affected by changes on the builder.
+     *
+     * @return the {@code Builder}
+     */
+    public Builder builder()
+    {
+        return new Builder(this);
+    }
+
+    /**
+     * Calculates the hash code of a node. As nodes are compared by identity,
+     * the identity hash code is used.
+     *
+     * @param node the node
+     * @return the hash code of this node
+     */
+    private static int hash(final ImmutableNode node)
+    {
+        return System.identityHashCode(node);
+    }
+
+    /**
+     * Returns the index on a level of the trie for the given hash code.
+     *
+     * @param hash the hash code
+     * @param shift the shift of the current level
+     * @return the index on this level
+     */
+    private static int mask(final int hash, final int shift)
+    {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * <p>
+     * A class for creating a new version of a {@code ParentMapping}.
+     * </p>
+     * <p>
+     * A builder is initialized with an existing mapping. It can then be used
+     * to add, replace, or remove entries. Finally, the {@code build()} method
+     * returns a new mapping with all changes applied. The builder can be used
+     * further after that; the mapping returned by {@code build()} is not
+     * affected. Instances are not thread-safe.
+     * </p>
+     */
+    public static final class Builder
+    {
+        /**
+         * A token identifying the trie nodes created by this builder. Only
+         * these nodes can be updated in place.
+         */
+        private Object owner;
+
+        /** The current root node of the trie. */
+        private TrieNode root;
+
+        /** The current number of entries. */
+        private int size;
+
+        /**
+         * Creates a new instance of {@code Builder} and initializes it from
+         * the given mapping.
+         *
+         * @param mapping the initial mapping
+         */
+        private Builder(final ParentMapping mapping)
+        {
+            owner = new Object();
+            root = mapping.root;
+            size = mapping.size;
+        }
+
+        /**
+         * Returns the parent of the specified node according to the current
+         * state of this builder.
+         *
+         * @param node the node in question
+         * @return the parent of this node or <b>null</b>
+         */
+        public ImmutableNode get(final ImmutableNode node)
+        {
+            return root == null ? null : root.find(0, hash(node), node);
+        }
+
+        /**
+         * Sets the parent of the given node. An existing entry for this node
+         * is replaced.
+         *
+         * @param node the node
+         * @param parent the parent of this node
+         * @return this builder
+         */
+        public Builder put(final ImmutableNode node, final ImmutableNode parent)
+        {
+            final int hash = hash(node);
+            if (root == null)
+            {
+                root =
+                        new BitmapNode(owner, 1 << mask(hash, 0),
+                                new Object[] {
+                                        node, parent
+                                });
+                size++;
+            }
+            else
+            {
+                root = root.put(this, 0, hash, node, parent);
+            }
+            return this;
+        }
+
+        /**
+         * Removes the entry for the given node. If there is no such entry,
+         * this method has no effect.
+         *
+         * @param node the node to be removed
+         * @return this builder
+         */
+        public Builder remove(final ImmutableNode node)
+        {
+            if (root != null)
+            {
+                root = root.remove(this, 0, hash(node), node);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the number of entries in the mapping under construction.
+         *
+         * @return the number of entries
+         */
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * Returns a {@code ParentMapping} with the current content of this
+         * builder. Later changes on this builder do not affect the mapping
+         * returned.
+         *
+         * @return the new {@code ParentMapping}
+         */
+        public ParentMapping build()
+        {
+            // trie nodes created so far must no longer be changed in place
+            owner = new Object();
+            return root == null ? EMPTY : new ParentMapping(root, size);
+        }
+    }
+
+    /**
+     * The abstract base class for the nodes of the trie.
+     */
+    private abstract static class TrieNode
+    {
+        /** The token of the builder which created this node. */
+        final Object owner;
+
+        /**
+         * Creates a new instance of {@code TrieNode}.
+         *
+         * @param owner the owner token
+         */
+        TrieNode(final Object owner)
+        {
+            this.owner = owner;
+        }
+
+        /**
+         * Looks up the value for the given key.
+         *
+         * @param shift the shift of this node's level
+         * @param hash the hash code of the key
+         * @param key the key
+         * @return the associated value or <b>null</b>
+         */
+        abstract ImmutableNode find(int shift, int hash, ImmutableNode key);
+
+        /**
+         * Adds or replaces an entry in the subtrie starting at this node.
+         *
+         * @param builder the builder performing the update
+         * @param shift the shift of this node's level
+         * @param hash the hash code of the key
+         * @param key the key
+         * @param value the value
+         * @return the updated node
+         */
+        abstract TrieNode put(Builder builder, int shift, int hash,
+                ImmutableNode key, ImmutableNode value);
+
+        /**
+         * Removes an entry from the subtrie starting at this node.
+         *
+         * @param builder the builder performing the update
+         * @param shift the shift of this node's level
+         * @param hash the hash code of the key
+         * @param key the key
+         * @return the updated node or <b>null</b> if it became empty
+         */
+        abstract TrieNode remove(Builder builder, int shift, int hash,
+                ImmutableNode key);
+
+        /**
+         * Checks whether this node can be updated in place by the given
+         * builder.
+         *
+         * @param builder the builder
+         * @return a flag whether this node is owned by the builder
+         */
+        boolean isOwnedBy(final Builder builder)
+        {
+            return owner == builder.owner;
+        }
+    }
+
+    /**
+     * A trie node which stores up to 32 children in a compact array. A bit
+     * map records which indices are occupied. The array contains pairs of
+     * elements: either a key and its value, or <b>null</b> and a nested trie
+     * node.
+     */
+    private static final class BitmapNode extends TrieNode
+    {
+        /** The bit map with the occupied indices. */
+        private int bitmap;
+
+        /** The array with the content of this node. */
+        private Object[] array;
+
+        /**
+         * Creates a new instance of {@code BitmapNode}.
+         *
+         * @param owner the owner token
+         * @param bitmap the bit map
+         * @param array the array with the content
+         */
+        BitmapNode(final Object owner, final int bitmap, final Object[] array)
+        {
+            super(owner);
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        ImmutableNode find(final int shift, final int hash,
+                final ImmutableNode key)
+        {
+            final int bit = 1 << mask(hash, shift);
+            if ((bitmap & bit) == 0)
+            {
+                return null;
+            }
+            final int idx = 2 * index(bit);
+            final Object k = array[idx];
+            if (k == null)
+            {
+                return ((TrieNode) array[idx + 1]).find(shift + BITS, hash,
+                        key);
+            }
+            return k == key ? (ImmutableNode) array[idx + 1] : null;
+        }
+
+        @Override
+        TrieNode put(final Builder builder, final int shift, final int hash,
+                final ImmutableNode key, final ImmutableNode value)
+        {
+            final int bit = 1 << mask(hash, shift);
+            final int idx = 2 * index(bit);
+            if ((bitmap & bit) == 0)
+            {
+                final Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length
+                        - idx);
+                builder.size++;
+                return update(builder, bitmap | bit, newArray);
+            }
+
+            final Object k = array[idx];
+            final Object v = array[idx + 1];
+            if (k == null)
+            {
+                final TrieNode child = (TrieNode) v;
+                final TrieNode newChild =
+                        child.put(builder, shift + BITS, hash, key, value);
+                return newChild == child ? this : set(builder, idx, null,
+                        newChild);
+            }
+            if (k == key)
+            {
+                return v == value ? this : set(builder, idx, key, value);
+            }
+            builder.size++;
+            return set(builder, idx, null,
+                    createNode(builder.owner, shift + BITS,
+                            (ImmutableNode) k, (ImmutableNode) v, hash, key,
+                            value));
+        }
+
+        @Override
+        TrieNode remove(final Builder builder, final int shift,
+                final int hash, final ImmutableNode key)
+        {
+            final int bit = 1 << mask(hash, shift);
+            if ((bitmap & bit) == 0)
+            {
+                return this;
+            }
+            final int idx = 2 * index(bit);
+            final Object k = array[idx];
+            if (k == null)
+            {
+                final TrieNode child = (TrieNode) array[idx + 1];
+                final TrieNode newChild =
+                        child.remove(builder, shift + BITS, hash, key);
+                if (newChild == child)
+                {
+                    return this;
+                }
+                if (newChild != null)
+                {
+                    return set(builder, idx, null, newChild);
+                }
+            }
+            else if (k == key)
+            {
+                builder.size--;
+            }
+            else
+            {
+                return this;
+            }
+
+            if (bitmap == bit)
+            {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, newArray.length
+                    - idx);
+            return update(builder, bitmap ^ bit, newArray);
+        }
+
+        /**
+         * Returns the position of the given bit among the occupied indices.
+         *
+         * @param bit the bit
+         * @return the position in the array (counting pairs)
+         */
+        private int index(final int bit)
+        {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Sets a pair of elements in the array of this node. If necessary, a
+         * copy is created.
+         *
+         * @param builder the builder performing the update
+         * @param idx the index in the array
+         * @param k the first element of the pair
+         * @param v the second element of the pair
+         * @return the updated node
+         */
+        private TrieNode set(final Builder builder, final int idx,
+                final Object k, final Object v)
+        {
+            final Object[] newArray =
+                    isOwnedBy(builder) ? array : array.clone();
+            newArray[idx] = k;
+            newArray[idx + 1] = v;
+            return update(builder, bitmap, newArray);
+        }
+
+        /**
+         * Returns a node with the given content. If this node is owned by the
+         * builder, it is updated in place; otherwise a new node is created.
+         *
+         * @param builder the builder performing the update
+         * @param newBitmap the new bit map
+         * @param newArray the new array
+         * @return the updated node
+         */
+        private TrieNode update(final Builder builder, final int newBitmap,
+                final Object[] newArray)
+        {
+            if (isOwnedBy(builder))
+            {
+                bitmap = newBitmap;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(builder.owner, newBitmap, newArray);
+        }
+
+        /**
+         * Creates a subtrie containing two entries whose keys collide on the
+         * current level.
+         *
+         * @param owner the owner token
+         * @param shift the shift of the level of the new node
+         * @param key1 the first key
+         * @param value1 the first value
+         * @param hash2 the hash code of the second key
+         * @param key2 the second key
+         * @param value2 the second value
+         * @return the new trie node
+         */
+        private static TrieNode createNode(final Object owner, final int shift,
+                final ImmutableNode key1, final ImmutableNode value1,
+                final int hash2, final ImmutableNode key2,
+                final ImmutableNode value2)
+        {
+            final int hash1 = hash(key1);
+            if (hash1 == hash2)
+            {
+                return new CollisionNode(owner, hash1, new Object[] {
+                        key1, value1, key2, value2
+                });
+            }
+
+            // as the hash codes differ, this recursion ends before all bits
+            // are consumed
+            final int idx1 = mask(hash1, shift);
+            final int idx2 = mask(hash2, shift);
+            if (idx1 == idx2)
+            {
+                return new BitmapNode(owner, 1 << idx1, new Object[] {
+                        null,
+                        createNode(owner, shift + BITS, key1, value1, hash2,
+                                key2, value2)
+                });
+            }
+            final Object[] array =
+                    idx1 < idx2 ? new Object[] {
+                            key1, value1, key2, value2
+                    } : new Object[] {
+                            key2, value2, key1, value1
+                    };
+            return new BitmapNode(owner, (1 << idx1) | (1 << idx2), array);
+        }
+    }
+
+    /**
+     * A trie node storing entries whose keys have the same hash code. The
+     * entries are stored as key value pairs in an array which is searched
+     * linearly.
+     */
+    private static final class CollisionNode extends TrieNode
+    {
+        /** The hash code shared by all keys. */
+        private final int hash;
+
+        /** The array with the entries. */
+        private final Object[] array;
+
+        /**
+         * Creates a new instance of {@code CollisionNode}.
+         *
+         * @param owner the owner token
+         * @param hash the hash code
+         * @param array the array with the entries
+         */
+        CollisionNode(final Object owner, final int hash, final Object[] array)
+        {
+            super(owner);
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        ImmutableNode find(final int shift, final int hash,
+                final ImmutableNode key)
+        {
+            final int idx = indexOf(key);
+            return idx < 0 ? null : (ImmutableNode) array[idx + 1];
+        }
+
+        @Override
+        TrieNode put(final Builder builder, final int shift, final int hash,
+                final ImmutableNode key, final ImmutableNode value)
+        {
+            if (hash != this.hash)
+            {
+                // move this node one level down
+                return new BitmapNode(builder.owner, 1 << mask(this.hash,
+                        shift), new Object[] {
+                        null, this
+                }).put(builder, shift, hash, key, value);
+            }
+
+            final int idx = indexOf(key);
+            if (idx >= 0)
+            {
+                if (array[idx + 1] == value)
+                {
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[idx + 1] = value;
+                return new CollisionNode(builder.owner, hash, newArray);
+            }
+            final Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            builder.size++;
+            return new CollisionNode(builder.owner, hash, newArray);
+        }
+
+        @Override
+        TrieNode remove(final Builder builder, final int shift,
+                final int hash, final ImmutableNode key)
+        {
+            final int idx = indexOf(key);
+            if (idx < 0)
+            {
+                return this;
+            }
+            builder.size--;
+            if (array.length == 2)
+            {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, idx);
+            System.arraycopy(array, idx + 2, newArray, idx, newArray.length
+                    - idx);
+            return new CollisionNode(builder.owner, hash, newArray);
+        }
+
+        /**
+         * Returns the index of the given key in the array.
+         *
+         * @param key the key
+         * @return the index of this key or -1 if it is not found
+         */
+        private int indexOf(final ImmutableNode key)
+        {
+            for (int i = 0; i < array.length; i += 2)
+            {
+                if (array[i] == key)
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
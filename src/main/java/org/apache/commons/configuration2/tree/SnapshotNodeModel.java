@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A read-only {@code NodeModel} implementation which operates on a fixed
+ * snapshot of an {@link ImmutableNode} hierarchy.
+ * </p>
+ * <p>
+ * In contrast to {@link InMemoryNodeModel}, this class does not support any
+ * updates of its data, and it does not maintain tracked nodes or references.
+ * Therefore, it can be created at almost no cost: the passed in root node is
+ * just stored. The mapping from nodes to their parents which is needed by some
+ * operations of the {@link NodeHandler} is created lazily on first access.
+ * This makes this model a good fit for short-lived views on sub trees of a
+ * larger configuration.
+ * </p>
+ * <p>
+ * All methods modifying the model throw an
+ * {@code UnsupportedOperationException}. As the underlying nodes are
+ * immutable, instances can be shared between multiple threads.
+ * </p>
+ *
+ * @since 2.8.0
+ */
+public final class SnapshotNodeModel implements NodeModel<ImmutableNode>
+{
+    /** The node handler of this model. */
+    private final SnapshotNodeHandler nodeHandler;
+
+    /**
+     * Creates a new instance of {@code SnapshotNodeModel} and initializes it
+     * with the given root node.
+     *
+     * @param root the root node of this model (can be <b>null</b>, then an
+     *        empty root node is used)
+     */
+    public SnapshotNodeModel(final ImmutableNode root)
+    {
+        nodeHandler = new SnapshotNodeHandler(root != null ? root
+                : new ImmutableNode.Builder().create());
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void setRootNode(final ImmutableNode newRoot)
+    {
+        throw unsupported();
+    }
+
+    @Override
+    public NodeHandler<ImmutableNode> getNodeHandler()
+    {
+        return nodeHandler;
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void addProperty(final String key, final Iterable<?> values,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void addNodes(final String key,
+            final Collection<? extends ImmutableNode> nodes,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void setProperty(final String key, final Object value,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public Object clearTree(final String key,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void clearProperty(final String key,
+            final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This operation is not supported by a snapshot model.
+     */
+    @Override
+    public void clear(final NodeKeyResolver<ImmutableNode> resolver)
+    {
+        throw unsupported();
+    }
+
+    /**
+     * {@inheritDoc} This implementation simply returns the root node of the
+     * snapshot.
+     */
+    @Override
+    public ImmutableNode getInMemoryRepresentation()
+    {
+        return nodeHandler.getRootNode();
+    }
+
+    /**
+     * Creates the exception thrown by all methods which would change the
+     * model.
+     *
+     * @return the exception
+     */
+    private static UnsupportedOperationException unsupported()
+    {
+        return new UnsupportedOperationException(
+                "A snapshot node model cannot be modified!");
+    }
+
+    /**
+     * The node handler implementation used by this model. The mapping to
+     * parent nodes is created on demand. Because the node structure cannot
+     * change, concurrent initialization just produces equivalent maps.
+     */
+    private static final class SnapshotNodeHandler extends
+            AbstractImmutableNodeHandler
+    {
+        /** The root node. */
+        private final ImmutableNode rootNode;
+
+        /** The lazily created mapping from nodes to their parents. */
+        private volatile Map<ImmutableNode, ImmutableNode> parents;
+
+        /**
+         * Creates a new instance of {@code SnapshotNodeHandler}.
+         *
+         * @param root the root node
+         */
+        SnapshotNodeHandler(final ImmutableNode root)
+        {
+            rootNode = root;
+        }
+
+        @Override
+        public ImmutableNode getRootNode()
+        {
+            return rootNode;
+        }
+
+        /**
+         * {@inheritDoc} Like the handler of {@link InMemoryNodeModel}, this
+         * implementation returns <b>null</b> for the root node and throws an
+         * exception for nodes not contained in the snapshot.
+         *
+         * @throws IllegalArgumentException if the node cannot be resolved
+         */
+        @Override
+        public ImmutableNode getParent(final ImmutableNode node)
+        {
+            if (node == rootNode)
+            {
+                return null;
+            }
+            Map<ImmutableNode, ImmutableNode> map = parents;
+            if (map == null)
+            {
+                map = new HashMap<>();
+                InMemoryNodeModel.updateParentMapping(map, rootNode);
+                parents = map;
+            }
+            final ImmutableNode parent = map.get(node);
+            if (parent == null)
+            {
+                throw new IllegalArgumentException("Cannot determine parent! "
+                        + node + " is not part of this model.");
+            }
+            return parent;
+        }
+    }
+}
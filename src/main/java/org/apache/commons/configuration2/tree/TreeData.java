@@ -33,8 +33,8 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
     /** The root node of the tree. */
     private final ImmutableNode root;
 
-    /** A map that associates the parent node to each node. */
-    private final Map<ImmutableNode, ImmutableNode> parentMapping;
+    /** A mapping that associates the parent node to each node. */
+    private final ParentMapping parentMapping;
 
     /**
      * Stores information about nodes which have been replaced by
@@ -63,7 +63,7 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
      * @param refTracker the {@code ReferenceTracker}
      */
     public TreeData(final ImmutableNode root,
-            final Map<ImmutableNode, ImmutableNode> parentMapping,
+            final ParentMapping parentMapping,
             final Map<ImmutableNode, ImmutableNode> replacements,
             final NodeTracker tracker, final ReferenceTracker refTracker)
     {
@@ -129,13 +129,15 @@ class TreeData extends AbstractImmutableNodeHandler implements ReferenceNodeHand
     }
 
     /**
-     * Returns a copy of the mapping from nodes to their parents.
+     * Returns the mapping from nodes to their parents. As this mapping is
+     * immutable, it can be used as starting point for an updated mapping
+     * without copying it.
      *
-     * @return the copy of the parent mapping
+     * @return the parent mapping
      */
-    public Map<ImmutableNode, ImmutableNode> copyParentMapping()
+    public ParentMapping getParentMapping()
     {
-        return new HashMap<>(parentMapping);
+        return parentMapping;
     }
 
     /**
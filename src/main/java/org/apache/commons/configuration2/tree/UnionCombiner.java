@@ -16,8 +16,10 @@
  */
 package org.apache.commons.configuration2.tree;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -29,7 +31,15 @@ import java.util.List;
  * resulting structure. Under some circumstances two nodes can be combined
  * rather than adding both. This is the case if both nodes are single children
  * (no lists) of their parents and do not have values. The corresponding check
- * is implemented in the {@code findCombineNode()} method.
+ * is implemented in the {@code findCombineNode()} method. The children of
+ * both nodes are grouped by their names before, so that the effort for
+ * combining two nodes is linear in the number of their children.
+ * </p>
+ * <p>
+ * The resulting structure shares as many nodes as possible with the source
+ * hierarchies: Nodes that exist in only one hierarchy are added as they are,
+ * and if the combination of two nodes would produce a node equivalent to one
+ * of them, this source node is used rather than creating a new one.
  * </p>
  * <p>
  * Sometimes it is not possible for this combiner to detect whether two nodes
@@ -114,6 +124,22 @@ import java.util.List;
  */
 public class UnionCombiner extends NodeCombiner
 {
+    /**
+     * A flag whether a derived class overrides the node-based variant of
+     * {@code findCombineNode()} which then has to be called.
+     */
+    private final boolean nodeBasedFindCombineNode;
+
+    /**
+     * Creates a new instance of {@code UnionCombiner}.
+     */
+    public UnionCombiner()
+    {
+        nodeBasedFindCombineNode = isOverridden(getClass(),
+                UnionCombiner.class, "findCombineNode", ImmutableNode.class,
+                ImmutableNode.class, ImmutableNode.class);
+    }
+
     /**
      * Combines the given nodes to a new union node.
      *
@@ -125,37 +151,62 @@ public class UnionCombiner extends NodeCombiner
     public ImmutableNode combine(final ImmutableNode node1,
             final ImmutableNode node2)
     {
-        final ImmutableNode.Builder result = new ImmutableNode.Builder();
-        result.name(node1.getNodeName());
-
-        // attributes of the first node take precedence
-        result.addAttributes(node2.getAttributes());
-        result.addAttributes(node1.getAttributes());
+        if (node2.getValue() == null && isReplacedBy(node1, node2))
+        {
+            return node2;
+        }
 
         // Check if nodes can be combined
-        final List<ImmutableNode> children2 = new LinkedList<>(node2.getChildren());
+        final Map<String, List<ImmutableNode>> index1 =
+                groupChildrenByName(node1);
+        final Map<String, List<ImmutableNode>> index2 =
+                groupChildrenByName(node2);
+        final Set<ImmutableNode> combined = createNodeSet();
+        final List<ImmutableNode> children = new ArrayList<>(
+                node1.getChildren().size() + node2.getChildren().size());
+        boolean changed = node1.getValue() != null
+                || !containsAttributes(node1, node2);
         for (final ImmutableNode child1 : node1)
         {
-            final ImmutableNode child2 = findCombineNode(node1, node2, child1
-            );
+            final ImmutableNode child2 = nodeBasedFindCombineNode
+                    ? findCombineNode(node1, node2, child1)
+                    : findCombineNode(
+                            childrenWithName(index1, child1.getNodeName()),
+                            childrenWithName(index2, child1.getNodeName()),
+                            child1);
             if (child2 != null)
             {
-                result.addChild(combine(child1, child2));
-                children2.remove(child2);
+                final ImmutableNode child = combine(child1, child2);
+                changed |= child != child1;
+                children.add(child);
+                combined.add(child2);
             }
             else
             {
-                result.addChild(child1);
+                children.add(child1);
             }
         }
 
         // Add remaining children of node 2
-        for (final ImmutableNode c : children2)
+        for (final ImmutableNode c : node2)
         {
-            result.addChild(c);
+            if (!combined.contains(c))
+            {
+                children.add(c);
+                changed = true;
+            }
         }
 
-        return result.create();
+        if (!changed)
+        {
+            return node1;
+        }
+        // attributes of the first node take precedence
+        return new ImmutableNode.Builder(children.size())
+                .name(node1.getNodeName())
+                .addAttributes(node2.getAttributes())
+                .addAttributes(node1.getAttributes()).addChildren(children)
+                .create();
     }
 
     /**
@@ -181,6 +232,13 @@ public class UnionCombiner extends NodeCombiner
      * If all of these tests are successful, the matching child node of the
      * second source node is returned. Otherwise the result is <b>null</b>.
      * </p>
+     * <p>
+     * Note: If a derived class overrides this method, {@code combine()} calls
+     * it for each child of the first source node. Otherwise, the overloaded
+     * variant operating on the children with the name in question is called
+     * directly, which does not require an iteration over all children. This
+     * implementation delegates to this variant.
+     * </p>
      *
      * @param node1 the first source node
      * @param node2 the second source node
@@ -190,13 +248,39 @@ public class UnionCombiner extends NodeCombiner
      */
     protected ImmutableNode findCombineNode(final ImmutableNode node1,
             final ImmutableNode node2, final ImmutableNode child)
+    {
+        return findCombineNode(HANDLER.getChildren(node1, child.getNodeName()),
+                HANDLER.getChildren(node2, child.getNodeName()), child);
+    }
+
+    /**
+     * Tries to find a child node of the second source node, with which a child
+     * of the first source node can be combined, based on the children of both
+     * source nodes with the name of this child. This method is called by
+     * {@code combine()} for each child of the first source node unless a
+     * derived class overrides the node-based variant; it performs the same
+     * checks as described for
+     * {@link #findCombineNode(ImmutableNode, ImmutableNode, ImmutableNode)}.
+     * As the lists passed in are obtained from an index, this check does not
+     * require an iteration over all children of the source nodes.
+     *
+     * @param children1 the children of the first source node with the name
+     *        of the child to be checked
+     * @param children2 the children of the second source node with the name
+     *        of the child to be checked
+     * @param child the child node of the first source node to be checked
+     * @return the matching child node of the second source node or <b>null</b>
+     *         if there is none
+     * @since 2.8.0
+     */
+    protected ImmutableNode findCombineNode(
+            final List<ImmutableNode> children1,
+            final List<ImmutableNode> children2, final ImmutableNode child)
     {
         if (child.getValue() == null && !isListNode(child)
-                && HANDLER.getChildrenCount(node1, child.getNodeName()) == 1
-                && HANDLER.getChildrenCount(node2, child.getNodeName()) == 1)
+                && children1.size() == 1 && children2.size() == 1)
         {
-            final ImmutableNode child2 =
-                    HANDLER.getChildren(node2, child.getNodeName()).get(0);
+            final ImmutableNode child2 = children2.get(0);
             if (child2.getValue() == null)
             {
                 return child2;
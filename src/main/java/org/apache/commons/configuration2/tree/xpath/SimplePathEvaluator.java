@@ -0,0 +1,532 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
+
+/**
+ * <p>
+ * An internally used helper class for evaluating simple XPath expressions
+ * directly on a node structure.
+ * </p>
+ * <p>
+ * Most keys used with {@link XPathExpressionEngine} are simple location paths
+ * consisting of child steps, optionally followed by an attribute step. This
+ * class handles such paths without involving JXPath; so no context and no
+ * node pointers have to be created. The following syntax is supported:
+ * </p>
+ * <ul>
+ * <li>Child steps with a name, separated by slashes, e.g.
+ * {@code tables/table/name}.</li>
+ * <li>Positional predicates with a literal index, e.g.
+ * {@code tables/table[2]}.</li>
+ * <li>Predicates comparing an attribute with a string literal, e.g.
+ * {@code tables/table[@type='system']}.</li>
+ * <li>A final attribute step, e.g. {@code tables/table/@type}.</li>
+ * </ul>
+ * <p>
+ * Keys using other features of XPath cannot be evaluated by this class; in
+ * this case, the engine has to fall back to JXPath. The same is true if an
+ * attribute to be compared in a predicate does not have a string value: then
+ * the conversion rules of XPath would have to be applied.
+ * </p>
+ * <p>
+ * Parsed keys are cached. The number of cached keys is limited; if the limit
+ * is reached, the cache is cleared.
+ * </p>
+ */
+final class SimplePathEvaluator
+{
+    /** The default maximum number of parsed keys to cache. */
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /** A placeholder in the cache for keys that are not supported. */
+    private static final SimplePath UNSUPPORTED = new SimplePath(
+            Collections.<Step> emptyList(), null);
+
+    /** Constant for the path delimiter. */
+    private static final char PATH_DELIMITER = '/';
+
+    /** Constant for the attribute delimiter. */
+    private static final char ATTR_DELIMITER = '@';
+
+    /** Constant for the start of a predicate. */
+    private static final char PREDICATE_START = '[';
+
+    /** Constant for the end of a predicate. */
+    private static final char PREDICATE_END = ']';
+
+    /** Constant for the equals operator. */
+    private static final char EQUALS = '=';
+
+    /** Constant for the maximum length of a positional index. */
+    private static final int MAX_INDEX_LENGTH = 9;
+
+    /** The cache for parsed keys. */
+    private final ConcurrentMap<String, SimplePath> pathCache;
+
+    /** The maximum number of entries in the cache. */
+    private final int cacheSize;
+
+    /**
+     * Creates a new instance of {@code SimplePathEvaluator} with a default
+     * cache size.
+     */
+    public SimplePathEvaluator()
+    {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code SimplePathEvaluator} and sets the
+     * maximum number of parsed keys to be cached.
+     *
+     * @param maxCachedKeys the size of the cache
+     */
+    public SimplePathEvaluator(final int maxCachedKeys)
+    {
+        cacheSize = maxCachedKeys;
+        pathCache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Evaluates the given key on the node structure defined by the passed in
+     * root node. If the key cannot be handled by this class, result is
+     * <b>null</b>. The caller then has to evaluate the key in a different way.
+     *
+     * @param root the root node
+     * @param key the key to be evaluated
+     * @param handler the {@code NodeHandler}
+     * @param <T> the type of the nodes
+     * @return a list with the results of the query or <b>null</b> if the key
+     *         is not supported
+     */
+    public <T> List<QueryResult<T>> evaluate(final T root, final String key,
+            final NodeHandler<T> handler)
+    {
+        final SimplePath path = fetchPath(key);
+        if (path == UNSUPPORTED)
+        {
+            return null;
+        }
+
+        List<T> nodes = Collections.singletonList(root);
+        for (final Step step : path.steps)
+        {
+            final List<T> nextNodes = new ArrayList<>();
+            for (final T node : nodes)
+            {
+                final List<T> matches = step.select(node, handler);
+                if (matches == null)
+                {
+                    return null;
+                }
+                nextNodes.addAll(matches);
+            }
+            nodes = nextNodes;
+        }
+
+        final List<QueryResult<T>> results = new ArrayList<>(nodes.size());
+        for (final T node : nodes)
+        {
+            if (path.attributeName == null)
+            {
+                results.add(QueryResult.createNodeResult(node));
+            }
+            else if (handler.getAttributeValue(node, path.attributeName) != null)
+            {
+                results.add(QueryResult.createAttributeResult(node,
+                        path.attributeName));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of parsed keys currently cached.
+     *
+     * @return the size of the cache
+     */
+    int getCachedPathCount()
+    {
+        return pathCache.size();
+    }
+
+    /**
+     * Obtains the parsed representation of the given key from the cache. If
+     * it is not contained in the cache, the key is parsed now.
+     *
+     * @param key the key
+     * @return the parsed path (may be the placeholder for unsupported keys)
+     */
+    private SimplePath fetchPath(final String key)
+    {
+        SimplePath path = pathCache.get(key);
+        if (path == null)
+        {
+            path = parse(key);
+            if (pathCache.size() >= cacheSize)
+            {
+                pathCache.clear();
+            }
+            pathCache.put(key, path);
+        }
+        return path;
+    }
+
+    /**
+     * Parses the given key. If the key does not conform to the supported
+     * syntax, the placeholder for unsupported keys is returned.
+     *
+     * @param key the key
+     * @return the parsed path
+     */
+    static SimplePath parse(final String key)
+    {
+        final List<Step> steps = new ArrayList<>();
+        int pos = 0;
+        while (true)
+        {
+            if (pos < key.length() && key.charAt(pos) == ATTR_DELIMITER)
+            {
+                final int end = scanName(key, pos + 1);
+                if (end != key.length() || isOperatorName(key, pos + 1, end))
+                {
+                    return UNSUPPORTED;
+                }
+                return new SimplePath(steps, key.substring(pos + 1, end));
+            }
+
+            final int nameEnd = scanName(key, pos);
+            if (nameEnd < 0 || isOperatorName(key, pos, nameEnd))
+            {
+                return UNSUPPORTED;
+            }
+            final Step step = new Step(key.substring(pos, nameEnd));
+            pos = nameEnd;
+            while (pos < key.length() && key.charAt(pos) == PREDICATE_START)
+            {
+                pos = parsePredicate(key, pos + 1, step);
+                if (pos < 0)
+                {
+                    return UNSUPPORTED;
+                }
+            }
+            steps.add(step);
+
+            if (pos == key.length())
+            {
+                return new SimplePath(steps, null);
+            }
+            if (key.charAt(pos) != PATH_DELIMITER)
+            {
+                return UNSUPPORTED;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Parses a predicate starting at the given position (after the opening
+     * bracket) and adds it to the given step. Result is the position after
+     * the predicate or -1 if the predicate is not supported.
+     *
+     * @param key the key
+     * @param start the start position of the predicate
+     * @param step the step
+     * @return the position after the predicate
+     */
+    private static int parsePredicate(final String key, final int start,
+            final Step step)
+    {
+        if (start < key.length() && key.charAt(start) == ATTR_DELIMITER)
+        {
+            final int nameEnd = scanName(key, start + 1);
+            if (nameEnd < 0 || nameEnd + 2 >= key.length()
+                    || key.charAt(nameEnd) != EQUALS)
+            {
+                return -1;
+            }
+            final char quote = key.charAt(nameEnd + 1);
+            if (quote != '\'' && quote != '"')
+            {
+                return -1;
+            }
+            final int valueEnd = key.indexOf(quote, nameEnd + 2);
+            if (valueEnd < 0 || valueEnd + 1 >= key.length()
+                    || key.charAt(valueEnd + 1) != PREDICATE_END)
+            {
+                return -1;
+            }
+            step.addPredicate(new Predicate(key.substring(start + 1, nameEnd),
+                    key.substring(nameEnd + 2, valueEnd)));
+            return valueEnd + 2;
+        }
+
+        int pos = start;
+        while (pos < key.length() && key.charAt(pos) >= '0'
+                && key.charAt(pos) <= '9')
+        {
+            pos++;
+        }
+        if (pos == start || pos - start > MAX_INDEX_LENGTH
+                || pos >= key.length() || key.charAt(pos) != PREDICATE_END)
+        {
+            return -1;
+        }
+        final int index = Integer.parseInt(key.substring(start, pos));
+        if (index < 1)
+        {
+            return -1;
+        }
+        step.addPredicate(new Predicate(index));
+        return pos + 1;
+    }
+
+    /**
+     * Scans a name starting at the given position. Only a restricted set of
+     * characters is accepted. Result is the position after the name or -1 if
+     * there is no valid name at this position.
+     *
+     * @param key the key
+     * @param start the start position
+     * @return the position after the name
+     */
+    private static int scanName(final String key, final int start)
+    {
+        if (start >= key.length() || !isNameStart(key.charAt(start)))
+        {
+            return -1;
+        }
+        int pos = start + 1;
+        while (pos < key.length() && isNamePart(key.charAt(pos)))
+        {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Tests whether the given character can start a name.
+     *
+     * @param c the character
+     * @return a flag whether this character can start a name
+     */
+    private static boolean isNameStart(final char c)
+    {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_';
+    }
+
+    /**
+     * Tests whether the given character can be part of a name.
+     *
+     * @param c the character
+     * @return a flag whether this character can be part of a name
+     */
+    private static boolean isNamePart(final char c)
+    {
+        return isNameStart(c) || c >= '0' && c <= '9' || c == '-' || c == '.';
+    }
+
+    /**
+     * Tests whether the name in the given range is one of the operator names
+     * of XPath. Such names are not handled by this class to avoid any
+     * ambiguities.
+     *
+     * @param key the key
+     * @param start the start of the name
+     * @param end the end of the name
+     * @return a flag whether this is an operator name
+     */
+    private static boolean isOperatorName(final String key, final int start,
+            final int end)
+    {
+        final String name = key.substring(start, end);
+        return "and".equals(name) || "or".equals(name) || "div".equals(name)
+                || "mod".equals(name);
+    }
+
+    /**
+     * A class representing a parsed key.
+     */
+    private static final class SimplePath
+    {
+        /** The steps selecting nodes. */
+        final List<Step> steps;
+
+        /** The name of a final attribute step (may be <b>null</b>). */
+        final String attributeName;
+
+        /**
+         * Creates a new instance of {@code SimplePath}.
+         *
+         * @param steps the list of steps
+         * @param attributeName the name of the attribute
+         */
+        SimplePath(final List<Step> steps, final String attributeName)
+        {
+            this.steps = steps;
+            this.attributeName = attributeName;
+        }
+    }
+
+    /**
+     * A class representing a child step with optional predicates.
+     */
+    private static final class Step
+    {
+        /** The name of the child nodes to select. */
+        private final String name;
+
+        /** The predicates of this step. */
+        private final List<Predicate> predicates;
+
+        /**
+         * Creates a new instance of {@code Step}.
+         *
+         * @param name the name of the child nodes
+         */
+        Step(final String name)
+        {
+            this.name = name;
+            predicates = new ArrayList<>(1);
+        }
+
+        /**
+         * Adds a predicate to this step.
+         *
+         * @param predicate the predicate
+         */
+        void addPredicate(final Predicate predicate)
+        {
+            predicates.add(predicate);
+        }
+
+        /**
+         * Selects the child nodes of the given node matched by this step.
+         * Result is <b>null</b> if the step cannot be evaluated.
+         *
+         * @param node the parent node
+         * @param handler the {@code NodeHandler}
+         * @param <T> the type of the nodes
+         * @return the selected child nodes
+         */
+        <T> List<T> select(final T node, final NodeHandler<T> handler)
+        {
+            List<T> matches = new ArrayList<>();
+            for (final T child : handler.getChildren(node))
+            {
+                if (name.equals(handler.nodeName(child)))
+                {
+                    matches.add(child);
+                }
+            }
+            for (final Predicate predicate : predicates)
+            {
+                matches = predicate.filter(matches, handler);
+                if (matches == null)
+                {
+                    return null;
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * A class representing a predicate of a step. This is either a
+     * positional index or a comparison of an attribute with a literal.
+     */
+    private static final class Predicate
+    {
+        /** The index (1-based) for a positional predicate. */
+        private final int index;
+
+        /** The name of the attribute for a comparison. */
+        private final String attributeName;
+
+        /** The literal to compare the attribute with. */
+        private final String attributeValue;
+
+        /**
+         * Creates a new instance of {@code Predicate} for a positional index.
+         *
+         * @param index the index
+         */
+        Predicate(final int index)
+        {
+            this.index = index;
+            attributeName = null;
+            attributeValue = null;
+        }
+
+        /**
+         * Creates a new instance of {@code Predicate} for an attribute
+         * comparison.
+         *
+         * @param attributeName the name of the attribute
+         * @param attributeValue the value to compare with
+         */
+        Predicate(final String attributeName, final String attributeValue)
+        {
+            index = 0;
+            this.attributeName = attributeName;
+            this.attributeValue = attributeValue;
+        }
+
+        /**
+         * Applies this predicate to the given list of nodes. Result is
+         * <b>null</b> if an attribute value cannot be compared.
+         *
+         * @param nodes the nodes to be filtered
+         * @param handler the {@code NodeHandler}
+         * @param <T> the type of the nodes
+         * @return the filtered nodes
+         */
+        <T> List<T> filter(final List<T> nodes, final NodeHandler<T> handler)
+        {
+            if (attributeName == null)
+            {
+                return index <= nodes.size() ? Collections.singletonList(nodes
+                        .get(index - 1)) : Collections.<T> emptyList();
+            }
+
+            final List<T> result = new ArrayList<>(nodes.size());
+            for (final T node : nodes)
+            {
+                final Object value = handler.getAttributeValue(node,
+                        attributeName);
+                if (value != null && !(value instanceof String))
+                {
+                    return null;
+                }
+                if (attributeValue.equals(value))
+                {
+                    result.add(node);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -16,8 +16,15 @@
  */
 package org.apache.commons.configuration2.tree.xpath;
 
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.apache.commons.configuration2.tree.NodeHandler;
 import org.apache.commons.jxpath.JXPathContext;
+import org.apache.commons.jxpath.ri.JXPathContextReferenceImpl;
+import org.apache.commons.jxpath.ri.Parser;
+import org.apache.commons.jxpath.ri.compiler.Expression;
 
 /**
  * <p>
@@ -26,24 +33,122 @@ import org.apache.commons.jxpath.JXPathContext;
  * <p>
  * This class is used by {@link XPathExpressionEngine}. It simplifies testing.
  * </p>
+ * <p>
+ * The contexts created by this factory share a cache of compiled XPath
+ * expressions; so a query key has to be parsed only once. (JXPath has a global
+ * cache of its own, but it is guarded by a single lock and uses soft
+ * references which may be cleared at any time.) The number of cached
+ * expressions is limited; if the limit is reached, the cache is cleared.
+ * </p>
+ * <p>
+ * JXPath contexts are not thread-safe, and a context keeps its root node
+ * reachable. Therefore, a new context is created for each call of
+ * {@code createContext()}; only the compiled expressions, which are
+ * immutable, are shared.
+ * </p>
  *
  */
 class XPathContextFactory
 {
+    /** The default maximum number of compiled expressions to cache. */
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    /** The cache for compiled expressions. */
+    private final ConcurrentMap<String, Expression> expressionCache;
+
+    /** The maximum number of entries in the expression cache. */
+    private final int cacheSize;
+
+    /**
+     * Creates a new instance of {@code XPathContextFactory} with a default
+     * size of the expression cache.
+     */
+    public XPathContextFactory()
+    {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of {@code XPathContextFactory} and sets the
+     * maximum number of compiled expressions to be cached.
+     *
+     * @param maxCachedExpressions the size of the expression cache
+     */
+    public XPathContextFactory(final int maxCachedExpressions)
+    {
+        cacheSize = maxCachedExpressions;
+        expressionCache = new ConcurrentHashMap<>();
+    }
+
     /**
-     * Creates a new {@code JXPathContext} based on the passed in arguments.
+     * Creates a new {@code JXPathContext} with the passed in arguments.
      *
      * @param root the root node
      * @param handler the node handler
      * @param <T> the type of the nodes to be handled
-     * @return the newly created context
+     * @return the context
      */
     public <T> JXPathContext createContext(final T root, final NodeHandler<T> handler)
     {
-        final JXPathContext context =
-                JXPathContext.newContext(ConfigurationNodePointerFactory
-                        .wrapNode(root, handler));
+        final JXPathContext context = new CachingContext(
+                ConfigurationNodePointerFactory.wrapNode(root, handler));
         context.setLenient(true);
         return context;
     }
+
+    /**
+     * Returns the number of compiled expressions currently cached.
+     *
+     * @return the size of the expression cache
+     */
+    int getCachedExpressionCount()
+    {
+        return expressionCache.size();
+    }
+
+    /**
+     * Adds a compiled expression to the cache. If the cache has reached its
+     * maximum size, it is cleared first.
+     *
+     * @param xpath the XPath
+     * @param expr the compiled expression
+     */
+    private void cacheExpression(final String xpath, final Expression expr)
+    {
+        if (expressionCache.size() >= cacheSize)
+        {
+            expressionCache.clear();
+        }
+        expressionCache.put(xpath, expr);
+    }
+
+    /**
+     * A specialized context implementation which obtains compiled
+     * expressions from the cache of the owning factory.
+     */
+    private final class CachingContext extends JXPathContextReferenceImpl
+    {
+        /**
+         * Creates a new instance of {@code CachingContext}.
+         *
+         * @param contextBean the context bean (the wrapped root node)
+         */
+        CachingContext(final Object contextBean)
+        {
+            super(null, contextBean);
+        }
+
+        @Override
+        public Iterator<?> iteratePointers(final String xpath)
+        {
+            Expression expr = expressionCache.get(xpath);
+            if (expr == null)
+            {
+                expr = (Expression) Parser.parseExpression(xpath,
+                        getCompiler());
+                cacheExpression(xpath, expr);
+            }
+            return iteratePointers(xpath, expr);
+        }
+    }
 }
@@ -39,7 +39,9 @@ import org.apache.commons.lang3.StringUtils;
  * This class makes use of <a href="https://commons.apache.org/jxpath/"> Commons
  * JXPath</a> for handling XPath expressions and mapping them to the nodes of a
  * hierarchical configuration. This makes the rich and powerful XPATH syntax
- * available for accessing properties from a configuration object.
+ * available for accessing properties from a configuration object. (Keys
+ * that are simple location paths like {@code tables/table[2]/@name} are
+ * evaluated without JXPath, which is considerably faster.)
  * </p>
  * <p>
  * For selecting properties arbitrary XPATH expressions can be used, which
@@ -166,29 +168,51 @@ public class XPathExpressionEngine implements ExpressionEngine
     /** The internally used context factory. */
     private final XPathContextFactory contextFactory;
 
+    /** The evaluator for simple keys (may be <b>null</b>). */
+    private final SimplePathEvaluator simplePathEvaluator;
+
     /**
      * Creates a new instance of {@code XPathExpressionEngine} with default
      * settings.
      */
     public XPathExpressionEngine()
     {
-        this(new XPathContextFactory());
+        this(new XPathContextFactory(), new SimplePathEvaluator());
     }
 
     /**
      * Creates a new instance of {@code XPathExpressionEngine} and sets the
-     * context factory. This constructor is mainly used for testing purposes.
+     * context factory. An engine created this way evaluates all keys using
+     * JXPath contexts obtained from the factory. This constructor is mainly
+     * used for testing purposes.
      *
      * @param factory the {@code XPathContextFactory}
      */
     XPathExpressionEngine(final XPathContextFactory factory)
+    {
+        this(factory, null);
+    }
+
+    /**
+     * Creates a new instance of {@code XPathExpressionEngine} and sets the
+     * context factory and the evaluator for simple keys.
+     *
+     * @param factory the {@code XPathContextFactory}
+     * @param evaluator the {@code SimplePathEvaluator} (may be <b>null</b>)
+     */
+    XPathExpressionEngine(final XPathContextFactory factory,
+            final SimplePathEvaluator evaluator)
     {
         contextFactory = factory;
+        simplePathEvaluator = evaluator;
     }
 
     /**
      * {@inheritDoc} This implementation interprets the passed in key as an XPATH
-     * expression.
+     * expression. Simple location paths (child steps with positional or
+     * attribute predicates, optionally followed by an attribute step) are
+     * evaluated directly on the nodes; all other expressions are evaluated
+     * by JXPath.
      */
     @Override
     public <T> List<QueryResult<T>> query(final T root, final String key,
@@ -199,6 +223,15 @@ public class XPathExpressionEngine implements ExpressionEngine
             final QueryResult<T> result = createResult(root);
             return Collections.singletonList(result);
         }
+        if (simplePathEvaluator != null)
+        {
+            final List<QueryResult<T>> simpleResults =
+                    simplePathEvaluator.evaluate(root, key, handler);
+            if (simpleResults != null)
+            {
+                return simpleResults;
+            }
+        }
         final JXPathContext context = createContext(root, handler);
         List<?> results = context.selectNodes(key);
         if (results == null)
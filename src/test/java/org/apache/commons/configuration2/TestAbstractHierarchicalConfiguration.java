@@ -26,12 +26,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
@@ -391,6 +393,61 @@ public class TestAbstractHierarchicalConfiguration
                 new String[]{"url", "user"});
     }
 
+    /**
+     * Tests the order of the keys returned by getKeys(). Nodes are traversed
+     * in depth-first order; the keys of attributes follow the key of their
+     * node.
+     */
+    @Test
+    public void testGetKeysDepthFirstOrder()
+    {
+        final BaseHierarchicalConfiguration conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("a.b", "1");
+        conf.addProperty("a[@attr]", "2");
+        conf.addProperty("a.c.d", "3");
+        conf.addProperty("a.c(-1).d", "4");
+        conf.addProperty("e", "5");
+        final List<String> keys = new ArrayList<>();
+        for (final Iterator<String> it = conf.getKeys(); it.hasNext();)
+        {
+            keys.add(it.next());
+        }
+        assertEquals("Wrong keys", Arrays.asList("a[@attr]", "a.b", "a.c.d", "e"),
+                keys);
+        assertEquals("Wrong size", 4, conf.size());
+    }
+
+    /**
+     * Tests that an iterator returned by getKeys() is not affected by
+     * updates of the configuration.
+     */
+    @Test
+    public void testGetKeysIteratorOnSnapshot()
+    {
+        final Iterator<String> it = config.getKeys();
+        config.clear();
+        config.addProperty("other", "value");
+        final List<String> keys = new ArrayList<>();
+        while (it.hasNext())
+        {
+            keys.add(it.next());
+        }
+        assertEquals("Wrong keys",
+                Arrays.asList("tables.table.name", "tables.table.fields.field.name"),
+                keys);
+    }
+
+    /**
+     * Tests the behavior of the keys iterator if it is exhausted.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testGetKeysIteratorExhausted()
+    {
+        final Iterator<String> it = config.getKeys("tables.table(0).name");
+        assertEquals("Wrong key", "tables.table(0).name", it.next());
+        it.next();
+    }
+
     /**
      * Tests getKeys() with a prefix when the prefix matches exactly a key.
      */
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code BoundedCache}.
+ *
+ */
+public class TestBoundedCache
+{
+    /** The current time returned by the test ticker. */
+    private long time;
+
+    /** A list for recording the keys of removed entries. */
+    private List<String> removedKeys;
+
+    /** The cache to be tested. */
+    private BoundedCache<String, Integer> cache;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        removedKeys = new ArrayList<>();
+        cache = new BoundedCache<>((k, v) -> removedKeys.add(k), () -> time);
+    }
+
+    /**
+     * Advances the time of the test ticker.
+     *
+     * @param millis the number of milliseconds
+     */
+    private void advance(final long millis)
+    {
+        time += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Tests whether an unlimited cache stores all entries.
+     */
+    @Test
+    public void testUnlimited()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            cache.put("k" + i, i);
+            advance(1000);
+        }
+        assertEquals("Wrong size", 100, cache.size());
+        assertEquals("Wrong value", Integer.valueOf(42), cache.get("k42"));
+        assertTrue("Entries removed", removedKeys.isEmpty());
+    }
+
+    /**
+     * Tests the statistics about hits and misses.
+     */
+    @Test
+    public void testHitAndMissCounts()
+    {
+        cache.put("a", 1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertEquals("Wrong hits", 2, cache.getHitCount());
+        assertEquals("Wrong misses", 1, cache.getMissCount());
+        assertEquals("Wrong evictions", 0, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that the least recently used entries are evicted if the maximum
+     * size is exceeded.
+     */
+    @Test
+    public void testMaximumSize()
+    {
+        cache.setMaximumSize(3);
+        cache.put("a", 1);
+        advance(10);
+        cache.put("b", 2);
+        advance(10);
+        cache.put("c", 3);
+        advance(10);
+        cache.get("a");
+        advance(10);
+        cache.put("d", 4);
+
+        assertEquals("Wrong size", 3, cache.size());
+        assertNull("Entry not evicted", cache.get("b"));
+        assertEquals("Wrong removed keys", "[b]", removedKeys.toString());
+        assertEquals("Wrong evictions", 1, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that evictions are done in batches for larger caches.
+     */
+    @Test
+    public void testMaximumSizeBatchEviction()
+    {
+        cache.setMaximumSize(100);
+        for (int i = 0; i <= 100; i++)
+        {
+            cache.put("k" + i, i);
+            advance(10);
+        }
+        assertEquals("Wrong size", 90, cache.size());
+        assertEquals("Wrong evictions", 11, cache.getEvictionCount());
+        assertNull("Oldest entry not evicted", cache.get("k0"));
+        assertEquals("Newest entry evicted", Integer.valueOf(100),
+                cache.get("k100"));
+    }
+
+    /**
+     * Tests that entries expire if they are not accessed within the idle
+     * time.
+     */
+    @Test
+    public void testIdleTime()
+    {
+        cache.setMaximumIdleTime(100);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        advance(60);
+        assertEquals("Wrong value", Integer.valueOf(1), cache.get("a"));
+        advance(60);
+        assertEquals("Accessed entry expired", Integer.valueOf(1),
+                cache.get("a"));
+        assertNull("Idle entry not expired", cache.get("b"));
+        assertEquals("Wrong removed keys", "[b]", removedKeys.toString());
+        assertEquals("Wrong evictions", 1, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that expired entries are evicted when new entries are added.
+     */
+    @Test
+    public void testIdleTimeEvictionOnPut()
+    {
+        cache.setMaximumIdleTime(100);
+        cache.put("a", 1);
+        advance(150);
+        cache.put("b", 2);
+        assertEquals("Wrong size", 1, cache.size());
+        assertEquals("Wrong removed keys", "[a]", removedKeys.toString());
+    }
+
+    /**
+     * Tests that expired entries are evicted on read access if no new
+     * entries are added.
+     */
+    @Test
+    public void testIdleTimeEvictionOnGet()
+    {
+        cache.setMaximumIdleTime(100);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        advance(60);
+        cache.get("a");
+        advance(60);
+        assertEquals("Wrong value", Integer.valueOf(1), cache.get("a"));
+        assertEquals("Wrong size", 1, cache.size());
+        assertEquals("Wrong removed keys", "[b]", removedKeys.toString());
+    }
+
+    /**
+     * Tests that the listener is notified when entries are removed or
+     * replaced.
+     */
+    @Test
+    public void testRemovalListener()
+    {
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("b", 3);
+        assertEquals("Wrong removed value", Integer.valueOf(3),
+                cache.remove("b"));
+        assertNull("Got a value", cache.remove("b"));
+        assertEquals("Wrong removed keys", "[a, b]", removedKeys.toString());
+        cache.put("c", 4);
+        removedKeys.clear();
+        cache.clear();
+        Collections.sort(removedKeys);
+        assertEquals("Wrong keys removed by clear", "[a, c]",
+                removedKeys.toString());
+        assertEquals("Not empty", 0, cache.size());
+        assertEquals("Wrong evictions", 0, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests that setting a smaller maximum size evicts entries immediately.
+     */
+    @Test
+    public void testSetMaximumSizeEvicts()
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            cache.put("k" + i, i);
+            advance(10);
+        }
+        cache.setMaximumSize(5);
+        assertEquals("Wrong size", 5, cache.size());
+        assertEquals("Wrong maximum size", 5, cache.getMaximumSize());
+        assertNull("Old entry not evicted", cache.get("k4"));
+    }
+
+    /**
+     * Tests that evictions work while other threads access entries
+     * concurrently and update their access times.
+     */
+    @Test
+    public void testEvictionWithConcurrentAccess() throws InterruptedException
+    {
+        final BoundedCache<Integer, Integer> concurrentCache =
+                new BoundedCache<>(null);
+        concurrentCache.setMaximumSize(100);
+        final int threadCount = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+        {
+            final int offset = i;
+            threads[i] = new Thread(() -> {
+                try
+                {
+                    start.await();
+                    for (int j = 0; j < 20000; j++)
+                    {
+                        final int key = (j * threadCount + offset) % 500;
+                        if (concurrentCache.get(key) == null)
+                        {
+                            concurrentCache.put(key, key);
+                        }
+                    }
+                }
+                catch (final Throwable t)
+                {
+                    error.compareAndSet(null, t);
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (final Thread t : threads)
+        {
+            t.join();
+        }
+
+        assertNull("Exception in thread", error.get());
+        concurrentCache.cleanUp();
+        assertTrue("Size not limited", concurrentCache.size() <= 100);
+    }
+}
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration2.SynchronizerTestImpl.Methods;
 import org.apache.commons.configuration2.builder.BuilderConfigurationWrapperFactory;
@@ -43,12 +44,14 @@ import org.apache.commons.configuration2.builder.combined.MultiFileConfiguration
 import org.apache.commons.configuration2.builder.combined.ReloadingCombinedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.configuration2.interpol.ConfigurationInterpolator;
 import org.apache.commons.configuration2.interpol.Lookup;
 import org.apache.commons.configuration2.io.FileHandler;
 import org.apache.commons.configuration2.sync.LockMode;
 import org.apache.commons.configuration2.sync.ReadWriteSynchronizer;
+import org.apache.commons.configuration2.tree.OverrideCombiner;
 import org.apache.commons.configuration2.tree.xpath.XPathExpressionEngine;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -74,6 +77,9 @@ public class TestDynamicCombinedConfiguration
     /** A helper object for creating builder parameters. */
     private static Parameters parameters;
 
+    /** The tenant ID returned by the lookup of the tenant tests. */
+    private String tenant;
+
     /** Helper object for creating temporary files. */
     @Rule
     public TemporaryFolder folder = new TemporaryFolder();
@@ -575,4 +581,335 @@ public class TestDynamicCombinedConfiguration
 
         }
     }
+
+    /**
+     * Creates a configuration whose key pattern is resolved by a lookup for
+     * the tenant field.
+     *
+     * @param source a source configuration to be added
+     * @return the test configuration
+     */
+    private DynamicCombinedConfiguration createTenantConfiguration(
+            final PropertiesConfiguration source)
+    {
+        final DynamicCombinedConfiguration config =
+                new DynamicCombinedConfiguration();
+        config.getInterpolator().registerLookup("tenant", key -> tenant);
+        config.setKeyPattern("${tenant:id}");
+        config.addConfiguration(source, "source");
+        return config;
+    }
+
+    /**
+     * Tests whether the number of cached child configurations can be limited
+     * and whether evicted children are no longer registered at the source
+     * configurations.
+     */
+    @Test
+    public void testMaxCachedConfigurations()
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        source.addProperty("key", "value");
+        final int listenerCount =
+                source.getEventListeners(ConfigurationEvent.ANY).size();
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        config.setMaxCachedConfigurations(2);
+        for (final String t : new String[] {"a", "b", "c"})
+        {
+            tenant = t;
+            assertEquals("Wrong value for " + t, "value",
+                    config.getString("key"));
+        }
+
+        assertEquals("Wrong maximum", 2, config.getMaxCachedConfigurations());
+        assertEquals("Wrong number of cached configurations", 2,
+                config.getCachedConfigurationCount());
+        assertEquals("Wrong number of evictions", 1,
+                config.getCacheEvictionCount());
+        assertEquals("Listener of evicted child not removed",
+                listenerCount + 2,
+                source.getEventListeners(ConfigurationEvent.ANY).size());
+
+        final long hits = config.getCacheHitCount();
+        assertEquals("Wrong value", "value", config.getString("key"));
+        assertEquals("No cache hit", hits + 1, config.getCacheHitCount());
+        tenant = "a";
+        final long misses = config.getCacheMissCount();
+        assertEquals("Wrong value for evicted key", "value",
+                config.getString("key"));
+        assertEquals("No cache miss", misses + 1, config.getCacheMissCount());
+    }
+
+    /**
+     * Tests that child configurations are released when the cache is cleared
+     * because a new source configuration is added.
+     */
+    @Test
+    public void testAddConfigurationReleasesCachedConfigurations()
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        final int listenerCount =
+                source.getEventListeners(ConfigurationEvent.ANY).size();
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        tenant = "a";
+        config.getString("key");
+        config.addConfiguration(new PropertiesConfiguration());
+        assertEquals("Wrong number of cached configurations", 0,
+                config.getCachedConfigurationCount());
+        assertEquals("Listener not removed", listenerCount,
+                source.getEventListeners(ConfigurationEvent.ANY).size());
+    }
+
+    /**
+     * Tests the default settings of the cache for child configurations.
+     */
+    @Test
+    public void testCacheDefaults()
+    {
+        final DynamicCombinedConfiguration config =
+                new DynamicCombinedConfiguration();
+        assertEquals("Wrong maximum", 0, config.getMaxCachedConfigurations());
+        assertEquals("Wrong idle time", 0,
+                config.getCachedConfigurationIdleTime());
+        config.setCachedConfigurationIdleTime(60000);
+        assertEquals("Idle time not set", 60000,
+                config.getCachedConfigurationIdleTime());
+    }
+
+    /**
+     * Tests whether shared configurations are combined only once and reused
+     * by all child configurations.
+     */
+    @Test
+    public void testSharedConfiguration()
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        source.addProperty("key", "tenantValue");
+        final PropertiesConfiguration shared = new PropertiesConfiguration();
+        shared.addProperty("sharedKey", "sharedValue");
+        shared.addProperty("key", "ignored");
+        final int listenerCount =
+                shared.getEventListeners(ConfigurationEvent.ANY).size();
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        config.addSharedConfiguration(shared, "shared", "base");
+
+        for (final String t : new String[] {"a", "b", "c"})
+        {
+            tenant = t;
+            assertEquals("Wrong value for " + t, "tenantValue",
+                    config.getString("key"));
+            assertEquals("Wrong shared value for " + t, "sharedValue",
+                    config.getString("base.sharedKey"));
+        }
+        assertEquals("Wrong number of listeners at shared source",
+                listenerCount + 1,
+                shared.getEventListeners(ConfigurationEvent.ANY).size());
+        assertSame("Wrong source", shared, config.getSource("base.sharedKey"));
+        assertSame("Wrong named configuration", shared,
+                config.getConfiguration("shared"));
+    }
+
+    /**
+     * Tests that changes on a shared configuration are visible for all child
+     * configurations.
+     */
+    @Test
+    public void testSharedConfigurationUpdate()
+    {
+        final PropertiesConfiguration shared = new PropertiesConfiguration();
+        shared.addProperty("sharedKey", "sharedValue");
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(new PropertiesConfiguration());
+        config.addSharedConfiguration(shared, null, null);
+        tenant = "a";
+        assertEquals("Wrong value for a", "sharedValue",
+                config.getString("sharedKey"));
+        tenant = "b";
+        assertEquals("Wrong value for b", "sharedValue",
+                config.getString("sharedKey"));
+
+        shared.setProperty("sharedKey", "newValue");
+        assertEquals("Not updated for b", "newValue",
+                config.getString("sharedKey"));
+        tenant = "a";
+        assertEquals("Not updated for a", "newValue",
+                config.getString("sharedKey"));
+    }
+
+    /**
+     * Tests that shared configurations are combined in the correct order
+     * with the other configurations.
+     */
+    @Test
+    public void testSharedConfigurationOrder()
+    {
+        final PropertiesConfiguration first = new PropertiesConfiguration();
+        first.addProperty("key1", "first");
+        final PropertiesConfiguration shared1 = new PropertiesConfiguration();
+        shared1.addProperty("key1", "shared1");
+        shared1.addProperty("key2", "shared1");
+        final PropertiesConfiguration shared2 = new PropertiesConfiguration();
+        shared2.addProperty("key2", "shared2");
+        shared2.addProperty("key3", "shared2");
+        final PropertiesConfiguration last = new PropertiesConfiguration();
+        last.addProperty("key3", "last");
+        last.addProperty("key4", "last");
+        final DynamicCombinedConfiguration config =
+                new DynamicCombinedConfiguration(new OverrideCombiner());
+        config.setKeyPattern("test");
+        config.addConfiguration(first);
+        config.addSharedConfiguration(shared1, null, null);
+        config.addSharedConfiguration(shared2, null, null);
+        config.addConfiguration(last);
+
+        assertEquals("Wrong key1", "first", config.getString("key1"));
+        assertEquals("Wrong key2", "shared1", config.getString("key2"));
+        assertEquals("Wrong key3", "shared2", config.getString("key3"));
+        assertEquals("Wrong key4", "last", config.getString("key4"));
+        assertSame("Wrong source", shared2, config.getSource("key3"));
+    }
+
+    /**
+     * Tests that the key is evaluated only once within a key scope.
+     */
+    @Test
+    public void testKeyScope()
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        source.addProperty("key", "value");
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        tenant = "a";
+        try (DynamicCombinedConfiguration.KeyScope scope =
+                config.openKeyScope())
+        {
+            assertEquals("Wrong key", "a", scope.getKey());
+            assertEquals("Child not created", 1,
+                    config.getCachedConfigurationCount());
+            tenant = "b";
+            config.addProperty("newKey", "newValue");
+            assertEquals("Wrong new value", "newValue",
+                    config.getString("newKey"));
+        }
+        assertFalse("Key not evaluated after scope",
+                config.containsKey("newKey"));
+        tenant = "a";
+        assertEquals("Property not added to scope child", "newValue",
+                config.getString("newKey"));
+    }
+
+    /**
+     * Tests that a key scope only affects the configuration which opened it.
+     */
+    @Test
+    public void testKeyScopeMultipleInstances()
+    {
+        final PropertiesConfiguration sourceA = new PropertiesConfiguration();
+        sourceA.addProperty("k", "A");
+        final PropertiesConfiguration sourceB = new PropertiesConfiguration();
+        sourceB.addProperty("k", "B");
+        final DynamicCombinedConfiguration configA =
+                createTenantConfiguration(sourceA);
+        final DynamicCombinedConfiguration configB =
+                createTenantConfiguration(sourceB);
+        tenant = "a";
+        try (DynamicCombinedConfiguration.KeyScope scope =
+                configA.openKeyScope())
+        {
+            assertEquals("Wrong value of other instance", "B",
+                    configB.getString("k"));
+            assertEquals("Wrong value of scope instance", "A",
+                    configA.getString("k"));
+        }
+    }
+
+    /**
+     * Tests that the child configuration of an open key scope is not detached
+     * when it is evicted from the cache.
+     */
+    @Test
+    public void testKeyScopeChildEvicted() throws InterruptedException
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        source.addProperty("key", "value");
+        final int listenerCount =
+                source.getEventListeners(ConfigurationEvent.ANY).size();
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        config.setMaxCachedConfigurations(1);
+        tenant = "a";
+        try (DynamicCombinedConfiguration.KeyScope scope =
+                config.openKeyScope())
+        {
+            assertEquals("Wrong value", "value", config.getString("key"));
+            final Thread t = new Thread(() -> {
+                tenant = "b";
+                config.getString("key");
+            });
+            t.start();
+            t.join();
+            assertEquals("Child not evicted", 1, config.getCacheEvictionCount());
+
+            source.setProperty("key", "changed");
+            assertEquals("Change not visible", "changed",
+                    config.getString("key"));
+        }
+        assertEquals("Evicted child not detached", listenerCount + 1,
+                source.getEventListeners(ConfigurationEvent.ANY).size());
+    }
+
+    /**
+     * Tests that a key scope cannot be closed by another thread.
+     */
+    @Test
+    public void testKeyScopeCloseOtherThread() throws InterruptedException
+    {
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(new PropertiesConfiguration());
+        final DynamicCombinedConfiguration.KeyScope scope =
+                config.openKeyScope();
+        final AtomicReference<Exception> exception = new AtomicReference<>();
+        final Thread t = new Thread(() -> {
+            try
+            {
+                scope.close();
+            }
+            catch (final IllegalStateException isex)
+            {
+                exception.set(isex);
+            }
+        });
+        t.start();
+        t.join();
+        assertNotNull("No exception", exception.get());
+        scope.close();
+        scope.close();
+    }
+
+    /**
+     * Tests that a key pattern without variables is handled correctly.
+     */
+    @Test
+    public void testConstantKeyPattern()
+    {
+        final PropertiesConfiguration source = new PropertiesConfiguration();
+        source.addProperty("key", "value");
+        final DynamicCombinedConfiguration config =
+                createTenantConfiguration(source);
+        config.setKeyPattern("constant");
+        tenant = "a";
+        assertEquals("Wrong value", "value", config.getString("key"));
+        tenant = "b";
+        assertEquals("Wrong value (2)", "value", config.getString("key"));
+        assertEquals("Wrong number of children", 1,
+                config.getCachedConfigurationCount());
+        try (DynamicCombinedConfiguration.KeyScope scope =
+                config.openKeyScope())
+        {
+            assertEquals("Wrong key", "constant", scope.getKey());
+        }
+    }
 }
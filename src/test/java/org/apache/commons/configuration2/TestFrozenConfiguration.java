@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@code FrozenConfiguration}.
+ *
+ */
+public class TestFrozenConfiguration
+{
+    /** The configuration to be frozen. */
+    private BaseConfiguration source;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        source = new BaseConfiguration();
+        source.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        source.addProperty("base", "/usr/local");
+        source.addProperty("dir", "${base}/bin");
+        source.addProperty("list", "a,b,${base}");
+        source.addProperty("number", 42);
+    }
+
+    /**
+     * Tries to freeze a null configuration.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testFreezeNull()
+    {
+        ConfigurationUtils.freeze(null);
+    }
+
+    /**
+     * Tests whether the snapshot contains the interpolated values of the
+     * source configuration.
+     */
+    @Test
+    public void testInterpolatedValues()
+    {
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        assertEquals("Wrong value", "/usr/local/bin", conf.getString("dir"));
+        assertEquals("Wrong raw value", "/usr/local/bin", conf.getProperty("dir"));
+        assertEquals("Wrong list", Arrays.asList("a", "b", "/usr/local"),
+                conf.getList("list"));
+        assertEquals("Wrong number", 42, conf.getInt("number"));
+    }
+
+    /**
+     * Tests whether the keys are returned in the order of the source
+     * configuration.
+     */
+    @Test
+    public void testGetKeys()
+    {
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        final List<String> keys = new ArrayList<>();
+        for (final Iterator<String> it = conf.getKeys(); it.hasNext();)
+        {
+            keys.add(it.next());
+        }
+        assertEquals("Wrong keys",
+                Arrays.asList("base", "dir", "list", "number"), keys);
+        assertEquals("Wrong size", 4, conf.size());
+        assertFalse("Empty", conf.isEmpty());
+    }
+
+    /**
+     * Tests that the snapshot is not affected by changes on the source.
+     */
+    @Test
+    public void testIndependentFromSource()
+    {
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        source.setProperty("base", "/opt");
+        source.addProperty("newKey", "value");
+        assertEquals("Wrong value", "/usr/local/bin", conf.getString("dir"));
+        assertFalse("Key found", conf.containsKey("newKey"));
+    }
+
+    /**
+     * Tests a snapshot of an empty configuration.
+     */
+    @Test
+    public void testEmpty()
+    {
+        final ImmutableConfiguration conf =
+                ConfigurationUtils.freeze(new BaseConfiguration());
+        assertTrue("Not empty", conf.isEmpty());
+        assertNull("Got a value", conf.getProperty("key"));
+        assertFalse("Got keys", conf.getKeys().hasNext());
+    }
+
+    /**
+     * Tests whether a larger number of keys can be looked up.
+     */
+    @Test
+    public void testManyKeys()
+    {
+        final BaseConfiguration config = new BaseConfiguration();
+        final int count = 1000;
+        for (int i = 0; i < count; i++)
+        {
+            config.addProperty("key" + i, i);
+        }
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(config);
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals("Wrong value at " + i, i, conf.getInt("key" + i));
+        }
+        assertFalse("Unknown key found", conf.containsKey("key" + count));
+    }
+
+    /**
+     * Tests whether the flag for missing properties is taken into account.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testThrowExceptionOnMissing()
+    {
+        source.setThrowExceptionOnMissing(true);
+        ConfigurationUtils.freeze(source).getString("nonExisting");
+    }
+
+    /**
+     * Tests that properties cannot be added.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddProperty()
+    {
+        ((Configuration) ConfigurationUtils.freeze(source)).addProperty("key",
+                "value");
+    }
+
+    /**
+     * Tests that properties cannot be set.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetProperty()
+    {
+        ((Configuration) ConfigurationUtils.freeze(source)).setProperty("base",
+                "value");
+    }
+
+    /**
+     * Tests that properties cannot be removed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClearProperty()
+    {
+        ((Configuration) ConfigurationUtils.freeze(source))
+                .clearProperty("base");
+    }
+
+    /**
+     * Tests that the configuration cannot be cleared.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClear()
+    {
+        ((Configuration) ConfigurationUtils.freeze(source)).clear();
+    }
+
+    /**
+     * Tests whether a hierarchical configuration can be frozen.
+     */
+    @Test
+    public void testFreezeHierarchical()
+    {
+        final BaseHierarchicalConfiguration config =
+                new BaseHierarchicalConfiguration();
+        config.addProperty("tables.table(-1).name", "users");
+        config.addProperty("tables.table(-1).name", "documents");
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(config);
+        assertEquals("Wrong values", Arrays.asList("users", "documents"),
+                conf.getList("tables.table.name"));
+    }
+
+    /**
+     * Tests that the types of values are preserved.
+     */
+    @Test
+    public void testValueTypesPreserved()
+    {
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        assertEquals("Wrong number", Integer.valueOf(42),
+                conf.getProperty("number"));
+    }
+
+    /**
+     * Tests that collections with mixed element types are flattened and
+     * only string elements are interpolated.
+     */
+    @Test
+    public void testMixedCollection()
+    {
+        source.addProperty("mixed", Arrays.asList(1, "${base}", Boolean.TRUE));
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        assertEquals("Wrong values", Arrays.asList(1, "/usr/local", Boolean.TRUE),
+                conf.getProperty("mixed"));
+    }
+
+    /**
+     * Tests that arrays of primitives are flattened.
+     */
+    @Test
+    public void testPrimitiveArray()
+    {
+        source.addPropertyDirect("array", new int[] {1, 2, 3});
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        assertEquals("Wrong values", Arrays.asList(1, 2, 3),
+                conf.getProperty("array"));
+    }
+
+    /**
+     * Tests that objects which cannot be converted to strings are stored as
+     * they are.
+     */
+    @Test
+    public void testNonConvertibleObject()
+    {
+        final Object value = new Object();
+        source.addProperty("object", value);
+        final ImmutableConfiguration conf = ConfigurationUtils.freeze(source);
+        assertSame("Wrong value", value, conf.getProperty("object"));
+    }
+
+    /**
+     * Tests whether a configuration which is not derived from
+     * {@code AbstractConfiguration} can be frozen.
+     */
+    @Test
+    public void testFreezeUnmodifiableConfiguration()
+    {
+        final ImmutableConfiguration conf = ConfigurationUtils
+                .freeze(ConfigurationUtils.unmodifiableConfiguration(source));
+        assertEquals("Wrong value", "/usr/local/bin", conf.getProperty("dir"));
+        assertEquals("Wrong list", Arrays.asList("a", "b", "/usr/local"),
+                conf.getProperty("list"));
+        assertEquals("Wrong number", Integer.valueOf(42),
+                conf.getProperty("number"));
+    }
+}
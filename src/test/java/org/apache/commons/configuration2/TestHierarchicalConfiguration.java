@@ -17,14 +17,22 @@
 package org.apache.commons.configuration2;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.event.EventListenerTestImpl;
 import org.apache.commons.configuration2.ex.ConfigurationRuntimeException;
 import org.apache.commons.configuration2.tree.DefaultConfigurationKey;
 import org.apache.commons.configuration2.tree.DefaultExpressionEngine;
@@ -660,4 +668,324 @@ public class TestHierarchicalConfiguration
             }
         }
     }
+
+    /**
+     * Tests whether a view on a sub tree contains the expected properties.
+     */
+    @Test
+    public void testSubtreeViewReadAccess()
+    {
+        final ImmutableHierarchicalConfiguration view =
+                config.subtreeView("tables.table(1)");
+        assertEquals("Wrong table name", NodeStructureHelper.table(1),
+                view.getString("name"));
+        final List<Object> lstFlds = view.getList("fields.field.name");
+        assertEquals("Wrong number of fields",
+                NodeStructureHelper.fieldsLength(1), lstFlds.size());
+        for (int i = 0; i < NodeStructureHelper.fieldsLength(1); i++)
+        {
+            assertEquals("Wrong field at position " + i,
+                    NodeStructureHelper.field(1, i), lstFlds.get(i));
+        }
+        assertEquals("Wrong max index",
+                NodeStructureHelper.fieldsLength(1) - 1,
+                view.getMaxIndex("fields.field"));
+    }
+
+    /**
+     * Tests that a view on a sub tree has the same keys as a sub
+     * configuration.
+     */
+    @Test
+    public void testSubtreeViewKeys()
+    {
+        final ImmutableHierarchicalConfiguration view =
+                config.subtreeView("tables.table(0)");
+        final HierarchicalConfiguration<ImmutableNode> sub =
+                config.configurationAt("tables.table(0)");
+        assertEquals("Wrong keys", ConfigurationAssert.keysToList(sub),
+                ConfigurationAssert.keysToList(view));
+    }
+
+    /**
+     * Tests that a view is not affected by updates of its parent.
+     */
+    @Test
+    public void testSubtreeViewUpdateParent()
+    {
+        final ImmutableHierarchicalConfiguration view =
+                config.subtreeView("tables.table(1)");
+        config.setProperty("tables.table(1).name", "changedTable");
+        assertEquals("Change visible in view", NodeStructureHelper.table(1),
+                view.getString("name"));
+    }
+
+    /**
+     * Tests that a view cannot be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSubtreeViewUpdate()
+    {
+        final Configuration view =
+                (Configuration) config.subtreeView("tables.table(1)");
+        view.setProperty("name", "changedTable");
+    }
+
+    /**
+     * Tests subtreeView() for a key selecting multiple nodes.
+     */
+    @Test(expected = ConfigurationRuntimeException.class)
+    public void testSubtreeViewMultipleNodes()
+    {
+        config.subtreeView("tables.table.name");
+    }
+
+    /**
+     * Tests whether sub configurations can be obtained from a view.
+     */
+    @Test
+    public void testSubtreeViewNested()
+    {
+        final ImmutableHierarchicalConfiguration view =
+                config.subtreeView("tables.table(0)");
+        final ImmutableHierarchicalConfiguration field =
+                view.immutableConfigurationAt("fields.field(2)");
+        assertEquals("Wrong field", NodeStructureHelper.field(0, 2),
+                field.getString("name"));
+        final List<ImmutableHierarchicalConfiguration> fields =
+                view.immutableChildConfigurationsAt("fields");
+        assertEquals("Wrong number of fields",
+                NodeStructureHelper.fieldsLength(0), fields.size());
+        assertEquals("Wrong child field", NodeStructureHelper.field(0, 1),
+                fields.get(1).getString("name"));
+    }
+
+    /**
+     * Tests that a view delegates interpolation to its parent.
+     */
+    @Test
+    public void testSubtreeViewInterpolation()
+    {
+        config.clear();
+        config.addProperty("var", "value");
+        config.addProperty("prop2.prop[@attr]", "${var}");
+        final ImmutableHierarchicalConfiguration view =
+                config.subtreeView("prop2");
+        assertEquals("Wrong value", "value", view.getString("prop[@attr]"));
+        assertEquals("Wrong nested value", "value",
+                view.immutableConfigurationAt("prop").getString("[@attr]"));
+    }
+
+    /**
+     * Tests whether a subset view has the same content as a subset.
+     */
+    @Test
+    public void testSubsetView()
+    {
+        final Configuration subset = config.subset("tables.table.fields.field");
+        final ImmutableHierarchicalConfiguration view =
+                config.subsetView("tables.table.fields.field");
+        assertEquals("Wrong keys", ConfigurationAssert.keysToList(subset),
+                ConfigurationAssert.keysToList(view));
+        assertEquals("Wrong values", subset.getList("name"),
+                view.getList("name"));
+        assertTrue("View not empty",
+                config.subsetView("tables.unknown").isEmpty());
+    }
+
+    /**
+     * Tests that a subset view interpolates like a subset if a key relative
+     * to the view shadows a key of the parent configuration.
+     */
+    @Test
+    public void testSubsetViewInterpolationShadowedKey()
+    {
+        config.clear();
+        config.addProperty("x", "absolute");
+        config.addProperty("sub.x", "relative");
+        config.addProperty("sub.y", "${x}");
+        config.addProperty("sub.inner.x", "nested");
+        config.addProperty("sub.inner.y", "${x}");
+        final ImmutableHierarchicalConfiguration view = config.subsetView("sub");
+        assertEquals("Wrong value of subset", "absolute",
+                config.subset("sub").getString("y"));
+        assertEquals("Wrong value of view", "absolute", view.getString("y"));
+        assertEquals("Wrong value of nested view", "absolute",
+                view.immutableConfigurationAt("inner").getString("y"));
+        assertEquals("Wrong interpolated value", "absolute",
+                ((SubtreeView) view).interpolatedConfiguration()
+                        .getString("y"));
+    }
+
+    /**
+     * Tests whether a batch of updates can be applied.
+     */
+    @Test
+    public void testApplyBatch()
+    {
+        config.applyBatch(batch -> batch
+                .addProperty("tables.table(0).fields.field(-1).name", "newField")
+                .setProperty("tables.table(1).name", "changedTable")
+                .clearProperty("tables.table(0).name")
+                .addProperty("test.list", "a,b")
+                .addNodes("test.nodes", Collections.singleton(
+                        new ImmutableNode.Builder().name("node").value("v")
+                                .create())));
+        assertEquals("Field not added", "newField",
+                config.getString("tables.table(0).fields.field(5).name"));
+        assertEquals("Property not set", "changedTable",
+                config.getString("tables.table(1).name"));
+        assertFalse("Property not cleared",
+                config.containsKey("tables.table(0).name"));
+        assertEquals("Wrong value", "a,b", config.getString("test.list"));
+        assertEquals("Node not added", "v", config.getString("test.nodes.node"));
+    }
+
+    /**
+     * Tests that a batch update uses the list delimiter handler of the
+     * configuration.
+     */
+    @Test
+    public void testApplyBatchListDelimiterHandling()
+    {
+        config.setListDelimiterHandler(new DefaultListDelimiterHandler(','));
+        config.applyBatch(batch -> batch.addProperty("test.list", "a,b,c"));
+        assertEquals("Wrong number of values", 3,
+                config.getList("test.list").size());
+    }
+
+    /**
+     * Tests that only a single event is fired for a batch update.
+     */
+    @Test
+    public void testApplyBatchEvents()
+    {
+        final EventListenerTestImpl listener = new EventListenerTestImpl(config);
+        config.addEventListener(ConfigurationEvent.ANY, listener);
+        config.applyBatch(batch -> batch.addProperty("test.a", "1")
+                .setProperty("test.b", "2").clearTree("tables"));
+        listener.checkEvent(ConfigurationEvent.BATCH_UPDATE, null, null, true);
+        listener.checkEvent(ConfigurationEvent.BATCH_UPDATE, null, null, false);
+        listener.done();
+    }
+
+    /**
+     * Tests that an empty batch does not change the configuration.
+     */
+    @Test
+    public void testApplyBatchEmpty()
+    {
+        final EventListenerTestImpl listener = new EventListenerTestImpl(config);
+        config.addEventListener(ConfigurationEvent.ANY, listener);
+        final ImmutableNode root = config.getNodeModel().getRootNode();
+        config.applyBatch(batch -> { });
+        assertSame("Root node changed", root, config.getNodeModel().getRootNode());
+        listener.done();
+    }
+
+    /**
+     * Tests that a batch is not applied at all if one of its operations fails.
+     */
+    @Test
+    public void testApplyBatchFailure()
+    {
+        final ImmutableNode root = config.getNodeModel().getRootNode();
+        try
+        {
+            config.applyBatch(batch -> batch.addProperty("test.a", "1")
+                    .addNodes("tables.table(0)[@attr]", Collections.singleton(
+                            NodeStructureHelper.createNode("test", null))));
+            fail("Exception not thrown!");
+        }
+        catch (final IllegalArgumentException iex)
+        {
+            // expected
+        }
+        assertSame("Configuration changed", root,
+                config.getNodeModel().getRootNode());
+        assertFalse("Property added", config.containsKey("test.a"));
+    }
+
+    /**
+     * Tests that connected sub configurations see the results of a batch.
+     */
+    @Test
+    public void testApplyBatchConnectedSubConfig()
+    {
+        final HierarchicalConfiguration<ImmutableNode> sub =
+                config.configurationAt("tables.table(1)", true);
+        config.applyBatch(batch -> batch
+                .setProperty("tables.table(1).name", "changedTable")
+                .addProperty("tables.table(1).fields.field(-1).name", "f"));
+        assertEquals("Name not changed", "changedTable", sub.getString("name"));
+        assertEquals("Field not added", "f",
+                sub.getString("fields.field(" + NodeStructureHelper.fieldsLength(1)
+                        + ").name"));
+    }
+
+    /**
+     * Tests a batch update on a connected sub configuration.
+     */
+    @Test
+    public void testApplyBatchOnSubConfig()
+    {
+        final BaseHierarchicalConfiguration sub =
+                (BaseHierarchicalConfiguration) config.configurationAt(
+                        "tables.table(1)", true);
+        sub.applyBatch(batch -> batch.setProperty("name", "changedTable")
+                .addProperty("type", "new"));
+        assertEquals("Name not changed", "changedTable",
+                config.getString("tables.table(1).name"));
+        assertEquals("Property not added", "new",
+                config.getString("tables.table(1).type"));
+    }
+
+    /**
+     * Tests that batches applied concurrently by multiple threads do not
+     * interfere with each other and that other threads never see
+     * intermediate states.
+     */
+    @Test
+    public void testApplyBatchConcurrently() throws InterruptedException
+    {
+        final int threadCount = 8;
+        final int batchCount = 100;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean oddCountSeen = new AtomicBoolean();
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++)
+        {
+            threads[i] = new Thread(() -> {
+                try
+                {
+                    start.await();
+                }
+                catch (final InterruptedException iex)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < batchCount; j++)
+                {
+                    config.applyBatch(batch -> batch
+                            .addProperty("batch.value", "a")
+                            .addProperty("batch.value", "b"));
+                    if (config.getList("batch.value").size() % 2 != 0)
+                    {
+                        oddCountSeen.set(true);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (final Thread t : threads)
+        {
+            t.join();
+        }
+
+        assertFalse("Intermediate state visible", oddCountSeen.get());
+        assertEquals("Wrong number of values", 2 * threadCount * batchCount,
+                config.getList("batch.value").size());
+    }
 }
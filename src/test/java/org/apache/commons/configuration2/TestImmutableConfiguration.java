@@ -210,6 +210,56 @@ public class TestImmutableConfiguration
         assertEquals("Wrong max index", 0, ihc.getMaxIndex(key));
     }
 
+    /**
+     * Tests that an unmodifiable hierarchical configuration cannot be cast to
+     * a mutable configuration.
+     */
+    @Test(expected = ClassCastException.class)
+    public void testUnmodifiableHierarchicalConfigurationCast()
+    {
+        final ImmutableHierarchicalConfiguration ihc =
+                ConfigurationUtils.unmodifiableConfiguration(
+                        new BaseHierarchicalConfiguration());
+        final Configuration mutableConf = (Configuration) ihc;
+        mutableConf.clear();
+    }
+
+    /**
+     * Tests whether sub configurations can be obtained from an unmodifiable
+     * hierarchical configuration.
+     */
+    @Test
+    public void testUnmodifiableHierarchicalConfigurationSubConfigurations()
+    {
+        final HierarchicalConfiguration<?> conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("tables.table(-1).name", "users");
+        conf.addProperty("tables.table(-1).name", "documents");
+        final ImmutableHierarchicalConfiguration ihc =
+                ConfigurationUtils.unmodifiableConfiguration(conf);
+        assertEquals("Wrong max index", 1, ihc.getMaxIndex("tables.table"));
+        assertEquals("Wrong sub configuration value", "documents",
+                ihc.immutableConfigurationAt("tables.table(1)").getString("name"));
+        assertEquals("Wrong number of sub configurations", 2,
+                ihc.immutableConfigurationsAt("tables.table").size());
+        assertEquals("Wrong number of child configurations", 2,
+                ihc.immutableChildConfigurationsAt("tables").size());
+    }
+
+    /**
+     * Tests that keys cannot be removed using the iterator of an unmodifiable
+     * hierarchical configuration.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiableHierarchicalConfigurationIteratorRemove()
+    {
+        final HierarchicalConfiguration<?> conf = new BaseHierarchicalConfiguration();
+        conf.addProperty("test.key", Boolean.TRUE);
+        final Iterator<String> it =
+                ConfigurationUtils.unmodifiableConfiguration(conf).getKeys("test");
+        it.next();
+        it.remove();
+    }
+
     /**
      * Tests that exceptions thrown by the wrapped configuration are handled
      * correctly.
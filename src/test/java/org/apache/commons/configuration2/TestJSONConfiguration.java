@@ -23,14 +23,20 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -150,4 +156,95 @@ public class TestJSONConfiguration
         final Map<?, ?> capUk = (Map<?, ?>) capitals.get(1);
         assertEquals("London", capUk.get("capital"));
     }
+
+    @Test
+    public void testReadValueTypes() throws ConfigurationException
+    {
+        final String json = "{\"long\": 10000000000, \"double\": 1.5,"
+                + " \"flag\": true, \"nothing\": null, \"empty\": {},"
+                + " \"matrix\": [[1, 2], [3]], \"none\": []}";
+        final JSONConfiguration config = new JSONConfiguration();
+        config.read(new StringReader(json));
+        assertEquals(Long.valueOf(10000000000L), config.getProperty("long"));
+        assertEquals(Double.valueOf(1.5), config.getProperty("double"));
+        assertEquals(Boolean.TRUE, config.getProperty("flag"));
+        assertNull(config.getProperty("nothing"));
+        assertEquals(Arrays.asList(1, 2, 3), config.getProperty("matrix"));
+        assertFalse(config.containsKey("none"));
+        assertTrue(config.getNodeModel().getNodeHandler().getRootNode()
+                .getChildren("empty").get(0).getChildren().isEmpty());
+    }
+
+    @Test
+    public void testReadDuplicateKeys() throws ConfigurationException
+    {
+        final String json = "{\"a\": 1, \"b\": [1, 2], \"a\": 2,"
+                + " \"b\": {\"c\": 3}, \"d\": [4, 5], \"d\": [6, 7]}";
+        final JSONConfiguration config = new JSONConfiguration();
+        config.read(new StringReader(json));
+        assertEquals(Integer.valueOf(2), config.getProperty("a"));
+        assertEquals(3, config.getInt("b.c"));
+        assertEquals(Arrays.asList(6, 7), config.getProperty("d"));
+        final List<String> keys = new ArrayList<>();
+        config.getKeys().forEachRemaining(keys::add);
+        assertEquals(Arrays.asList("a", "b.c", "d"), keys);
+    }
+
+    @Test
+    public void testReadFromStream() throws ConfigurationException
+    {
+        final JSONConfiguration config = new JSONConfiguration();
+        config.read(new ByteArrayInputStream(
+                "{\"a\": {\"b\": \"c\"}}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("c", config.getString("a.b"));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testReadNoObject() throws ConfigurationException
+    {
+        new JSONConfiguration().read(new StringReader("[1, 2]"));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testReadEmpty() throws ConfigurationException
+    {
+        new JSONConfiguration().read(new StringReader(""));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testReadTruncated() throws ConfigurationException
+    {
+        new JSONConfiguration().read(new StringReader("{\"a\": [1, 2"));
+    }
+
+    @Test
+    public void testSaveRoundTrip() throws IOException, ConfigurationException
+    {
+        final String json = "{\"z\":1,\"a\":{\"list\":[true,2.5,\"x\"],"
+                + "\"nested\":[{\"k\":\"v1\"},{\"k\":\"v2\"}]},"
+                + "\"nothing\":null}";
+        final JSONConfiguration config = new JSONConfiguration();
+        config.read(new StringReader(json));
+        final StringWriter sw = new StringWriter();
+        config.write(sw);
+        assertEquals("Wrong output", json, sw.toString());
+    }
+
+    @Test
+    public void testSaveAddedProperties() throws IOException, ConfigurationException
+    {
+        final JSONConfiguration config = new JSONConfiguration();
+        config.addProperty("b.c", 42);
+        config.addProperty("b.d", Arrays.asList("x", "y"));
+        config.addProperty("a", "text");
+        final StringWriter sw = new StringWriter();
+        config.write(sw);
+
+        final JSONConfiguration copy = new JSONConfiguration();
+        copy.read(new StringReader(sw.toString()));
+        assertEquals(42, copy.getInt("b.c"));
+        assertEquals(Arrays.asList("x", "y"), copy.getList("b.d"));
+        assertEquals("text", copy.getString("a"));
+        assertTrue("Wrong key order", sw.toString().startsWith("{\"b\""));
+    }
 }
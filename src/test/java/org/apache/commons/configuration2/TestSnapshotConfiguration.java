@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
+import org.apache.commons.configuration2.builder.fluent.Parameters;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.io.FileHandler;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@code SnapshotConfiguration}.
+ *
+ */
+public class TestSnapshotConfiguration
+{
+    /** A helper object for creating temporary files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The XML configuration used as source for snapshots. */
+    private XMLConfiguration xmlConfig;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        xmlConfig = new XMLConfiguration();
+        new FileHandler(xmlConfig).load(ConfigurationAssert
+                .getTestFile("test.xml"));
+    }
+
+    /**
+     * Writes a snapshot of the given configuration into a byte array.
+     *
+     * @param config the configuration
+     * @return the bytes of the snapshot
+     * @throws ConfigurationException if an error occurs
+     */
+    private static byte[] save(final SnapshotConfiguration config)
+            throws ConfigurationException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new FileHandler(config).save(bos);
+        return bos.toByteArray();
+    }
+
+    /**
+     * Loads a snapshot configuration from the given data.
+     *
+     * @param data the bytes of the snapshot
+     * @return the configuration
+     * @throws ConfigurationException if an error occurs
+     */
+    private static SnapshotConfiguration load(final byte[] data)
+            throws ConfigurationException
+    {
+        final SnapshotConfiguration config = new SnapshotConfiguration();
+        new FileHandler(config).load(new ByteArrayInputStream(data));
+        return config;
+    }
+
+    /**
+     * Creates the data of an uncompressed snapshot with the given content.
+     * The header is written, and the passed in numbers are appended as
+     * variable-length integers.
+     *
+     * @param numbers the numbers forming the content of the snapshot
+     * @return the data of the snapshot
+     * @throws IOException if an error occurs
+     */
+    private static byte[] snapshotData(final long... numbers)
+            throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bos);
+        out.writeInt(0x43435346);
+        out.writeByte(1);
+        out.writeByte(0);
+        for (final long n : numbers)
+        {
+            long v = n;
+            while ((v & ~0x7FL) != 0)
+            {
+                out.writeByte((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.writeByte((int) v);
+        }
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    /**
+     * Checks whether two node hierarchies are equal.
+     *
+     * @param expected the expected node
+     * @param actual the actual node
+     */
+    private static void checkNodes(final ImmutableNode expected,
+            final ImmutableNode actual)
+    {
+        assertEquals("Wrong name", expected.getNodeName(),
+                actual.getNodeName());
+        assertEquals("Wrong value of " + expected.getNodeName(),
+                expected.getValue(), actual.getValue());
+        assertEquals("Wrong attributes of " + expected.getNodeName(),
+                expected.getAttributes(), actual.getAttributes());
+        final List<ImmutableNode> children = actual.getChildren();
+        assertEquals("Wrong number of children of " + expected.getNodeName(),
+                expected.getChildren().size(), children.size());
+        final Iterator<ImmutableNode> it = children.iterator();
+        for (final ImmutableNode child : expected)
+        {
+            checkNodes(child, it.next());
+        }
+    }
+
+    /**
+     * Checks whether a snapshot of the test configuration can be written and
+     * read again.
+     *
+     * @param compressed the compressed flag
+     * @return the bytes of the snapshot
+     * @throws ConfigurationException if an error occurs
+     */
+    private byte[] checkRoundTrip(final boolean compressed)
+            throws ConfigurationException
+    {
+        final SnapshotConfiguration snapshot =
+                new SnapshotConfiguration(xmlConfig);
+        snapshot.setCompressed(compressed);
+        final byte[] data = save(snapshot);
+        final SnapshotConfiguration config = load(data);
+        checkNodes(xmlConfig.getNodeModel().getNodeHandler().getRootNode(),
+                config.getNodeModel().getNodeHandler().getRootNode());
+        assertEquals("Wrong attribute", "foo",
+                config.getString("element3[@name]"));
+        assertEquals("Wrong list", xmlConfig.getList("list.item"),
+                config.getList("list.item"));
+        return data;
+    }
+
+    /**
+     * Tests a round trip with an uncompressed snapshot.
+     */
+    @Test
+    public void testRoundTrip() throws ConfigurationException
+    {
+        checkRoundTrip(false);
+    }
+
+    /**
+     * Tests a round trip with a compressed snapshot.
+     */
+    @Test
+    public void testRoundTripCompressed() throws ConfigurationException
+    {
+        final byte[] uncompressed = checkRoundTrip(false);
+        final byte[] compressed = checkRoundTrip(true);
+        assertTrue("Not compressed", compressed.length < uncompressed.length);
+    }
+
+    /**
+     * Tests that the types of values are preserved.
+     */
+    @Test
+    public void testValueTypes() throws ConfigurationException
+    {
+        final SnapshotConfiguration snapshot = new SnapshotConfiguration();
+        snapshot.addProperty("types.int", -42);
+        snapshot.addProperty("types.long", Long.MAX_VALUE);
+        snapshot.addProperty("types.float", 1.5f);
+        snapshot.addProperty("types.double", Math.PI);
+        snapshot.addProperty("types.boolean", Boolean.FALSE);
+        snapshot.addProperty("types.string", "text äöü");
+        snapshot.addProperty("types.other", new BigDecimal("1.25"));
+        snapshot.addProperty("types[@int]", Integer.MIN_VALUE);
+
+        final SnapshotConfiguration config = load(save(snapshot));
+        assertEquals("Wrong int", -42, config.getProperty("types.int"));
+        assertEquals("Wrong long", Long.MAX_VALUE,
+                config.getProperty("types.long"));
+        assertEquals("Wrong float", 1.5f, config.getProperty("types.float"));
+        assertEquals("Wrong double", Math.PI,
+                config.getProperty("types.double"));
+        assertEquals("Wrong boolean", Boolean.FALSE,
+                config.getProperty("types.boolean"));
+        assertEquals("Wrong string", "text äöü",
+                config.getProperty("types.string"));
+        assertEquals("Wrong other", "1.25", config.getProperty("types.other"));
+        assertEquals("Wrong attribute", Integer.MIN_VALUE,
+                config.getProperty("types[@int]"));
+    }
+
+    /**
+     * Tests that the compressed flag is false per default.
+     */
+    @Test
+    public void testCompressedDefault()
+    {
+        assertFalse("Compressed", new SnapshotConfiguration().isCompressed());
+    }
+
+    /**
+     * Tests that invalid data is detected.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadInvalidData() throws ConfigurationException
+    {
+        load("This is not a snapshot".getBytes());
+    }
+
+    /**
+     * Tests that a truncated snapshot is detected.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadTruncatedData() throws ConfigurationException
+    {
+        final byte[] data = save(new SnapshotConfiguration(xmlConfig));
+        final byte[] truncated = new byte[data.length / 2];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        load(truncated);
+    }
+
+    /**
+     * Tests that a huge size of the string table in corrupt data does not
+     * cause a huge allocation.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadCorruptStringTableSize() throws Exception
+    {
+        load(snapshotData(Integer.MAX_VALUE, 1, 'a'));
+    }
+
+    /**
+     * Tests that a huge string length in corrupt data does not cause a huge
+     * allocation.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadCorruptStringLength() throws Exception
+    {
+        load(snapshotData(1, Integer.MAX_VALUE, 'a', 'b'));
+    }
+
+    /**
+     * Tests that huge numbers of attributes and children in corrupt data do
+     * not cause huge allocations.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadCorruptNodeCounts() throws Exception
+    {
+        load(snapshotData(0, 0, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Tests that a corrupt child count is detected.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadCorruptChildCount() throws Exception
+    {
+        load(snapshotData(0, 0, 0, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Tests that a snapshot with a very deep node hierarchy can be read
+     * without a stack overflow.
+     */
+    @Test
+    public void testReadDeepHierarchy() throws Exception
+    {
+        final int depth = 100000;
+        // an empty string table, then for each node: name, value type,
+        // attribute count, child count
+        final long[] numbers = new long[4 * depth + 1];
+        for (int i = 0; i < depth - 1; i++)
+        {
+            numbers[4 * i + 4] = 1;
+        }
+        ImmutableNode node = SnapshotCodec
+                .read(new ByteArrayInputStream(snapshotData(numbers)));
+        int count = 1;
+        while (!node.getChildren().isEmpty())
+        {
+            node = node.getChildren().get(0);
+            count++;
+        }
+        assertEquals("Wrong depth", depth, count);
+    }
+
+    /**
+     * Tests that a snapshot cannot be read from a reader.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testReadReader() throws ConfigurationException
+    {
+        new SnapshotConfiguration().read(new StringReader("test"));
+    }
+
+    /**
+     * Tests that a snapshot cannot be written to a writer.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testWriteWriter() throws ConfigurationException
+    {
+        new SnapshotConfiguration().write(new StringWriter());
+    }
+
+    /**
+     * Tests whether a snapshot file can be loaded by a builder.
+     */
+    @Test
+    public void testLoadWithBuilder() throws Exception
+    {
+        final File file = folder.newFile("test.snapshot");
+        final SnapshotConfiguration snapshot =
+                new SnapshotConfiguration(xmlConfig);
+        snapshot.setCompressed(true);
+        new FileHandler(snapshot).save(file);
+
+        final FileBasedConfigurationBuilder<SnapshotConfiguration> builder =
+                new FileBasedConfigurationBuilder<>(
+                        SnapshotConfiguration.class).configure(new Parameters()
+                        .fileBased().setFile(file));
+        final SnapshotConfiguration config = builder.getConfiguration();
+        assertEquals("Wrong value", xmlConfig.getString("element"),
+                config.getString("element"));
+        assertEquals("Wrong number of keys", xmlConfig.size(), config.size());
+    }
+}
@@ -29,10 +29,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 
 import static org.junit.Assert.assertEquals;
@@ -181,4 +183,80 @@ public class TestYAMLConfiguration
         }
         assertFalse("Java object was created", createdFile.exists());
     }
+
+    @Test
+    public void testLoadManyTopLevelKeys() throws ConfigurationException
+    {
+        final int count = 500;
+        final StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < count; i++)
+        {
+            yaml.append("key").append(i).append(":\n  value: ").append(i)
+                    .append("\n  list: [a").append(i).append(", b")
+                    .append(i).append("]\n");
+        }
+        yamlConfiguration = new YAMLConfiguration();
+        yamlConfiguration.read(new StringReader(yaml.toString()));
+
+        final List<ImmutableNode> children = yamlConfiguration.getNodeModel()
+                .getNodeHandler().getRootNode().getChildren();
+        assertEquals("Wrong number of children", count, children.size());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals("Wrong node name", "key" + i,
+                    children.get(i).getNodeName());
+            assertEquals("Wrong value", i,
+                    yamlConfiguration.getInt("key" + i + ".value"));
+            assertEquals("Wrong list",
+                    Arrays.asList("a" + i, "b" + i),
+                    yamlConfiguration.getList("key" + i + ".list"));
+        }
+    }
+
+    @Test
+    public void testSaveRoundTrip() throws IOException, ConfigurationException
+    {
+        final StringWriter sw = new StringWriter();
+        yamlConfiguration.write(sw);
+        final YAMLConfiguration copy = new YAMLConfiguration();
+        copy.read(new StringReader(sw.toString()));
+
+        final Map<?, ?> expected = new Yaml().loadAs(
+                new FileReader(testYaml), Map.class);
+        final Map<?, ?> actual = new Yaml().loadAs(sw.toString(), Map.class);
+        assertEquals("Different content", expected, actual);
+        assertEquals(37, copy.getInt("int1"));
+        assertEquals(Arrays.asList("col1", "col2"),
+                copy.getList("key4.key5"));
+    }
+
+    @Test
+    public void testDumpOrderAndTypes() throws IOException, ConfigurationException
+    {
+        final YAMLConfiguration config = new YAMLConfiguration();
+        config.addProperty("z.flag", Boolean.TRUE);
+        config.addProperty("z.number", 17);
+        config.addProperty("a", "true");
+        final StringWriter sw = new StringWriter();
+        config.write(sw);
+        assertEquals("Wrong output",
+                "z:\n  flag: true\n  number: 17\na: 'true'\n",
+                sw.toString());
+    }
+
+    @Test
+    public void testDumpAutoFlowStyle() throws IOException, ConfigurationException
+    {
+        final YAMLConfiguration config = new YAMLConfiguration();
+        config.addProperty("list", Arrays.asList("a", "b"));
+        config.addProperty("map.key", "value");
+        final DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.AUTO);
+        final StringWriter sw = new StringWriter();
+        config.dump(sw, options);
+        assertEquals("Wrong output", new Yaml(options).dump(
+                new Yaml().load(sw.toString())), sw.toString());
+        assertEquals("Wrong output", "list: [a, b]\nmap: {key: value}\n",
+                sw.toString());
+    }
 }
@@ -211,6 +211,72 @@ public class TestBeanHelper
         helper.initBean(new BeanCreationTestBean(), data);
     }
 
+    /**
+     * Tests whether multiple beans of the same class can be initialized. In
+     * this case, cached information about the bean class is used.
+     */
+    @Test
+    public void testInitBeanMultipleTimes()
+    {
+        final BeanCreationTestBean bean1 = new BeanCreationTestBean();
+        helper.initBean(bean1, setUpBeanDeclaration());
+        checkBean(bean1);
+
+        final BeanDeclarationTestImpl data = new BeanDeclarationTestImpl();
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("stringValue", "other");
+        properties.put("intValue", Long.valueOf(42));
+        data.setBeanProperties(properties);
+        final BeanCreationTestBean bean2 = new BeanCreationTestBean();
+        helper.initBean(bean2, data);
+        assertEquals("Wrong string property", "other", bean2.getStringValue());
+        assertEquals("Wrong int property", 42, bean2.getIntValue());
+        checkBean(bean1);
+    }
+
+    /**
+     * Tests whether a null value can be assigned to a property of a primitive
+     * type.
+     */
+    @Test
+    public void testInitBeanNullPrimitiveProperty()
+    {
+        final BeanDeclarationTestImpl data = new BeanDeclarationTestImpl();
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("intValue", null);
+        data.setBeanProperties(properties);
+        final BeanCreationTestBean bean = new BeanCreationTestBean();
+        bean.setIntValue(TEST_INT);
+        helper.initBean(bean, data);
+        assertEquals("Wrong int property", 0, bean.getIntValue());
+    }
+
+    /**
+     * Tests whether a nested property can be set.
+     */
+    @Test
+    public void testSetPropertyNested()
+    {
+        final BeanCreationTestBean bean = new BeanCreationTestBean();
+        bean.setBuddy(new BeanCreationTestBean());
+        BeanHelper.setProperty(bean, "buddy.intValue", String.valueOf(TEST_INT));
+        assertEquals("Wrong nested property", TEST_INT,
+                bean.getBuddy().getIntValue());
+    }
+
+    /**
+     * Tests that setProperty() ignores properties which are not writable.
+     */
+    @Test
+    public void testSetPropertyNonExisting()
+    {
+        final BeanCreationTestBean bean = new BeanCreationTestBean();
+        BeanHelper.setProperty(bean, "nonExistingProperty", TEST_STRING);
+        BeanHelper.setProperty(bean, "stringValue", TEST_STRING);
+        assertEquals("Wrong string property", TEST_STRING,
+                bean.getStringValue());
+    }
+
     /**
      * Tests creating a bean. All necessary information is stored in the bean
      * declaration.
@@ -267,6 +267,34 @@ public class TestDefaultBeanFactory
         assertEquals("Wrong parameter type", BeanCreationTestBean.class, paramTypes[0]);
     }
 
+    /**
+     * Tests whether the result of a constructor search is cached and whether
+     * different argument types are taken into account.
+     */
+    @Test
+    public void testFindMatchingConstructorCached()
+    {
+        final BeanDeclarationTestImpl decl = new BeanDeclarationTestImpl();
+        final Collection<ConstructorArg> args = new ArrayList<>();
+        args.add(ConstructorArg.forValue(TEST_STRING, String.class.getName()));
+        decl.setConstructorArgs(args);
+        final Constructor<BeanCreationTestCtorBean> ctor =
+                DefaultBeanFactory.findMatchingConstructor(BeanCreationTestCtorBean.class, decl);
+        assertSame("Different constructor", ctor,
+                DefaultBeanFactory.findMatchingConstructor(BeanCreationTestCtorBean.class, decl));
+        assertEquals("Wrong parameter type", String.class, ctor.getParameterTypes()[0]);
+
+        final BeanDeclarationTestImpl decl2 = new BeanDeclarationTestImpl();
+        final Collection<ConstructorArg> args2 = new ArrayList<>();
+        args2.add(ConstructorArg.forBeanDeclaration(setUpBeanDeclaration(),
+                BeanCreationTestBean.class.getName()));
+        decl2.setConstructorArgs(args2);
+        final Constructor<BeanCreationTestCtorBean> ctor2 =
+                DefaultBeanFactory.findMatchingConstructor(BeanCreationTestCtorBean.class, decl2);
+        assertEquals("Wrong parameter type 2", BeanCreationTestBean.class,
+                ctor2.getParameterTypes()[0]);
+    }
+
     /**
      * Returns an initialized bean declaration.
      *
@@ -18,17 +18,27 @@ package org.apache.commons.configuration2.builder;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
@@ -525,6 +535,250 @@ public class TestBasicConfigurationBuilder
         assertTrue("Got data", config.isEmpty());
     }
 
+    /**
+     * Tests whether the result object can be created in the background.
+     */
+    @Test
+    public void testWarmUp() throws Exception
+    {
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<>(PropertiesConfiguration.class);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final PropertiesConfiguration config =
+                    builder.warmUp(executor).get(10, TimeUnit.SECONDS);
+            assertSame("Wrong result", config, builder.getConfiguration());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests whether an exception during creation of the result object in the
+     * background is reported by the future.
+     */
+    @Test
+    public void testWarmUpError() throws InterruptedException
+    {
+        final BasicConfigurationBuilderInitFailImpl builder =
+                new BasicConfigurationBuilderInitFailImpl(false);
+        try
+        {
+            builder.warmUp(Runnable::run).get();
+            fail("No exception thrown!");
+        }
+        catch (final ExecutionException eex)
+        {
+            assertTrue("Wrong cause: " + eex.getCause(),
+                    eex.getCause() instanceof ConfigurationException);
+        }
+    }
+
+    /**
+     * Tests that concurrent asynchronous requests are combined while the
+     * result object is created.
+     */
+    @Test
+    public void testGetConfigurationAsyncCombinesRequests() throws Exception
+    {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final AtomicInteger createCount = new AtomicInteger();
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class)
+                {
+                    @Override
+                    protected PropertiesConfiguration createResult()
+                            throws ConfigurationException
+                    {
+                        createCount.incrementAndGet();
+                        startLatch.countDown();
+                        try
+                        {
+                            releaseLatch.await(10, TimeUnit.SECONDS);
+                        }
+                        catch (final InterruptedException iex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.createResult();
+                    }
+                };
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try
+        {
+            final CompletableFuture<PropertiesConfiguration> future1 =
+                    builder.getConfigurationAsync(executor);
+            assertTrue("Creation not started",
+                    startLatch.await(10, TimeUnit.SECONDS));
+            final CompletableFuture<PropertiesConfiguration> future2 =
+                    builder.getConfigurationAsync(executor);
+            releaseLatch.countDown();
+
+            final PropertiesConfiguration config =
+                    future1.get(10, TimeUnit.SECONDS);
+            assertSame("Request not combined", config,
+                    future2.get(10, TimeUnit.SECONDS));
+            assertSame("Wrong result", config, builder.getConfiguration());
+            assertSame("Wrong result of new request", config, builder
+                    .getConfigurationAsync(executor).get(10, TimeUnit.SECONDS));
+            assertEquals("Wrong number of created results", 1,
+                    createCount.get());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that cancelling a future returned by getConfigurationAsync() does
+     * not affect other callers of the same request.
+     */
+    @Test
+    public void testGetConfigurationAsyncCancelIsolated() throws Exception
+    {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class)
+                {
+                    @Override
+                    protected PropertiesConfiguration createResult()
+                            throws ConfigurationException
+                    {
+                        startLatch.countDown();
+                        try
+                        {
+                            releaseLatch.await(10, TimeUnit.SECONDS);
+                        }
+                        catch (final InterruptedException iex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.createResult();
+                    }
+                };
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try
+        {
+            final CompletableFuture<PropertiesConfiguration> future1 =
+                    builder.getConfigurationAsync(executor);
+            assertTrue("Creation not started",
+                    startLatch.await(10, TimeUnit.SECONDS));
+            final CompletableFuture<PropertiesConfiguration> future2 =
+                    builder.getConfigurationAsync(executor);
+            assertTrue("Not cancelled", future1.cancel(false));
+            releaseLatch.countDown();
+
+            assertSame("Wrong result", builder.getConfiguration(),
+                    future2.get(10, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that an Error thrown while creating the result object completes
+     * the future exceptionally and does not block later requests.
+     */
+    @Test
+    public void testGetConfigurationAsyncError() throws Exception
+    {
+        final AtomicInteger createCount = new AtomicInteger();
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<PropertiesConfiguration>(
+                        PropertiesConfiguration.class)
+                {
+                    @Override
+                    protected PropertiesConfiguration createResult()
+                            throws ConfigurationException
+                    {
+                        if (createCount.getAndIncrement() == 0)
+                        {
+                            throw new AssertionError("Test error");
+                        }
+                        return super.createResult();
+                    }
+                };
+        try
+        {
+            builder.getConfigurationAsync(Runnable::run).get();
+            fail("No exception thrown!");
+        }
+        catch (final ExecutionException eex)
+        {
+            assertTrue("Wrong cause: " + eex.getCause(),
+                    eex.getCause() instanceof AssertionError);
+        }
+        assertNotNull("Request still pending",
+                builder.getConfigurationAsync(Runnable::run).get());
+    }
+
+    /**
+     * Tests that a request which is pending while the builder is reset is not
+     * joined by later callers.
+     */
+    @Test
+    public void testGetConfigurationAsyncResetWhilePending() throws Exception
+    {
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<>(PropertiesConfiguration.class);
+        final List<Runnable> tasks = new ArrayList<>();
+        final CompletableFuture<PropertiesConfiguration> future1 =
+                builder.getConfigurationAsync(tasks::add);
+        final PropertiesConfiguration config1 = builder.getConfiguration();
+        builder.resetResult();
+
+        final CompletableFuture<PropertiesConfiguration> future2 =
+                builder.getConfigurationAsync(Runnable::run);
+        assertTrue("Pending request joined", future2.isDone());
+        assertNotSame("Stale result", config1, future2.get());
+        tasks.get(0).run();
+        assertSame("Wrong result of pending request", future2.get(),
+                future1.get());
+    }
+
+    /**
+     * Tests that no task is executed if the result object already exists.
+     */
+    @Test
+    public void testGetConfigurationAsyncExistingResult() throws Exception
+    {
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<>(PropertiesConfiguration.class);
+        final PropertiesConfiguration config = builder.getConfiguration();
+        final CompletableFuture<PropertiesConfiguration> future =
+                builder.getConfigurationAsync(task -> {
+                    throw new AssertionError("Unexpected task");
+                });
+        assertSame("Wrong result", config, future.get());
+    }
+
+    /**
+     * Tests getConfigurationAsync() if the executor rejects the task.
+     */
+    @Test
+    public void testGetConfigurationAsyncRejected() throws Exception
+    {
+        final BasicConfigurationBuilder<PropertiesConfiguration> builder =
+                new BasicConfigurationBuilder<>(PropertiesConfiguration.class);
+        final CompletableFuture<PropertiesConfiguration> future =
+                builder.getConfigurationAsync(task -> {
+                    throw new RejectedExecutionException("Test exception");
+                });
+        assertTrue("Not failed", future.isCompletedExceptionally());
+        assertNotNull("Request still pending",
+                builder.getConfigurationAsync(Runnable::run).get());
+    }
+
     /**
      * Tests whether a configuration implementing {@code Initializable} is
      * correctly handled.
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.reloading.ReloadingController;
+import org.apache.commons.configuration2.reloading.ReloadingDetector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A test class which accesses configuration builders from many threads
+ * concurrently. The tests check that result objects are created consistently
+ * and that reloading detectors are never accessed concurrently.
+ *
+ */
+public class TestBuilderConcurrency
+{
+    /** Constant for the name of the test property. */
+    private static final String PROP = "testProperty";
+
+    /** Constant for the number of threads. */
+    private static final int THREAD_COUNT = 32;
+
+    /** Constant for the number of operations executed by each thread. */
+    private static final int ITERATIONS = 500;
+
+    /** Helper object for managing temporary files. */
+    @Rule
+    public TemporaryFolder folder = TemporaryFolder.builder().assureDeletion().build();
+
+    /** The executor for running the test threads. */
+    private ExecutorService executor;
+
+    /** The test file. */
+    private File testFile;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        testFile = folder.newFile();
+        try (Writer out = new FileWriter(testFile))
+        {
+            out.write(PROP + " = 42");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executes the given task concurrently in all test threads and checks
+     * that no exceptions occurred.
+     *
+     * @param task the task to be executed
+     * @throws InterruptedException if waiting is interrupted
+     */
+    private void runConcurrently(final ConcurrentTask task)
+            throws InterruptedException
+    {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(THREAD_COUNT);
+        final Collection<Throwable> errors = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < THREAD_COUNT; i++)
+        {
+            executor.execute(() -> {
+                try
+                {
+                    startLatch.await();
+                    for (int j = 0; j < ITERATIONS; j++)
+                    {
+                        task.execute(ThreadLocalRandom.current().nextInt(100));
+                    }
+                }
+                catch (final Throwable t)
+                {
+                    errors.add(t);
+                }
+                finally
+                {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertTrue("Timeout", endLatch.await(2, TimeUnit.MINUTES));
+        assertTrue("Errors occurred: " + errors, errors.isEmpty());
+    }
+
+    /**
+     * Tests that concurrent requests for the result object of a file-based
+     * builder always yield a correctly loaded configuration, even if the
+     * builder is reset concurrently.
+     */
+    @Test
+    public void testGetConfigurationWithResets() throws Exception
+    {
+        final FileBasedConfigurationBuilder<PropertiesConfiguration> builder =
+                new FileBasedConfigurationBuilder<>(
+                        PropertiesConfiguration.class)
+                        .configure(new FileBasedBuilderParametersImpl()
+                                .setFile(testFile));
+        final ExecutorService asyncExecutor = Executors.newFixedThreadPool(4);
+        try
+        {
+            runConcurrently(dice -> {
+                final PropertiesConfiguration config;
+                if (dice < 5)
+                {
+                    builder.resetResult();
+                    return;
+                }
+                else if (dice < 20)
+                {
+                    config = builder.getConfigurationAsync(asyncExecutor)
+                            .get(1, TimeUnit.MINUTES);
+                }
+                else
+                {
+                    config = builder.getConfiguration();
+                }
+                assertEquals("Wrong property", 42, config.getInt(PROP));
+            });
+        }
+        finally
+        {
+            asyncExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that the reloading detector of a reloading builder is never
+     * accessed concurrently while reloading checks, reloads, and requests for
+     * the result object happen in parallel.
+     */
+    @Test
+    public void testReloadingDetectorNotAccessedConcurrently() throws Exception
+    {
+        final ConcurrencyCheckingDetector detector =
+                new ConcurrencyCheckingDetector();
+        final ReloadingFileBasedConfigurationBuilder<PropertiesConfiguration> builder =
+                new ReloadingFileBasedConfigurationBuilder<>(
+                        PropertiesConfiguration.class)
+                        .configure(new FileBasedBuilderParametersImpl()
+                                .setFile(testFile)
+                                .setReloadingDetectorFactory(
+                                        (handler, params) -> detector));
+        final ReloadingController controller =
+                builder.getReloadingController();
+        runConcurrently(dice -> {
+            if (dice < 30)
+            {
+                controller.checkForReloading(null);
+            }
+            else
+            {
+                assertEquals("Wrong property", 42,
+                        builder.getConfiguration().getInt(PROP));
+            }
+        });
+        assertEquals("Concurrent access to detector", 0,
+                detector.getViolationCount());
+        assertTrue("No reloads", detector.getReloadCount() > 0);
+    }
+
+    /**
+     * Definition of a task executed by the test threads.
+     */
+    @FunctionalInterface
+    private interface ConcurrentTask
+    {
+        /**
+         * Executes an operation.
+         *
+         * @param dice a random number between 0 and 99 which can be used to
+         *        select the operation
+         * @throws Exception if an error occurs
+         */
+        void execute(int dice) throws Exception;
+    }
+
+    /**
+     * A test reloading detector which records whether it is accessed by
+     * multiple threads concurrently. It requests a reload randomly.
+     */
+    private static class ConcurrencyCheckingDetector implements
+            ReloadingDetector
+    {
+        /** The number of threads currently accessing this object. */
+        private final AtomicInteger activeCount = new AtomicInteger();
+
+        /** The number of detected concurrent accesses. */
+        private final AtomicInteger violationCount = new AtomicInteger();
+
+        /** The number of performed reloads. */
+        private final AtomicInteger reloadCount = new AtomicInteger();
+
+        @Override
+        public boolean isReloadingRequired()
+        {
+            enter();
+            try
+            {
+                Thread.yield();
+                return ThreadLocalRandom.current().nextInt(10) == 0;
+            }
+            finally
+            {
+                leave();
+            }
+        }
+
+        @Override
+        public void reloadingPerformed()
+        {
+            enter();
+            try
+            {
+                reloadCount.incrementAndGet();
+            }
+            finally
+            {
+                leave();
+            }
+        }
+
+        /**
+         * Returns the number of concurrent accesses.
+         *
+         * @return the number of concurrent accesses
+         */
+        public int getViolationCount()
+        {
+            return violationCount.get();
+        }
+
+        /**
+         * Returns the number of reloads.
+         *
+         * @return the number of reloads
+         */
+        public int getReloadCount()
+        {
+            return reloadCount.get();
+        }
+
+        /**
+         * Records that a thread accesses this object.
+         */
+        private void enter()
+        {
+            if (activeCount.incrementAndGet() > 1)
+            {
+                violationCount.incrementAndGet();
+            }
+        }
+
+        /**
+         * Records that a thread no longer accesses this object.
+         */
+        private void leave()
+        {
+            activeCount.decrementAndGet();
+        }
+    }
+}
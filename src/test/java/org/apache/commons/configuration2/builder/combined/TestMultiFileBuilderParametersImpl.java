@@ -107,6 +107,27 @@ public class TestMultiFileBuilderParametersImpl
                 params.getManagedBuilderParameters());
     }
 
+    /**
+     * Tests whether the settings for discarding managed builders can be set.
+     */
+    @Test
+    public void testSetManagedBuilderLimits()
+    {
+        assertEquals("Wrong default maximum", 0,
+                params.getMaxManagedBuilders());
+        assertEquals("Wrong default idle time", 0,
+                params.getManagedBuilderIdleTime());
+        assertSame("Wrong result", params, params.setMaxManagedBuilders(100));
+        assertSame("Wrong result (2)", params,
+                params.setManagedBuilderIdleTime(60000));
+        assertEquals("Maximum not set", 100, params.getMaxManagedBuilders());
+        assertEquals("Idle time not set", 60000,
+                params.getManagedBuilderIdleTime());
+        params.setMaxManagedBuilders(-1);
+        assertEquals("Negative maximum accepted", 0,
+                params.getMaxManagedBuilders());
+    }
+
     /**
      * Tests whether bean property access is possible.
      */
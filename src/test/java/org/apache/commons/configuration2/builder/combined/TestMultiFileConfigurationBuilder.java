@@ -25,8 +25,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.configuration2.ConfigurationLookup;
 import org.apache.commons.configuration2.DynamicCombinedConfiguration;
@@ -459,4 +465,195 @@ public class TestMultiFileConfigurationBuilder extends AbstractMultiFileConfigur
                 HierarchicalConfiguration.class, builder), "Multi");
         assertTrue("Got configuration data", config.isEmpty());
     }
+
+    /**
+     * Tests whether the number of managed builders can be limited.
+     */
+    @Test
+    public void testMaxManagedBuilders() throws ConfigurationException
+    {
+        final List<FileBasedConfigurationBuilder<XMLConfiguration>> managedBuilders =
+                new ArrayList<>();
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createBuilderWithAccessToManagedBuilders(managedBuilders);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN).setMaxManagedBuilders(2)
+                .setInterpolator(createInterpolator()));
+        for (int i = 1; i <= 3; i++)
+        {
+            switchToConfig(i);
+            builder.getConfiguration();
+        }
+        assertEquals("Wrong number of created builders", 3,
+                managedBuilders.size());
+        assertEquals("Wrong number of managed builders", 2,
+                builder.getManagedBuilders().size());
+        assertFalse("Oldest builder not discarded", builder
+                .getManagedBuilders().containsValue(managedBuilders.get(0)));
+
+        switchToConfig(3);
+        assertSame("Wrong managed builder", managedBuilders.get(2),
+                builder.getManagedBuilder());
+        switchToConfig(1);
+        builder.getConfiguration();
+        assertEquals("Discarded builder not recreated", 4,
+                managedBuilders.size());
+    }
+
+    /**
+     * Tests whether builder events of a discarded managed builder are no
+     * longer propagated.
+     */
+    @Test
+    public void testDiscardedBuilderNotConnected() throws ConfigurationException
+    {
+        final List<FileBasedConfigurationBuilder<XMLConfiguration>> managedBuilders =
+                new ArrayList<>();
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createBuilderWithAccessToManagedBuilders(managedBuilders);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN).setMaxManagedBuilders(1)
+                .setInterpolator(createInterpolator()));
+        switchToConfig(1);
+        builder.getConfiguration();
+        switchToConfig(2);
+        builder.getConfiguration();
+        final BuilderEventListenerImpl listener = new BuilderEventListenerImpl();
+        builder.addEventListener(ConfigurationBuilderEvent.ANY, listener);
+
+        managedBuilders.get(0).resetResult();
+        listener.assertNoMoreEvents();
+    }
+
+    /**
+     * Tests that a change of the maximum number of managed builders in the
+     * parameters object is taken into account.
+     */
+    @Test
+    public void testChangedMaxManagedBuilders() throws ConfigurationException
+    {
+        final MultiFileBuilderParametersImpl params =
+                new MultiFileBuilderParametersImpl().setFilePattern(PATTERN);
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                new MultiFileConfigurationBuilder<>(XMLConfiguration.class);
+        builder.configure(params.setInterpolator(createInterpolator()));
+        switchToConfig(1);
+        builder.getConfiguration();
+        switchToConfig(2);
+        builder.getConfiguration();
+
+        params.setMaxManagedBuilders(1);
+        switchToConfig(3);
+        builder.getConfiguration();
+        assertEquals("Changed limit ignored", 1,
+                builder.getManagedBuilders().size());
+    }
+
+    /**
+     * Tests that a file pattern without variables can be used.
+     */
+    @Test
+    public void testConstantFilePattern() throws ConfigurationException
+    {
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                new MultiFileConfigurationBuilder<>(XMLConfiguration.class);
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN.replace(PATTERN_VAR, "1001")));
+        switchToConfig(2);
+        assertEquals("Wrong property", "15",
+                builder.getConfiguration().getString("rowsPerPage"));
+        assertEquals("Wrong file name", PATTERN.replace(PATTERN_VAR, "1001"),
+                builder.getManagedBuilder().getFileHandler().getFileName());
+    }
+
+    /**
+     * Tests that a changed file pattern is taken into account.
+     */
+    @Test
+    public void testChangedFilePattern() throws ConfigurationException
+    {
+        final MultiFileBuilderParametersImpl params =
+                new MultiFileBuilderParametersImpl()
+                        .setFilePattern(PATTERN.replace(PATTERN_VAR, "1001"));
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                new MultiFileConfigurationBuilder<>(XMLConfiguration.class);
+        builder.configure(params);
+        final FileBasedConfigurationBuilder<XMLConfiguration> managedBuilder =
+                builder.getManagedBuilder();
+        builder.configure(new MultiFileBuilderParametersImpl()
+                .setFilePattern(PATTERN.replace(PATTERN_VAR, "1002")));
+        assertEquals("Wrong file name", PATTERN.replace(PATTERN_VAR, "1002"),
+                builder.getManagedBuilder().getFileHandler().getFileName());
+        assertNotSame("Same builder", managedBuilder,
+                builder.getManagedBuilder());
+    }
+
+    /**
+     * Tests whether the configurations for multiple file names can be loaded
+     * in the background.
+     */
+    @Test
+    public void testWarmUpFileNames() throws Exception
+    {
+        final List<FileBasedConfigurationBuilder<XMLConfiguration>> managedBuilders =
+                new ArrayList<>();
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createBuilderWithAccessToManagedBuilders(managedBuilders);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            builder.warmUp(
+                    Arrays.asList(PATTERN.replace(PATTERN_VAR, "1001"),
+                            PATTERN.replace(PATTERN_VAR, "1002")), executor)
+                    .get(10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertEquals("Wrong number of managed builders", 2,
+                managedBuilders.size());
+
+        switchToConfig(2);
+        assertEquals("Wrong property", 25,
+                builder.getConfiguration().getInt("rowsPerPage"));
+        assertEquals("Builder was created", 2, managedBuilders.size());
+    }
+
+    /**
+     * Tests whether the file name pattern is evaluated in the calling thread
+     * when the current configuration is loaded in the background.
+     */
+    @Test
+    public void testWarmUpCurrentPattern() throws Exception
+    {
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                createTestBuilder(null);
+        switchToConfig(3);
+        final XMLConfiguration config =
+                builder.warmUp(Runnable::run).get();
+        assertEquals("Wrong property", 35, config.getInt("rowsPerPage"));
+        assertSame("Wrong configuration", config, builder.getConfiguration());
+    }
+
+    /**
+     * Tests warmUp() if no file name pattern is set.
+     */
+    @Test
+    public void testWarmUpNoPattern() throws InterruptedException
+    {
+        final MultiFileConfigurationBuilder<XMLConfiguration> builder =
+                new MultiFileConfigurationBuilder<>(XMLConfiguration.class);
+        try
+        {
+            builder.warmUp(Collections.singleton("test.xml"), Runnable::run)
+                    .get();
+            fail("No exception thrown!");
+        }
+        catch (final ExecutionException eex)
+        {
+            assertTrue("Wrong cause: " + eex.getCause(),
+                    eex.getCause() instanceof ConfigurationException);
+        }
+    }
 }
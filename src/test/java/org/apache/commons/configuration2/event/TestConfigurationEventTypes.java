@@ -230,6 +230,15 @@ public class TestConfigurationEventTypes
         checkHierarchicalEvent(ConfigurationEvent.SUBNODE_CHANGED);
     }
 
+    /**
+     * Tests the event type for a batch update.
+     */
+    @Test
+    public void testBatchUpdateEventType()
+    {
+        checkHierarchicalEvent(ConfigurationEvent.BATCH_UPDATE);
+    }
+
     /**
      * Tests the common base event type for error events.
      */
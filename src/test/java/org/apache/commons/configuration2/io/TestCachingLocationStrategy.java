@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.apache.commons.configuration2.ConfigurationAssert;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@code CachingLocationStrategy}.
+ *
+ */
+public class TestCachingLocationStrategy
+{
+    /** A helper object for creating temporary files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** A mock for the file system. */
+    private FileSystem fileSystem;
+
+    /** A mock for the wrapped strategy. */
+    private FileLocationStrategy wrappedStrategy;
+
+    /** The strategy to be tested. */
+    private CachingLocationStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        fileSystem = EasyMock.createMock(FileSystem.class);
+        EasyMock.replay(fileSystem);
+        wrappedStrategy = EasyMock.createMock(FileLocationStrategy.class);
+        strategy = new CachingLocationStrategy(wrappedStrategy);
+    }
+
+    /**
+     * Creates a locator for the given file name.
+     *
+     * @param fileName the file name
+     * @return the locator
+     */
+    private static FileLocator locator(final String fileName)
+    {
+        return FileLocatorUtils.fileLocator().fileName(fileName).create();
+    }
+
+    /**
+     * Tries to create an instance without a wrapped strategy.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInitNoStrategy()
+    {
+        new CachingLocationStrategy(null);
+    }
+
+    /**
+     * Tests whether the default strategy is wrapped by the default
+     * constructor.
+     */
+    @Test
+    public void testInitDefaultStrategy()
+    {
+        assertSame("Wrong wrapped strategy",
+                FileLocatorUtils.DEFAULT_LOCATION_STRATEGY,
+                new CachingLocationStrategy().getStrategy());
+    }
+
+    /**
+     * Tests that a resolved URL is cached.
+     */
+    @Test
+    public void testLocateCached()
+    {
+        final URL url = ConfigurationAssert.getTestURL("test.xml");
+        final FileLocator locator = locator("test.xml");
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(url);
+        EasyMock.replay(wrappedStrategy);
+
+        assertSame("Wrong URL (1)", url, strategy.locate(fileSystem, locator));
+        assertSame("Wrong URL (2)", url,
+                strategy.locate(fileSystem, locator("test.xml")));
+        assertEquals("Wrong cache size", 1, strategy.size());
+        EasyMock.verify(wrappedStrategy);
+    }
+
+    /**
+     * Tests that the file system is part of the cache key.
+     */
+    @Test
+    public void testLocateDifferentFileSystem()
+    {
+        final URL url = ConfigurationAssert.getTestURL("test.xml");
+        final FileLocator locator = locator("test.xml");
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(url);
+        EasyMock.expect(
+                wrappedStrategy.locate(FileLocatorUtils.DEFAULT_FILE_SYSTEM,
+                        locator)).andReturn(url);
+        EasyMock.replay(wrappedStrategy);
+
+        strategy.locate(fileSystem, locator);
+        strategy.locate(FileLocatorUtils.DEFAULT_FILE_SYSTEM, locator);
+        EasyMock.verify(wrappedStrategy);
+    }
+
+    /**
+     * Tests that unresolved locators are not cached.
+     */
+    @Test
+    public void testLocateNotFoundNotCached()
+    {
+        final FileLocator locator = locator("unknown.xml");
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(null).times(2);
+        EasyMock.replay(wrappedStrategy);
+
+        assertNull("Got a URL (1)", strategy.locate(fileSystem, locator));
+        assertNull("Got a URL (2)", strategy.locate(fileSystem, locator));
+        assertEquals("Wrong cache size", 0, strategy.size());
+        EasyMock.verify(wrappedStrategy);
+    }
+
+    /**
+     * Tests that a cached URL to a file which was removed is invalidated.
+     */
+    @Test
+    public void testLocateRemovedFile() throws IOException
+    {
+        final File file = folder.newFile("test.properties");
+        final URL url = FileLocatorUtils.toURL(file);
+        final URL url2 = ConfigurationAssert.getTestURL("test.properties");
+        final FileLocator locator = locator("test.properties");
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(url);
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(url2);
+        EasyMock.replay(wrappedStrategy);
+
+        assertSame("Wrong URL (1)", url, strategy.locate(fileSystem, locator));
+        assertSame("Wrong URL (2)", url, strategy.locate(fileSystem, locator));
+        file.delete();
+        assertSame("Wrong URL (3)", url2,
+                strategy.locate(fileSystem, locator));
+        EasyMock.verify(wrappedStrategy);
+    }
+
+    /**
+     * Tests whether the cache can be cleared.
+     */
+    @Test
+    public void testClear()
+    {
+        final URL url = ConfigurationAssert.getTestURL("test.xml");
+        final FileLocator locator = locator("test.xml");
+        EasyMock.expect(wrappedStrategy.locate(fileSystem, locator))
+                .andReturn(url).times(2);
+        EasyMock.replay(wrappedStrategy);
+
+        strategy.locate(fileSystem, locator);
+        strategy.clear();
+        strategy.locate(fileSystem, locator);
+        EasyMock.verify(wrappedStrategy);
+    }
+
+    /**
+     * Tests whether the size of the cache can be limited.
+     */
+    @Test
+    public void testMaximumSize()
+    {
+        final URL url = ConfigurationAssert.getTestURL("test.xml");
+        EasyMock.expect(
+                wrappedStrategy.locate(EasyMock.eq(fileSystem),
+                        EasyMock.anyObject(FileLocator.class))).andReturn(url)
+                .anyTimes();
+        EasyMock.replay(wrappedStrategy);
+        strategy.setMaximumSize(10);
+
+        for (int i = 0; i < 50; i++)
+        {
+            strategy.locate(fileSystem, locator("test" + i + ".xml"));
+        }
+        assertEquals("Wrong maximum size", 10, strategy.getMaximumSize());
+        assertEquals("Wrong cache size", 10, strategy.size());
+    }
+
+    /**
+     * Tests the strategy in a locate() operation of {@code FileLocatorUtils}.
+     */
+    @Test
+    public void testLocateViaFileLocatorUtils()
+    {
+        final CachingLocationStrategy cachingStrategy =
+                new CachingLocationStrategy();
+        final FileLocator locator =
+                FileLocatorUtils.fileLocator().fileName("test.xml")
+                        .locationStrategy(cachingStrategy).create();
+        final URL url = FileLocatorUtils.locate(locator);
+        assertEquals("Wrong URL", ConfigurationAssert.getTestURL("test.xml"),
+                url);
+        assertSame("Not cached", url, FileLocatorUtils.locate(locator));
+    }
+}
@@ -33,6 +33,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
@@ -1329,6 +1330,21 @@ public class TestFileHandler
         EasyMock.verify(content);
     }
 
+    /**
+     * Tests whether data can be written directly to an output stream.
+     */
+    @Test
+    public void testSaveOutputStreamSupport() throws ConfigurationException
+    {
+        final FileBasedOutputStreamSupportTestImpl content =
+                new FileBasedOutputStreamSupportTestImpl();
+        final FileHandler handler = new FileHandler(content);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        handler.save(bos);
+        assertEquals("Wrong content", "OutputStream = " + CONTENT,
+                bos.toString());
+    }
+
     /**
      * Tests whether a load() operation is correctly synchronized.
      */
@@ -1582,6 +1598,21 @@ public class TestFileHandler
         }
     }
 
+    /**
+     * A test implementation of FileBased which can also write to output
+     * streams.
+     */
+    private static class FileBasedOutputStreamSupportTestImpl extends
+            FileBasedTestImpl implements OutputStreamSupport
+    {
+        @Override
+        public void write(final OutputStream out)
+                throws ConfigurationException, IOException
+        {
+            out.write(("OutputStream = " + getContent()).getBytes());
+        }
+    }
+
     /**
      * A FileBased implementation which also implements FileLocatorAware. This
      * class adds information about the current file locator to the content read
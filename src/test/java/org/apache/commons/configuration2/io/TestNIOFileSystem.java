@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+import org.apache.commons.configuration2.PropertiesConfiguration;
+import org.apache.commons.configuration2.builder.FileBasedConfigurationBuilder;
+import org.apache.commons.configuration2.builder.fluent.Parameters;
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for {@code NIOFileSystem}.
+ *
+ */
+public class TestNIOFileSystem
+{
+    /** Constant for the name of the test file. */
+    private static final String FILE_NAME = "test.properties";
+
+    /** A helper object for creating temporary files. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** The file system to be tested. */
+    private NIOFileSystem fileSystem;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        fileSystem = new NIOFileSystem();
+    }
+
+    /**
+     * Writes the given content into the test file.
+     *
+     * @param content the content
+     * @return the test file
+     * @throws IOException if an error occurs
+     */
+    private File writeTestFile(final String content) throws IOException
+    {
+        final File file = new File(folder.getRoot(), FILE_NAME);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Returns the content of the given file as string.
+     *
+     * @param file the file
+     * @return the content of this file
+     * @throws IOException if an error occurs
+     */
+    private static String readFile(final File file) throws IOException
+    {
+        return new String(Files.readAllBytes(file.toPath()),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a file handler for the given configuration which uses the test
+     * file system.
+     *
+     * @param content the content of the handler
+     * @return the file handler
+     */
+    private FileHandler createHandler(final FileBased content)
+    {
+        final FileHandler handler = new FileHandler(content);
+        handler.setFileSystem(fileSystem);
+        return handler;
+    }
+
+    /**
+     * Checks that no temporary files are left in the test directory.
+     */
+    private void checkNoTempFiles()
+    {
+        assertArrayEquals("Temporary files found", new String[] {
+                FILE_NAME
+        }, folder.getRoot().list());
+    }
+
+    /**
+     * Tests that an invalid buffer size is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBufferSize()
+    {
+        new NIOFileSystem(0);
+    }
+
+    /**
+     * Tests whether a file can be loaded.
+     */
+    @Test
+    public void testLoad() throws IOException, ConfigurationException
+    {
+        final File file = writeTestFile("key = value\nnumber = 42\n");
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        createHandler(config).load(file);
+        assertEquals("Wrong value", "value", config.getString("key"));
+        assertEquals("Wrong number", 42, config.getInt("number"));
+    }
+
+    /**
+     * Tests that a directory cannot be loaded.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadDirectory() throws ConfigurationException,
+            IOException
+    {
+        fileSystem.getInputStream(FileLocatorUtils.toURL(folder.getRoot()));
+    }
+
+    /**
+     * Tests the exception thrown when loading a non-existing file.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testLoadNonExistingFile() throws ConfigurationException,
+            IOException
+    {
+        fileSystem.getInputStream(FileLocatorUtils.toURL(new File(folder
+                .getRoot(), "nonExisting.properties")));
+    }
+
+    /**
+     * Tests that an output stream cannot be obtained for a directory.
+     */
+    @Test(expected = ConfigurationException.class)
+    public void testGetOutputStreamDirectory() throws ConfigurationException
+    {
+        fileSystem.getOutputStream(folder.getRoot());
+    }
+
+    /**
+     * Tests whether a new file can be saved.
+     */
+    @Test
+    public void testSaveNewFile() throws IOException, ConfigurationException
+    {
+        final File file = new File(folder.getRoot(), FILE_NAME);
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.addProperty("key", "value");
+        createHandler(config).save(file);
+
+        final PropertiesConfiguration config2 = new PropertiesConfiguration();
+        createHandler(config2).load(file);
+        assertEquals("Wrong value", "value", config2.getString("key"));
+        checkNoTempFiles();
+    }
+
+    /**
+     * Tests whether missing directories are created when saving a file.
+     */
+    @Test
+    public void testSaveCreatesDirectories() throws ConfigurationException
+    {
+        final File file = new File(folder.getRoot(), "sub/dir/" + FILE_NAME);
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.addProperty("key", "value");
+        createHandler(config).save(file);
+        assertTrue("File not created", file.isFile());
+    }
+
+    /**
+     * Tests whether an existing file is replaced when saving.
+     */
+    @Test
+    public void testSaveReplacesExistingFile() throws IOException,
+            ConfigurationException
+    {
+        final File file = writeTestFile("key = oldValue\n");
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        final FileHandler handler = createHandler(config);
+        handler.load(file);
+        config.setProperty("key", "newValue");
+        handler.save(file);
+
+        final PropertiesConfiguration config2 = new PropertiesConfiguration();
+        createHandler(config2).load(file);
+        assertEquals("Wrong value", "newValue", config2.getString("key"));
+        checkNoTempFiles();
+    }
+
+    /**
+     * Tests that a new file gets the same permissions as other newly created
+     * files.
+     */
+    @Test
+    public void testSaveNewFilePermissions() throws IOException,
+            ConfigurationException
+    {
+        final Path refFile = folder.newFile("reference.txt").toPath();
+        final PosixFileAttributeView refView = Files.getFileAttributeView(
+                refFile, PosixFileAttributeView.class);
+        assumeTrue("No POSIX file system", refView != null);
+        final File file = new File(folder.getRoot(), FILE_NAME);
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.addProperty("key", "value");
+        createHandler(config).save(file);
+
+        assertEquals("Wrong permissions", refView.readAttributes()
+                .permissions(), Files.getPosixFilePermissions(file.toPath()));
+    }
+
+    /**
+     * Tests that saving to a symbolic link replaces the file the link points
+     * to and keeps the link.
+     */
+    @Test
+    public void testSaveSymbolicLink() throws IOException,
+            ConfigurationException
+    {
+        final File realFile = new File(folder.newFolder("real"), FILE_NAME);
+        Files.write(realFile.toPath(),
+                "key = oldValue\n".getBytes(StandardCharsets.UTF_8));
+        final Path link = folder.getRoot().toPath().resolve(FILE_NAME);
+        try
+        {
+            Files.createSymbolicLink(link, realFile.toPath());
+        }
+        catch (final UnsupportedOperationException | IOException ex)
+        {
+            assumeTrue("Symbolic links not supported", false);
+        }
+        final PropertiesConfiguration config = new PropertiesConfiguration();
+        config.addProperty("key", "newValue");
+        createHandler(config).save(link.toFile());
+
+        assertTrue("Link replaced", Files.isSymbolicLink(link));
+        final PropertiesConfiguration config2 = new PropertiesConfiguration();
+        createHandler(config2).load(realFile);
+        assertEquals("Wrong value", "newValue", config2.getString("key"));
+        assertArrayEquals("Temporary files found", new String[] {
+                FILE_NAME
+        }, realFile.getParentFile().list());
+    }
+
+    /**
+     * Tests that the target file is not touched if a save operation fails.
+     */
+    @Test
+    public void testSaveErrorKeepsExistingFile() throws IOException
+    {
+        final String content = "key = value\n";
+        final File file = writeTestFile(content);
+        try
+        {
+            createHandler(new FailingFileBased()).save(file);
+            fail("Exception not thrown!");
+        }
+        catch (final ConfigurationException cex)
+        {
+            assertEquals("Wrong content", content, readFile(file));
+            checkNoTempFiles();
+        }
+    }
+
+    /**
+     * Tests whether the data written to the stream is discarded on abort.
+     */
+    @Test
+    public void testAbort() throws IOException, ConfigurationException
+    {
+        final File file = writeTestFile("key = value\n");
+        final AtomicFileOutputStream out =
+                (AtomicFileOutputStream) fileSystem.getOutputStream(file);
+        out.write("other = value".getBytes(StandardCharsets.UTF_8));
+        out.abort();
+        out.close();
+        assertFalse("Temporary file not deleted",
+                Files.exists(out.getTempFile()));
+        assertEquals("Wrong content", "key = value\n", readFile(file));
+    }
+
+    /**
+     * Tests whether the file system can be used by a configuration builder.
+     */
+    @Test
+    public void testBuilderWithFileSystem() throws IOException,
+            ConfigurationException
+    {
+        final File file = writeTestFile("key = value\n");
+        final FileBasedConfigurationBuilder<PropertiesConfiguration> builder =
+                new FileBasedConfigurationBuilder<>(
+                        PropertiesConfiguration.class).configure(new Parameters()
+                        .properties().setFile(file).setFileSystem(fileSystem));
+        final PropertiesConfiguration config = builder.getConfiguration();
+        assertEquals("Wrong value", "value", config.getString("key"));
+        config.setProperty("key", "newValue");
+        builder.save();
+
+        assertTrue("Wrong content",
+                readFile(file).contains("key = newValue"));
+        checkNoTempFiles();
+    }
+
+    /**
+     * A test implementation of {@code FileBased} which fails after writing
+     * some data.
+     */
+    private static class FailingFileBased implements FileBased
+    {
+        @Override
+        public void read(final Reader in) throws ConfigurationException,
+                IOException
+        {
+        }
+
+        @Override
+        public void write(final Writer out) throws ConfigurationException,
+                IOException
+        {
+            out.write("partial = data\n");
+            out.flush();
+            throw new IOException("Test exception");
+        }
+    }
+}
@@ -16,7 +16,9 @@
  */
 package org.apache.commons.configuration2.tree;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -85,6 +87,50 @@ public abstract class AbstractCombinerTest
         return result;
     }
 
+    /**
+     * Creates a node with a large number of children. The children are named
+     * {@code key<i>} for the indices in the given range; each of them has a
+     * single child {@code value} whose value is the given prefix followed by
+     * the index.
+     *
+     * @param from the index of the first child
+     * @param to the index after the last child
+     * @param prefix the prefix for the values
+     * @return the root node of the wide structure
+     */
+    protected static ImmutableNode createWideNode(final int from, final int to,
+            final String prefix)
+    {
+        final ImmutableNode.Builder root = new ImmutableNode.Builder(to - from);
+        for (int i = from; i < to; i++)
+        {
+            root.addChild(new ImmutableNode.Builder().name("key" + i)
+                    .addChild(NodeStructureHelper.createNode("value", prefix + i))
+                    .create());
+        }
+        return root.create();
+    }
+
+    /**
+     * Combines two wide node structures with overlapping children and checks
+     * the order of the children in the result. Returns the resulting node.
+     *
+     * @return the combined node
+     */
+    protected ImmutableNode checkCombineWideNodes()
+    {
+        final ImmutableNode result = combiner.combine(
+                createWideNode(0, 1000, "a"), createWideNode(500, 1500, "b"));
+        assertEquals("Wrong number of children", 1500,
+                result.getChildren().size());
+        for (int i = 0; i < 1500; i++)
+        {
+            assertEquals("Wrong child", "key" + i,
+                    result.getChildren().get(i).getNodeName());
+        }
+        return result;
+    }
+
     /**
      * Tests a newly created combiner.
      */
@@ -95,4 +141,54 @@ public abstract class AbstractCombinerTest
         assertFalse("Node is list node", combiner
                 .isListNode(NodeStructureHelper.createNode("test", null)));
     }
+
+    /**
+     * Tests that an empty first node is replaced by the second node.
+     */
+    @Test
+    public void testCombineEmptyFirstNode()
+    {
+        final ImmutableNode node2 = createWideNode(0, 10, "b");
+        assertSame("Second node not used", node2,
+                combiner.combine(new ImmutableNode.Builder().create(), node2));
+    }
+
+    /**
+     * Tests that the first node is reused if the second node does not
+     * contribute anything to the combination.
+     */
+    @Test
+    public void testCombineSharesUnchangedNode()
+    {
+        final ImmutableNode value = NodeStructureHelper.createNode("value", "a");
+        final ImmutableNode node1 = new ImmutableNode.Builder()
+                .addChild(new ImmutableNode.Builder().name("key")
+                        .addAttribute("attr", "x").addChild(value).create())
+                .create();
+        final ImmutableNode node2 = new ImmutableNode.Builder()
+                .addChild(new ImmutableNode.Builder().name("key")
+                        .addAttribute("attr", "x").create())
+                .create();
+        assertSame("First node not reused", node1,
+                combiner.combine(node1, node2));
+    }
+
+    /**
+     * Tests that subtrees which exist only in one node structure are shared
+     * with the combined structure.
+     */
+    @Test
+    public void testCombineSharesSubtrees()
+    {
+        final ImmutableNode node1 = createWideNode(0, 10, "a");
+        final ImmutableNode node2 = createWideNode(10, 20, "b");
+        final ImmutableNode result = combiner.combine(node1, node2);
+        for (int i = 0; i < 10; i++)
+        {
+            assertSame("Child of node 1 not shared", node1.getChildren().get(i),
+                    result.getChildren().get(i));
+            assertSame("Child of node 2 not shared", node2.getChildren().get(i),
+                    result.getChildren().get(i + 10));
+        }
+    }
 }
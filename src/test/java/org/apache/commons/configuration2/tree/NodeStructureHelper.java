@@ -348,16 +348,32 @@ public class NodeStructureHelper
     }
 
     /**
-     * Creates a mock for a resolver.
+     * Creates a mock for a resolver. As the keys used by tests are interpreted
+     * on a default expression engine, the mock reports path-local keys.
      *
      * @return the resolver mock
      */
     public static NodeKeyResolver<ImmutableNode> createResolverMock()
+    {
+        return createResolverMock(true);
+    }
+
+    /**
+     * Creates a mock for a resolver which reports the given value for the
+     * path-local flag. Resolvers which are not path-local cause a full update
+     * of tracked nodes.
+     *
+     * @param pathLocal the value of the path-local flag
+     * @return the resolver mock
+     */
+    public static NodeKeyResolver<ImmutableNode> createResolverMock(
+            final boolean pathLocal)
     {
         @SuppressWarnings("unchecked")
         final
         NodeKeyResolver<ImmutableNode> mock =
                 EasyMock.createMock(NodeKeyResolver.class);
+        EasyMock.expect(mock.isPathLocal()).andStubReturn(pathLocal);
         return mock;
     }
 
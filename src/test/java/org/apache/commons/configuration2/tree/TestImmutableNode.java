@@ -17,6 +17,7 @@
 package org.apache.commons.configuration2.tree;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -678,4 +679,76 @@ public class TestImmutableNode
         checkUpdatedNode(node, node2);
         checkChildNodes(node2);
     }
+
+    /**
+     * Tests the compact map for a small number of attributes.
+     */
+    @Test
+    public void testSmallAttributeMap()
+    {
+        final Map<String, Object> attrs = new HashMap<>();
+        attrs.put(ATTR, ATTR_VALUE);
+        attrs.put("nullAttr", null);
+        attrs.put("intAttr", VALUE);
+        final ImmutableNode node = setUpBuilder().addAttributes(attrs).create();
+        checkAttributes(node, attrs);
+        assertEquals("Wrong map", attrs, node.getAttributes());
+        assertEquals("Wrong hash code", attrs.hashCode(),
+                node.getAttributes().hashCode());
+        assertTrue("Null value not found",
+                node.getAttributes().containsKey("nullAttr"));
+        assertFalse("Unknown attribute found",
+                node.getAttributes().containsKey("unknown"));
+        assertEquals("Wrong key set", attrs.keySet(),
+                node.getAttributes().keySet());
+
+        final ImmutableNode node2 = node.removeAttribute(ATTR);
+        attrs.remove(ATTR);
+        assertEquals("Wrong map after remove", attrs, node2.getAttributes());
+    }
+
+    /**
+     * Tests that a compact attribute map cannot be modified via its entry
+     * set.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSmallAttributeMapEntrySetImmutable()
+    {
+        final ImmutableNode node =
+                setUpBuilder().addAttribute(ATTR, ATTR_VALUE)
+                        .addAttribute("other", VALUE).create();
+        final Iterator<Map.Entry<String, Object>> it =
+                node.getAttributes().entrySet().iterator();
+        it.next();
+        it.remove();
+    }
+
+    /**
+     * Tests that a large number of attributes is handled correctly.
+     */
+    @Test
+    public void testLargeAttributeMap()
+    {
+        final Map<String, Object> attrs = new HashMap<>();
+        for (int i = 0; i < 20; i++)
+        {
+            attrs.put(ATTR + i, i);
+        }
+        final ImmutableNode node = setUpBuilder().addAttributes(attrs).create();
+        assertEquals("Wrong map", attrs, node.getAttributes());
+    }
+
+    /**
+     * Tests that the compact list of children cannot be modified via its
+     * iterator.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testChildrenIteratorImmutable()
+    {
+        final ImmutableNode node = createDefaultNode(VALUE).addChild(
+                createChild());
+        final Iterator<ImmutableNode> it = node.getChildren().iterator();
+        it.next();
+        it.remove();
+    }
 }
@@ -626,6 +626,30 @@ public class TestInMemoryNodeModel
                 model.getTreeData().copyReplacementMapping();
         assertTrue("Replacement mapping too big: " + replacementMapping.size(),
                 replacementMapping.size() < numberOfOperations);
+        checkParentMapping(model);
+    }
+
+    /**
+     * Checks whether the parents of all nodes in the given model can be
+     * determined correctly.
+     *
+     * @param model the model to be checked
+     */
+    private static void checkParentMapping(final InMemoryNodeModel model)
+    {
+        final NodeHandler<ImmutableNode> handler = model.getNodeHandler();
+        final List<ImmutableNode> pending = new ArrayList<>();
+        pending.add(model.getRootNode());
+        while (!pending.isEmpty())
+        {
+            final ImmutableNode node = pending.remove(pending.size() - 1);
+            for (final ImmutableNode child : node)
+            {
+                assertSame("Wrong parent for " + child, node,
+                        handler.getParent(child));
+                pending.add(child);
+            }
+        }
     }
 
     /**
@@ -1066,4 +1090,94 @@ public class TestInMemoryNodeModel
                 NodeStructureHelper.ROOT_AUTHORS_TREE,
                 model.getInMemoryRepresentation());
     }
+
+    /**
+     * Creates a resolver mock which supports queries and add operations based
+     * on the default expression engine.
+     *
+     * @return the resolver mock
+     */
+    private static NodeKeyResolver<ImmutableNode> createBatchResolver()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver =
+                NodeStructureHelper.createResolverMock();
+        NodeStructureHelper.expectResolveKeyForQueries(resolver);
+        NodeStructureHelper.expectResolveAddKeys(resolver);
+        EasyMock.replay(resolver);
+        return resolver;
+    }
+
+    /**
+     * Tests whether a batch of updates can be executed and that intermediate
+     * states are not visible.
+     */
+    @Test
+    public void testExecuteBatch()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver = createBatchResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        model.executeBatch(m -> {
+            m.addProperty("Homer.work", Collections.singleton("Odyssee"),
+                    resolver);
+            assertSame("Intermediate state visible", ROOT_AUTHORS_TREE,
+                    model.getRootNode());
+            m.addProperty("Homer.work.year", Collections.singleton("-700"),
+                    resolver);
+            m.clearTree("Shakespeare", resolver);
+        }, resolver);
+
+        assertEquals("Wrong work", "Odyssee",
+                nodeForKey(model, "Homer/work").getValue());
+        assertEquals("Wrong year", "-700",
+                nodeForKey(model, "Homer/work/year").getValue());
+        assertTrue("Author not removed",
+                model.getNodeHandler().getChildren(model.getRootNode(),
+                        "Shakespeare").isEmpty());
+        assertSame("Wrong parent", nodeForKey(model, "Homer"),
+                model.getNodeHandler().getParent(
+                        nodeForKey(model, "Homer/work")));
+    }
+
+    /**
+     * Tests that a batch is executed again if the model is changed
+     * concurrently.
+     */
+    @Test
+    public void testExecuteBatchConcurrentUpdate()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver = createBatchResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final List<InMemoryNodeModel> batchModels = new ArrayList<>();
+        model.executeBatch(m -> {
+            if (batchModels.isEmpty())
+            {
+                model.addProperty("Homer.concurrent",
+                        Collections.singleton("true"), resolver);
+            }
+            batchModels.add(m);
+            m.addProperty("Homer.batch", Collections.singleton("true"),
+                    resolver);
+        }, resolver);
+
+        assertEquals("Wrong number of executions", 2, batchModels.size());
+        assertNotNull("Concurrent update lost",
+                nodeForKey(model, "Homer/concurrent"));
+        assertNotNull("Batch update lost", nodeForKey(model, "Homer/batch"));
+    }
+
+    /**
+     * Tests that tracked nodes are updated after a batch.
+     */
+    @Test
+    public void testExecuteBatchTrackedNodes()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver = createBatchResolver();
+        final InMemoryNodeModel model = new InMemoryNodeModel(ROOT_AUTHORS_TREE);
+        final NodeSelector selector = new NodeSelector("Homer");
+        model.trackNode(selector, resolver);
+        model.executeBatch(m -> m.addProperty("Homer.work",
+                Collections.singleton("Odyssee"), resolver), resolver);
+        assertSame("Tracked node not updated", nodeForKey(model, "Homer"),
+                model.getTrackedNode(selector));
+    }
 }
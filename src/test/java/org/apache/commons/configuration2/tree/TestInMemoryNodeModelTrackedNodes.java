@@ -82,13 +82,27 @@ public class TestInMemoryNodeModelTrackedNodes
         model = new InMemoryNodeModel(root);
     }
 
+    /**
+     * Returns the value of the path-local flag reported by the resolvers used
+     * by the tests. If the flag is <b>true</b>, tracked nodes are updated
+     * incrementally; otherwise, all tracked nodes are evaluated anew after an
+     * update. Derived classes can override this method to test the other
+     * variant.
+     *
+     * @return the path-local flag of the test resolvers
+     */
+    protected boolean isPathLocal()
+    {
+        return true;
+    }
+
     /**
      * Creates a default resolver which supports arbitrary queries on a target
      * node.
      *
      * @return the resolver
      */
-    private static NodeKeyResolver<ImmutableNode> createResolver()
+    private NodeKeyResolver<ImmutableNode> createResolver()
     {
         return createResolver(true);
     }
@@ -101,10 +115,10 @@ public class TestInMemoryNodeModelTrackedNodes
      * @param replay the replay flag
      * @return the resolver mock
      */
-    private static NodeKeyResolver<ImmutableNode> createResolver(final boolean replay)
+    private NodeKeyResolver<ImmutableNode> createResolver(final boolean replay)
     {
         final NodeKeyResolver<ImmutableNode> resolver =
-                NodeStructureHelper.createResolverMock();
+                NodeStructureHelper.createResolverMock(isPathLocal());
         NodeStructureHelper.expectResolveKeyForQueries(resolver);
         if (replay)
         {
@@ -994,4 +1008,90 @@ public class TestInMemoryNodeModelTrackedNodes
                         NodeStructureHelper.nodeForKey(root, "tables/table(1)"));
         checkTrackChildNodeWithCreationInvalidKey(nodes);
     }
+
+    /**
+     * Tests whether the number of tracked nodes can be queried.
+     */
+    @Test
+    public void testTrackedNodeCounts()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        final NodeSelector selector2 = new NodeSelector("tables.table(0)");
+        model.trackNode(selector, resolver);
+        model.trackNode(selector, resolver);
+        model.trackNode(selector2, resolver);
+        assertEquals("Wrong number of tracked nodes", 2,
+                model.getTrackedNodeCount());
+        assertEquals("Wrong number of detached nodes", 0,
+                model.getDetachedTrackedNodeCount());
+
+        model.clearTree("tables.table(1)", resolver);
+        assertEquals("Wrong number of detached nodes after clear", 1,
+                model.getDetachedTrackedNodeCount());
+        model.untrackNode(selector2);
+        assertEquals("Wrong number of tracked nodes after untrack", 1,
+                model.getTrackedNodeCount());
+    }
+
+    /**
+     * Tests that selectors of tracked nodes are not evaluated again if an
+     * update does not touch the path to the tracked nodes. If the resolver is
+     * not path-local, all selectors are evaluated again, but the results for
+     * unaffected nodes are the same.
+     */
+    @Test
+    public void testUpdateTrackedNodesNotAffected()
+    {
+        final NodeSelector selector2 = new NodeSelector("tables.table(0)");
+        model.trackNode(selector, createResolver());
+        model.trackNode(selector2, createResolver());
+        final ImmutableNode table0 = model.getTrackedNode(selector2);
+        final List<String> keys = new ArrayList<>();
+        final NodeKeyResolver<ImmutableNode> resolver =
+                NodeStructureHelper.createResolverMock(isPathLocal());
+        EasyMock.expect(
+                resolver.resolveKey(EasyMock.anyObject(ImmutableNode.class),
+                        EasyMock.anyString(),
+                        EasyMock.anyObject(TreeData.class)))
+                .andAnswer(() -> {
+                    final ImmutableNode rootNode =
+                            (ImmutableNode) EasyMock.getCurrentArguments()[0];
+                    final String key = (String) EasyMock.getCurrentArguments()[1];
+                    keys.add(key);
+                    return DefaultExpressionEngine.INSTANCE.query(rootNode,
+                            key, (TreeData) EasyMock.getCurrentArguments()[2]);
+                }).anyTimes();
+        EasyMock.replay(resolver);
+
+        model.clearProperty("tables.table(1).fields.field(1).name", resolver);
+        assertEquals("Wrong update key", "tables.table(1).fields.field(1).name",
+                keys.get(0));
+        final Set<String> selectorKeys =
+                new HashSet<>(keys.subList(1, keys.size()));
+        assertEquals("Wrong evaluated selector keys", isPathLocal()
+                ? Collections.emptySet()
+                : new HashSet<>(Arrays.asList(SELECTOR_KEY, "tables.table(0)")),
+                selectorKeys);
+        assertSame("Unrelated tracked node changed", table0,
+                model.getTrackedNode(selector2));
+        final ImmutableNode table1 = model.getTrackedNode(selector);
+        assertSame("Tracked node not updated", table1,
+                NodeStructureHelper.nodeForKey(model, "tables/table(1)"));
+        assertEquals("Field not removed",
+                NodeStructureHelper.fieldsLength(1) - 1,
+                table1.getChildren().get(1).getChildren().size());
+    }
+
+    /**
+     * Tests that a tracked node is evaluated again if the children of one of
+     * its ancestors are changed. This can cause a shift of indices.
+     */
+    @Test
+    public void testUpdateTrackedNodeSiblingRemoved()
+    {
+        final NodeKeyResolver<ImmutableNode> resolver = createResolver();
+        model.trackNode(selector, resolver);
+        model.clearTree("tables.table(0)", resolver);
+        assertTrue("Not detached", model.isTrackedNodeDetached(selector));
+    }
 }
@@ -19,8 +19,10 @@ package org.apache.commons.configuration2.tree;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.HierarchicalConfiguration;
@@ -186,4 +188,56 @@ public class TestMergeCombiner extends AbstractCombinerTest
         assertFalse("Not a node result", nds.get(0).isAttributeResult());
         return nds.get(0).getNode();
    }
+
+    /**
+     * Tests the combination of nodes with many children.
+     */
+    @Test
+    public void testCombineWideNodes()
+    {
+        final ImmutableNode result = checkCombineWideNodes();
+        final ImmutableNode node = result.getChildren().get(700);
+        assertEquals("Wrong number of values", 1, node.getChildren().size());
+        assertEquals("Wrong value", "a700",
+                node.getChildren().get(0).getValue());
+        assertEquals("Wrong value of unique node", "b1200",
+                result.getChildren().get(1200).getChildren().get(0).getValue());
+    }
+
+    /**
+     * Tests that an overridden node-based canCombine() method is still called
+     * by combine() and that nodes it removes from the list of remaining
+     * children are not added to the result.
+     */
+    @Test
+    public void testCombineCallsOverriddenCanCombine()
+    {
+        final AtomicInteger count = new AtomicInteger();
+        combiner = new MergeCombiner()
+        {
+            @Override
+            protected ImmutableNode canCombine(final ImmutableNode node2,
+                    final ImmutableNode child,
+                    final List<ImmutableNode> children2)
+            {
+                count.incrementAndGet();
+                if ("key1200".equals(child.getNodeName()))
+                {
+                    children2.removeIf(
+                            c -> "key1300".equals(c.getNodeName()));
+                }
+                return super.canCombine(node2, child, children2);
+            }
+        };
+        final ImmutableNode result = combiner.combine(
+                createWideNode(0, 1000, "a"), createWideNode(500, 1500, "b"));
+        assertTrue("Hook not called", count.get() >= 1000);
+        assertEquals("Wrong number of children", 1500,
+                result.getChildren().size());
+
+        final ImmutableNode node1 = createWideNode(1200, 1201, "a");
+        final ImmutableNode node2 = createWideNode(1300, 1301, "b");
+        assertEquals("Removed node not excluded", 1,
+                combiner.combine(node1, node2).getChildren().size());
+    }
 }
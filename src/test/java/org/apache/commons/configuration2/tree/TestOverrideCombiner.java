@@ -18,9 +18,11 @@ package org.apache.commons.configuration2.tree;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.CombinedConfiguration;
@@ -210,4 +212,63 @@ public class TestOverrideCombiner extends AbstractCombinerTest
         assertTrue("Wrong value for x.y.comparison", config.getBoolean("x.y.comparison"));
         assertEquals("Wrong size", 6, config.size());
     }
+
+    /**
+     * Tests the combination of nodes with many children.
+     */
+    @Test
+    public void testCombineWideNodes()
+    {
+        final ImmutableNode result = checkCombineWideNodes();
+        final ImmutableNode node = result.getChildren().get(700);
+        assertEquals("Wrong number of values", 1, node.getChildren().size());
+        assertEquals("Wrong value", "a700",
+                node.getChildren().get(0).getValue());
+        assertEquals("Wrong value of unique node", "b1200",
+                result.getChildren().get(1200).getChildren().get(0).getValue());
+    }
+
+    /**
+     * Tests that combining a node with itself returns this node.
+     */
+    @Test
+    public void testCombineIdenticalNodes()
+    {
+        final ImmutableNode node = createWideNode(0, 100, "a");
+        assertSame("Wrong result", node, combiner.combine(node, node));
+    }
+
+    /**
+     * Tests that nodes of the first structure are reused if they override all
+     * nodes of the second structure.
+     */
+    @Test
+    public void testCombineOverridingNodesShared()
+    {
+        final ImmutableNode node1 = createWideNode(0, 100, "a");
+        assertSame("Wrong result", node1,
+                combiner.combine(node1, createWideNode(0, 100, "b")));
+    }
+
+    /**
+     * Tests that an overridden node-based canCombine() method is still called
+     * by combine().
+     */
+    @Test
+    public void testCombineCallsOverriddenCanCombine()
+    {
+        final AtomicInteger count = new AtomicInteger();
+        combiner = new OverrideCombiner()
+        {
+            @Override
+            protected ImmutableNode canCombine(final ImmutableNode node1,
+                    final ImmutableNode node2, final ImmutableNode child)
+            {
+                count.incrementAndGet();
+                return super.canCombine(node1, node2, child);
+            }
+        };
+        checkCombineWideNodes();
+        assertTrue("Hook not called", count.get() >= 1000);
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@code ParentMapping}.
+ *
+ */
+public class TestParentMapping
+{
+    /** Constant for the number of nodes used by bulk tests. */
+    private static final int NODE_COUNT = 100000;
+
+    /**
+     * Creates a list with the given number of test nodes.
+     *
+     * @param count the number of nodes
+     * @return the list with the nodes
+     */
+    private static List<ImmutableNode> createNodes(final int count)
+    {
+        final List<ImmutableNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            nodes.add(new ImmutableNode.Builder().name("node" + i).create());
+        }
+        return nodes;
+    }
+
+    /**
+     * Creates a mapping in which each node has its predecessor in the list as
+     * parent.
+     *
+     * @param nodes the list with nodes
+     * @return the mapping
+     */
+    private static ParentMapping createMapping(final List<ImmutableNode> nodes)
+    {
+        final ParentMapping.Builder builder = ParentMapping.empty().builder();
+        for (int i = 1; i < nodes.size(); i++)
+        {
+            builder.put(nodes.get(i), nodes.get(i - 1));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Tests the properties of an empty mapping.
+     */
+    @Test
+    public void testEmpty()
+    {
+        final ParentMapping mapping = ParentMapping.empty();
+        assertEquals("Wrong size", 0, mapping.size());
+        assertNull("Got a parent",
+                mapping.get(new ImmutableNode.Builder().create()));
+    }
+
+    /**
+     * Tests whether a large number of entries can be added and queried.
+     */
+    @Test
+    public void testPutAndGet()
+    {
+        final List<ImmutableNode> nodes = createNodes(NODE_COUNT);
+        final ParentMapping mapping = createMapping(nodes);
+        assertEquals("Wrong size", NODE_COUNT - 1, mapping.size());
+        assertNull("Got parent of first node", mapping.get(nodes.get(0)));
+        for (int i = 1; i < NODE_COUNT; i++)
+        {
+            assertSame("Wrong parent at " + i, nodes.get(i - 1),
+                    mapping.get(nodes.get(i)));
+        }
+    }
+
+    /**
+     * Tests that the entries of a mapping are not affected by updates
+     * performed via a builder.
+     */
+    @Test
+    public void testBuilderDoesNotChangeOriginal()
+    {
+        final List<ImmutableNode> nodes = createNodes(NODE_COUNT);
+        final ParentMapping mapping = createMapping(nodes);
+        final ImmutableNode newParent = new ImmutableNode.Builder().create();
+        final ParentMapping.Builder builder = mapping.builder();
+        for (int i = 1; i < NODE_COUNT; i++)
+        {
+            if (i % 2 == 1)
+            {
+                builder.remove(nodes.get(i));
+            }
+            else
+            {
+                builder.put(nodes.get(i), newParent);
+            }
+        }
+        final ParentMapping updated = builder.build();
+
+        assertEquals("Wrong size of original", NODE_COUNT - 1, mapping.size());
+        assertEquals("Wrong size of update", NODE_COUNT / 2 - 1,
+                updated.size());
+        for (int i = 1; i < NODE_COUNT; i++)
+        {
+            assertSame("Original changed at " + i, nodes.get(i - 1),
+                    mapping.get(nodes.get(i)));
+            if (i % 2 == 1)
+            {
+                assertNull("Not removed at " + i, updated.get(nodes.get(i)));
+            }
+            else
+            {
+                assertSame("Not updated at " + i, newParent,
+                        updated.get(nodes.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Tests that a mapping returned by a builder is not affected by further
+     * changes on the builder.
+     */
+    @Test
+    public void testBuilderReuse()
+    {
+        final List<ImmutableNode> nodes = createNodes(3);
+        final ParentMapping.Builder builder = ParentMapping.empty().builder();
+        builder.put(nodes.get(1), nodes.get(0));
+        final ParentMapping mapping1 = builder.build();
+        builder.put(nodes.get(1), nodes.get(2)).put(nodes.get(2), nodes.get(0));
+        final ParentMapping mapping2 = builder.build();
+
+        assertEquals("Wrong size 1", 1, mapping1.size());
+        assertSame("Wrong parent 1", nodes.get(0), mapping1.get(nodes.get(1)));
+        assertNull("Entry added to mapping 1", mapping1.get(nodes.get(2)));
+        assertEquals("Wrong size 2", 2, mapping2.size());
+        assertSame("Wrong parent 2", nodes.get(2), mapping2.get(nodes.get(1)));
+    }
+
+    /**
+     * Tests that removing all entries yields an empty mapping.
+     */
+    @Test
+    public void testRemoveAll()
+    {
+        final List<ImmutableNode> nodes = createNodes(NODE_COUNT);
+        final ParentMapping.Builder builder = createMapping(nodes).builder();
+        for (final ImmutableNode node : nodes)
+        {
+            builder.remove(node);
+        }
+        assertEquals("Wrong builder size", 0, builder.size());
+        assertSame("Not empty", ParentMapping.empty(), builder.build());
+    }
+
+    /**
+     * Tests that removing an unknown node has no effect.
+     */
+    @Test
+    public void testRemoveUnknown()
+    {
+        final List<ImmutableNode> nodes = createNodes(10);
+        final ParentMapping mapping = createMapping(nodes);
+        final ParentMapping.Builder builder = mapping.builder();
+        builder.remove(new ImmutableNode.Builder().create());
+        assertEquals("Wrong size", mapping.size(), builder.build().size());
+    }
+}
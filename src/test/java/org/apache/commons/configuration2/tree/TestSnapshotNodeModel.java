@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+/**
+ * Test class for {@code SnapshotNodeModel}.
+ *
+ */
+public class TestSnapshotNodeModel
+{
+    /**
+     * Creates a mock for a resolver.
+     *
+     * @return the resolver mock
+     */
+    private static NodeKeyResolver<ImmutableNode> createResolver()
+    {
+        @SuppressWarnings("unchecked")
+        final NodeKeyResolver<ImmutableNode> resolver =
+                EasyMock.createMock(NodeKeyResolver.class);
+        EasyMock.replay(resolver);
+        return resolver;
+    }
+
+    /**
+     * Tests whether a null root node is replaced by an empty node.
+     */
+    @Test
+    public void testInitNullRoot()
+    {
+        final SnapshotNodeModel model = new SnapshotNodeModel(null);
+        final ImmutableNode root = model.getNodeHandler().getRootNode();
+        assertNull("Got a name", root.getNodeName());
+        assertTrue("Got children", root.getChildren().isEmpty());
+        assertSame("Wrong in-memory representation", root,
+                model.getInMemoryRepresentation());
+    }
+
+    /**
+     * Tests whether the parents of nodes can be determined.
+     */
+    @Test
+    public void testGetParent()
+    {
+        final SnapshotNodeModel model =
+                new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        final NodeHandler<ImmutableNode> handler = model.getNodeHandler();
+        final ImmutableNode author =
+                NodeStructureHelper.nodeForKey(handler, "Homer");
+        final ImmutableNode work =
+                NodeStructureHelper.nodeForKey(handler, "Homer/Ilias");
+        assertNull("Root has a parent",
+                handler.getParent(NodeStructureHelper.ROOT_AUTHORS_TREE));
+        assertSame("Wrong parent of author",
+                NodeStructureHelper.ROOT_AUTHORS_TREE, handler.getParent(author));
+        assertSame("Wrong parent of work", author, handler.getParent(work));
+    }
+
+    /**
+     * Tries to query the parent of a node not contained in the model.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetParentUnknownNode()
+    {
+        final SnapshotNodeModel model =
+                new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        model.getNodeHandler().getParent(
+                new ImmutableNode.Builder().name("unknown").create());
+    }
+
+    /**
+     * Tests whether the nodes of the model can be queried.
+     */
+    @Test
+    public void testQuery()
+    {
+        final SnapshotNodeModel model =
+                new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE);
+        assertEquals("Wrong number of authors",
+                NodeStructureHelper.authorsLength(),
+                model.getNodeHandler().getChildrenCount(
+                        model.getNodeHandler().getRootNode(), null));
+    }
+
+    /**
+     * Tests that a property cannot be added.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddProperty()
+    {
+        new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE)
+                .addProperty("test", Collections.singleton("value"),
+                        createResolver());
+    }
+
+    /**
+     * Tests that the root node cannot be replaced.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetRootNode()
+    {
+        new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE)
+                .setRootNode(NodeStructureHelper.ROOT_PERSONAE_TREE);
+    }
+
+    /**
+     * Tests that the model cannot be cleared.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testClear()
+    {
+        new SnapshotNodeModel(NodeStructureHelper.ROOT_AUTHORS_TREE)
+                .clear(createResolver());
+    }
+}
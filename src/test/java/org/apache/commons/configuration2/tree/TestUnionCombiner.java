@@ -18,6 +18,9 @@ package org.apache.commons.configuration2.tree;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.configuration2.BaseHierarchicalConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
@@ -130,4 +133,44 @@ public class TestUnionCombiner extends AbstractCombinerTest
         assertEquals("Wrong id of second table", 2, config
                 .getInt("database.tables.table(1)[@id]"));
     }
+
+    /**
+     * Tests the combination of nodes with many children. Nodes without
+     * values are combined, while leaf nodes from both structures are kept.
+     */
+    @Test
+    public void testCombineWideNodes()
+    {
+        final ImmutableNode result = checkCombineWideNodes();
+        final ImmutableNode node = result.getChildren().get(700);
+        assertEquals("Wrong number of values", 2, node.getChildren().size());
+        assertEquals("Wrong value 1", "a700",
+                node.getChildren().get(0).getValue());
+        assertEquals("Wrong value 2", "b700",
+                node.getChildren().get(1).getValue());
+        assertEquals("Wrong value of unique node", "b1200",
+                result.getChildren().get(1200).getChildren().get(0).getValue());
+    }
+
+    /**
+     * Tests that an overridden node-based findCombineNode() method is still
+     * called by combine().
+     */
+    @Test
+    public void testCombineCallsOverriddenFindCombineNode()
+    {
+        final AtomicInteger count = new AtomicInteger();
+        combiner = new UnionCombiner()
+        {
+            @Override
+            protected ImmutableNode findCombineNode(final ImmutableNode node1,
+                    final ImmutableNode node2, final ImmutableNode child)
+            {
+                count.incrementAndGet();
+                return super.findCombineNode(node1, node2, child);
+            }
+        };
+        checkCombineWideNodes();
+        assertTrue("Hook not called", count.get() >= 1000);
+    }
 }
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.configuration2.tree.xpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.apache.commons.configuration2.tree.ImmutableNode;
+import org.apache.commons.configuration2.tree.InMemoryNodeModel;
+import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test class for {@code SimplePathEvaluator}.
+ *
+ */
+public class TestSimplePathEvaluator
+{
+    /** The root node of the test structure. */
+    private static ImmutableNode root;
+
+    /** The handler for the test structure. */
+    private static NodeHandler<ImmutableNode> handler;
+
+    /** The evaluator to be tested. */
+    private SimplePathEvaluator evaluator;
+
+    @BeforeClass
+    public static void setUpBeforeClass()
+    {
+        final ImmutableNode.Builder tables = new ImmutableNode.Builder()
+                .name("tables");
+        for (int i = 0; i < 3; i++)
+        {
+            final ImmutableNode.Builder table = new ImmutableNode.Builder()
+                    .name("table").addAttribute("type", i == 1 ? "user" : "system")
+                    .addAttribute("id", "t" + i);
+            table.addChild(new ImmutableNode.Builder().name("name")
+                    .value("table" + i).create());
+            final ImmutableNode.Builder fields = new ImmutableNode.Builder()
+                    .name("fields");
+            for (int j = 0; j <= i; j++)
+            {
+                fields.addChild(new ImmutableNode.Builder().name("field")
+                        .value("field" + i + j).addAttribute("pos", "" + j)
+                        .create());
+            }
+            table.addChild(fields.create());
+            tables.addChild(table.create());
+        }
+        tables.addChild(new ImmutableNode.Builder().name("table")
+                .addAttribute("number", 42).create());
+        root = new ImmutableNode.Builder().name("config")
+                .addChild(tables.create())
+                .addChild(new ImmutableNode.Builder().name("key-with.special_chars")
+                        .value("special").create())
+                .addAttribute("version", "1").create();
+        handler = new InMemoryNodeModel(root).getNodeHandler();
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        evaluator = new SimplePathEvaluator();
+    }
+
+    /**
+     * Evaluates the given key with the test evaluator and with JXPath and
+     * checks whether both produce the same results.
+     *
+     * @param key the key
+     * @param expectedCount the expected number of results
+     */
+    private void checkSameAsJXPath(final String key, final int expectedCount)
+    {
+        final List<QueryResult<ImmutableNode>> results =
+                evaluator.evaluate(root, key, handler);
+        assertNotNull("Key not supported: " + key, results);
+        final List<QueryResult<ImmutableNode>> expected =
+                new XPathExpressionEngine(new XPathContextFactory()).query(
+                        root, key, handler);
+        assertEquals("Wrong number of results for " + key, expectedCount,
+                expected.size());
+        assertEquals("Different results for " + key, expected, results);
+    }
+
+    /**
+     * Tests keys consisting of simple child steps.
+     */
+    @Test
+    public void testChildSteps()
+    {
+        checkSameAsJXPath("tables", 1);
+        checkSameAsJXPath("tables/table", 4);
+        checkSameAsJXPath("tables/table/fields/field", 6);
+        checkSameAsJXPath("tables/unknown", 0);
+        checkSameAsJXPath("key-with.special_chars", 1);
+    }
+
+    /**
+     * Tests keys with positional predicates.
+     */
+    @Test
+    public void testIndexPredicates()
+    {
+        checkSameAsJXPath("tables/table[2]", 1);
+        checkSameAsJXPath("tables/table[2]/fields/field[2]", 1);
+        checkSameAsJXPath("tables/table/fields/field[2]", 2);
+        checkSameAsJXPath("tables/table[10]", 0);
+    }
+
+    /**
+     * Tests keys with attribute predicates.
+     */
+    @Test
+    public void testAttributePredicates()
+    {
+        checkSameAsJXPath("tables/table[@type='system']", 2);
+        checkSameAsJXPath("tables/table[@type=\"user\"]/name", 1);
+        checkSameAsJXPath("tables/table[@type='system'][2]/fields/field", 3);
+        checkSameAsJXPath("tables/table[@id='t2']/fields/field[@pos='1']", 1);
+        checkSameAsJXPath("tables/table[@type='other']", 0);
+    }
+
+    /**
+     * Tests keys selecting attributes.
+     */
+    @Test
+    public void testAttributeSteps()
+    {
+        checkSameAsJXPath("@version", 1);
+        checkSameAsJXPath("tables/table/@type", 3);
+        checkSameAsJXPath("tables/table[3]/fields/field/@pos", 3);
+        checkSameAsJXPath("tables/@unknown", 0);
+    }
+
+    /**
+     * Tests that keys using other XPath features are not handled.
+     */
+    @Test
+    public void testUnsupportedKeys()
+    {
+        final String[] keys = {
+                "/tables", "tables//field", "tables/*", "tables/table[last()]",
+                "tables/table[@type!='x']", "tables/table[name='table1']",
+                "tables/table/name/text()", "tables/table[0]", "tables/@*",
+                "tables/table/@type/x", "ns:tables", "tables | x", "tables/",
+                "tables/table[@type='x'", ".", "tables/../tables", "and",
+                "tables/ table", "1tables"
+        };
+        for (final String key : keys)
+        {
+            assertNull("Key supported: " + key,
+                    evaluator.evaluate(root, key, handler));
+        }
+    }
+
+    /**
+     * Tests that a key is not handled if an attribute to be compared does not
+     * have a string value.
+     */
+    @Test
+    public void testNonStringAttributeValue()
+    {
+        assertNull("Got results",
+                evaluator.evaluate(root, "tables/table[@number='42']", handler));
+    }
+
+    /**
+     * Tests that parsed keys are cached and that the cache size is limited.
+     */
+    @Test
+    public void testCache()
+    {
+        evaluator = new SimplePathEvaluator(2);
+        evaluator.evaluate(root, "tables", handler);
+        evaluator.evaluate(root, "tables", handler);
+        assertEquals("Wrong cache size", 1, evaluator.getCachedPathCount());
+        evaluator.evaluate(root, "tables/table", handler);
+        evaluator.evaluate(root, "/tables", handler);
+        assertEquals("Wrong cache size after clear", 1,
+                evaluator.getCachedPathCount());
+    }
+
+    /**
+     * Tests whether a default engine uses the evaluator for simple keys and
+     * falls back to JXPath for other keys.
+     */
+    @Test
+    public void testEngineIntegration()
+    {
+        final XPathExpressionEngine engine = new XPathExpressionEngine();
+        final List<QueryResult<ImmutableNode>> results =
+                engine.query(root, "tables/table[@type='user']", handler);
+        assertEquals("Wrong number of results", 1, results.size());
+        assertSame("Wrong node", root.getChildren().get(0).getChildren().get(1),
+                results.get(0).getNode());
+        assertEquals("Wrong fallback result", 1, engine.query(root,
+                "tables/table[@number=42]", handler).size());
+        assertEquals("Wrong descendant result", 6,
+                engine.query(root, "//field", handler).size());
+    }
+}
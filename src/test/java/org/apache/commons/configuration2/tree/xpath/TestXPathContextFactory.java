@@ -16,12 +16,18 @@
  */
 package org.apache.commons.configuration2.tree.xpath;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.commons.configuration2.tree.ImmutableNode;
 import org.apache.commons.configuration2.tree.InMemoryNodeModel;
 import org.apache.commons.configuration2.tree.NodeHandler;
+import org.apache.commons.configuration2.tree.QueryResult;
 import org.apache.commons.jxpath.JXPathContext;
 import org.junit.Before;
 import org.junit.Test;
@@ -60,4 +66,118 @@ public class TestXPathContextFactory
         assertSame("Wrong node", node, wrapper.getNode());
         assertSame("Wrong handler", handler, wrapper.getNodeHandler());
     }
+
+    /**
+     * Tests that contexts are not shared between calls, even for the same
+     * node structure.
+     */
+    @Test
+    public void testCreateContextNotShared()
+    {
+        final ImmutableNode node =
+                new ImmutableNode.Builder().name("testRoot").create();
+        final NodeHandler<ImmutableNode> handler =
+                new InMemoryNodeModel(node).getNodeHandler();
+        final JXPathContext context = factory.createContext(node, handler);
+        assertNotSame("Context shared", context,
+                factory.createContext(node, handler));
+    }
+
+    /**
+     * Tests queries on the same node structure from multiple threads.
+     */
+    @Test
+    public void testConcurrentQueries() throws InterruptedException
+    {
+        final ImmutableNode.Builder builder = new ImmutableNode.Builder();
+        for (int i = 0; i < 50; i++)
+        {
+            builder.addChild(new ImmutableNode.Builder().name("key" + i)
+                    .value(String.valueOf(i)).create());
+        }
+        final ImmutableNode root = builder.create();
+        final NodeHandler<ImmutableNode> handler =
+                new InMemoryNodeModel(root).getNodeHandler();
+        final XPathExpressionEngine engine = new XPathExpressionEngine(factory);
+        final AtomicInteger errors = new AtomicInteger();
+        final Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(() -> {
+                for (int n = 0; n < 500; n++)
+                {
+                    final int idx = n % 50;
+                    try
+                    {
+                        final List<QueryResult<ImmutableNode>> results =
+                                engine.query(root, "key" + idx, handler);
+                        if (results.size() != 1 || !String.valueOf(idx)
+                                .equals(results.get(0).getNode().getValue()))
+                        {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    catch (final RuntimeException rex)
+                    {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals("Wrong query results", 0, errors.get());
+    }
+
+    /**
+     * Tests that compiled expressions are cached and that queries using
+     * cached expressions produce correct results.
+     */
+    @Test
+    public void testExpressionCache()
+    {
+        final ImmutableNode root = new ImmutableNode.Builder()
+                .addChild(new ImmutableNode.Builder().name("a").value("1")
+                        .create())
+                .addChild(new ImmutableNode.Builder().name("a").value("2")
+                        .create())
+                .create();
+        final NodeHandler<ImmutableNode> handler =
+                new InMemoryNodeModel(root).getNodeHandler();
+        final XPathExpressionEngine engine = new XPathExpressionEngine(factory);
+        for (int i = 0; i < 3; i++)
+        {
+            final List<QueryResult<ImmutableNode>> results =
+                    engine.query(root, "a[2]", handler);
+            assertEquals("Wrong number of results", 1, results.size());
+            assertEquals("Wrong result", "2", results.get(0).getNode().getValue());
+        }
+        assertEquals("Wrong number of results for list", 2,
+                engine.query(root, "a", handler).size());
+        assertEquals("Wrong number of cached expressions", 2,
+                factory.getCachedExpressionCount());
+    }
+
+    /**
+     * Tests that the size of the expression cache is limited.
+     */
+    @Test
+    public void testExpressionCacheLimited()
+    {
+        factory = new XPathContextFactory(4);
+        final ImmutableNode root = new ImmutableNode.Builder().create();
+        final NodeHandler<ImmutableNode> handler =
+                new InMemoryNodeModel(root).getNodeHandler();
+        final XPathExpressionEngine engine = new XPathExpressionEngine(factory);
+        for (int i = 0; i < 10; i++)
+        {
+            assertTrue("Got results",
+                    engine.query(root, "key" + i, handler).isEmpty());
+            assertTrue("Cache too big",
+                    factory.getCachedExpressionCount() <= 4);
+        }
+    }
 }